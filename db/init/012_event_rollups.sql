@@ -0,0 +1,25 @@
+CREATE TABLE IF NOT EXISTS event_minute_rollups (
+  table_name VARCHAR(128) NOT NULL,
+  bucket_start DATETIME NOT NULL,
+  row_count BIGINT NOT NULL DEFAULT 0,
+  retriable_count BIGINT NOT NULL DEFAULT 0,
+  latency_sum BIGINT NOT NULL DEFAULT 0,
+  latency_min BIGINT NOT NULL DEFAULT 0,
+  latency_max BIGINT NOT NULL DEFAULT 0,
+  received_latency_sum BIGINT NOT NULL DEFAULT 0,
+  received_latency_min BIGINT NOT NULL DEFAULT 0,
+  received_latency_max BIGINT NOT NULL DEFAULT 0,
+  sent_latency_sum BIGINT NOT NULL DEFAULT 0,
+  sent_latency_min BIGINT NOT NULL DEFAULT 0,
+  sent_latency_max BIGINT NOT NULL DEFAULT 0,
+  updated_at DATETIME NOT NULL,
+  PRIMARY KEY (table_name, bucket_start)
+);
+
+CREATE TABLE IF NOT EXISTS event_watermarks (
+  consumer VARCHAR(64) NOT NULL,
+  table_name VARCHAR(128) NOT NULL,
+  last_id BIGINT NOT NULL DEFAULT 0,
+  updated_at DATETIME NOT NULL,
+  PRIMARY KEY (consumer, table_name)
+);
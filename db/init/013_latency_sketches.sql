@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS event_latency_sketches (
+  table_name VARCHAR(128) NOT NULL,
+  column_name VARCHAR(64) NOT NULL,
+  bucket_start DATETIME NOT NULL,
+  value_count BIGINT NOT NULL,
+  max_value BIGINT NOT NULL,
+  sketch BLOB NOT NULL,
+  updated_at DATETIME NOT NULL,
+  PRIMARY KEY (table_name, column_name, bucket_start)
+);
@@ -0,0 +1,9 @@
+ALTER TABLE replay_jobs
+  ADD COLUMN processed_count INT NOT NULL DEFAULT 0,
+  ADD COLUMN checkpoint_event_datetime DATETIME NULL,
+  ADD COLUMN checkpoint_record_id BIGINT NULL,
+  ADD COLUMN last_error TEXT NULL,
+  ADD COLUMN updated_at DATETIME NULL;
+
+CREATE INDEX IF NOT EXISTS idx_replay_jobs_status_selection
+  ON replay_jobs (status, selection_type);
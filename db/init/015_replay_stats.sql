@@ -0,0 +1,42 @@
+CREATE TABLE IF NOT EXISTS replay_stats (
+  event_key VARCHAR(64) NOT NULL,
+  requested_by VARCHAR(128) NOT NULL DEFAULT '',
+  status VARCHAR(32) NOT NULL,
+  item_count BIGINT NOT NULL DEFAULT 0,
+  duration_sum_ms BIGINT NOT NULL DEFAULT 0,
+  latest_at DATETIME NULL,
+  updated_at DATETIME NOT NULL,
+  PRIMARY KEY (event_key, requested_by, status)
+);
+
+INSERT INTO replay_stats (
+  event_key,
+  requested_by,
+  status,
+  item_count,
+  duration_sum_ms,
+  latest_at,
+  updated_at
+)
+SELECT j.event_key,
+       COALESCE(j.requested_by, ''),
+       i.status,
+       COUNT(*),
+       COALESCE(
+         SUM(TIMESTAMPDIFF(
+           MICROSECOND,
+           i.created_at,
+           COALESCE(i.last_attempt_at, i.updated_at, i.created_at)
+         ) DIV 1000),
+         0
+       ),
+       MAX(COALESCE(i.last_attempt_at, i.updated_at, i.created_at)),
+       NOW()
+FROM replay_items i
+JOIN replay_jobs j ON j.id = i.job_id
+GROUP BY j.event_key, COALESCE(j.requested_by, ''), i.status
+ON DUPLICATE KEY UPDATE
+  item_count = VALUES(item_count),
+  duration_sum_ms = VALUES(duration_sum_ms),
+  latest_at = VALUES(latest_at),
+  updated_at = VALUES(updated_at);
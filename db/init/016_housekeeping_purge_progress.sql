@@ -0,0 +1,2 @@
+ALTER TABLE housekeeping_runs ADD COLUMN rows_per_sec DOUBLE NULL;
+ALTER TABLE housekeeping_runs ADD COLUMN progress_at DATETIME NULL;
@@ -0,0 +1,223 @@
+-- Managed index pack for the event tables. 001_schema.sql only indexed
+-- (event_datetime, event_trace_id); these indexes back the filters used by
+-- RecordsRepository and the aggregate scans in AggregationRepository.
+--
+-- (event_datetime, id)        range scans and the ORDER BY event_datetime DESC, id DESC seek
+-- (event_trace_id, ...)       trace-id search becomes a point lookup
+-- (account_number, ...)       account lookups within a date range
+-- (message_key, ...)          message-key lookups within a date range
+-- (exception_type, ...)       failure filters by exception type
+-- covering latency index      day totals, buckets and minute scans without touching rows
+--
+-- The old (event_datetime, event_trace_id) index is superseded by the first two.
+-- One ALTER per table so each table is rebuilt once, online.
+
+ALTER TABLE payments_in_success
+  DROP INDEX IF EXISTS idx_payments_success_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_payments_success_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_payments_success_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_payments_success_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_payments_success_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_payments_success_latency_cover
+    (event_datetime, latency_ms, latency_event_received_ms, latency_event_sent_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE payments_in_failure
+  DROP INDEX IF EXISTS idx_payments_failure_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_payments_failure_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_payments_failure_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_payments_failure_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_payments_failure_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_payments_failure_exception (exception_type, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_payments_failure_latency_cover
+    (event_datetime, retriable, latency_ms, latency_event_received_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE loans_in_success
+  DROP INDEX IF EXISTS idx_loans_success_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_loans_success_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_loans_success_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_loans_success_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_loans_success_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_loans_success_latency_cover
+    (event_datetime, latency_ms, latency_event_received_ms, latency_event_sent_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE loans_in_failure
+  DROP INDEX IF EXISTS idx_loans_failure_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_loans_failure_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_loans_failure_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_loans_failure_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_loans_failure_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_loans_failure_exception (exception_type, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_loans_failure_latency_cover
+    (event_datetime, retriable, latency_ms, latency_event_received_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE cards_in_success
+  DROP INDEX IF EXISTS idx_payments_success_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_cards_success_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_cards_success_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_cards_success_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_cards_success_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_cards_success_latency_cover
+    (event_datetime, latency_ms, latency_event_received_ms, latency_event_sent_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE cards_in_failure
+  DROP INDEX IF EXISTS idx_payments_failure_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_cards_failure_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_cards_failure_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_cards_failure_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_cards_failure_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_cards_failure_exception (exception_type, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_cards_failure_latency_cover
+    (event_datetime, retriable, latency_ms, latency_event_received_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE accounts_in_success
+  DROP INDEX IF EXISTS idx_payments_success_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_accounts_success_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_accounts_success_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_accounts_success_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_accounts_success_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_accounts_success_latency_cover
+    (event_datetime, latency_ms, latency_event_received_ms, latency_event_sent_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE accounts_in_failure
+  DROP INDEX IF EXISTS idx_payments_failure_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_accounts_failure_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_accounts_failure_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_accounts_failure_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_accounts_failure_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_accounts_failure_exception (exception_type, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_accounts_failure_latency_cover
+    (event_datetime, retriable, latency_ms, latency_event_received_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE transfers_in_success
+  DROP INDEX IF EXISTS idx_payments_success_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_transfers_success_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_transfers_success_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_transfers_success_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_transfers_success_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_transfers_success_latency_cover
+    (event_datetime, latency_ms, latency_event_received_ms, latency_event_sent_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE transfers_in_failure
+  DROP INDEX IF EXISTS idx_payments_failure_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_transfers_failure_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_transfers_failure_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_transfers_failure_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_transfers_failure_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_transfers_failure_exception (exception_type, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_transfers_failure_latency_cover
+    (event_datetime, retriable, latency_ms, latency_event_received_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE alerts_in_success
+  DROP INDEX IF EXISTS idx_payments_success_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_alerts_success_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_alerts_success_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_alerts_success_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_alerts_success_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_alerts_success_latency_cover
+    (event_datetime, latency_ms, latency_event_received_ms, latency_event_sent_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE alerts_in_failure
+  DROP INDEX IF EXISTS idx_payments_failure_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_alerts_failure_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_alerts_failure_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_alerts_failure_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_alerts_failure_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_alerts_failure_exception (exception_type, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_alerts_failure_latency_cover
+    (event_datetime, retriable, latency_ms, latency_event_received_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE kyc_in_success
+  DROP INDEX IF EXISTS idx_payments_success_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_kyc_success_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_kyc_success_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_kyc_success_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_kyc_success_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_kyc_success_latency_cover
+    (event_datetime, latency_ms, latency_event_received_ms, latency_event_sent_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE kyc_in_failure
+  DROP INDEX IF EXISTS idx_payments_failure_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_kyc_failure_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_kyc_failure_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_kyc_failure_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_kyc_failure_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_kyc_failure_exception (exception_type, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_kyc_failure_latency_cover
+    (event_datetime, retriable, latency_ms, latency_event_received_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE fraud_in_success
+  DROP INDEX IF EXISTS idx_payments_success_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_fraud_success_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_fraud_success_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_fraud_success_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_fraud_success_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_fraud_success_latency_cover
+    (event_datetime, latency_ms, latency_event_received_ms, latency_event_sent_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE fraud_in_failure
+  DROP INDEX IF EXISTS idx_payments_failure_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_fraud_failure_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_fraud_failure_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_fraud_failure_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_fraud_failure_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_fraud_failure_exception (exception_type, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_fraud_failure_latency_cover
+    (event_datetime, retriable, latency_ms, latency_event_received_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE statements_in_success
+  DROP INDEX IF EXISTS idx_payments_success_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_statements_success_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_statements_success_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_statements_success_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_statements_success_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_statements_success_latency_cover
+    (event_datetime, latency_ms, latency_event_received_ms, latency_event_sent_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE statements_in_failure
+  DROP INDEX IF EXISTS idx_payments_failure_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_statements_failure_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_statements_failure_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_statements_failure_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_statements_failure_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_statements_failure_exception (exception_type, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_statements_failure_latency_cover
+    (event_datetime, retriable, latency_ms, latency_event_received_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE limits_in_success
+  DROP INDEX IF EXISTS idx_payments_success_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_limits_success_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_limits_success_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_limits_success_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_limits_success_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_limits_success_latency_cover
+    (event_datetime, latency_ms, latency_event_received_ms, latency_event_sent_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE limits_in_failure
+  DROP INDEX IF EXISTS idx_payments_failure_event_datetime,
+  ADD INDEX IF NOT EXISTS idx_limits_failure_datetime_id (event_datetime, id),
+  ADD INDEX IF NOT EXISTS idx_limits_failure_trace (event_trace_id, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_limits_failure_account (account_number, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_limits_failure_message_key (message_key, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_limits_failure_exception (exception_type, event_datetime),
+  ADD INDEX IF NOT EXISTS idx_limits_failure_latency_cover
+    (event_datetime, retriable, latency_ms, latency_event_received_ms),
+  ALGORITHM=INPLACE, LOCK=NONE;
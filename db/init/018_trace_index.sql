@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS event_trace_index (
+  event_key VARCHAR(64) NOT NULL,
+  outcome VARCHAR(8) NOT NULL,
+  record_id BIGINT NOT NULL,
+  event_datetime DATETIME NOT NULL,
+  trace_id VARCHAR(64) NULL,
+  message_key VARCHAR(255) NULL,
+  account_number VARCHAR(64) NULL,
+  PRIMARY KEY (event_key, outcome, record_id),
+  KEY idx_event_trace_index_trace (trace_id, event_datetime),
+  KEY idx_event_trace_index_message_key (message_key, event_datetime),
+  KEY idx_event_trace_index_account (account_number, event_datetime),
+  KEY idx_event_trace_index_event_datetime (event_key, event_datetime)
+);
@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS event_watermark_gaps (
+  consumer VARCHAR(64) NOT NULL,
+  table_name VARCHAR(128) NOT NULL,
+  from_id BIGINT NOT NULL,
+  to_id BIGINT NOT NULL,
+  first_seen_at DATETIME NOT NULL,
+  PRIMARY KEY (consumer, table_name, from_id),
+  KEY idx_event_watermark_gaps_to_id (consumer, table_name, to_id)
+);
@@ -0,0 +1,3 @@
+ALTER TABLE replay_jobs
+  ADD COLUMN lease_owner VARCHAR(64) NULL,
+  ADD COLUMN lease_expires_at DATETIME NULL;
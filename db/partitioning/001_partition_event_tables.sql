@@ -0,0 +1,115 @@
+-- Optional daily partitioning for the event tables; not applied by db/init.
+-- Covers every table in the default events.registry. Set the p_history bound to the
+-- rollout day, apply manually, then enable housekeeping.partitioning so
+-- PARTITION_MAINTENANCE keeps future partitions ahead.
+-- Partitioning is detected per table: a table left out of this script (or added to the
+-- registry later) stays unpartitioned, is skipped by PARTITION_MAINTENANCE and keeps the
+-- id-range purge for RETENTION. Add a block below for each table that should be partitioned.
+
+ALTER TABLE payments_in_success
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, event_datetime);
+ALTER TABLE payments_in_success
+  PARTITION BY RANGE COLUMNS (event_datetime) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+  );
+
+ALTER TABLE payments_in_failure
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, event_datetime);
+ALTER TABLE payments_in_failure
+  PARTITION BY RANGE COLUMNS (event_datetime) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+  );
+
+ALTER TABLE loans_in_success
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, event_datetime);
+ALTER TABLE loans_in_success
+  PARTITION BY RANGE COLUMNS (event_datetime) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+  );
+
+ALTER TABLE loans_in_failure
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, event_datetime);
+ALTER TABLE loans_in_failure
+  PARTITION BY RANGE COLUMNS (event_datetime) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+  );
+
+ALTER TABLE cards_in_success
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, event_datetime);
+ALTER TABLE cards_in_success
+  PARTITION BY RANGE COLUMNS (event_datetime) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+  );
+
+ALTER TABLE cards_in_failure
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, event_datetime);
+ALTER TABLE cards_in_failure
+  PARTITION BY RANGE COLUMNS (event_datetime) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+  );
+
+ALTER TABLE accounts_in_success
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, event_datetime);
+ALTER TABLE accounts_in_success
+  PARTITION BY RANGE COLUMNS (event_datetime) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+  );
+
+ALTER TABLE accounts_in_failure
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, event_datetime);
+ALTER TABLE accounts_in_failure
+  PARTITION BY RANGE COLUMNS (event_datetime) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+  );
+
+ALTER TABLE transfers_in_success
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, event_datetime);
+ALTER TABLE transfers_in_success
+  PARTITION BY RANGE COLUMNS (event_datetime) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+  );
+
+ALTER TABLE transfers_in_failure
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, event_datetime);
+ALTER TABLE transfers_in_failure
+  PARTITION BY RANGE COLUMNS (event_datetime) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+  );
+
+ALTER TABLE alerts_in_success
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, event_datetime);
+ALTER TABLE alerts_in_success
+  PARTITION BY RANGE COLUMNS (event_datetime) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+  );
+
+ALTER TABLE alerts_in_failure
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, event_datetime);
+ALTER TABLE alerts_in_failure
+  PARTITION BY RANGE COLUMNS (event_datetime) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+  );
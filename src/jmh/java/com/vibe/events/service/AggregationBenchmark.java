@@ -0,0 +1,100 @@
+package com.vibe.events.service;
+
+import com.vibe.events.dto.BucketPoint;
+import com.vibe.events.registry.EventDefinition;
+import com.vibe.events.repo.BucketKey;
+import com.vibe.events.repo.FailureBucket;
+import com.vibe.events.repo.SuccessBucket;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregationBenchmark {
+  private final LocalDate day = LocalDate.of(2026, 1, 15);
+
+  @Param({"2", "16", "64"})
+  private int events;
+
+  private Map<BucketKey, SuccessBucket> quarterSuccess;
+  private Map<BucketKey, FailureBucket> quarterFailure;
+  private Map<Integer, SuccessBucket> hourlySuccess;
+  private Map<Integer, FailureBucket> hourlyFailure;
+  private List<EventDefinition> definitions;
+  private List<List<BucketPoint>> quarterEventBuckets;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    quarterSuccess = new HashMap<>();
+    quarterFailure = new HashMap<>();
+    hourlySuccess = new HashMap<>();
+    hourlyFailure = new HashMap<>();
+    for (int hour = 0; hour < 24; hour += 1) {
+      hourlySuccess.put(hour, new SuccessBucket(hour, null, 4000, 120.0 + random.nextInt(80)));
+      hourlyFailure.put(hour, new FailureBucket(hour, null, 40, 12, 300.0 + random.nextInt(200)));
+      for (int quarter = 0; quarter < 4; quarter += 1) {
+        BucketKey key = new BucketKey(hour, quarter);
+        quarterSuccess.put(
+            key, new SuccessBucket(hour, quarter, 1000, 120.0 + random.nextInt(80)));
+        if (random.nextInt(4) > 0) {
+          quarterFailure.put(
+              key, new FailureBucket(hour, quarter, 10, 3, 300.0 + random.nextInt(200)));
+        }
+      }
+    }
+
+    definitions = new ArrayList<>(events);
+    quarterEventBuckets = new ArrayList<>(events);
+    for (int i = 0; i < events; i += 1) {
+      EventDefinition definition = new EventDefinition();
+      definition.setKey("event-" + i);
+      definition.setName("Event " + i);
+      definitions.add(definition);
+      quarterEventBuckets.add(
+          AggregationService.buildQuarterHourBuckets(day, quarterSuccess, quarterFailure));
+    }
+  }
+
+  @Benchmark
+  public List<BucketPoint> quarterHourBuckets() {
+    return AggregationService.buildQuarterHourBuckets(day, quarterSuccess, quarterFailure);
+  }
+
+  @Benchmark
+  public List<BucketPoint> hourlyBuckets() {
+    return AggregationService.buildHourlyBuckets(day, hourlySuccess, hourlyFailure);
+  }
+
+  @Benchmark
+  public BucketPoint bucketPoint() {
+    BucketKey key = new BucketKey(12, 2);
+    return AggregationService.buildBucketPoint(
+        day.atTime(12, 30), quarterSuccess.get(key), quarterFailure.get(key));
+  }
+
+  @Benchmark
+  public List<BucketPoint> mergeHomeBuckets() {
+    return AggregationService.mergeHomeBuckets(day, 15, definitions, quarterEventBuckets);
+  }
+}
@@ -0,0 +1,80 @@
+package com.vibe.events.util;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeysAndSketchBenchmark {
+  private final LocalDate day = LocalDate.of(2026, 1, 15);
+
+  @Param({"10000", "1000000"})
+  private int samples;
+
+  private long[] latencies;
+  private LatencySketch sketch;
+  private byte[] sketchBytes;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    latencies = new long[samples];
+    sketch = new LatencySketch();
+    for (int i = 0; i < samples; i += 1) {
+      // Log-normal around ~150ms with a long tail, close to production latency shapes.
+      latencies[i] = Math.max(0, Math.round(Math.exp(5 + random.nextGaussian() * 0.8)));
+      sketch.add(latencies[i]);
+    }
+    sketchBytes = sketch.toBytes();
+  }
+
+  @Benchmark
+  public void cacheKeys(Blackhole blackhole) {
+    blackhole.consume(CacheKeys.homeKey(day));
+    blackhole.consume(CacheKeys.homeBucketsKey(day, 15));
+    blackhole.consume(CacheKeys.eventSummaryKey(day, "payments.in"));
+    blackhole.consume(CacheKeys.eventBucketsKey(day, "payments.in", 60));
+  }
+
+  @Benchmark
+  public void percentiles(Blackhole blackhole) {
+    blackhole.consume(sketch.quantile(0.50));
+    blackhole.consume(sketch.quantile(0.95));
+    blackhole.consume(sketch.quantile(0.99));
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public LatencySketch buildSketch() {
+    LatencySketch built = new LatencySketch();
+    for (long latency : latencies) {
+      built.add(latency);
+    }
+    return built;
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public LatencySketch mergeSerializedSketches() {
+    LatencySketch merged = LatencySketch.fromBytes(sketchBytes);
+    merged.merge(LatencySketch.fromBytes(sketchBytes));
+    return merged;
+  }
+}
@@ -0,0 +1,145 @@
+package com.vibe.events.util;
+
+import com.vibe.events.dto.FailureRow;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.RowMapper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+  private static final String SCHEMA =
+      """
+      CREATE TABLE bench_failure (
+        id BIGINT PRIMARY KEY,
+        event_datetime TIMESTAMP NOT NULL,
+        event_trace_id VARCHAR(64),
+        account_number VARCHAR(64),
+        customer_type VARCHAR(32),
+        created_at TIMESTAMP NOT NULL,
+        source_topic VARCHAR(255),
+        source_partition_id INT,
+        source_offset BIGINT,
+        message_key VARCHAR(255),
+        source_payload CLOB,
+        transformed_payload CLOB,
+        latency_ms BIGINT,
+        latency_event_received_ms BIGINT,
+        target_topic VARCHAR(255),
+        target_partition_id INT,
+        target_offset BIGINT,
+        exception_type VARCHAR(255),
+        exception_message VARCHAR(1024),
+        exception_stack VARCHAR(4096),
+        retry_attempt INT,
+        retriable TINYINT
+      )
+      """;
+
+  private final RowMapper<Map<String, Object>> mapper = RowMapperUtil.dynamicRowMapper();
+  private final RowMapper<FailureRow> typedMapper = RowMapperUtil.failureRowMapper();
+
+  @Param({"50", "500"})
+  private int rows;
+
+  private CachedRowSet rowSet;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    try (Connection connection =
+        DriverManager.getConnection("jdbc:h2:mem:rowmapping;MODE=MySQL", "sa", "")) {
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("DROP TABLE IF EXISTS bench_failure");
+        statement.execute(SCHEMA);
+      }
+      try (PreparedStatement insert =
+          connection.prepareStatement(
+              "INSERT INTO bench_failure VALUES "
+                  + "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.of(2026, 1, 15, 12, 0));
+        for (int i = 0; i < rows; i += 1) {
+          int column = 1;
+          insert.setLong(column++, i);
+          insert.setTimestamp(column++, now);
+          insert.setString(column++, "trace-" + i);
+          insert.setString(column++, "ACC-" + (1000 + i % 97));
+          insert.setString(column++, i % 2 == 0 ? "RETAIL" : "SMB");
+          insert.setTimestamp(column++, now);
+          insert.setString(column++, "payments.raw");
+          insert.setInt(column++, i % 12);
+          insert.setLong(column++, 100_000L + i);
+          insert.setString(column++, "key-" + i);
+          insert.setString(column++, "{\"amount\":" + i + ",\"currency\":\"EUR\"}");
+          insert.setString(column++, "{\"amount\":" + i + ",\"status\":\"failed\"}");
+          insert.setLong(column++, 250 + i % 400);
+          insert.setLong(column++, 80 + i % 50);
+          insert.setString(column++, "payments.processed");
+          insert.setInt(column++, i % 12);
+          insert.setLong(column++, 200_000L + i);
+          insert.setString(column++, "java.net.SocketTimeoutException");
+          insert.setString(column++, "Read timed out after 30000ms");
+          insert.setString(column++, "java.net.SocketTimeoutException: Read timed out");
+          insert.setInt(column++, i % 3);
+          insert.setInt(column, i % 4 != 0 ? 1 : 0);
+          insert.addBatch();
+        }
+        insert.executeBatch();
+      }
+      try (Statement statement = connection.createStatement();
+          ResultSet resultSet = statement.executeQuery("SELECT * FROM bench_failure")) {
+        rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.populate(resultSet);
+      }
+    }
+  }
+
+  @Benchmark
+  public List<Map<String, Object>> mapWideRows() throws SQLException {
+    rowSet.beforeFirst();
+    List<Map<String, Object>> mapped = new ArrayList<>(rows);
+    int rowNum = 0;
+    while (rowSet.next()) {
+      mapped.add(mapper.mapRow(rowSet, rowNum++));
+    }
+    return mapped;
+  }
+
+  @Benchmark
+  public List<FailureRow> mapWideRowsTyped() throws SQLException {
+    rowSet.beforeFirst();
+    List<FailureRow> mapped = new ArrayList<>(rows);
+    int rowNum = 0;
+    while (rowSet.next()) {
+      mapped.add(typedMapper.mapRow(rowSet, rowNum++));
+    }
+    return mapped;
+  }
+}
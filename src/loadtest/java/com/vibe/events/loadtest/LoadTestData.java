@@ -0,0 +1,105 @@
+package com.vibe.events.loadtest;
+
+import java.time.LocalDate;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+class LoadTestData {
+  private static final Logger log = LoggerFactory.getLogger(LoadTestData.class);
+  private static final int CHUNK = 100_000;
+
+  private final JdbcClient jdbcClient;
+
+  LoadTestData(JdbcClient jdbcClient) {
+    this.jdbcClient = jdbcClient;
+  }
+
+  void generateSuccess(String table, LocalDate day, long rows) {
+    String sql =
+        "INSERT INTO "
+            + table
+            + """
+             (
+              event_datetime, event_trace_id, account_number, customer_type, source_topic,
+              source_partition_id, source_offset, message_key, source_payload,
+              transformed_payload, latency_ms, latency_event_received_ms,
+              latency_event_sent_ms, target_topic, target_partition_id, target_offset
+            )
+            SELECT DATEADD('SECOND', MOD(n * 7919, 86400), CAST(:day AS TIMESTAMP)),
+                   CONCAT('trace-', n),
+                   CONCAT('ACC-', MOD(n, 5000)),
+                   CASEWHEN(MOD(n, 3) = 0, 'SMB', 'RETAIL'),
+                   'events.raw',
+                   MOD(n, 12),
+                   n,
+                   CONCAT('key-', n),
+                   CONCAT('{"amount":', n, ',"currency":"EUR"}'),
+                   CONCAT('{"amount":', n, ',"status":"ok"}'),
+                   MOD(n * 31, 900) + 20,
+                   MOD(n * 17, 300) + 5,
+                   MOD(n * 13, 600) + 10,
+                   'events.processed',
+                   MOD(n, 12),
+                   n
+            FROM SYSTEM_RANGE(:fromRow, :toRow) AS r (n)
+            """;
+    insert(table, sql, day, rows);
+  }
+
+  void generateFailures(String table, LocalDate day, long rows) {
+    String sql =
+        "INSERT INTO "
+            + table
+            + """
+             (
+              event_datetime, event_trace_id, account_number, customer_type, source_topic,
+              source_partition_id, source_offset, message_key, source_payload,
+              transformed_payload, latency_ms, latency_event_received_ms, target_topic,
+              target_partition_id, target_offset, exception_type, exception_message,
+              exception_stack, retriable, retry_attempt
+            )
+            SELECT DATEADD('SECOND', MOD(n * 7919, 86400), CAST(:day AS TIMESTAMP)),
+                   CONCAT('trace-f-', n),
+                   CONCAT('ACC-', MOD(n, 5000)),
+                   CASEWHEN(MOD(n, 3) = 0, 'SMB', 'RETAIL'),
+                   'events.raw',
+                   MOD(n, 12),
+                   n,
+                   CONCAT('key-f-', n),
+                   CONCAT('{"amount":', n, ',"currency":"EUR"}'),
+                   CONCAT('{"amount":', n, ',"status":"failed"}'),
+                   MOD(n * 31, 2000) + 50,
+                   MOD(n * 17, 300) + 5,
+                   'events.processed',
+                   MOD(n, 12),
+                   n,
+                   CASE MOD(n, 4)
+                     WHEN 0 THEN 'java.net.SocketTimeoutException'
+                     WHEN 1 THEN 'org.apache.kafka.common.errors.TimeoutException'
+                     WHEN 2 THEN 'java.lang.IllegalStateException'
+                     ELSE 'com.fasterxml.jackson.core.JsonParseException'
+                   END,
+                   'Synthetic failure for load testing',
+                   'at com.vibe.events.Synthetic.fail(Synthetic.java:42)',
+                   CASEWHEN(MOD(n, 4) < 2, 1, 0),
+                   MOD(n, 3)
+            FROM SYSTEM_RANGE(:fromRow, :toRow) AS r (n)
+            """;
+    insert(table, sql, day, rows);
+  }
+
+  private void insert(String table, String sql, LocalDate day, long rows) {
+    long start = System.currentTimeMillis();
+    for (long fromRow = 1; fromRow <= rows; fromRow += CHUNK) {
+      long toRow = Math.min(rows, fromRow + CHUNK - 1);
+      jdbcClient
+          .sql(sql)
+          .params(Map.of("day", day.toString(), "fromRow", fromRow, "toRow", toRow))
+          .update();
+    }
+    log.info(
+        "Generated {} rows in {} in {}ms", rows, table, System.currentTimeMillis() - start);
+  }
+}
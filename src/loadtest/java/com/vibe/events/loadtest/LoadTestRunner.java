@@ -0,0 +1,279 @@
+package com.vibe.events.loadtest;
+
+import com.vibe.events.EventsApplication;
+import com.vibe.events.service.ReplayStubServer;
+import com.vibe.events.util.LatencySketch;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+public final class LoadTestRunner {
+  private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+  private static final List<String[]> EVENTS =
+      List.of(
+          new String[] {"payments.in", "PaymentAuthorized", "payments_in"},
+          new String[] {"loans.in", "LoanDisbursed", "loans_in"});
+  private static final double FAILURE_SHARE = 0.05;
+
+  private final ObjectMapper objectMapper = JsonMapper.builder().build();
+  private final HttpClient httpClient =
+      HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+  private final long rows;
+  private final int concurrency;
+  private final long warmupSeconds;
+  private final long durationSeconds;
+  private final Path report;
+  private final LocalDate day = LocalDate.now();
+  private String baseUrl;
+  private long failureRowsPerEvent;
+
+  private LoadTestRunner() {
+    this.rows = Long.getLong("loadtest.rows", 1_000_000L);
+    this.concurrency = Integer.getInteger("loadtest.concurrency", 16);
+    this.warmupSeconds = Long.getLong("loadtest.warmupSeconds", 10L);
+    this.durationSeconds = Long.getLong("loadtest.durationSeconds", 60L);
+    this.report = Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+  }
+
+  public static void main(String[] args) throws Exception {
+    new LoadTestRunner().run();
+  }
+
+  private void run() throws Exception {
+    long replayDelayMs = Long.getLong("loadtest.replayDelayMs", 20L);
+    try (ReplayStubServer stub = new ReplayStubServer(replayDelayMs, 200)) {
+      ConfigurableApplicationContext context = start(stub);
+      try {
+        baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+        generate(context.getBean(JdbcClient.class));
+        log.info("Warming up for {}s with {} workers", warmupSeconds, concurrency);
+        drive(warmupSeconds);
+        log.info("Measuring for {}s with {} workers", durationSeconds, concurrency);
+        Map<String, EndpointStats> stats = drive(durationSeconds);
+        writeReport(stats, stub.receivedCount());
+      } finally {
+        context.close();
+      }
+    }
+  }
+
+  private ConfigurableApplicationContext start(ReplayStubServer stub) {
+    List<String> args = new ArrayList<>();
+    args.add("--server.port=0");
+    args.add(
+        "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1;"
+            + "DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DAY");
+    args.add("--spring.datasource.hikari.maximum-pool-size=" + Math.max(10, concurrency));
+    args.add("--spring.sql.init.mode=always");
+    args.add("--spring.sql.init.schema-locations=classpath:schema-h2.sql");
+    args.add("--housekeeping.enabled=false");
+    args.add("--aggregation.warmup.enabled=false");
+    args.add("--aggregation.buckets.intervalsMinutes=60,15");
+    args.add("--aggregation.rollup.refreshDelayMs=5000");
+    args.add("--replay.callbacks.logDir=target/loadtest-callbacks");
+    args.add("--logging.level.com.vibe.events=WARN");
+    args.add("--logging.level.com.vibe.events.loadtest=INFO");
+    for (int i = 0; i < EVENTS.size(); i += 1) {
+      String[] event = EVENTS.get(i);
+      String prefix = "--events.registry[" + i + "].";
+      args.add(prefix + "key=" + event[0]);
+      args.add(prefix + "name=" + event[1]);
+      args.add(prefix + "category=Load test");
+      args.add(prefix + "successTable=" + event[2] + "_success");
+      args.add(prefix + "failureTable=" + event[2] + "_failure");
+      args.add(prefix + "replayUrl=" + stub.url(event[0]));
+    }
+    return SpringApplication.run(EventsApplication.class, args.toArray(String[]::new));
+  }
+
+  private void generate(JdbcClient jdbcClient) {
+    LoadTestData data = new LoadTestData(jdbcClient);
+    long rowsPerEvent = rows / EVENTS.size();
+    failureRowsPerEvent = Math.max(1, Math.round(rowsPerEvent * FAILURE_SHARE));
+    for (String[] event : EVENTS) {
+      data.generateSuccess(event[2] + "_success", day, rowsPerEvent - failureRowsPerEvent);
+      data.generateFailures(event[2] + "_failure", day, failureRowsPerEvent);
+    }
+  }
+
+  private Map<String, EndpointStats> drive(long seconds) throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    List<Future<Map<String, EndpointStats>>> workers = new ArrayList<>(concurrency);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < concurrency; i += 1) {
+        workers.add(executor.submit(() -> new Worker().runUntil(deadline)));
+      }
+      Map<String, EndpointStats> merged = new LinkedHashMap<>();
+      for (Future<Map<String, EndpointStats>> worker : workers) {
+        worker
+            .get()
+            .forEach(
+                (name, stats) -> merged.computeIfAbsent(name, key -> new EndpointStats()).merge(stats));
+      }
+      return merged;
+    }
+  }
+
+  private void writeReport(Map<String, EndpointStats> stats, long replayedIds) throws Exception {
+    Map<String, Object> endpoints = new LinkedHashMap<>();
+    long totalRequests = 0;
+    for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+      EndpointStats endpoint = entry.getValue();
+      totalRequests += endpoint.requests;
+      Map<String, Object> values = new LinkedHashMap<>();
+      values.put("requests", endpoint.requests);
+      values.put("errors", endpoint.errors);
+      values.put("throughputPerSec", (double) endpoint.requests / durationSeconds);
+      values.put("p50Ms", toMillis(endpoint.latencies.quantile(0.50)));
+      values.put("p95Ms", toMillis(endpoint.latencies.quantile(0.95)));
+      values.put("p99Ms", toMillis(endpoint.latencies.quantile(0.99)));
+      values.put("maxMs", toMillis(endpoint.latencies.getMax()));
+      endpoints.put(entry.getKey(), values);
+    }
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("generatedAt", LocalDateTime.now().toString());
+    result.put("rows", rows);
+    result.put("concurrency", concurrency);
+    result.put("durationSeconds", durationSeconds);
+    result.put("totalRequests", totalRequests);
+    result.put("throughputPerSec", (double) totalRequests / durationSeconds);
+    result.put("replayedIds", replayedIds);
+    result.put("endpoints", endpoints);
+    if (report.getParent() != null) {
+      Files.createDirectories(report.getParent());
+    }
+    objectMapper.writerWithDefaultPrettyPrinter().writeValue(report.toFile(), result);
+    log.info("Load test report written to {}", report.toAbsolutePath());
+  }
+
+  private Double toMillis(Double micros) {
+    return micros == null ? null : Math.round(micros / 10.0) / 100.0;
+  }
+
+  private final class Worker {
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final Map<String, String> cursors = new LinkedHashMap<>();
+
+    private Map<String, EndpointStats> runUntil(long deadline) {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      while (System.nanoTime() < deadline) {
+        String[] event = EVENTS.get(random.nextInt(EVENTS.size()));
+        String eventPath = "/api/v1/days/" + day + "/events/" + event[0];
+        int pick = random.nextInt(100);
+        if (pick < 15) {
+          get("home", "/api/v1/days/" + day + "/home");
+        } else if (pick < 30) {
+          get("homeBuckets", "/api/v1/days/" + day + "/home/buckets?intervalMinutes=60");
+        } else if (pick < 45) {
+          get("eventSummary", eventPath + "/summary");
+        } else if (pick < 60) {
+          get("eventBuckets", eventPath + "/buckets?intervalMinutes=15");
+        } else if (pick < 75) {
+          page("successPage", event[0], eventPath + "/success?size=50");
+        } else if (pick < 90) {
+          page("failurePage", event[0], eventPath + "/failures?size=50");
+        } else {
+          replay(event[0], random);
+        }
+      }
+      return stats;
+    }
+
+    private void page(String name, String eventKey, String path) {
+      String cursorKey = name + "|" + eventKey;
+      String cursor = cursors.get(cursorKey);
+      JsonNode body = get(name, cursor == null ? path : path + "&cursor=" + cursor);
+      String next = body == null ? null : body.path("nextCursor").stringValueOpt().orElse(null);
+      if (next == null || ThreadLocalRandom.current().nextInt(20) == 0) {
+        cursors.remove(cursorKey);
+      } else {
+        cursors.put(cursorKey, next);
+      }
+    }
+
+    private void replay(String eventKey, ThreadLocalRandom random) {
+      List<Long> ids = new ArrayList<>(10);
+      long first = 1 + random.nextLong(Math.max(1, failureRowsPerEvent - 10));
+      for (long id = first; id < first + 10 && id <= failureRowsPerEvent; id += 1) {
+        ids.add(id);
+      }
+      Map<String, Object> request = new LinkedHashMap<>();
+      request.put("mode", "IDS");
+      request.put("eventKey", eventKey);
+      request.put("day", day.toString());
+      request.put("ids", ids);
+      send(
+          "replay",
+          HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/replay"))
+              .header("Content-Type", "application/json")
+              .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(request)))
+              .build());
+    }
+
+    private JsonNode get(String name, String path) {
+      return send(name, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build());
+    }
+
+    private JsonNode send(String name, HttpRequest request) {
+      EndpointStats endpoint = stats.computeIfAbsent(name, key -> new EndpointStats());
+      long start = System.nanoTime();
+      try {
+        HttpResponse<byte[]> response =
+            httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        endpoint.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        if (response.statusCode() >= 400) {
+          endpoint.errors += 1;
+          return null;
+        }
+        return objectMapper.readTree(response.body());
+      } catch (Exception ex) {
+        endpoint.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        endpoint.errors += 1;
+        if (ex instanceof InterruptedException) {
+          Thread.currentThread().interrupt();
+        }
+        return null;
+      }
+    }
+  }
+
+  private static final class EndpointStats {
+    private final LatencySketch latencies = new LatencySketch();
+    private long requests;
+    private long errors;
+
+    private void record(long micros) {
+      requests += 1;
+      latencies.add(micros);
+    }
+
+    private void merge(EndpointStats other) {
+      requests += other.requests;
+      errors += other.errors;
+      latencies.merge(other.latencies);
+    }
+  }
+}
@@ -2,6 +2,10 @@ package com.vibe.events;
 
 import com.vibe.events.config.AggregationProperties;
 import com.vibe.events.config.HousekeepingProperties;
+import com.vibe.events.config.QueryProfilerProperties;
+import com.vibe.events.config.RecordsProperties;
+import com.vibe.events.config.ReplayProperties;
+import com.vibe.events.config.SearchProperties;
 import com.vibe.events.registry.EventRegistryProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -17,7 +21,11 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @EnableConfigurationProperties({
   AggregationProperties.class,
   EventRegistryProperties.class,
-  HousekeepingProperties.class
+  HousekeepingProperties.class,
+  QueryProfilerProperties.class,
+  RecordsProperties.class,
+  ReplayProperties.class,
+  SearchProperties.class
 })
 public class EventsApplication {
   public static void main(String[] args) {
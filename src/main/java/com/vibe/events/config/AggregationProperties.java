@@ -9,6 +9,9 @@ public class AggregationProperties {
   private final Cache cache = new Cache();
   private final Buckets buckets = new Buckets();
   private final Warmup warmup = new Warmup();
+  private final Rollup rollup = new Rollup();
+  private final Fanout fanout = new Fanout();
+  private final CombinedScan combinedScan = new CombinedScan();
   private int percentileBucketMs = 0;
   private int percentileSampleSizePerTable = 0;
 
@@ -24,6 +27,18 @@ public class AggregationProperties {
     return warmup;
   }
 
+  public Rollup getRollup() {
+    return rollup;
+  }
+
+  public Fanout getFanout() {
+    return fanout;
+  }
+
+  public CombinedScan getCombinedScan() {
+    return combinedScan;
+  }
+
   public int getPercentileBucketMs() {
     return percentileBucketMs;
   }
@@ -42,6 +57,7 @@ public class AggregationProperties {
 
   public static class Cache {
     private int daysToKeep = 7;
+    private long todaySoftTtlMs = 60000;
 
     public int getDaysToKeep() {
       return daysToKeep;
@@ -50,6 +66,14 @@ public class AggregationProperties {
     public void setDaysToKeep(int daysToKeep) {
       this.daysToKeep = daysToKeep;
     }
+
+    public long getTodaySoftTtlMs() {
+      return todaySoftTtlMs;
+    }
+
+    public void setTodaySoftTtlMs(long todaySoftTtlMs) {
+      this.todaySoftTtlMs = todaySoftTtlMs;
+    }
   }
 
   public static class Buckets {
@@ -66,6 +90,124 @@ public class AggregationProperties {
 
   public static class Warmup {
     private boolean enabled = true;
+    private int parallelism = 0;
+    private double saturationThreshold = 0.8;
+    private long throttleBackoffMs = 250;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getParallelism() {
+      return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+      this.parallelism = parallelism;
+    }
+
+    public double getSaturationThreshold() {
+      return saturationThreshold;
+    }
+
+    public void setSaturationThreshold(double saturationThreshold) {
+      this.saturationThreshold = saturationThreshold;
+    }
+
+    public long getThrottleBackoffMs() {
+      return throttleBackoffMs;
+    }
+
+    public void setThrottleBackoffMs(long throttleBackoffMs) {
+      this.throttleBackoffMs = throttleBackoffMs;
+    }
+  }
+
+  public static class Rollup {
+    private boolean enabled = true;
+    private long refreshDelayMs = 5000;
+    private int chunkSize = 50000;
+    private int maxInlineChunks = 20;
+    private long inlineLockWaitMs = 250;
+    private long gapHorizonMs = 600000;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public long getRefreshDelayMs() {
+      return refreshDelayMs;
+    }
+
+    public void setRefreshDelayMs(long refreshDelayMs) {
+      this.refreshDelayMs = refreshDelayMs;
+    }
+
+    public int getChunkSize() {
+      return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+      this.chunkSize = chunkSize;
+    }
+
+    public int getMaxInlineChunks() {
+      return maxInlineChunks;
+    }
+
+    public void setMaxInlineChunks(int maxInlineChunks) {
+      this.maxInlineChunks = maxInlineChunks;
+    }
+
+    public long getInlineLockWaitMs() {
+      return inlineLockWaitMs;
+    }
+
+    public void setInlineLockWaitMs(long inlineLockWaitMs) {
+      this.inlineLockWaitMs = inlineLockWaitMs;
+    }
+
+    public long getGapHorizonMs() {
+      return gapHorizonMs;
+    }
+
+    public void setGapHorizonMs(long gapHorizonMs) {
+      this.gapHorizonMs = gapHorizonMs;
+    }
+  }
+
+  public static class Fanout {
+    private int parallelism = 0;
+    private long deadlineMs = 30000;
+
+    public int getParallelism() {
+      return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+      this.parallelism = parallelism;
+    }
+
+    public long getDeadlineMs() {
+      return deadlineMs;
+    }
+
+    public void setDeadlineMs(long deadlineMs) {
+      this.deadlineMs = deadlineMs;
+    }
+  }
+
+  public static class CombinedScan {
+    private boolean enabled = true;
+    private long memoMs = 10000;
 
     public boolean isEnabled() {
       return enabled;
@@ -74,5 +216,13 @@ public class AggregationProperties {
     public void setEnabled(boolean enabled) {
       this.enabled = enabled;
     }
+
+    public long getMemoMs() {
+      return memoMs;
+    }
+
+    public void setMemoMs(long memoMs) {
+      this.memoMs = memoMs;
+    }
   }
 }
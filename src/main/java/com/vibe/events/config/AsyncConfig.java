@@ -1,20 +1,91 @@
 package com.vibe.events.config;
 
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.SQLException;
+import javax.sql.DataSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 public class AsyncConfig {
-  @Bean(name = "refreshExecutor")
-  public ThreadPoolTaskExecutor refreshExecutor() {
+  @Bean(name = "warmupExecutor")
+  public ThreadPoolTaskExecutor warmupExecutor(
+      AggregationProperties properties, DataSource dataSource) {
+    int parallelism = properties.getWarmup().getParallelism();
+    if (parallelism <= 0) {
+      parallelism = Math.max(1, maximumPoolSize(dataSource) / 2);
+    }
     ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-    executor.setCorePoolSize(1);
-    executor.setMaxPoolSize(1);
-    executor.setQueueCapacity(10);
-    executor.setThreadNamePrefix("refresh-");
+    executor.setCorePoolSize(parallelism);
+    executor.setMaxPoolSize(parallelism);
+    executor.setThreadNamePrefix("warmup-");
+    executor.initialize();
+    return executor;
+  }
+
+  @Bean(name = "replayExecutor")
+  public ThreadPoolTaskExecutor replayExecutor(ReplayProperties properties) {
+    int parallelism = Math.max(1, properties.getJobParallelism());
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(parallelism);
+    executor.setMaxPoolSize(parallelism);
+    executor.setQueueCapacity(Math.max(1, properties.getJobQueueCapacity()));
+    executor.setThreadNamePrefix("replay-");
+    // Jobs pause at their next batch boundary once ReplayService stops; let them checkpoint.
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationMillis(properties.getShutdownAwaitMs());
+    executor.initialize();
+    return executor;
+  }
+
+  @Bean(name = "replayDispatchExecutor")
+  public ThreadPoolTaskExecutor replayDispatchExecutor(ReplayProperties properties) {
+    int poolSize = Math.max(1, properties.getDispatch().getPoolSize());
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(poolSize);
+    executor.setMaxPoolSize(poolSize);
+    executor.setThreadNamePrefix("replay-dispatch-");
     executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationMillis(properties.getShutdownAwaitMs());
     executor.initialize();
     return executor;
   }
+
+  @Bean(name = "purgeExecutor")
+  public ThreadPoolTaskExecutor purgeExecutor(HousekeepingProperties properties) {
+    int parallelism = Math.max(1, properties.getPurge().getParallelism());
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(parallelism);
+    executor.setMaxPoolSize(parallelism);
+    executor.setThreadNamePrefix("purge-");
+    executor.initialize();
+    return executor;
+  }
+
+  @Bean(name = "queryFanoutExecutor")
+  public ThreadPoolTaskExecutor queryFanoutExecutor(
+      AggregationProperties properties, DataSource dataSource) {
+    int parallelism = properties.getFanout().getParallelism();
+    if (parallelism <= 0) {
+      parallelism = Math.max(1, maximumPoolSize(dataSource) / 2);
+    }
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(parallelism);
+    executor.setMaxPoolSize(parallelism);
+    executor.setThreadNamePrefix("fanout-");
+    executor.initialize();
+    return executor;
+  }
+
+  private int maximumPoolSize(DataSource dataSource) {
+    try {
+      if (dataSource.isWrapperFor(HikariDataSource.class)) {
+        return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+      }
+    } catch (SQLException ex) {
+      return 10;
+    }
+    return 10;
+  }
 }
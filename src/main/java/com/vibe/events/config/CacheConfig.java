@@ -1,10 +1,13 @@
 package com.vibe.events.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.vibe.events.dto.CachedAggregate;
 import com.vibe.events.registry.EventRegistry;
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
-import com.github.benmanes.caffeine.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
@@ -27,23 +30,55 @@ public class CacheConfig {
     CaffeineCacheManager manager = new CaffeineCacheManager();
     manager.setAllowNullValues(false);
 
+    manager.registerCustomCache(HOME_AGG, buildCache(daysToKeep, 32));
+    manager.registerCustomCache(HOME_BUCKETS, buildCache(daysToKeep, daysToKeep * intervalCount));
+    manager.registerCustomCache(EVENT_SUMMARY, buildCache(daysToKeep, eventCount * daysToKeep));
     manager.registerCustomCache(
-        HOME_AGG, buildCache(Duration.ofDays(daysToKeep), 32));
-    manager.registerCustomCache(
-        HOME_BUCKETS, buildCache(Duration.ofDays(daysToKeep), daysToKeep * intervalCount));
-    manager.registerCustomCache(
-        EVENT_SUMMARY,
-        buildCache(Duration.ofDays(daysToKeep), eventCount * daysToKeep));
-    manager.registerCustomCache(
-        EVENT_BUCKETS,
-        buildCache(
-            Duration.ofDays(daysToKeep),
-            eventCount * daysToKeep * intervalCount));
+        EVENT_BUCKETS, buildCache(daysToKeep, eventCount * daysToKeep * intervalCount));
 
     return manager;
   }
 
-  private Cache<Object, Object> buildCache(Duration ttl, int maxSize) {
-    return Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxSize).build();
+  private Cache<Object, Object> buildCache(int daysToKeep, int maxSize) {
+    return Caffeine.newBuilder()
+        .expireAfter(new RetentionWindowExpiry(daysToKeep))
+        .maximumSize(maxSize)
+        .recordStats()
+        .build();
+  }
+
+  // Closed days never change, so an entry lives until its day leaves the retention window;
+  // freshness for today is handled by the soft TTL in AggregationService.
+  private static final class RetentionWindowExpiry implements Expiry<Object, Object> {
+    private final int daysToKeep;
+
+    private RetentionWindowExpiry(int daysToKeep) {
+      this.daysToKeep = daysToKeep;
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+      return untilRetentionEnds(value);
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        Object key, Object value, long currentTime, long currentDuration) {
+      return untilRetentionEnds(value);
+    }
+
+    @Override
+    public long expireAfterRead(
+        Object key, Object value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+
+    private long untilRetentionEnds(Object value) {
+      if (!(value instanceof CachedAggregate<?> aggregate)) {
+        return Duration.ofDays(daysToKeep).toNanos();
+      }
+      LocalDateTime evictAt = aggregate.day().plusDays(daysToKeep + 1L).atStartOfDay();
+      return Math.max(0, Duration.between(LocalDateTime.now(), evictAt).toNanos());
+    }
   }
 }
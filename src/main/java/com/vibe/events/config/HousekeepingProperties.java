@@ -1,5 +1,6 @@
 package com.vibe.events.config;
 
+import com.vibe.events.dto.CountMode;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "housekeeping")
@@ -12,6 +13,9 @@ public class HousekeepingProperties {
   private int retentionDays = 7;
   private int batchSize = 10000;
   private int schedulerPoolSize = 4;
+  private CountMode previewCountMode = CountMode.LEDGER;
+  private Purge purge = new Purge();
+  private Partitioning partitioning = new Partitioning();
 
   public boolean isEnabled() {
     return enabled;
@@ -76,4 +80,124 @@ public class HousekeepingProperties {
   public void setSchedulerPoolSize(int schedulerPoolSize) {
     this.schedulerPoolSize = schedulerPoolSize;
   }
+
+  public CountMode getPreviewCountMode() {
+    return previewCountMode;
+  }
+
+  public void setPreviewCountMode(CountMode previewCountMode) {
+    this.previewCountMode = previewCountMode;
+  }
+
+  public Purge getPurge() {
+    return purge;
+  }
+
+  public void setPurge(Purge purge) {
+    this.purge = purge;
+  }
+
+  public Partitioning getPartitioning() {
+    return partitioning;
+  }
+
+  public void setPartitioning(Partitioning partitioning) {
+    this.partitioning = partitioning;
+  }
+
+  public static class Purge {
+    private int parallelism = 4;
+    private int initialChunkSize = 5000;
+    private int minChunkSize = 500;
+    private int maxChunkSize = 200000;
+    private long targetChunkMs = 250;
+    private double loadBudget = 0.5;
+    private long progressIntervalMs = 1000;
+
+    public int getParallelism() {
+      return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+      this.parallelism = parallelism;
+    }
+
+    public int getInitialChunkSize() {
+      return initialChunkSize;
+    }
+
+    public void setInitialChunkSize(int initialChunkSize) {
+      this.initialChunkSize = initialChunkSize;
+    }
+
+    public int getMinChunkSize() {
+      return minChunkSize;
+    }
+
+    public void setMinChunkSize(int minChunkSize) {
+      this.minChunkSize = minChunkSize;
+    }
+
+    public int getMaxChunkSize() {
+      return maxChunkSize;
+    }
+
+    public void setMaxChunkSize(int maxChunkSize) {
+      this.maxChunkSize = maxChunkSize;
+    }
+
+    public long getTargetChunkMs() {
+      return targetChunkMs;
+    }
+
+    public void setTargetChunkMs(long targetChunkMs) {
+      this.targetChunkMs = targetChunkMs;
+    }
+
+    public double getLoadBudget() {
+      return loadBudget;
+    }
+
+    public void setLoadBudget(double loadBudget) {
+      this.loadBudget = loadBudget;
+    }
+
+    public long getProgressIntervalMs() {
+      return progressIntervalMs;
+    }
+
+    public void setProgressIntervalMs(long progressIntervalMs) {
+      this.progressIntervalMs = progressIntervalMs;
+    }
+  }
+
+  public static class Partitioning {
+    private boolean enabled = false;
+    private String cron = "0 15 0 * * *";
+    private int futureDays = 3;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public String getCron() {
+      return cron;
+    }
+
+    public void setCron(String cron) {
+      this.cron = cron;
+    }
+
+    public int getFutureDays() {
+      return futureDays;
+    }
+
+    public void setFutureDays(int futureDays) {
+      this.futureDays = futureDays;
+    }
+  }
 }
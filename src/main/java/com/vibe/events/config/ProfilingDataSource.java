@@ -0,0 +1,242 @@
+package com.vibe.events.config;
+
+import com.vibe.events.service.QueryProfiler;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Hands out connections whose statements report to {@link QueryProfiler}. The types of bound
+ * parameters are tracked per statement, and their values only while the profiler captures them.
+ * A query is recorded once its result set (or the statement) is closed so the row count is known;
+ * updates and batches are recorded as soon as they return.
+ */
+public class ProfilingDataSource extends DelegatingDataSource {
+  private final QueryProfiler profiler;
+
+  public ProfilingDataSource(DataSource target, QueryProfiler profiler) {
+    super(target);
+    this.profiler = profiler;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return wrap(obtainTargetDataSource().getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return wrap(obtainTargetDataSource().getConnection(username, password));
+  }
+
+  private Connection wrap(Connection connection) {
+    return proxy(Connection.class, new ConnectionHandler(connection));
+  }
+
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    return type.cast(
+        Proxy.newProxyInstance(
+            ProfilingDataSource.class.getClassLoader(), new Class<?>[] {type}, handler));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException ex) {
+      throw ex.getTargetException();
+    }
+  }
+
+  private final class ConnectionHandler implements InvocationHandler {
+    private final Connection target;
+
+    private ConnectionHandler(Connection target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      Object result = ProfilingDataSource.invoke(target, method, args);
+      if (!profiler.isEnabled()) {
+        return result;
+      }
+      if (result instanceof CallableStatement statement) {
+        return proxy(CallableStatement.class, new StatementHandler(statement, (String) args[0]));
+      }
+      if (result instanceof PreparedStatement statement) {
+        return proxy(PreparedStatement.class, new StatementHandler(statement, (String) args[0]));
+      }
+      if (result instanceof Statement statement) {
+        return proxy(Statement.class, new StatementHandler(statement, null));
+      }
+      return result;
+    }
+  }
+
+  private final class StatementHandler implements InvocationHandler {
+    private final Statement target;
+    private final String preparedSql;
+    private final List<String> parameterTypes = new ArrayList<>();
+    private final List<Object> parameterValues = new ArrayList<>();
+    private String batchSql;
+    private PendingQuery pending;
+
+    private StatementHandler(Statement target, String preparedSql) {
+      this.target = target;
+      this.preparedSql = preparedSql;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (name.startsWith("set")
+          && args != null
+          && args.length >= 2
+          && args[0] instanceof Integer index) {
+        bind(index, "setNull".equals(name) ? null : args[1]);
+      } else if ("clearParameters".equals(name)) {
+        parameterTypes.clear();
+        parameterValues.clear();
+      } else if ("addBatch".equals(name) && args != null && args[0] instanceof String sql) {
+        batchSql = sql;
+      } else if (name.startsWith("execute")) {
+        return execute(method, args);
+      } else if ("getResultSet".equals(name)) {
+        ResultSet resultSet = (ResultSet) ProfilingDataSource.invoke(target, method, args);
+        return resultSet == null || pending == null ? resultSet : track(resultSet);
+      } else if ("close".equals(name)) {
+        flush();
+      }
+      return ProfilingDataSource.invoke(target, method, args);
+    }
+
+    private Object execute(Method method, Object[] args) throws Throwable {
+      flush();
+      String sql =
+          args != null && args.length > 0 && args[0] instanceof String text
+              ? text
+              : preparedSql == null ? batchSql : preparedSql;
+      List<String> bound = List.copyOf(parameterTypes);
+      List<Object> values =
+          profiler.isCapturingParameterValues() ? new ArrayList<>(parameterValues) : null;
+      long start = System.nanoTime();
+      Object result;
+      try {
+        result = ProfilingDataSource.invoke(target, method, args);
+      } catch (Throwable ex) {
+        profiler.record(sql, System.nanoTime() - start, 0, bound, values, true);
+        throw ex;
+      }
+      long elapsedNanos = System.nanoTime() - start;
+      if (result instanceof ResultSet resultSet) {
+        pending = new PendingQuery(sql, elapsedNanos, bound, values);
+        return track(resultSet);
+      }
+      long rows = 0;
+      if (result instanceof Number count) {
+        rows = count.longValue();
+      } else if (result instanceof int[] counts) {
+        for (int count : counts) {
+          rows += Math.max(0, count);
+        }
+      } else if (result instanceof long[] counts) {
+        for (long count : counts) {
+          rows += Math.max(0, count);
+        }
+      } else if (Boolean.TRUE.equals(result)) {
+        pending = new PendingQuery(sql, elapsedNanos, bound, values);
+        return result;
+      } else if (Boolean.FALSE.equals(result)) {
+        rows = Math.max(0, target.getUpdateCount());
+      }
+      profiler.record(sql, elapsedNanos, rows, bound, values, false);
+      return result;
+    }
+
+    private void bind(int index, Object value) {
+      while (parameterTypes.size() < index) {
+        parameterTypes.add("unset");
+      }
+      parameterTypes.set(index - 1, value == null ? "null" : value.getClass().getSimpleName());
+      if (profiler.isCapturingParameterValues()) {
+        while (parameterValues.size() < index) {
+          parameterValues.add(null);
+        }
+        parameterValues.set(index - 1, value);
+      }
+    }
+
+    private ResultSet track(ResultSet resultSet) {
+      return proxy(ResultSet.class, new ResultSetHandler(resultSet, this));
+    }
+
+    private void countRow() {
+      if (pending != null) {
+        pending.rows += 1;
+      }
+    }
+
+    private void flush() {
+      PendingQuery query = pending;
+      pending = null;
+      if (query != null) {
+        profiler.record(
+            query.sql,
+            query.elapsedNanos,
+            query.rows,
+            query.parameterTypes,
+            query.parameterValues,
+            false);
+      }
+    }
+  }
+
+  private static final class ResultSetHandler implements InvocationHandler {
+    private final ResultSet target;
+    private final StatementHandler statement;
+
+    private ResultSetHandler(ResultSet target, StatementHandler statement) {
+      this.target = target;
+      this.statement = statement;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      Object result = ProfilingDataSource.invoke(target, method, args);
+      String name = method.getName();
+      if ("next".equals(name) && Boolean.TRUE.equals(result)) {
+        statement.countRow();
+      } else if ("close".equals(name)) {
+        statement.flush();
+      }
+      return result;
+    }
+  }
+
+  private static final class PendingQuery {
+    private final String sql;
+    private final long elapsedNanos;
+    private final List<String> parameterTypes;
+    private final List<Object> parameterValues;
+    private long rows;
+
+    private PendingQuery(
+        String sql, long elapsedNanos, List<String> parameterTypes, List<Object> parameterValues) {
+      this.sql = sql;
+      this.elapsedNanos = elapsedNanos;
+      this.parameterTypes = parameterTypes;
+      this.parameterValues = parameterValues;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.vibe.events.config;
+
+import com.vibe.events.util.QueryDeadline;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Applies the calling thread's {@link QueryDeadline} as the query timeout of each statement it
+ * creates. Outside a transaction JdbcTemplate leaves the timeout alone, so the driver cancels the
+ * query server-side once the deadline is reached.
+ */
+public class QueryDeadlineDataSource extends DelegatingDataSource {
+  public QueryDeadlineDataSource(DataSource target) {
+    super(target);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return wrap(obtainTargetDataSource().getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return wrap(obtainTargetDataSource().getConnection(username, password));
+  }
+
+  private Connection wrap(Connection connection) {
+    return (Connection)
+        Proxy.newProxyInstance(
+            QueryDeadlineDataSource.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+              Object result;
+              try {
+                result = method.invoke(connection, args);
+              } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+              }
+              if (result instanceof Statement statement) {
+                int seconds = QueryDeadline.remainingSeconds();
+                if (seconds > 0) {
+                  statement.setQueryTimeout(seconds);
+                }
+              }
+              return result;
+            });
+  }
+}
@@ -0,0 +1,17 @@
+package com.vibe.events.config;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/** Wraps the application DataSource in a {@link QueryDeadlineDataSource}. */
+@Component
+public class QueryDeadlinePostProcessor implements BeanPostProcessor {
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (!(bean instanceof DataSource dataSource) || bean instanceof QueryDeadlineDataSource) {
+      return bean;
+    }
+    return new QueryDeadlineDataSource(dataSource);
+  }
+}
@@ -0,0 +1,29 @@
+package com.vibe.events.config;
+
+import com.vibe.events.service.QueryProfiler;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/** Wraps the application DataSource in a {@link ProfilingDataSource} when profiling is enabled. */
+@Component
+public class QueryProfilerPostProcessor implements BeanPostProcessor {
+  private final ObjectProvider<QueryProfiler> profiler;
+
+  public QueryProfilerPostProcessor(ObjectProvider<QueryProfiler> profiler) {
+    this.profiler = profiler;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (!(bean instanceof DataSource dataSource) || bean instanceof ProfilingDataSource) {
+      return bean;
+    }
+    QueryProfiler queryProfiler = profiler.getIfAvailable();
+    if (queryProfiler == null || !queryProfiler.isEnabled()) {
+      return bean;
+    }
+    return new ProfilingDataSource(dataSource, queryProfiler);
+  }
+}
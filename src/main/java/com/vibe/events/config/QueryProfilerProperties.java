@@ -0,0 +1,70 @@
+package com.vibe.events.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "profiler")
+public class QueryProfilerProperties {
+  private boolean enabled = false;
+  private long slowQueryMs = 500;
+  private int maxShapes = 1000;
+  private int samplesPerShape = 5;
+  private int windowMinutes = 15;
+  private boolean captureParameterValues = false;
+  private int maxParameterLength = 32;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public long getSlowQueryMs() {
+    return slowQueryMs;
+  }
+
+  public void setSlowQueryMs(long slowQueryMs) {
+    this.slowQueryMs = slowQueryMs;
+  }
+
+  public int getMaxShapes() {
+    return maxShapes;
+  }
+
+  public void setMaxShapes(int maxShapes) {
+    this.maxShapes = maxShapes;
+  }
+
+  public int getSamplesPerShape() {
+    return samplesPerShape;
+  }
+
+  public void setSamplesPerShape(int samplesPerShape) {
+    this.samplesPerShape = samplesPerShape;
+  }
+
+  public int getWindowMinutes() {
+    return windowMinutes;
+  }
+
+  public void setWindowMinutes(int windowMinutes) {
+    this.windowMinutes = windowMinutes;
+  }
+
+  public boolean isCaptureParameterValues() {
+    return captureParameterValues;
+  }
+
+  public void setCaptureParameterValues(boolean captureParameterValues) {
+    this.captureParameterValues = captureParameterValues;
+  }
+
+  public int getMaxParameterLength() {
+    return maxParameterLength;
+  }
+
+  public void setMaxParameterLength(int maxParameterLength) {
+    this.maxParameterLength = maxParameterLength;
+  }
+}
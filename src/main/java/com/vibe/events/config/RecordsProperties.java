@@ -0,0 +1,44 @@
+package com.vibe.events.config;
+
+import com.vibe.events.dto.CountMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "records")
+public class RecordsProperties {
+  private CountMode defaultCountMode = CountMode.EXACT;
+  private long countCacheTtlMs = 30000;
+  private long countCacheMaxSize = 10000;
+  private int exportFetchSize = 1000;
+
+  public CountMode getDefaultCountMode() {
+    return defaultCountMode;
+  }
+
+  public void setDefaultCountMode(CountMode defaultCountMode) {
+    this.defaultCountMode = defaultCountMode;
+  }
+
+  public long getCountCacheTtlMs() {
+    return countCacheTtlMs;
+  }
+
+  public void setCountCacheTtlMs(long countCacheTtlMs) {
+    this.countCacheTtlMs = countCacheTtlMs;
+  }
+
+  public long getCountCacheMaxSize() {
+    return countCacheMaxSize;
+  }
+
+  public void setCountCacheMaxSize(long countCacheMaxSize) {
+    this.countCacheMaxSize = countCacheMaxSize;
+  }
+
+  public int getExportFetchSize() {
+    return exportFetchSize;
+  }
+
+  public void setExportFetchSize(int exportFetchSize) {
+    this.exportFetchSize = exportFetchSize;
+  }
+}
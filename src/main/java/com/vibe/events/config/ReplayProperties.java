@@ -0,0 +1,230 @@
+package com.vibe.events.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "replay")
+public class ReplayProperties {
+  private int jobPageSize = 500;
+  private int jobParallelism = 2;
+  private int jobQueueCapacity = 100;
+  private boolean resumeOnStartup = true;
+  private long leaseMs = 300000;
+  private long shutdownAwaitMs = 30000;
+  private long facetCacheTtlMs = 60000;
+  private final Dispatch dispatch = new Dispatch();
+  private final Callbacks callbacks = new Callbacks();
+
+  public int getJobPageSize() {
+    return jobPageSize;
+  }
+
+  public void setJobPageSize(int jobPageSize) {
+    this.jobPageSize = jobPageSize;
+  }
+
+  public int getJobParallelism() {
+    return jobParallelism;
+  }
+
+  public void setJobParallelism(int jobParallelism) {
+    this.jobParallelism = jobParallelism;
+  }
+
+  public int getJobQueueCapacity() {
+    return jobQueueCapacity;
+  }
+
+  public void setJobQueueCapacity(int jobQueueCapacity) {
+    this.jobQueueCapacity = jobQueueCapacity;
+  }
+
+  public boolean isResumeOnStartup() {
+    return resumeOnStartup;
+  }
+
+  public void setResumeOnStartup(boolean resumeOnStartup) {
+    this.resumeOnStartup = resumeOnStartup;
+  }
+
+  public long getLeaseMs() {
+    return leaseMs;
+  }
+
+  public void setLeaseMs(long leaseMs) {
+    this.leaseMs = leaseMs;
+  }
+
+  public long getShutdownAwaitMs() {
+    return shutdownAwaitMs;
+  }
+
+  public void setShutdownAwaitMs(long shutdownAwaitMs) {
+    this.shutdownAwaitMs = shutdownAwaitMs;
+  }
+
+  public long getFacetCacheTtlMs() {
+    return facetCacheTtlMs;
+  }
+
+  public void setFacetCacheTtlMs(long facetCacheTtlMs) {
+    this.facetCacheTtlMs = facetCacheTtlMs;
+  }
+
+  public Dispatch getDispatch() {
+    return dispatch;
+  }
+
+  public Callbacks getCallbacks() {
+    return callbacks;
+  }
+
+  public static class Dispatch {
+    private int poolSize = 32;
+    private int initialConcurrency = 4;
+    private int maxConcurrency = 16;
+    private int minBatchSize = 10;
+    private int initialBatchSize = 50;
+    private int maxBatchSize = 200;
+    private long targetLatencyMs = 500;
+    private long requestTimeoutMs = 30000;
+
+    public int getPoolSize() {
+      return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+      this.poolSize = poolSize;
+    }
+
+    public int getInitialConcurrency() {
+      return initialConcurrency;
+    }
+
+    public void setInitialConcurrency(int initialConcurrency) {
+      this.initialConcurrency = initialConcurrency;
+    }
+
+    public int getMaxConcurrency() {
+      return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+      this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getMinBatchSize() {
+      return minBatchSize;
+    }
+
+    public void setMinBatchSize(int minBatchSize) {
+      this.minBatchSize = minBatchSize;
+    }
+
+    public int getInitialBatchSize() {
+      return initialBatchSize;
+    }
+
+    public void setInitialBatchSize(int initialBatchSize) {
+      this.initialBatchSize = initialBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+      return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+      this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getTargetLatencyMs() {
+      return targetLatencyMs;
+    }
+
+    public void setTargetLatencyMs(long targetLatencyMs) {
+      this.targetLatencyMs = targetLatencyMs;
+    }
+
+    public long getRequestTimeoutMs() {
+      return requestTimeoutMs;
+    }
+
+    public void setRequestTimeoutMs(long requestTimeoutMs) {
+      this.requestTimeoutMs = requestTimeoutMs;
+    }
+  }
+
+  public static class Callbacks {
+    private boolean enabled = true;
+    private String logDir = "data/replay-callbacks";
+    private boolean fsync = true;
+    private int maxPending = 50000;
+    private int flushSize = 1000;
+    private long flushIntervalMs = 200;
+    private long offerTimeoutMs = 2000;
+    private long stopWaitMs = 10000;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public String getLogDir() {
+      return logDir;
+    }
+
+    public void setLogDir(String logDir) {
+      this.logDir = logDir;
+    }
+
+    public boolean isFsync() {
+      return fsync;
+    }
+
+    public void setFsync(boolean fsync) {
+      this.fsync = fsync;
+    }
+
+    public int getMaxPending() {
+      return maxPending;
+    }
+
+    public void setMaxPending(int maxPending) {
+      this.maxPending = maxPending;
+    }
+
+    public int getFlushSize() {
+      return flushSize;
+    }
+
+    public void setFlushSize(int flushSize) {
+      this.flushSize = flushSize;
+    }
+
+    public long getFlushIntervalMs() {
+      return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+      this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public long getOfferTimeoutMs() {
+      return offerTimeoutMs;
+    }
+
+    public void setOfferTimeoutMs(long offerTimeoutMs) {
+      this.offerTimeoutMs = offerTimeoutMs;
+    }
+
+    public long getStopWaitMs() {
+      return stopWaitMs;
+    }
+
+    public void setStopWaitMs(long stopWaitMs) {
+      this.stopWaitMs = stopWaitMs;
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package com.vibe.events.config;
+
+import com.vibe.events.registry.EventDefinition;
+import com.vibe.events.registry.EventRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Times every public repository call as {@code events.repository.query}, tagged with the
+ * repository method and, when an argument names a registered table or event, that table and
+ * event key. Each event has a success and a failure table, so the table tag at most doubles the
+ * series per event. Timers are registered once per method, target and outcome and reused, so a
+ * call only does map lookups.
+ */
+@Component
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+  public static final String METRIC = "events.repository.query";
+  private static final String NONE = "none";
+  private static final String MULTIPLE = "multiple";
+  private static final QueryTarget NO_TARGET = new QueryTarget(NONE, NONE);
+  private static final QueryTarget MULTIPLE_TARGETS = new QueryTarget(MULTIPLE, MULTIPLE);
+
+  private final ObjectProvider<MeterRegistry> meterRegistry;
+  private final ObjectProvider<EventRegistry> eventRegistry;
+  private volatile Map<String, QueryTarget> targets;
+
+  public RepositoryMetricsPostProcessor(
+      ObjectProvider<MeterRegistry> meterRegistry, ObjectProvider<EventRegistry> eventRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.eventRegistry = eventRegistry;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    Class<?> targetClass = AopUtils.getTargetClass(bean);
+    if (!AnnotatedElementUtils.hasAnnotation(targetClass, Repository.class)) {
+      return bean;
+    }
+    ProxyFactory factory = new ProxyFactory(bean);
+    factory.setProxyTargetClass(true);
+    factory.addAdvice(new TimingInterceptor(targetClass.getSimpleName()));
+    return factory.getProxy(targetClass.getClassLoader());
+  }
+
+  private QueryTarget resolveTarget(Object[] arguments) {
+    Map<String, QueryTarget> known = targets();
+    for (Object argument : arguments) {
+      if (argument instanceof String value) {
+        QueryTarget target = known.get(value);
+        if (target != null) {
+          return target;
+        }
+      } else if (argument instanceof List<?> values
+          && !values.isEmpty()
+          && values.get(0) instanceof String first
+          && known.containsKey(first)) {
+        return values.size() == 1 ? known.get(first) : MULTIPLE_TARGETS;
+      }
+    }
+    return NO_TARGET;
+  }
+
+  private Map<String, QueryTarget> targets() {
+    Map<String, QueryTarget> current = targets;
+    if (current == null) {
+      current = new HashMap<>();
+      EventRegistry registry = eventRegistry.getIfAvailable();
+      if (registry != null) {
+        for (EventDefinition definition : registry.all()) {
+          String key = definition.getKey();
+          String successTable = definition.getSuccessTable();
+          String failureTable = definition.getFailureTable();
+          current.put(key, new QueryTarget(NONE, key));
+          current.put(successTable, new QueryTarget(successTable, key));
+          current.put(failureTable, new QueryTarget(failureTable, key));
+        }
+      }
+      targets = current;
+    }
+    return current;
+  }
+
+  private record QueryTarget(String table, String eventKey) {}
+
+  private final class TimingInterceptor implements MethodInterceptor {
+    private final String repository;
+    private final Map<Method, Map<QueryTarget, Timer[]>> timers = new ConcurrentHashMap<>();
+
+    private TimingInterceptor(String repository) {
+      this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+      MeterRegistry registry = meterRegistry.getIfAvailable();
+      Method method = invocation.getMethod();
+      if (registry == null || method.getDeclaringClass() == Object.class) {
+        return invocation.proceed();
+      }
+      long start = System.nanoTime();
+      boolean failed = false;
+      try {
+        return invocation.proceed();
+      } catch (Throwable ex) {
+        failed = true;
+        throw ex;
+      } finally {
+        QueryTarget target = resolveTarget(invocation.getArguments());
+        timers(registry, method, target)[failed ? 1 : 0]
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    private Timer[] timers(MeterRegistry registry, Method method, QueryTarget target) {
+      Map<QueryTarget, Timer[]> byTarget =
+          timers.computeIfAbsent(method, key -> new ConcurrentHashMap<>());
+      Timer[] pair = byTarget.get(target);
+      if (pair == null) {
+        pair =
+            byTarget.computeIfAbsent(
+                target,
+                key ->
+                    new Timer[] {
+                      timer(registry, method, key, "success"), timer(registry, method, key, "error")
+                    });
+      }
+      return pair;
+    }
+
+    private Timer timer(
+        MeterRegistry registry, Method method, QueryTarget target, String outcome) {
+      return Timer.builder(METRIC)
+          .description("Repository query duration")
+          .tag("repository", repository)
+          .tag("method", method.getName())
+          .tag("table", target.table())
+          .tag("event", target.eventKey())
+          .tag("outcome", outcome)
+          .register(registry);
+    }
+  }
+}
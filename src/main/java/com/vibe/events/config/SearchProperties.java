@@ -0,0 +1,52 @@
+package com.vibe.events.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "search")
+public class SearchProperties {
+  private boolean enabled = true;
+  private long refreshDelayMs = 5000;
+  private int chunkSize = 50000;
+  private int maxResults = 200;
+  private long gapHorizonMs = 600000;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public long getRefreshDelayMs() {
+    return refreshDelayMs;
+  }
+
+  public void setRefreshDelayMs(long refreshDelayMs) {
+    this.refreshDelayMs = refreshDelayMs;
+  }
+
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  public void setChunkSize(int chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+
+  public int getMaxResults() {
+    return maxResults;
+  }
+
+  public void setMaxResults(int maxResults) {
+    this.maxResults = maxResults;
+  }
+
+  public long getGapHorizonMs() {
+    return gapHorizonMs;
+  }
+
+  public void setGapHorizonMs(long gapHorizonMs) {
+    this.gapHorizonMs = gapHorizonMs;
+  }
+}
@@ -2,21 +2,29 @@ package com.vibe.events.controller;
 
 import com.vibe.events.dto.EventBucketsResponse;
 import com.vibe.events.dto.EventSummaryResponse;
+import com.vibe.events.dto.FailureRow;
 import com.vibe.events.dto.PagedRowsResponse;
+import com.vibe.events.dto.SuccessRow;
 import com.vibe.events.service.AggregationService;
+import com.vibe.events.service.RecordExport;
 import com.vibe.events.service.RecordsService;
 import com.vibe.events.util.DayValidator;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/days/{day}/events/{eventKey}")
@@ -56,11 +64,13 @@ public class EventDetailsController {
   }
 
   @GetMapping("/success")
-  public PagedRowsResponse getSuccessRows(
+  public PagedRowsResponse<SuccessRow> getSuccessRows(
       @PathVariable String day,
       @PathVariable String eventKey,
       @RequestParam(required = false) Integer page,
       @RequestParam(required = false) Integer size,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) String countMode,
       @RequestParam(required = false) String traceId,
       @RequestParam(required = false) String messageKey,
       @RequestParam(required = false) String accountNumber,
@@ -86,6 +96,8 @@ public class EventDetailsController {
         eventKey,
         page,
         size,
+        cursor,
+        countMode,
         traceId,
         messageKey,
         accountNumber,
@@ -96,11 +108,13 @@ public class EventDetailsController {
   }
 
   @GetMapping("/failures")
-  public PagedRowsResponse getFailureRows(
+  public PagedRowsResponse<FailureRow> getFailureRows(
       @PathVariable String day,
       @PathVariable String eventKey,
       @RequestParam(required = false) Integer page,
       @RequestParam(required = false) Integer size,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) String countMode,
       @RequestParam(required = false) String traceId,
       @RequestParam(required = false) String messageKey,
       @RequestParam(required = false) String accountNumber,
@@ -130,6 +144,8 @@ public class EventDetailsController {
         eventKey,
         page,
         size,
+        cursor,
+        countMode,
         traceId,
         messageKey,
         accountNumber,
@@ -143,6 +159,102 @@ public class EventDetailsController {
         retryAttemptMax);
   }
 
+  @GetMapping("/success/export")
+  public ResponseEntity<StreamingResponseBody> exportSuccessRows(
+      @PathVariable String day,
+      @PathVariable String eventKey,
+      @RequestParam(required = false) String format,
+      @RequestParam(required = false) String columns,
+      @RequestParam(defaultValue = "false") boolean gzip,
+      @RequestParam(required = false) String traceId,
+      @RequestParam(required = false) String messageKey,
+      @RequestParam(required = false) String accountNumber,
+      @RequestParam(required = false) Long latencyMin,
+      @RequestParam(required = false) Long latencyMax,
+      @RequestParam(required = false) Long receivedLatencyMin,
+      @RequestParam(required = false) Long receivedLatencyMax,
+      @RequestParam(required = false) String fromDate,
+      @RequestParam(required = false) String toDate,
+      @RequestParam(required = false) String fromTime,
+      @RequestParam(required = false) String toTime) {
+    LocalDate parsedDay = DayValidator.parseDay(day);
+    LocalDate parsedFrom = fromDate == null ? null : DayValidator.parseDay(fromDate);
+    LocalDate parsedTo = toDate == null ? null : DayValidator.parseDay(toDate);
+    LocalTime parsedFromTime = DayValidator.parseTime(fromTime);
+    LocalTime parsedToTime = DayValidator.parseTime(toTime);
+    RecordExport export =
+        recordsService.prepareSuccessExport(
+            parsedDay,
+            parsedFrom,
+            parsedTo,
+            parsedFromTime,
+            parsedToTime,
+            eventKey,
+            format,
+            columns,
+            gzip,
+            traceId,
+            messageKey,
+            accountNumber,
+            latencyMin,
+            latencyMax,
+            receivedLatencyMin,
+            receivedLatencyMax);
+    return streamExport(export, eventKey + "-success-" + day);
+  }
+
+  @GetMapping("/failures/export")
+  public ResponseEntity<StreamingResponseBody> exportFailureRows(
+      @PathVariable String day,
+      @PathVariable String eventKey,
+      @RequestParam(required = false) String format,
+      @RequestParam(required = false) String columns,
+      @RequestParam(defaultValue = "false") boolean gzip,
+      @RequestParam(required = false) String traceId,
+      @RequestParam(required = false) String messageKey,
+      @RequestParam(required = false) String accountNumber,
+      @RequestParam(required = false) Long latencyMin,
+      @RequestParam(required = false) Long latencyMax,
+      @RequestParam(required = false) Long receivedLatencyMin,
+      @RequestParam(required = false) Long receivedLatencyMax,
+      @RequestParam(required = false) String exceptionType,
+      @RequestParam(required = false) Boolean retriable,
+      @RequestParam(required = false) Integer retryAttemptMin,
+      @RequestParam(required = false) Integer retryAttemptMax,
+      @RequestParam(required = false) String fromDate,
+      @RequestParam(required = false) String toDate,
+      @RequestParam(required = false) String fromTime,
+      @RequestParam(required = false) String toTime) {
+    LocalDate parsedDay = DayValidator.parseDay(day);
+    LocalDate parsedFrom = fromDate == null ? null : DayValidator.parseDay(fromDate);
+    LocalDate parsedTo = toDate == null ? null : DayValidator.parseDay(toDate);
+    LocalTime parsedFromTime = DayValidator.parseTime(fromTime);
+    LocalTime parsedToTime = DayValidator.parseTime(toTime);
+    RecordExport export =
+        recordsService.prepareFailureExport(
+            parsedDay,
+            parsedFrom,
+            parsedTo,
+            parsedFromTime,
+            parsedToTime,
+            eventKey,
+            format,
+            columns,
+            gzip,
+            traceId,
+            messageKey,
+            accountNumber,
+            latencyMin,
+            latencyMax,
+            receivedLatencyMin,
+            receivedLatencyMax,
+            exceptionType,
+            retriable,
+            retryAttemptMin,
+            retryAttemptMax);
+    return streamExport(export, eventKey + "-failures-" + day);
+  }
+
   @GetMapping("/exception-types")
   public List<String> getExceptionTypes(
       @PathVariable String day,
@@ -185,4 +297,13 @@ public class EventDetailsController {
     }
     return row;
   }
+
+  private ResponseEntity<StreamingResponseBody> streamExport(RecordExport export, String prefix) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(export.contentType()))
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(export.fileName(prefix)).build().toString())
+        .body(export::writeTo);
+  }
 }
@@ -1,5 +1,6 @@
 package com.vibe.events.controller;
 
+import com.vibe.events.dto.CountMode;
 import com.vibe.events.dto.HousekeepingDailyResponse;
 import com.vibe.events.dto.HousekeepingPreviewResponse;
 import com.vibe.events.dto.HousekeepingRunHistoryResponse;
@@ -23,7 +24,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/v1/housekeeping")
 public class HousekeepingController {
   private static final Set<String> JOB_TYPES =
-      Set.of("RETENTION", "REPLAY_AUDIT", "HOUSEKEEPING_AUDIT");
+      Set.of("RETENTION", "REPLAY_AUDIT", "HOUSEKEEPING_AUDIT", "PARTITION_MAINTENANCE");
   private final HousekeepingService service;
 
   public HousekeepingController(HousekeepingService service) {
@@ -47,10 +48,12 @@ public class HousekeepingController {
   public HousekeepingPreviewResponse preview(
       @RequestParam(name = "jobType", required = false) String jobType,
       @RequestParam(name = "eventKey", required = false) String eventKey,
-      @RequestParam(name = "refresh", defaultValue = "false") boolean refresh) {
+      @RequestParam(name = "refresh", defaultValue = "false") boolean refresh,
+      @RequestParam(name = "countMode", required = false) String countMode) {
     String normalizedJob = normalizeJobType(jobType);
     String normalizedEvent = normalizeEventKey(normalizedJob, eventKey, true);
-    return service.preview(normalizedJob, normalizedEvent, refresh);
+    return service.preview(
+        normalizedJob, normalizedEvent, refresh, CountMode.parse(countMode, null));
   }
 
   @GetMapping("/status")
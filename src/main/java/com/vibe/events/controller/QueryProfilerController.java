@@ -0,0 +1,43 @@
+package com.vibe.events.controller;
+
+import com.vibe.events.dto.IndexAdviceResponse;
+import com.vibe.events.dto.QueryShapeResponse;
+import com.vibe.events.service.IndexAdvisor;
+import com.vibe.events.service.QueryProfiler;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+public class QueryProfilerController {
+  private final QueryProfiler queryProfiler;
+  private final IndexAdvisor indexAdvisor;
+
+  public QueryProfilerController(QueryProfiler queryProfiler, IndexAdvisor indexAdvisor) {
+    this.queryProfiler = queryProfiler;
+    this.indexAdvisor = indexAdvisor;
+  }
+
+  @GetMapping("/query-shapes")
+  public List<QueryShapeResponse> topShapes(
+      @RequestParam(defaultValue = "20") int limit,
+      @RequestParam(defaultValue = "p95") String sort) {
+    return queryProfiler.top(limit, sort);
+  }
+
+  @DeleteMapping("/query-shapes")
+  public ResponseEntity<Void> reset() {
+    queryProfiler.reset();
+    return ResponseEntity.noContent().build();
+  }
+
+  @GetMapping("/index-advice")
+  public List<IndexAdviceResponse> indexAdvice(@RequestParam(defaultValue = "20") int limit) {
+    return indexAdvisor.advise(limit);
+  }
+}
@@ -9,6 +9,7 @@ import com.vibe.events.dto.ReplayFilterRequest;
 import com.vibe.events.dto.ReplayItemUpdateRequest;
 import com.vibe.events.dto.ReplayJobItemsResponse;
 import com.vibe.events.dto.ReplayJobListResponse;
+import com.vibe.events.dto.ReplayJobProgressResponse;
 import com.vibe.events.dto.ReplayJobResponse;
 import com.vibe.events.dto.ReplayRequest;
 import com.vibe.events.dto.ReplayResponse;
@@ -42,6 +43,7 @@ public class ReplayController {
   }
 
   @PostMapping("/replay-jobs")
+  @ResponseStatus(HttpStatus.ACCEPTED)
   public ReplayJobResponse replayJob(@RequestBody ReplayFilterRequest request) {
     return replayService.replayFilters(request);
   }
@@ -68,6 +70,12 @@ public class ReplayController {
     return replayService.getReplayJobs(eventKey, status, requestedBy, search, page, size);
   }
 
+  @GetMapping("/replay-jobs/{replayId}")
+  public ReplayJobProgressResponse replayJobProgress(
+      @org.springframework.web.bind.annotation.PathVariable String replayId) {
+    return replayService.getReplayJobProgress(replayId);
+  }
+
   @GetMapping("/replay-jobs/{replayId}/items")
   public ReplayJobItemsResponse replayJobItems(
       @org.springframework.web.bind.annotation.PathVariable String replayId) {
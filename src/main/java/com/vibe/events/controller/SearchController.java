@@ -0,0 +1,27 @@
+package com.vibe.events.controller;
+
+import com.vibe.events.dto.SearchResponse;
+import com.vibe.events.service.TraceIndexService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/search")
+public class SearchController {
+  private final TraceIndexService traceIndexService;
+
+  public SearchController(TraceIndexService traceIndexService) {
+    this.traceIndexService = traceIndexService;
+  }
+
+  @GetMapping
+  public SearchResponse search(
+      @RequestParam(required = false) String traceId,
+      @RequestParam(required = false) String messageKey,
+      @RequestParam(required = false) String accountNumber,
+      @RequestParam(required = false) Integer limit) {
+    return traceIndexService.search(traceId, messageKey, accountNumber, limit);
+  }
+}
@@ -0,0 +1,12 @@
+package com.vibe.events.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public interface CachedAggregate<T extends CachedAggregate<T>> {
+  LocalDate day();
+
+  LocalDateTime generatedAt();
+
+  T withStaleSeconds(long staleSeconds);
+}
@@ -0,0 +1,24 @@
+package com.vibe.events.dto;
+
+import com.vibe.events.error.BadRequestException;
+import java.util.Locale;
+
+public enum CountMode {
+  EXACT,
+  LEDGER,
+  ESTIMATE,
+  CACHED,
+  NONE;
+
+  public static CountMode parse(String value, CountMode fallback) {
+    if (value == null || value.isBlank()) {
+      return fallback;
+    }
+    try {
+      return CountMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException ex) {
+      throw new BadRequestException(
+          "countMode must be one of EXACT, LEDGER, ESTIMATE, CACHED, NONE.");
+    }
+  }
+}
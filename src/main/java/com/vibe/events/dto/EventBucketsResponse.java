@@ -9,4 +9,13 @@ public record EventBucketsResponse(
     String eventKey,
     int intervalMinutes,
     LocalDateTime generatedAt,
-    List<BucketPoint> buckets) {}
+    List<BucketPoint> buckets,
+    long staleSeconds)
+    implements CachedAggregate<EventBucketsResponse> {
+
+  @Override
+  public EventBucketsResponse withStaleSeconds(long staleSeconds) {
+    return new EventBucketsResponse(
+        day, eventKey, intervalMinutes, generatedAt, buckets, staleSeconds);
+  }
+}
@@ -0,0 +1,10 @@
+package com.vibe.events.dto;
+
+import java.time.LocalDateTime;
+
+/** The seek key shared by every row read from an event table. */
+public interface EventRow {
+  long id();
+
+  LocalDateTime eventDatetime();
+}
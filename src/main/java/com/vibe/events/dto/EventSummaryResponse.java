@@ -8,4 +8,13 @@ public record EventSummaryResponse(
     String eventKey,
     LocalDateTime generatedAt,
     Kpis kpis,
-    LatencyStages stageLatencies) {}
+    LatencyStages stageLatencies,
+    long staleSeconds)
+    implements CachedAggregate<EventSummaryResponse> {
+
+  @Override
+  public EventSummaryResponse withStaleSeconds(long staleSeconds) {
+    return new EventSummaryResponse(
+        day, eventKey, generatedAt, kpis, stageLatencies, staleSeconds);
+  }
+}
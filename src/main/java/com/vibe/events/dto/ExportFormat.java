@@ -0,0 +1,36 @@
+package com.vibe.events.dto;
+
+import com.vibe.events.error.BadRequestException;
+import java.util.Locale;
+
+public enum ExportFormat {
+  NDJSON("application/x-ndjson", "ndjson"),
+  CSV("text/csv", "csv");
+
+  private final String contentType;
+  private final String extension;
+
+  ExportFormat(String contentType, String extension) {
+    this.contentType = contentType;
+    this.extension = extension;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+  public static ExportFormat parse(String value) {
+    if (value == null || value.isBlank()) {
+      return NDJSON;
+    }
+    try {
+      return ExportFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException ex) {
+      throw new BadRequestException("format must be one of ndjson, csv.");
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.vibe.events.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDateTime;
+
+public record FailureRow(
+    @JsonFormat(shape = JsonFormat.Shape.STRING) long id,
+    @JsonProperty("event_datetime") LocalDateTime eventDatetime,
+    @JsonProperty("event_trace_id") String eventTraceId,
+    @JsonProperty("account_number") String accountNumber,
+    @JsonProperty("exception_type") String exceptionType,
+    @JsonProperty("exception_message") String exceptionMessage,
+    Integer retriable,
+    @JsonProperty("retry_attempt") Integer retryAttempt,
+    @JsonProperty("source_partition_id") Integer sourcePartitionId,
+    @JsonProperty("source_offset") Long sourceOffset,
+    @JsonProperty("latency_event_received_ms") long latencyEventReceivedMs,
+    @JsonProperty("latency_ms") long latencyMs)
+    implements EventRow {}
@@ -9,4 +9,13 @@ public record HomeAggregationResponse(
     LocalDateTime generatedAt,
     Kpis kpis,
     LatencyStages stageLatencies,
-    List<EventBreakdownRow> events) {}
+    List<EventBreakdownRow> events,
+    long staleSeconds)
+    implements CachedAggregate<HomeAggregationResponse> {
+
+  @Override
+  public HomeAggregationResponse withStaleSeconds(long staleSeconds) {
+    return new HomeAggregationResponse(
+        day, generatedAt, kpis, stageLatencies, events, staleSeconds);
+  }
+}
@@ -5,4 +5,15 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 public record HomeBucketsResponse(
-    LocalDate day, int intervalMinutes, LocalDateTime generatedAt, List<BucketPoint> buckets) {}
+    LocalDate day,
+    int intervalMinutes,
+    LocalDateTime generatedAt,
+    List<BucketPoint> buckets,
+    long staleSeconds)
+    implements CachedAggregate<HomeBucketsResponse> {
+
+  @Override
+  public HomeBucketsResponse withStaleSeconds(long staleSeconds) {
+    return new HomeBucketsResponse(day, intervalMinutes, generatedAt, buckets, staleSeconds);
+  }
+}
@@ -0,0 +1,13 @@
+package com.vibe.events.dto;
+
+import java.util.List;
+
+public record IndexAdviceResponse(
+    String table,
+    List<String> columns,
+    String ddl,
+    String extendsIndex,
+    long executions,
+    double totalMs,
+    Double p95Ms,
+    List<String> shapes) {}
@@ -7,6 +7,7 @@ public record Kpis(
     double successRate,
     long retriableFailures,
     double avgLatencyMs,
+    double p50LatencyMs,
     double p95LatencyMs,
     double p99LatencyMs,
     double maxLatencyMs) {}
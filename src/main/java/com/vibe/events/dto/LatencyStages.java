@@ -2,10 +2,12 @@ package com.vibe.events.dto;
 
 public record LatencyStages(
     double avgReceivedLatencyMs,
+    double p50ReceivedLatencyMs,
     double p95ReceivedLatencyMs,
     double p99ReceivedLatencyMs,
     double maxReceivedLatencyMs,
     double avgSentLatencyMs,
+    double p50SentLatencyMs,
     double p95SentLatencyMs,
     double p99SentLatencyMs,
     double maxSentLatencyMs) {}
@@ -1,6 +1,13 @@
 package com.vibe.events.dto;
 
 import java.util.List;
-import java.util.Map;
 
-public record PagedRowsResponse(int page, int size, long total, List<Map<String, Object>> rows) {}
+public record PagedRowsResponse<T extends EventRow>(
+    int page,
+    int size,
+    Long total,
+    boolean totalApproximate,
+    CountMode countMode,
+    boolean hasMore,
+    List<T> rows,
+    String nextCursor) {}
@@ -0,0 +1,19 @@
+package com.vibe.events.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record QueryShapeResponse(
+    String shape,
+    long executions,
+    long errors,
+    double totalMs,
+    double avgMs,
+    double avgRows,
+    long windowExecutions,
+    Double p50Ms,
+    Double p95Ms,
+    Double p99Ms,
+    Double maxMs,
+    LocalDateTime lastSeenAt,
+    List<SlowQuerySample> slowSamples) {}
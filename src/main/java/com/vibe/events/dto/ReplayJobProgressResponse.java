@@ -0,0 +1,19 @@
+package com.vibe.events.dto;
+
+import java.time.LocalDateTime;
+
+public record ReplayJobProgressResponse(
+    String jobId,
+    String eventKey,
+    String status,
+    int requested,
+    int processed,
+    int succeeded,
+    int failed,
+    int queued,
+    Double percentComplete,
+    String checkpoint,
+    String lastError,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt,
+    LocalDateTime completedAt) {}
@@ -0,0 +1,14 @@
+package com.vibe.events.dto;
+
+import java.time.LocalDateTime;
+
+public record SearchHit(
+    String eventKey,
+    String eventName,
+    String category,
+    String outcome,
+    long id,
+    LocalDateTime eventDatetime,
+    String traceId,
+    String messageKey,
+    String accountNumber) {}
@@ -0,0 +1,6 @@
+package com.vibe.events.dto;
+
+import java.util.List;
+
+public record SearchResponse(
+    String field, String value, int limit, boolean truncated, List<SearchHit> hits) {}
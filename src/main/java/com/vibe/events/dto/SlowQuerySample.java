@@ -0,0 +1,12 @@
+package com.vibe.events.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record SlowQuerySample(
+    LocalDateTime at,
+    double elapsedMs,
+    long rows,
+    boolean error,
+    List<String> parameterTypes,
+    List<String> parameterValues) {}
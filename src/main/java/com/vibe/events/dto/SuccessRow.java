@@ -0,0 +1,19 @@
+package com.vibe.events.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDateTime;
+
+public record SuccessRow(
+    @JsonFormat(shape = JsonFormat.Shape.STRING) long id,
+    @JsonProperty("event_datetime") LocalDateTime eventDatetime,
+    @JsonProperty("event_trace_id") String eventTraceId,
+    @JsonProperty("account_number") String accountNumber,
+    @JsonProperty("customer_type") String customerType,
+    @JsonProperty("source_partition_id") Integer sourcePartitionId,
+    @JsonProperty("target_partition_id") Integer targetPartitionId,
+    @JsonProperty("source_offset") Long sourceOffset,
+    @JsonProperty("target_offset") Long targetOffset,
+    @JsonProperty("latency_event_received_ms") long latencyEventReceivedMs,
+    @JsonProperty("latency_ms") long latencyMs)
+    implements EventRow {}
@@ -0,0 +1,16 @@
+package com.vibe.events.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record WarmupStatusResponse(
+    int parallelism,
+    int pending,
+    int running,
+    long completed,
+    long failed,
+    long deduplicated,
+    long throttled,
+    Double poolUtilization,
+    LocalDateTime lastCompletedAt,
+    List<String> runningTasks) {}
@@ -0,0 +1,7 @@
+package com.vibe.events.error;
+
+public class DeadlineExceededException extends RuntimeException {
+  public DeadlineExceededException(String message) {
+    super(message);
+  }
+}
@@ -5,6 +5,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -28,6 +29,29 @@ public class GlobalExceptionHandler {
     return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage(), request.getRequestURI());
   }
 
+  @ExceptionHandler(DeadlineExceededException.class)
+  public ResponseEntity<ErrorResponse> handleDeadlineExceeded(
+      DeadlineExceededException ex, HttpServletRequest request) {
+    log.warn("Deadline exceeded: {} {}", request.getMethod(), request.getRequestURI(), ex);
+    return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request.getRequestURI());
+  }
+
+  @ExceptionHandler(OverloadedException.class)
+  public ResponseEntity<ErrorResponse> handleOverloaded(
+      OverloadedException ex, HttpServletRequest request) {
+    log.warn("Overloaded: {} {} {}", request.getMethod(), request.getRequestURI(), ex.getMessage());
+    ErrorResponse response =
+        new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+            ex.getMessage(),
+            request.getRequestURI());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+        .body(response);
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ErrorResponse> handleGeneric(Exception ex, HttpServletRequest request) {
     if (isClientAbort(ex)) {
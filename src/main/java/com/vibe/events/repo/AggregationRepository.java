@@ -1,7 +1,10 @@
 package com.vibe.events.repo;
 
+import com.vibe.events.util.LatencySketch;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -254,7 +257,7 @@ public class AggregationRepository {
       int percentileBucketMs,
       int percentileSampleSizePerTable) {
     if (totalCount <= 0 || tables == null || tables.isEmpty()) {
-      return new LatencyStats(null, null, null);
+      return new LatencyStats(null, null, null, null);
     }
     if (percentileSampleSizePerTable > 0) {
       String unionSql =
@@ -263,6 +266,9 @@ public class AggregationRepository {
               .collect(Collectors.joining(" UNION ALL "));
       long sampleCount =
           Math.min(totalCount, (long) percentileSampleSizePerTable * tables.size());
+      Double p50 =
+          loadLatencyPercentile(
+              unionSql, day, sampleCount, 0.50, percentileSampleSizePerTable);
       Double p95 =
           loadLatencyPercentile(
               unionSql, day, sampleCount, 0.95, percentileSampleSizePerTable);
@@ -270,27 +276,33 @@ public class AggregationRepository {
           loadLatencyPercentile(
               unionSql, day, sampleCount, 0.99, percentileSampleSizePerTable);
       Double max = loadLatencyMax(unionSql, day, percentileSampleSizePerTable);
-      return new LatencyStats(p95, p99, max);
+      return new LatencyStats(p50, p95, p99, max);
     }
     if (percentileBucketMs <= 0) {
+      Double p50 = loadLatencyPercentileAcrossTables(tables, column, day, totalCount, 0.50);
       Double p95 = loadLatencyPercentileAcrossTables(tables, column, day, totalCount, 0.95);
       Double p99 = loadLatencyPercentileAcrossTables(tables, column, day, totalCount, 0.99);
       Double max = loadMaxLatencyAcrossTables(tables, column, day);
-      return new LatencyStats(p95, p99, max);
+      return new LatencyStats(p50, p95, p99, max);
     }
 
     List<LatencyBucket> buckets =
         loadLatencyBucketsAcrossTables(tables, column, day, percentileBucketMs);
     if (buckets.isEmpty()) {
-      return new LatencyStats(null, null, null);
+      return new LatencyStats(null, null, null, null);
     }
+    long targetP50 = Math.max(0, (long) Math.ceil(totalCount * 0.50));
     long targetP95 = Math.max(0, (long) Math.ceil(totalCount * 0.95));
     long targetP99 = Math.max(0, (long) Math.ceil(totalCount * 0.99));
     long running = 0;
+    Double p50 = null;
     Double p95 = null;
     Double p99 = null;
     for (LatencyBucket bucket : buckets) {
       running += bucket.count();
+      if (p50 == null && running >= targetP50) {
+        p50 = (bucket.bucket() + 1) * (double) percentileBucketMs;
+      }
       if (p95 == null && running >= targetP95) {
         p95 = (bucket.bucket() + 1) * (double) percentileBucketMs;
       }
@@ -303,7 +315,91 @@ public class AggregationRepository {
     }
     LatencyBucket last = buckets.get(buckets.size() - 1);
     Double max = (last.bucket() + 1) * (double) percentileBucketMs;
-    return new LatencyStats(p95, p99, max);
+    return new LatencyStats(p50, p95, p99, max);
+  }
+
+  /**
+   * Reads the day's rows of {@code table} once. The rows are cross-joined with a short list of
+   * roles so a single GROUP BY yields both the per-minute counts and sums (role -1) and the
+   * {@link LatencySketch} bins of each latency column (role = column index).
+   */
+  public MinuteScan loadMinuteScan(String table, boolean failureTable, LocalDate day) {
+    DateTimeRange range = dayRange(day);
+    List<String> columns = scanLatencyColumns(failureTable);
+    StringBuilder roles = new StringBuilder("SELECT -1 AS role");
+    StringBuilder key = new StringBuilder("CASE r.role");
+    StringBuilder value = new StringBuilder("CASE r.role");
+    for (int c = 0; c < columns.size(); c += 1) {
+      String column = columns.get(c);
+      roles.append(" UNION ALL SELECT ").append(c);
+      key.append(" WHEN ")
+          .append(c)
+          .append(" THEN ")
+          .append(LatencySketchRepository.binExpression(column));
+      value.append(" WHEN ").append(c).append(" THEN ").append(column);
+    }
+    key.append(" ELSE HOUR(event_datetime) * 60 + MINUTE(event_datetime) END");
+    value.append(" END");
+    StringBuilder sql =
+        new StringBuilder("SELECT r.role AS role, ")
+            .append(key)
+            .append(" AS scan_key, COUNT(*) AS row_count, ");
+    sql.append(failureTable ? "SUM(CASE WHEN retriable = 1 THEN 1 ELSE 0 END)" : "0")
+        .append(" AS retriable_count, ");
+    for (int c = 0; c < columns.size(); c += 1) {
+      sql.append("SUM(").append(columns.get(c)).append(") AS sum_").append(c).append(", ");
+    }
+    sql.append("MAX(")
+        .append(value)
+        .append(") AS max_value FROM ")
+        .append(table)
+        .append(" CROSS JOIN (")
+        .append(roles)
+        .append(") r WHERE event_datetime >= :startTs AND event_datetime < :endTs")
+        .append(" GROUP BY r.role, scan_key");
+    List<MinuteScanRow> minutes = new ArrayList<>();
+    Map<String, LatencySketch> sketches = new HashMap<>();
+    for (String column : columns) {
+      sketches.put(column, new LatencySketch());
+    }
+    jdbcClient
+        .sql(sql.toString())
+        .param("startTs", range.start())
+        .param("endTs", range.end())
+        .query(
+            rs -> {
+              int role = rs.getInt("role");
+              Object scanKey = rs.getObject("scan_key");
+              long rowCount = rs.getLong("row_count");
+              if (role < 0) {
+                long[] sums = new long[columns.size()];
+                for (int c = 0; c < columns.size(); c += 1) {
+                  sums[c] = rs.getLong("sum_" + c);
+                }
+                minutes.add(
+                    new MinuteScanRow(
+                        ((Number) scanKey).intValue(),
+                        rowCount,
+                        rs.getLong("retriable_count"),
+                        columns,
+                        sums));
+              } else if (scanKey == null) {
+                sketches.get(columns.get(role)).addZeros(rowCount);
+              } else {
+                sketches
+                    .get(columns.get(role))
+                    .addToBin(
+                        ((Number) scanKey).intValue(), rowCount, rs.getLong("max_value"));
+              }
+            });
+    minutes.sort(Comparator.comparingInt(MinuteScanRow::minuteOfDay));
+    return new MinuteScan(minutes, sketches);
+  }
+
+  private List<String> scanLatencyColumns(boolean failureTable) {
+    return failureTable
+        ? List.of("latency_ms", "latency_event_received_ms")
+        : List.of("latency_ms", "latency_event_received_ms", "latency_event_sent_ms");
   }
 
   private String baseLatencySelect(String table, String column) {
@@ -401,7 +497,16 @@ public class AggregationRepository {
 
   private record DateTimeRange(LocalDateTime start, LocalDateTime end) {}
 
-  public record LatencyStats(Double p95, Double p99, Double max) {}
+  public record MinuteScan(List<MinuteScanRow> minutes, Map<String, LatencySketch> sketches) {}
+
+  public record MinuteScanRow(
+      int minuteOfDay,
+      long rowCount,
+      long retriableCount,
+      List<String> columns,
+      long[] latencySums) {}
+
+  public record LatencyStats(Double p50, Double p95, Double p99, Double max) {}
 
   private record LatencyBucket(int bucket, long count) {}
 }
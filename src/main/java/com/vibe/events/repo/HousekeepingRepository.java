@@ -1,5 +1,6 @@
 package com.vibe.events.repo;
 
+import java.sql.ResultSetMetaData;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -356,19 +357,20 @@ public class HousekeepingRepository {
         SET status = :status,
             deleted_success = :deletedSuccess,
             deleted_failure = :deletedFailure,
-            deleted_total = :deletedTotal
+            deleted_total = :deletedTotal,
+            rows_per_sec = :rowsPerSec,
+            progress_at = :progressAt
         WHERE id = :id
         """;
-    jdbcClient
-        .sql(sql)
-        .params(
-            Map.of(
-                "id", progress.id(),
-                "status", progress.status(),
-                "deletedSuccess", progress.deletedSuccess(),
-                "deletedFailure", progress.deletedFailure(),
-                "deletedTotal", progress.deletedTotal()))
-        .update();
+    Map<String, Object> params = new java.util.HashMap<>();
+    params.put("id", progress.id());
+    params.put("status", progress.status());
+    params.put("deletedSuccess", progress.deletedSuccess());
+    params.put("deletedFailure", progress.deletedFailure());
+    params.put("deletedTotal", progress.deletedTotal());
+    params.put("rowsPerSec", progress.rowsPerSec());
+    params.put("progressAt", LocalDateTime.now());
+    jdbcClient.sql(sql).params(params).update();
   }
 
   public void updateRun(HousekeepingRunUpdate update) {
@@ -867,12 +869,67 @@ public class HousekeepingRepository {
     return count == null ? 0 : count;
   }
 
-  public int deleteOldRows(String table, LocalDateTime cutoff, int limit) {
+  public boolean hasOldRows(String table, LocalDateTime cutoff) {
+    String sql = "SELECT 1 FROM " + table + " WHERE event_datetime < :cutoff LIMIT 1";
+    return jdbcClient.sql(sql).param("cutoff", cutoff).query(Integer.class).optional().isPresent();
+  }
+
+  public Long estimateOldRows(String table, LocalDateTime cutoff) {
+    String sql = "EXPLAIN SELECT id FROM " + table + " WHERE event_datetime < :cutoff";
+    return jdbcClient
+        .sql(sql)
+        .param("cutoff", cutoff)
+        .query(
+            rs -> {
+              ResultSetMetaData meta = rs.getMetaData();
+              int rowsColumn = 0;
+              for (int i = 1; i <= meta.getColumnCount(); i += 1) {
+                if ("rows".equalsIgnoreCase(meta.getColumnLabel(i))) {
+                  rowsColumn = i;
+                }
+              }
+              if (rowsColumn == 0) {
+                return null;
+              }
+              Long estimate = null;
+              while (rs.next()) {
+                long rows = rs.getLong(rowsColumn);
+                if (!rs.wasNull()) {
+                  estimate = estimate == null ? rows : Math.max(estimate, rows);
+                }
+              }
+              return estimate;
+            });
+  }
+
+  public PurgeIdRange loadPurgeIdRange(String table, LocalDateTime cutoff) {
     String sql =
-        "DELETE FROM " + table + " WHERE event_datetime < :cutoff ORDER BY event_datetime LIMIT :limit";
+        "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM "
+            + table
+            + " WHERE event_datetime < :cutoff";
     return jdbcClient
         .sql(sql)
-        .params(Map.of("cutoff", cutoff, "limit", limit))
+        .param("cutoff", cutoff)
+        .query(
+            (rs, rowNum) -> {
+              long minId = rs.getLong("min_id");
+              if (rs.wasNull()) {
+                return null;
+              }
+              return new PurgeIdRange(minId, rs.getLong("max_id"));
+            })
+        .optional()
+        .orElse(null);
+  }
+
+  public int deleteIdRange(String table, long fromId, long toId, LocalDateTime cutoff) {
+    String sql =
+        "DELETE FROM "
+            + table
+            + " WHERE id >= :fromId AND id <= :toId AND event_datetime < :cutoff";
+    return jdbcClient
+        .sql(sql)
+        .params(Map.of("fromId", fromId, "toId", toId, "cutoff", cutoff))
         .update();
   }
 
@@ -1015,7 +1072,10 @@ public class HousekeepingRepository {
       String status,
       long deletedSuccess,
       long deletedFailure,
-      long deletedTotal) {}
+      long deletedTotal,
+      Double rowsPerSec) {}
+
+  public record PurgeIdRange(long minId, long maxId) {}
 
   public record HousekeepingRunUpdate(
       String id,
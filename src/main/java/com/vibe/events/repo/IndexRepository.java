@@ -0,0 +1,56 @@
+package com.vibe.events.repo;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class IndexRepository {
+  private final JdbcTemplate jdbcTemplate;
+
+  public IndexRepository(DataSource dataSource) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  // JDBC metadata rather than information_schema so the same lookup works on H2 in tests.
+  public List<TableIndex> loadIndexes(String table) {
+    List<TableIndex> indexes =
+        jdbcTemplate.execute(
+            (ConnectionCallback<List<TableIndex>>)
+                connection -> {
+                  Map<String, TreeMap<Short, String>> columns = new LinkedHashMap<>();
+                  DatabaseMetaData metaData = connection.getMetaData();
+                  try (ResultSet rs =
+                      metaData.getIndexInfo(
+                          connection.getCatalog(), connection.getSchema(), table, false, true)) {
+                    while (rs.next()) {
+                      String index = rs.getString("INDEX_NAME");
+                      String column = rs.getString("COLUMN_NAME");
+                      if (index == null || column == null) {
+                        continue;
+                      }
+                      columns
+                          .computeIfAbsent(index, key -> new TreeMap<>())
+                          .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+                    }
+                  }
+                  List<TableIndex> result = new ArrayList<>(columns.size());
+                  columns.forEach(
+                      (name, ordered) ->
+                          result.add(new TableIndex(name, List.copyOf(ordered.values()))));
+                  return result;
+                });
+    return indexes == null ? List.of() : indexes;
+  }
+
+  public record TableIndex(String name, List<String> columns) {}
+}
@@ -0,0 +1,220 @@
+package com.vibe.events.repo;
+
+import com.vibe.events.util.LatencySketch;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class LatencySketchRepository {
+  private final JdbcClient jdbcClient;
+  private final NamedParameterJdbcTemplate batchTemplate;
+
+  public LatencySketchRepository(JdbcClient jdbcClient, NamedParameterJdbcTemplate batchTemplate) {
+    this.jdbcClient = jdbcClient;
+    this.batchTemplate = batchTemplate;
+  }
+
+  public Map<LocalDateTime, LatencySketch> buildHourlySketches(
+      String table, String column, long fromId, long toId) {
+    String bin = binExpression(column);
+    String sql =
+        "SELECT CAST(event_datetime AS DATE) AS bucket_day, "
+            + "HOUR(event_datetime) AS bucket_hour, "
+            + bin
+            + " AS bin, "
+            + "COUNT(*) AS value_count, "
+            + "MAX("
+            + column
+            + ") AS max_value "
+            + "FROM "
+            + table
+            + " WHERE id > :fromId AND id <= :toId "
+            + "GROUP BY CAST(event_datetime AS DATE), HOUR(event_datetime), "
+            + bin;
+    List<SketchBin> bins =
+        jdbcClient
+            .sql(sql)
+            .param("fromId", fromId)
+            .param("toId", toId)
+            .query(
+                (rs, rowNum) ->
+                    new SketchBin(
+                        rs.getObject("bucket_day", LocalDate.class)
+                            .atTime(rs.getInt("bucket_hour"), 0),
+                        toBin(rs.getObject("bin")),
+                        rs.getLong("value_count"),
+                        rs.getLong("max_value")))
+            .list();
+    Map<LocalDateTime, LatencySketch> sketches = new LinkedHashMap<>();
+    for (SketchBin sketchBin : bins) {
+      LatencySketch sketch =
+          sketches.computeIfAbsent(sketchBin.bucketStart(), key -> new LatencySketch());
+      if (sketchBin.bin() == null) {
+        sketch.addZeros(sketchBin.count());
+      } else {
+        sketch.addToBin(sketchBin.bin(), sketchBin.count(), sketchBin.maxValue());
+      }
+    }
+    return sketches;
+  }
+
+  /**
+   * Adds {@code sketches} to the stored hourly sketches. Must run inside the chunk transaction: the
+   * rows are created if missing and then read FOR UPDATE in bucket order, so a concurrent merge
+   * into the same bucket (another instance, or a gap recheck) waits instead of overwriting it.
+   */
+  public void mergeSketches(
+      String table, String column, Map<LocalDateTime, LatencySketch> sketches) {
+    if (sketches.isEmpty()) {
+      return;
+    }
+    String ensureSql =
+        """
+        INSERT INTO event_latency_sketches (
+          table_name,
+          column_name,
+          bucket_start,
+          value_count,
+          max_value,
+          sketch,
+          updated_at
+        ) VALUES (
+          :tableName,
+          :columnName,
+          :bucketStart,
+          0,
+          0,
+          :sketch,
+          :updatedAt
+        )
+        ON DUPLICATE KEY UPDATE updated_at = updated_at
+        """;
+    String lockSql =
+        """
+        SELECT bucket_start, sketch
+        FROM event_latency_sketches
+        WHERE table_name = :tableName
+          AND column_name = :columnName
+          AND bucket_start IN (:bucketStarts)
+        ORDER BY bucket_start
+        FOR UPDATE
+        """;
+    String updateSql =
+        """
+        UPDATE event_latency_sketches
+        SET value_count = :valueCount,
+            max_value = :maxValue,
+            sketch = :sketch,
+            updated_at = :updatedAt
+        WHERE table_name = :tableName
+          AND column_name = :columnName
+          AND bucket_start = :bucketStart
+        """;
+    LocalDateTime now = LocalDateTime.now();
+    List<LocalDateTime> buckets = new ArrayList<>(sketches.keySet());
+    buckets.sort(null);
+    byte[] empty = new LatencySketch().toBytes();
+    SqlParameterSource[] ensure = new SqlParameterSource[buckets.size()];
+    for (int i = 0; i < buckets.size(); i += 1) {
+      ensure[i] =
+          new MapSqlParameterSource()
+              .addValue("tableName", table)
+              .addValue("columnName", column)
+              .addValue("bucketStart", buckets.get(i))
+              .addValue("sketch", empty)
+              .addValue("updatedAt", now);
+    }
+    batchTemplate.batchUpdate(ensureSql, ensure);
+
+    Map<LocalDateTime, LatencySketch> stored = new HashMap<>();
+    jdbcClient
+        .sql(lockSql)
+        .param("tableName", table)
+        .param("columnName", column)
+        .param("bucketStarts", buckets)
+        .query(
+            rs -> {
+              stored.put(
+                  rs.getObject("bucket_start", LocalDateTime.class),
+                  LatencySketch.fromBytes(rs.getBytes("sketch")));
+            });
+
+    SqlParameterSource[] updates = new SqlParameterSource[buckets.size()];
+    for (int i = 0; i < buckets.size(); i += 1) {
+      LocalDateTime bucket = buckets.get(i);
+      LatencySketch merged = stored.getOrDefault(bucket, new LatencySketch());
+      merged.merge(sketches.get(bucket));
+      updates[i] =
+          new MapSqlParameterSource()
+              .addValue("tableName", table)
+              .addValue("columnName", column)
+              .addValue("bucketStart", bucket)
+              .addValue("valueCount", merged.getCount())
+              .addValue("maxValue", merged.getMax() == null ? 0L : merged.getMax().longValue())
+              .addValue("sketch", merged.toBytes())
+              .addValue("updatedAt", now);
+    }
+    batchTemplate.batchUpdate(updateSql, updates);
+  }
+
+  public LatencySketch loadMergedSketch(
+      List<String> tables, String column, LocalDateTime start, LocalDateTime end) {
+    String sql =
+        """
+        SELECT sketch
+        FROM event_latency_sketches
+        WHERE table_name IN (:tableNames)
+          AND column_name = :columnName
+          AND bucket_start >= :startTs
+          AND bucket_start < :endTs
+        """;
+    LatencySketch merged = new LatencySketch();
+    jdbcClient
+        .sql(sql)
+        .param("tableNames", tables)
+        .param("columnName", column)
+        .param("startTs", start)
+        .param("endTs", end)
+        .query(rs -> {
+          merged.merge(LatencySketch.fromBytes(rs.getBytes("sketch")));
+        });
+    return merged;
+  }
+
+  public int deleteSketchesBefore(String table, LocalDateTime cutoff) {
+    String sql =
+        """
+        DELETE FROM event_latency_sketches
+        WHERE table_name = :tableName AND bucket_start < :cutoff
+        """;
+    return jdbcClient.sql(sql).param("tableName", table).param("cutoff", cutoff).update();
+  }
+
+  /** SQL for the {@link LatencySketch} bin of {@code column}; NULL for values of zero or less. */
+  static String binExpression(String column) {
+    return "CASE WHEN "
+        + column
+        + " > 0 THEN CEIL(LN("
+        + column
+        + ") / "
+        + LatencySketch.LN_GAMMA
+        + ") ELSE NULL END";
+  }
+
+  private static Integer toBin(Object value) {
+    return value == null ? null : ((Number) value).intValue();
+  }
+
+  private record SketchBin(
+      LocalDateTime bucketStart, Integer bin, long count, long maxValue) {}
+}
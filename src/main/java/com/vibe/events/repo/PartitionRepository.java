@@ -0,0 +1,93 @@
+package com.vibe.events.repo;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class PartitionRepository {
+  private static final String MAXVALUE = "MAXVALUE";
+
+  private final JdbcClient jdbcClient;
+
+  public PartitionRepository(JdbcClient jdbcClient) {
+    this.jdbcClient = jdbcClient;
+  }
+
+  public List<PartitionRow> loadPartitions(String table) {
+    String sql =
+        """
+        SELECT partition_name, partition_description, table_rows
+        FROM information_schema.partitions
+        WHERE table_schema = DATABASE()
+          AND table_name = :table
+          AND partition_name IS NOT NULL
+        ORDER BY partition_ordinal_position
+        """;
+    return jdbcClient
+        .sql(sql)
+        .param("table", table)
+        .query(
+            (rs, rowNum) ->
+                new PartitionRow(
+                    rs.getString("partition_name"),
+                    parseUpperBound(rs.getString("partition_description")),
+                    rs.getLong("table_rows")))
+        .list();
+  }
+
+  public void addPartitions(String table, String maxPartition, List<LocalDate> days) {
+    StringBuilder definitions = new StringBuilder();
+    for (LocalDate day : days) {
+      if (!definitions.isEmpty()) {
+        definitions.append(", ");
+      }
+      definitions
+          .append("PARTITION ")
+          .append(partitionName(day))
+          .append(" VALUES LESS THAN ('")
+          .append(day.plusDays(1))
+          .append("')");
+    }
+    String sql;
+    if (maxPartition == null) {
+      sql = "ALTER TABLE " + table + " ADD PARTITION (" + definitions + ")";
+    } else {
+      sql =
+          "ALTER TABLE "
+              + table
+              + " REORGANIZE PARTITION "
+              + maxPartition
+              + " INTO ("
+              + definitions
+              + ", PARTITION "
+              + maxPartition
+              + " VALUES LESS THAN (MAXVALUE))";
+    }
+    jdbcClient.sql(sql).update();
+  }
+
+  public void dropPartitions(String table, List<String> partitions) {
+    jdbcClient
+        .sql("ALTER TABLE " + table + " DROP PARTITION " + String.join(", ", partitions))
+        .update();
+  }
+
+  public static String partitionName(LocalDate day) {
+    return "p" + day.toString().replace("-", "");
+  }
+
+  private LocalDate parseUpperBound(String description) {
+    if (description == null) {
+      return null;
+    }
+    String value = description.replace("'", "").trim();
+    if (value.isEmpty() || MAXVALUE.equalsIgnoreCase(value)) {
+      return null;
+    }
+    return LocalDate.parse(value.substring(0, Math.min(10, value.length())));
+  }
+
+  public record PartitionRow(String name, LocalDate upperBound, long estimatedRows) {}
+}
@@ -1,10 +1,22 @@
 package com.vibe.events.repo;
 
+import com.vibe.events.config.RecordsProperties;
+import com.vibe.events.dto.EventRow;
+import com.vibe.events.dto.FailureRow;
+import com.vibe.events.dto.SuccessRow;
+import com.vibe.events.util.PageCursor;
 import com.vibe.events.util.RowMapperUtil;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.stereotype.Repository;
 
@@ -21,11 +33,76 @@ public class RecordsRepository {
           + "source_partition_id, source_offset, "
           + "latency_event_received_ms, latency_ms";
 
-  public RecordsRepository(JdbcClient jdbcClient) {
+  private static final List<String> REPLAY_COLUMN_LIST =
+      List.of(
+          "id",
+          "event_datetime",
+          "event_trace_id",
+          "message_key",
+          "account_number",
+          "exception_type",
+          "source_payload");
+  private static final String REPLAY_COLUMNS = String.join(", ", REPLAY_COLUMN_LIST);
+  public static final List<String> SUCCESS_EXPORT_COLUMNS =
+      List.of(
+          "id",
+          "event_datetime",
+          "event_trace_id",
+          "account_number",
+          "customer_type",
+          "created_at",
+          "source_topic",
+          "source_partition_id",
+          "source_offset",
+          "message_key",
+          "source_payload",
+          "transformed_payload",
+          "latency_ms",
+          "latency_event_received_ms",
+          "latency_event_sent_ms",
+          "target_topic",
+          "target_partition_id",
+          "target_offset");
+  public static final List<String> FAILURE_EXPORT_COLUMNS =
+      List.of(
+          "id",
+          "event_datetime",
+          "event_trace_id",
+          "account_number",
+          "customer_type",
+          "created_at",
+          "source_topic",
+          "source_partition_id",
+          "source_offset",
+          "message_key",
+          "source_payload",
+          "transformed_payload",
+          "latency_ms",
+          "latency_event_received_ms",
+          "target_topic",
+          "target_partition_id",
+          "target_offset",
+          "exception_type",
+          "exception_message",
+          "exception_stack",
+          "retriable",
+          "retry_attempt");
+  public static final List<String> SUCCESS_DEFAULT_EXPORT_COLUMNS =
+      List.of(SUCCESS_LIST_COLUMNS.split(",\\s*"));
+  public static final List<String> FAILURE_DEFAULT_EXPORT_COLUMNS =
+      List.of(FAILURE_LIST_COLUMNS.split(",\\s*"));
+
+  private final NamedParameterJdbcTemplate streamingTemplate;
+
+  public RecordsRepository(
+      JdbcClient jdbcClient, DataSource dataSource, RecordsProperties properties) {
     this.jdbcClient = jdbcClient;
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.setFetchSize(properties.getExportFetchSize());
+    this.streamingTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
   }
 
-  public List<Map<String, Object>> loadSuccessRows(
+  public List<SuccessRow> loadSuccessRows(
       String successTable,
       LocalDateTime startTimestamp,
       LocalDateTime endTimestamp,
@@ -37,50 +114,32 @@ public class RecordsRepository {
       Long latencyMax,
       Long receivedLatencyMin,
       Long receivedLatencyMax,
+      PageCursor cursor,
       int offset,
       int limit) {
     StringBuilder sql =
         new StringBuilder("SELECT ").append(SUCCESS_LIST_COLUMNS).append(" FROM ").append(successTable);
     Map<String, Object> params = new HashMap<>();
-    sql.append(" WHERE event_datetime >= :startTs AND event_datetime ");
-    sql.append(endInclusive ? "<= :endTs" : "< :endTs");
-    params.put("startTs", startTimestamp);
-    params.put("endTs", endTimestamp);
-
-    if (traceId != null && !traceId.isBlank()) {
-      sql.append(" AND event_trace_id = :traceId");
-      params.put("traceId", traceId);
-    }
-    if (messageKey != null && !messageKey.isBlank()) {
-      sql.append(" AND message_key = :messageKey");
-      params.put("messageKey", messageKey);
-    }
-    if (accountNumber != null && !accountNumber.isBlank()) {
-      sql.append(" AND account_number = :accountNumber");
-      params.put("accountNumber", accountNumber);
-    }
-    if (latencyMin != null) {
-      sql.append(" AND latency_ms >= :latencyMin");
-      params.put("latencyMin", latencyMin);
-    }
-    if (latencyMax != null) {
-      sql.append(" AND latency_ms <= :latencyMax");
-      params.put("latencyMax", latencyMax);
-    }
-    if (receivedLatencyMin != null) {
-      sql.append(" AND latency_event_received_ms >= :receivedLatencyMin");
-      params.put("receivedLatencyMin", receivedLatencyMin);
-    }
-    if (receivedLatencyMax != null) {
-      sql.append(" AND latency_event_received_ms <= :receivedLatencyMax");
-      params.put("receivedLatencyMax", receivedLatencyMax);
-    }
-
-    sql.append(" ORDER BY event_datetime DESC, id DESC LIMIT :limit OFFSET :offset");
-    params.put("limit", limit);
-    params.put("offset", offset);
+    appendRecordFilters(
+        sql,
+        params,
+        startTimestamp,
+        endTimestamp,
+        endInclusive,
+        traceId,
+        messageKey,
+        accountNumber,
+        latencyMin,
+        latencyMax,
+        receivedLatencyMin,
+        receivedLatencyMax);
+    appendPage(sql, params, cursor, offset, limit);
 
-    return jdbcClient.sql(sql.toString()).params(params).query(RowMapperUtil.dynamicRowMapper()).list();
+    return jdbcClient
+        .sql(sql.toString())
+        .params(params)
+        .query(RowMapperUtil.successRowMapper())
+        .list();
   }
 
   public long loadSuccessRowCount(
@@ -97,39 +156,19 @@ public class RecordsRepository {
       Long receivedLatencyMax) {
     StringBuilder sql = new StringBuilder("SELECT COUNT(*) AS total_count FROM ").append(successTable);
     Map<String, Object> params = new HashMap<>();
-    sql.append(" WHERE event_datetime >= :startTs AND event_datetime ");
-    sql.append(endInclusive ? "<= :endTs" : "< :endTs");
-    params.put("startTs", startTimestamp);
-    params.put("endTs", endTimestamp);
-
-    if (traceId != null && !traceId.isBlank()) {
-      sql.append(" AND event_trace_id = :traceId");
-      params.put("traceId", traceId);
-    }
-    if (messageKey != null && !messageKey.isBlank()) {
-      sql.append(" AND message_key = :messageKey");
-      params.put("messageKey", messageKey);
-    }
-    if (accountNumber != null && !accountNumber.isBlank()) {
-      sql.append(" AND account_number = :accountNumber");
-      params.put("accountNumber", accountNumber);
-    }
-    if (latencyMin != null) {
-      sql.append(" AND latency_ms >= :latencyMin");
-      params.put("latencyMin", latencyMin);
-    }
-    if (latencyMax != null) {
-      sql.append(" AND latency_ms <= :latencyMax");
-      params.put("latencyMax", latencyMax);
-    }
-    if (receivedLatencyMin != null) {
-      sql.append(" AND latency_event_received_ms >= :receivedLatencyMin");
-      params.put("receivedLatencyMin", receivedLatencyMin);
-    }
-    if (receivedLatencyMax != null) {
-      sql.append(" AND latency_event_received_ms <= :receivedLatencyMax");
-      params.put("receivedLatencyMax", receivedLatencyMax);
-    }
+    appendRecordFilters(
+        sql,
+        params,
+        startTimestamp,
+        endTimestamp,
+        endInclusive,
+        traceId,
+        messageKey,
+        accountNumber,
+        latencyMin,
+        latencyMax,
+        receivedLatencyMin,
+        receivedLatencyMax);
 
     return jdbcClient
         .sql(sql.toString())
@@ -138,7 +177,38 @@ public class RecordsRepository {
         .single();
   }
 
-  public List<Map<String, Object>> loadFailureRows(
+  public Long estimateSuccessRowCount(
+      String successTable,
+      LocalDateTime startTimestamp,
+      LocalDateTime endTimestamp,
+      boolean endInclusive,
+      String traceId,
+      String messageKey,
+      String accountNumber,
+      Long latencyMin,
+      Long latencyMax,
+      Long receivedLatencyMin,
+      Long receivedLatencyMax) {
+    StringBuilder sql = new StringBuilder("EXPLAIN SELECT id FROM ").append(successTable);
+    Map<String, Object> params = new HashMap<>();
+    appendRecordFilters(
+        sql,
+        params,
+        startTimestamp,
+        endTimestamp,
+        endInclusive,
+        traceId,
+        messageKey,
+        accountNumber,
+        latencyMin,
+        latencyMax,
+        receivedLatencyMin,
+        receivedLatencyMax);
+
+    return explainRowCount(sql.toString(), params);
+  }
+
+  public List<FailureRow> loadFailureRows(
       String failureTable,
       LocalDateTime startTimestamp,
       LocalDateTime endTimestamp,
@@ -154,66 +224,33 @@ public class RecordsRepository {
       Boolean retriable,
       Integer retryAttemptMin,
       Integer retryAttemptMax,
+      PageCursor cursor,
       int offset,
       int limit) {
     StringBuilder sql =
         new StringBuilder("SELECT ").append(FAILURE_LIST_COLUMNS).append(" FROM ").append(failureTable);
     Map<String, Object> params = new HashMap<>();
-    sql.append(" WHERE event_datetime >= :startTs AND event_datetime ");
-    sql.append(endInclusive ? "<= :endTs" : "< :endTs");
-    params.put("startTs", startTimestamp);
-    params.put("endTs", endTimestamp);
+    appendRecordFilters(
+        sql,
+        params,
+        startTimestamp,
+        endTimestamp,
+        endInclusive,
+        traceId,
+        messageKey,
+        accountNumber,
+        latencyMin,
+        latencyMax,
+        receivedLatencyMin,
+        receivedLatencyMax);
+    appendFailureFilters(sql, params, exceptionType, retriable, retryAttemptMin, retryAttemptMax);
+    appendPage(sql, params, cursor, offset, limit);
 
-    if (traceId != null && !traceId.isBlank()) {
-      sql.append(" AND event_trace_id = :traceId");
-      params.put("traceId", traceId);
-    }
-    if (messageKey != null && !messageKey.isBlank()) {
-      sql.append(" AND message_key = :messageKey");
-      params.put("messageKey", messageKey);
-    }
-    if (accountNumber != null && !accountNumber.isBlank()) {
-      sql.append(" AND account_number = :accountNumber");
-      params.put("accountNumber", accountNumber);
-    }
-    if (latencyMin != null) {
-      sql.append(" AND latency_ms >= :latencyMin");
-      params.put("latencyMin", latencyMin);
-    }
-    if (latencyMax != null) {
-      sql.append(" AND latency_ms <= :latencyMax");
-      params.put("latencyMax", latencyMax);
-    }
-    if (receivedLatencyMin != null) {
-      sql.append(" AND latency_event_received_ms >= :receivedLatencyMin");
-      params.put("receivedLatencyMin", receivedLatencyMin);
-    }
-    if (receivedLatencyMax != null) {
-      sql.append(" AND latency_event_received_ms <= :receivedLatencyMax");
-      params.put("receivedLatencyMax", receivedLatencyMax);
-    }
-    if (exceptionType != null && !exceptionType.isBlank()) {
-      sql.append(" AND exception_type = :exceptionType");
-      params.put("exceptionType", exceptionType);
-    }
-    if (retriable != null) {
-      sql.append(" AND retriable = :retriable");
-      params.put("retriable", retriable ? 1 : 0);
-    }
-    if (retryAttemptMin != null) {
-      sql.append(" AND retry_attempt >= :retryAttemptMin");
-      params.put("retryAttemptMin", retryAttemptMin);
-    }
-    if (retryAttemptMax != null) {
-      sql.append(" AND retry_attempt <= :retryAttemptMax");
-      params.put("retryAttemptMax", retryAttemptMax);
-    }
-
-    sql.append(" ORDER BY event_datetime DESC, id DESC LIMIT :limit OFFSET :offset");
-    params.put("limit", limit);
-    params.put("offset", offset);
-
-    return jdbcClient.sql(sql.toString()).params(params).query(RowMapperUtil.dynamicRowMapper()).list();
+    return jdbcClient
+        .sql(sql.toString())
+        .params(params)
+        .query(RowMapperUtil.failureRowMapper())
+        .list();
   }
 
   public long loadFailureRowCount(
@@ -234,55 +271,20 @@ public class RecordsRepository {
       Integer retryAttemptMax) {
     StringBuilder sql = new StringBuilder("SELECT COUNT(*) AS total_count FROM ").append(failureTable);
     Map<String, Object> params = new HashMap<>();
-    sql.append(" WHERE event_datetime >= :startTs AND event_datetime ");
-    sql.append(endInclusive ? "<= :endTs" : "< :endTs");
-    params.put("startTs", startTimestamp);
-    params.put("endTs", endTimestamp);
-
-    if (traceId != null && !traceId.isBlank()) {
-      sql.append(" AND event_trace_id = :traceId");
-      params.put("traceId", traceId);
-    }
-    if (messageKey != null && !messageKey.isBlank()) {
-      sql.append(" AND message_key = :messageKey");
-      params.put("messageKey", messageKey);
-    }
-    if (accountNumber != null && !accountNumber.isBlank()) {
-      sql.append(" AND account_number = :accountNumber");
-      params.put("accountNumber", accountNumber);
-    }
-    if (latencyMin != null) {
-      sql.append(" AND latency_ms >= :latencyMin");
-      params.put("latencyMin", latencyMin);
-    }
-    if (latencyMax != null) {
-      sql.append(" AND latency_ms <= :latencyMax");
-      params.put("latencyMax", latencyMax);
-    }
-    if (receivedLatencyMin != null) {
-      sql.append(" AND latency_event_received_ms >= :receivedLatencyMin");
-      params.put("receivedLatencyMin", receivedLatencyMin);
-    }
-    if (receivedLatencyMax != null) {
-      sql.append(" AND latency_event_received_ms <= :receivedLatencyMax");
-      params.put("receivedLatencyMax", receivedLatencyMax);
-    }
-    if (exceptionType != null && !exceptionType.isBlank()) {
-      sql.append(" AND exception_type = :exceptionType");
-      params.put("exceptionType", exceptionType);
-    }
-    if (retriable != null) {
-      sql.append(" AND retriable = :retriable");
-      params.put("retriable", retriable ? 1 : 0);
-    }
-    if (retryAttemptMin != null) {
-      sql.append(" AND retry_attempt >= :retryAttemptMin");
-      params.put("retryAttemptMin", retryAttemptMin);
-    }
-    if (retryAttemptMax != null) {
-      sql.append(" AND retry_attempt <= :retryAttemptMax");
-      params.put("retryAttemptMax", retryAttemptMax);
-    }
+    appendRecordFilters(
+        sql,
+        params,
+        startTimestamp,
+        endTimestamp,
+        endInclusive,
+        traceId,
+        messageKey,
+        accountNumber,
+        latencyMin,
+        latencyMax,
+        receivedLatencyMin,
+        receivedLatencyMax);
+    appendFailureFilters(sql, params, exceptionType, retriable, retryAttemptMin, retryAttemptMax);
 
     return jdbcClient
         .sql(sql.toString())
@@ -291,6 +293,123 @@ public class RecordsRepository {
         .single();
   }
 
+  public Long estimateFailureRowCount(
+      String failureTable,
+      LocalDateTime startTimestamp,
+      LocalDateTime endTimestamp,
+      boolean endInclusive,
+      String traceId,
+      String messageKey,
+      String accountNumber,
+      Long latencyMin,
+      Long latencyMax,
+      Long receivedLatencyMin,
+      Long receivedLatencyMax,
+      String exceptionType,
+      Boolean retriable,
+      Integer retryAttemptMin,
+      Integer retryAttemptMax) {
+    StringBuilder sql = new StringBuilder("EXPLAIN SELECT id FROM ").append(failureTable);
+    Map<String, Object> params = new HashMap<>();
+    appendRecordFilters(
+        sql,
+        params,
+        startTimestamp,
+        endTimestamp,
+        endInclusive,
+        traceId,
+        messageKey,
+        accountNumber,
+        latencyMin,
+        latencyMax,
+        receivedLatencyMin,
+        receivedLatencyMax);
+    appendFailureFilters(sql, params, exceptionType, retriable, retryAttemptMin, retryAttemptMax);
+
+    return explainRowCount(sql.toString(), params);
+  }
+
+  public void streamSuccessRows(
+      String successTable,
+      LocalDateTime startTimestamp,
+      LocalDateTime endTimestamp,
+      boolean endInclusive,
+      String traceId,
+      String messageKey,
+      String accountNumber,
+      Long latencyMin,
+      Long latencyMax,
+      Long receivedLatencyMin,
+      Long receivedLatencyMax,
+      List<String> columns,
+      RowCallbackHandler handler) {
+    StringBuilder sql =
+        new StringBuilder("SELECT ")
+            .append(String.join(", ", columns))
+            .append(" FROM ")
+            .append(successTable);
+    Map<String, Object> params = new HashMap<>();
+    appendRecordFilters(
+        sql,
+        params,
+        startTimestamp,
+        endTimestamp,
+        endInclusive,
+        traceId,
+        messageKey,
+        accountNumber,
+        latencyMin,
+        latencyMax,
+        receivedLatencyMin,
+        receivedLatencyMax);
+    sql.append(" ORDER BY event_datetime DESC, id DESC");
+
+    streamingTemplate.query(sql.toString(), params, handler);
+  }
+
+  public void streamFailureRows(
+      String failureTable,
+      LocalDateTime startTimestamp,
+      LocalDateTime endTimestamp,
+      boolean endInclusive,
+      String traceId,
+      String messageKey,
+      String accountNumber,
+      Long latencyMin,
+      Long latencyMax,
+      Long receivedLatencyMin,
+      Long receivedLatencyMax,
+      String exceptionType,
+      Boolean retriable,
+      Integer retryAttemptMin,
+      Integer retryAttemptMax,
+      List<String> columns,
+      RowCallbackHandler handler) {
+    StringBuilder sql =
+        new StringBuilder("SELECT ")
+            .append(String.join(", ", columns))
+            .append(" FROM ")
+            .append(failureTable);
+    Map<String, Object> params = new HashMap<>();
+    appendRecordFilters(
+        sql,
+        params,
+        startTimestamp,
+        endTimestamp,
+        endInclusive,
+        traceId,
+        messageKey,
+        accountNumber,
+        latencyMin,
+        latencyMax,
+        receivedLatencyMin,
+        receivedLatencyMax);
+    appendFailureFilters(sql, params, exceptionType, retriable, retryAttemptMin, retryAttemptMax);
+    sql.append(" ORDER BY event_datetime DESC, id DESC");
+
+    streamingTemplate.query(sql.toString(), params, handler);
+  }
+
   public List<String> loadFailureExceptionTypes(
       String failureTable,
       LocalDateTime startTimestamp,
@@ -332,17 +451,17 @@ public class RecordsRepository {
         .orElse(null);
   }
 
-  public List<Map<String, Object>> loadFailureRowsByIds(String failureTable, List<Long> ids) {
+  public List<ReplayRow> loadFailureRowsByIds(String failureTable, List<Long> ids) {
     if (ids == null || ids.isEmpty()) {
       return List.of();
     }
-    String sql = "SELECT * FROM " + failureTable + " WHERE id IN (:ids)";
+    String sql = "SELECT " + REPLAY_COLUMNS + " FROM " + failureTable + " WHERE id IN (:ids)";
     Map<String, Object> params = new HashMap<>();
     params.put("ids", ids);
-    return jdbcClient.sql(sql).params(params).query(RowMapperUtil.dynamicRowMapper()).list();
+    return jdbcClient.sql(sql).params(params).query(replayRowMapper()).list();
   }
 
-  public List<Map<String, Object>> loadFailureRowsForReplay(
+  public List<ReplayRow> loadFailureReplayPage(
       String failureTable,
       LocalDateTime startTimestamp,
       LocalDateTime endTimestamp,
@@ -357,9 +476,87 @@ public class RecordsRepository {
       String exceptionType,
       Boolean retriable,
       Integer retryAttemptMin,
-      Integer retryAttemptMax) {
-    StringBuilder sql = new StringBuilder("SELECT * FROM ").append(failureTable);
+      Integer retryAttemptMax,
+      PageCursor cursor,
+      int limit) {
+    StringBuilder sql =
+        new StringBuilder("SELECT ").append(REPLAY_COLUMNS).append(" FROM ").append(failureTable);
     Map<String, Object> params = new HashMap<>();
+    appendRecordFilters(
+        sql,
+        params,
+        startTimestamp,
+        endTimestamp,
+        endInclusive,
+        traceId,
+        messageKey,
+        accountNumber,
+        latencyMin,
+        latencyMax,
+        receivedLatencyMin,
+        receivedLatencyMax);
+    appendFailureFilters(sql, params, exceptionType, retriable, retryAttemptMin, retryAttemptMax);
+    appendPage(sql, params, cursor, 0, limit);
+
+    return jdbcClient.sql(sql.toString()).params(params).query(replayRowMapper()).list();
+  }
+
+  private static RowMapper<ReplayRow> replayRowMapper() {
+    return RowMapperUtil.indexed(
+        REPLAY_COLUMN_LIST,
+        (rs, c) ->
+            new ReplayRow(
+                rs.getLong(c[0]),
+                RowMapperUtil.localDateTime(rs, c[1]),
+                rs.getString(c[2]),
+                rs.getString(c[3]),
+                rs.getString(c[4]),
+                rs.getString(c[5]),
+                rs.getString(c[6])));
+  }
+
+  private Long explainRowCount(String sql, Map<String, Object> params) {
+    return jdbcClient
+        .sql(sql)
+        .params(params)
+        .query(
+            rs -> {
+              if (!hasColumn(rs.getMetaData(), "rows")) {
+                return null;
+              }
+              Long estimate = null;
+              while (rs.next()) {
+                long rows = rs.getLong("rows");
+                if (!rs.wasNull()) {
+                  estimate = estimate == null ? rows : Math.max(estimate, rows);
+                }
+              }
+              return estimate;
+            });
+  }
+
+  private boolean hasColumn(ResultSetMetaData meta, String column) throws SQLException {
+    for (int i = 1; i <= meta.getColumnCount(); i++) {
+      if (column.equalsIgnoreCase(meta.getColumnLabel(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void appendRecordFilters(
+      StringBuilder sql,
+      Map<String, Object> params,
+      LocalDateTime startTimestamp,
+      LocalDateTime endTimestamp,
+      boolean endInclusive,
+      String traceId,
+      String messageKey,
+      String accountNumber,
+      Long latencyMin,
+      Long latencyMax,
+      Long receivedLatencyMin,
+      Long receivedLatencyMax) {
     sql.append(" WHERE event_datetime >= :startTs AND event_datetime ");
     sql.append(endInclusive ? "<= :endTs" : "< :endTs");
     params.put("startTs", startTimestamp);
@@ -393,6 +590,15 @@ public class RecordsRepository {
       sql.append(" AND latency_event_received_ms <= :receivedLatencyMax");
       params.put("receivedLatencyMax", receivedLatencyMax);
     }
+  }
+
+  private void appendFailureFilters(
+      StringBuilder sql,
+      Map<String, Object> params,
+      String exceptionType,
+      Boolean retriable,
+      Integer retryAttemptMin,
+      Integer retryAttemptMax) {
     if (exceptionType != null && !exceptionType.isBlank()) {
       sql.append(" AND exception_type = :exceptionType");
       params.put("exceptionType", exceptionType);
@@ -409,9 +615,34 @@ public class RecordsRepository {
       sql.append(" AND retry_attempt <= :retryAttemptMax");
       params.put("retryAttemptMax", retryAttemptMax);
     }
+  }
 
-    sql.append(" ORDER BY event_datetime DESC, id DESC");
-    return jdbcClient.sql(sql.toString()).params(params).query(RowMapperUtil.dynamicRowMapper()).list();
+  /**
+   * Keyset pages seek on the (event_datetime, id) index each event table gets in migration 017;
+   * without it the seek falls back to the event_datetime prefix and filters ties on id.
+   */
+  private void appendPage(
+      StringBuilder sql, Map<String, Object> params, PageCursor cursor, int offset, int limit) {
+    if (cursor != null) {
+      sql.append(
+          " AND (event_datetime < :cursorTs OR (event_datetime = :cursorTs AND id < :cursorId))");
+      params.put("cursorTs", cursor.eventDatetime());
+      params.put("cursorId", cursor.id());
+      sql.append(" ORDER BY event_datetime DESC, id DESC LIMIT :limit");
+    } else {
+      sql.append(" ORDER BY event_datetime DESC, id DESC LIMIT :limit OFFSET :offset");
+      params.put("offset", offset);
+    }
+    params.put("limit", limit);
   }
-}
 
+  public record ReplayRow(
+      long id,
+      LocalDateTime eventDatetime,
+      String traceId,
+      String messageKey,
+      String accountNumber,
+      String exceptionType,
+      String sourcePayload)
+      implements EventRow {}
+}
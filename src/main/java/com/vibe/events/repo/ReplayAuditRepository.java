@@ -1,18 +1,50 @@
 package com.vibe.events.repo;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Repository
 public class ReplayAuditRepository {
+  private static final int INSERT_BATCH_SIZE = 1000;
+  private static final int UPDATE_BATCH_SIZE = 200;
+
+  /**
+   * Per-item duration in whole milliseconds. Every stats path (the live audit queries, the
+   * replay_stats deltas and their removal on purge) uses this one definition; durations are never
+   * negative, so the FLOOR matches the DIV 1000 used by the replay_stats backfill.
+   */
+  public static final String ITEM_DURATION_MS =
+      "FLOOR(TIMESTAMPDIFF(MICROSECOND, i.created_at, "
+          + "COALESCE(i.last_attempt_at, i.updated_at, i.created_at)) / 1000)";
+
   private final JdbcClient jdbcClient;
+  private final NamedParameterJdbcTemplate batchTemplate;
+  private final ReplayStatsRepository statsRepository;
+  private final TransactionTemplate transactionTemplate;
 
-  public ReplayAuditRepository(JdbcClient jdbcClient) {
+  public ReplayAuditRepository(
+      JdbcClient jdbcClient,
+      NamedParameterJdbcTemplate batchTemplate,
+      ReplayStatsRepository statsRepository,
+      PlatformTransactionManager transactionManager) {
     this.jdbcClient = jdbcClient;
+    this.batchTemplate = batchTemplate;
+    this.statsRepository = statsRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
   }
 
   public void insertJob(ReplayJobRecord record) {
@@ -74,6 +106,7 @@ public class ReplayAuditRepository {
           last_attempt_at,
           last_error,
           emitted_id,
+          created_at,
           updated_at,
           trace_id,
           message_key,
@@ -90,6 +123,7 @@ public class ReplayAuditRepository {
           :lastAttemptAt,
           :lastError,
           :emittedId,
+          :createdAt,
           :updatedAt,
           :traceId,
           :messageKey,
@@ -99,31 +133,209 @@ public class ReplayAuditRepository {
           :sourcePayload
         )
         """;
-    for (ReplayItemRecord item : items) {
-      Map<String, Object> params = new java.util.HashMap<>();
-      params.put("jobId", item.jobId());
-      params.put("recordId", item.recordId());
-      params.put("eventKey", item.eventKey());
-      params.put("status", item.status());
-      params.put("attemptCount", item.attemptCount());
-      params.put("lastAttemptAt", item.lastAttemptAt());
-      params.put("lastError", item.lastError());
-      params.put("emittedId", item.emittedId());
-      params.put("updatedAt", item.updatedAt());
-      params.put("traceId", item.traceId());
-      params.put("messageKey", item.messageKey());
-      params.put("accountNumber", item.accountNumber());
-      params.put("exceptionType", item.exceptionType());
-      params.put("eventDatetime", item.eventDatetime());
-      params.put("sourcePayload", item.sourcePayload());
-      jdbcClient
-          .sql(sql)
-          .params(params)
-          .update();
+    LocalDateTime now = LocalDateTime.now();
+    for (int start = 0; start < items.size(); start += INSERT_BATCH_SIZE) {
+      List<ReplayItemRecord> chunk =
+          items.subList(start, Math.min(start + INSERT_BATCH_SIZE, items.size()));
+      SqlParameterSource[] batch = new SqlParameterSource[chunk.size()];
+      Map<String, StatusCounter> counters = new LinkedHashMap<>();
+      for (int i = 0; i < chunk.size(); i += 1) {
+        ReplayItemRecord item = chunk.get(i);
+        LocalDateTime createdAt = stored(item.updatedAt() == null ? now : item.updatedAt());
+        counters
+            .computeIfAbsent(item.jobId(), key -> new StatusCounter())
+            .add(item.status(), 1, 0, createdAt);
+        batch[i] =
+            new MapSqlParameterSource()
+                .addValue("jobId", item.jobId())
+                .addValue("recordId", item.recordId())
+                .addValue("eventKey", item.eventKey())
+                .addValue("status", item.status())
+                .addValue("attemptCount", item.attemptCount())
+                .addValue("lastAttemptAt", stored(item.lastAttemptAt()))
+                .addValue("lastError", item.lastError())
+                .addValue("emittedId", item.emittedId())
+                .addValue("createdAt", createdAt)
+                .addValue("updatedAt", stored(item.updatedAt()))
+                .addValue("traceId", item.traceId())
+                .addValue("messageKey", item.messageKey())
+                .addValue("accountNumber", item.accountNumber())
+                .addValue("exceptionType", item.exceptionType())
+                .addValue("eventDatetime", item.eventDatetime())
+                .addValue("sourcePayload", item.sourcePayload());
+      }
+      List<ReplayStatsRepository.ReplayStatsDelta> deltas =
+          transactionTemplate.execute(
+              status -> {
+                batchTemplate.batchUpdate(sql, batch);
+                List<ReplayStatsRepository.ReplayStatsDelta> jobDeltas = new ArrayList<>();
+                counters.forEach(
+                    (jobId, counter) -> jobDeltas.addAll(applyCounters(jobId, counter)));
+                return jobDeltas;
+              });
+      applyStats(deltas);
+    }
+  }
+
+  public void updateItemStatuses(List<ReplayItemUpdate> updates) {
+    if (updates == null || updates.isEmpty()) {
+      return;
+    }
+    Map<String, Map<Long, ReplayItemUpdate>> byJob = new LinkedHashMap<>();
+    for (ReplayItemUpdate update : updates) {
+      byJob
+          .computeIfAbsent(update.jobId(), key -> new LinkedHashMap<>())
+          .put(update.recordId(), update);
     }
+    for (Map.Entry<String, Map<Long, ReplayItemUpdate>> entry : byJob.entrySet()) {
+      List<ReplayItemUpdate> jobUpdates = new ArrayList<>(entry.getValue().values());
+      for (int start = 0; start < jobUpdates.size(); start += UPDATE_BATCH_SIZE) {
+        updateItemStatusChunk(
+            entry.getKey(),
+            jobUpdates.subList(start, Math.min(start + UPDATE_BATCH_SIZE, jobUpdates.size())));
+      }
+    }
+  }
+
+  private void updateItemStatusChunk(String jobId, List<ReplayItemUpdate> updates) {
+    List<ReplayStatsRepository.ReplayStatsDelta> deltas =
+        transactionTemplate.execute(
+            status -> {
+              Map<Long, ItemState> previous = lockItemStates(jobId, updates);
+              writeItemStatuses(jobId, updates);
+              StatusCounter counter = new StatusCounter();
+              for (ReplayItemUpdate update : updates) {
+                ItemState state = previous.get(update.recordId());
+                if (state == null) {
+                  continue;
+                }
+                counter.add(
+                    state.status(),
+                    -1,
+                    -durationMs(state.createdAt(), state.lastAttemptAt(), state.updatedAt()),
+                    null);
+                LocalDateTime latest =
+                    update.lastAttemptAt() != null
+                        ? update.lastAttemptAt()
+                        : update.updatedAt() != null ? update.updatedAt() : state.createdAt();
+                counter.add(
+                    update.status(),
+                    1,
+                    durationMs(
+                        state.createdAt(),
+                        stored(update.lastAttemptAt()),
+                        stored(update.updatedAt())),
+                    stored(latest));
+              }
+              return applyCounters(jobId, counter);
+            });
+    applyStats(deltas);
+  }
+
+  private Map<Long, ItemState> lockItemStates(String jobId, List<ReplayItemUpdate> updates) {
+    String sql =
+        """
+        SELECT record_id, status, created_at, last_attempt_at, updated_at
+        FROM replay_items
+        WHERE job_id = :jobId
+          AND record_id IN (:recordIds)
+        FOR UPDATE
+        """;
+    Map<Long, ItemState> states = new java.util.HashMap<>();
+    jdbcClient
+        .sql(sql)
+        .param("jobId", jobId)
+        .param("recordIds", updates.stream().map(ReplayItemUpdate::recordId).toList())
+        .query(rs -> {
+          states.put(
+              rs.getLong("record_id"),
+              new ItemState(
+                  rs.getString("status"),
+                  toLocalDateTime(rs.getTimestamp("created_at")),
+                  toLocalDateTime(rs.getTimestamp("last_attempt_at")),
+                  toLocalDateTime(rs.getTimestamp("updated_at"))));
+        });
+    return states;
   }
 
-  public void updateItemStatus(ReplayItemUpdate update) {
+  /**
+   * Moves the job's own counters inside the caller's transaction and returns the matching
+   * replay_stats deltas, which the caller applies once that transaction has committed.
+   */
+  private List<ReplayStatsRepository.ReplayStatsDelta> applyCounters(
+      String jobId, StatusCounter counter) {
+    if (counter.isEmpty()) {
+      return List.of();
+    }
+    String ownerSql = "SELECT event_key, requested_by FROM replay_jobs WHERE id = :id";
+    JobOwner owner =
+        jdbcClient
+            .sql(ownerSql)
+            .param("id", jobId)
+            .query(
+                (rs, rowNum) ->
+                    new JobOwner(rs.getString("event_key"), rs.getString("requested_by")))
+            .optional()
+            .orElse(null);
+    if (owner == null) {
+      return List.of();
+    }
+    String sql =
+        """
+        UPDATE replay_jobs
+        SET succeeded_count = succeeded_count + :succeeded,
+            failed_count = failed_count + :failed,
+            queued_count = queued_count + :queued
+        WHERE id = :id
+        """;
+    Map<String, Object> params = new java.util.HashMap<>();
+    params.put("id", jobId);
+    params.put("succeeded", counter.count("REPLAYED"));
+    params.put("failed", counter.count("FAILED"));
+    params.put("queued", counter.count("QUEUED"));
+    jdbcClient.sql(sql).params(params).update();
+    return counter.toDeltas(owner.eventKey(), owner.requestedBy());
+  }
+
+  /**
+   * replay_stats rows are shared by every job of an (event, operator), so they are updated in a
+   * short transaction of their own rather than holding their locks for the whole item chunk.
+   */
+  private void applyStats(List<ReplayStatsRepository.ReplayStatsDelta> deltas) {
+    if (deltas == null || deltas.isEmpty()) {
+      return;
+    }
+    transactionTemplate.executeWithoutResult(status -> statsRepository.applyDeltas(deltas));
+  }
+
+  // Java side of ITEM_DURATION_MS; both are applied to the stored (whole-second) timestamps.
+  private long durationMs(
+      LocalDateTime createdAt, LocalDateTime lastAttemptAt, LocalDateTime updatedAt) {
+    if (createdAt == null) {
+      return 0;
+    }
+    LocalDateTime end =
+        lastAttemptAt != null ? lastAttemptAt : updatedAt != null ? updatedAt : createdAt;
+    return Duration.between(createdAt, end).toMillis();
+  }
+
+  /**
+   * replay_items timestamps are DATETIME columns, so values are truncated to whole seconds before
+   * they are written. The copy used for the stats deltas is then exactly what the table holds.
+   */
+  static LocalDateTime stored(LocalDateTime value) {
+    return value == null ? null : value.truncatedTo(ChronoUnit.SECONDS);
+  }
+
+  private LocalDateTime toLocalDateTime(java.sql.Timestamp timestamp) {
+    return timestamp == null ? null : timestamp.toLocalDateTime();
+  }
+
+  /**
+   * One prepared statement executed as a JDBC batch, so every chunk shares the same SQL text and
+   * the driver's bulk protocol sends the rows together.
+   */
+  private void writeItemStatuses(String jobId, List<ReplayItemUpdate> updates) {
     String sql =
         """
         UPDATE replay_items
@@ -136,31 +348,34 @@ public class ReplayAuditRepository {
         WHERE job_id = :jobId
           AND record_id = :recordId
         """;
-    Map<String, Object> params = new java.util.HashMap<>();
-    params.put("status", update.status());
-    params.put("attemptCount", update.attemptCount());
-    params.put("lastAttemptAt", update.lastAttemptAt());
-    params.put("lastError", update.lastError());
-    params.put("emittedId", update.emittedId());
-    params.put("updatedAt", update.updatedAt());
-    params.put("jobId", update.jobId());
-    params.put("recordId", update.recordId());
-    jdbcClient
-        .sql(sql)
-        .params(params)
-        .update();
+    SqlParameterSource[] batch = new SqlParameterSource[updates.size()];
+    for (int i = 0; i < updates.size(); i += 1) {
+      ReplayItemUpdate update = updates.get(i);
+      batch[i] =
+          new MapSqlParameterSource()
+              .addValue("jobId", jobId)
+              .addValue("recordId", update.recordId())
+              .addValue("status", update.status())
+              .addValue("attemptCount", update.attemptCount())
+              .addValue("lastAttemptAt", stored(update.lastAttemptAt()))
+              .addValue("lastError", update.lastError())
+              .addValue("emittedId", update.emittedId())
+              .addValue("updatedAt", stored(update.updatedAt()));
+    }
+    batchTemplate.batchUpdate(sql, batch);
   }
 
+  // succeeded_count, failed_count and queued_count are only moved by applyCounters, in the same
+  // transaction as the item status change, and total_requested is fixed when the job is sized, so
+  // the summary writes neither.
   public void updateJobSummary(ReplayJobUpdate update) {
     String sql =
         """
         UPDATE replay_jobs
-        SET total_requested = :totalRequested,
-            status = :status,
-            succeeded_count = :succeededCount,
-            failed_count = :failedCount,
-            queued_count = :queuedCount,
-            completed_at = :completedAt
+        SET status = :status,
+            completed_at = :completedAt,
+            lease_owner = NULL,
+            lease_expires_at = NULL
         WHERE id = :id
         """;
     jdbcClient
@@ -168,15 +383,220 @@ public class ReplayAuditRepository {
         .params(
             Map.of(
                 "id", update.id(),
-                "totalRequested", update.totalRequested(),
                 "status", update.status(),
-                "succeededCount", update.succeededCount(),
-                "failedCount", update.failedCount(),
-                "queuedCount", update.queuedCount(),
                 "completedAt", update.completedAt()))
         .update();
   }
 
+  /**
+   * Takes the lease on a RUNNING job unless another instance holds an unexpired one. Only the
+   * lease holder runs the job; it renews the lease with every checkpoint.
+   */
+  public boolean claimJob(String id, String owner, LocalDateTime now, LocalDateTime leaseUntil) {
+    String sql =
+        """
+        UPDATE replay_jobs
+        SET lease_owner = :owner,
+            lease_expires_at = :leaseUntil
+        WHERE id = :id
+          AND status = 'RUNNING'
+          AND (lease_expires_at IS NULL OR lease_expires_at < :now)
+        """;
+    Map<String, Object> params = new java.util.HashMap<>();
+    params.put("id", id);
+    params.put("owner", owner);
+    params.put("now", now);
+    params.put("leaseUntil", leaseUntil);
+    return jdbcClient.sql(sql).params(params).update() == 1;
+  }
+
+  public void releaseJob(String id, String owner) {
+    String sql =
+        """
+        UPDATE replay_jobs
+        SET lease_owner = NULL,
+            lease_expires_at = NULL
+        WHERE id = :id
+          AND lease_owner = :owner
+        """;
+    jdbcClient.sql(sql).param("id", id).param("owner", owner).update();
+  }
+
+  public void updateJobTotal(String id, int totalRequested, LocalDateTime updatedAt) {
+    String sql =
+        """
+        UPDATE replay_jobs
+        SET total_requested = :totalRequested,
+            updated_at = :updatedAt
+        WHERE id = :id
+        """;
+    Map<String, Object> params = new java.util.HashMap<>();
+    params.put("id", id);
+    params.put("totalRequested", totalRequested);
+    params.put("updatedAt", updatedAt);
+    jdbcClient.sql(sql).params(params).update();
+  }
+
+  // Returns false when the caller no longer holds the job's lease.
+  public boolean checkpointJob(ReplayJobCheckpoint checkpoint) {
+    String sql =
+        """
+        UPDATE replay_jobs
+        SET processed_count = :processedCount,
+            checkpoint_event_datetime = :checkpointEventDatetime,
+            checkpoint_record_id = :checkpointRecordId,
+            updated_at = :updatedAt,
+            lease_expires_at = :leaseUntil
+        WHERE id = :id
+          AND status = 'RUNNING'
+          AND lease_owner = :owner
+        """;
+    Map<String, Object> params = new java.util.HashMap<>();
+    params.put("id", checkpoint.id());
+    params.put("processedCount", checkpoint.processedCount());
+    params.put("checkpointEventDatetime", checkpoint.checkpointEventDatetime());
+    params.put("checkpointRecordId", checkpoint.checkpointRecordId());
+    params.put("updatedAt", checkpoint.updatedAt());
+    params.put("owner", checkpoint.owner());
+    params.put("leaseUntil", checkpoint.leaseUntil());
+    return jdbcClient.sql(sql).params(params).update() == 1;
+  }
+
+  public void failJob(String id, String lastError, LocalDateTime completedAt) {
+    String sql =
+        """
+        UPDATE replay_jobs
+        SET status = 'FAILED',
+            last_error = :lastError,
+            completed_at = :completedAt,
+            updated_at = :completedAt,
+            lease_owner = NULL,
+            lease_expires_at = NULL
+        WHERE id = :id
+        """;
+    Map<String, Object> params = new java.util.HashMap<>();
+    params.put("id", id);
+    params.put("lastError", lastError);
+    params.put("completedAt", completedAt);
+    jdbcClient.sql(sql).params(params).update();
+  }
+
+  public java.util.Optional<ReplayJobStateRow> loadJobState(String id) {
+    String sql =
+        """
+        SELECT id,
+               event_key,
+               day,
+               selection_type,
+               filters_json,
+               status,
+               total_requested,
+               processed_count,
+               succeeded_count,
+               failed_count,
+               queued_count,
+               checkpoint_event_datetime,
+               checkpoint_record_id,
+               last_error,
+               created_at,
+               updated_at,
+               completed_at
+        FROM replay_jobs
+        WHERE id = :id
+        """;
+    return jdbcClient
+        .sql(sql)
+        .param("id", id)
+        .query(
+            (rs, rowNum) ->
+                new ReplayJobStateRow(
+                    rs.getString("id"),
+                    rs.getString("event_key"),
+                    rs.getObject("day", LocalDate.class),
+                    rs.getString("selection_type"),
+                    rs.getString("filters_json"),
+                    rs.getString("status"),
+                    rs.getInt("total_requested"),
+                    rs.getInt("processed_count"),
+                    rs.getInt("succeeded_count"),
+                    rs.getInt("failed_count"),
+                    rs.getInt("queued_count"),
+                    rs.getTimestamp("checkpoint_event_datetime") == null
+                        ? null
+                        : rs.getTimestamp("checkpoint_event_datetime").toLocalDateTime(),
+                    rs.getObject("checkpoint_record_id") == null
+                        ? null
+                        : rs.getLong("checkpoint_record_id"),
+                    rs.getString("last_error"),
+                    rs.getTimestamp("created_at").toLocalDateTime(),
+                    rs.getTimestamp("updated_at") == null
+                        ? null
+                        : rs.getTimestamp("updated_at").toLocalDateTime(),
+                    rs.getTimestamp("completed_at") == null
+                        ? null
+                        : rs.getTimestamp("completed_at").toLocalDateTime()))
+        .optional();
+  }
+
+  // RUNNING jobs that no instance holds a live lease on.
+  public List<String> loadResumableJobIds(String selectionType, LocalDateTime now) {
+    String sql =
+        """
+        SELECT id
+        FROM replay_jobs
+        WHERE status = 'RUNNING'
+          AND selection_type = :selectionType
+          AND (lease_expires_at IS NULL OR lease_expires_at < :now)
+        ORDER BY created_at
+        """;
+    return jdbcClient
+        .sql(sql)
+        .param("selectionType", selectionType)
+        .param("now", now)
+        .query((rs, rowNum) -> rs.getString("id"))
+        .list();
+  }
+
+  public Map<Long, String> loadItemStatuses(String jobId, List<Long> recordIds) {
+    Map<Long, String> statuses = new java.util.HashMap<>();
+    if (recordIds == null || recordIds.isEmpty()) {
+      return statuses;
+    }
+    String sql =
+        """
+        SELECT record_id, status
+        FROM replay_items
+        WHERE job_id = :jobId
+          AND record_id IN (:recordIds)
+        """;
+    jdbcClient
+        .sql(sql)
+        .param("jobId", jobId)
+        .param("recordIds", recordIds)
+        .query(rs -> {
+          statuses.put(rs.getLong("record_id"), rs.getString("status"));
+        });
+    return statuses;
+  }
+
+  public Map<String, Integer> loadItemStatusCounts(String jobId) {
+    String sql =
+        """
+        SELECT status, COUNT(*) AS item_count
+        FROM replay_items
+        WHERE job_id = :jobId
+        GROUP BY status
+        """;
+    Map<String, Integer> counts = new java.util.HashMap<>();
+    jdbcClient
+        .sql(sql)
+        .param("jobId", jobId)
+        .query(rs -> {
+          counts.put(rs.getString("status"), rs.getInt("item_count"));
+        });
+    return counts;
+  }
+
   public List<ReplayJobSummaryRow> loadReplayJobs(
       String eventKey,
       String itemStatus,
@@ -206,6 +626,7 @@ public class ReplayAuditRepository {
     appendReplayJobFilters(sql, params, eventKey, itemStatus, requestedBy, search);
     sql.append(
         """
+
         ORDER BY j.created_at DESC
         LIMIT :limit OFFSET :offset
         """);
@@ -352,19 +773,17 @@ public class ReplayAuditRepository {
                j.reason,
                i.last_error,
                i.emitted_id,
-               TIMESTAMPDIFF(
-                   MICROSECOND,
-                   i.created_at,
-                   COALESCE(i.last_attempt_at, i.updated_at, i.created_at)
-               ) / 1000 AS duration_ms
+               %s AS duration_ms
         FROM replay_items i
         JOIN replay_jobs j ON j.id = i.job_id
         WHERE 1=1
-        """);
+        """
+                .formatted(ITEM_DURATION_MS));
     Map<String, Object> params = new java.util.HashMap<>();
     appendAuditFilters(sql, params, eventKey, status, requestedBy, search);
     sql.append(
         """
+
         ORDER BY i.id DESC
         LIMIT :limit OFFSET :offset
         """);
@@ -403,18 +822,13 @@ public class ReplayAuditRepository {
                SUM(CASE WHEN i.status = 'REPLAYED' THEN 1 ELSE 0 END) AS replayed,
                SUM(CASE WHEN i.status = 'FAILED' THEN 1 ELSE 0 END) AS failed,
                SUM(CASE WHEN i.status = 'QUEUED' THEN 1 ELSE 0 END) AS queued,
-               AVG(
-                 TIMESTAMPDIFF(
-                   MICROSECOND,
-                   i.created_at,
-                   COALESCE(i.last_attempt_at, i.updated_at, i.created_at)
-                 ) / 1000
-               ) AS avg_duration_ms,
+               AVG(%s) AS avg_duration_ms,
                MAX(COALESCE(i.last_attempt_at, i.updated_at, i.created_at, j.created_at)) AS latest_at
         FROM replay_items i
         JOIN replay_jobs j ON j.id = i.job_id
         WHERE 1=1
-        """);
+        """
+                .formatted(ITEM_DURATION_MS));
     Map<String, Object> params = new java.util.HashMap<>();
     appendAuditFilters(sql, params, eventKey, status, requestedBy, search);
     return jdbcClient
@@ -436,33 +850,6 @@ public class ReplayAuditRepository {
         .single();
   }
 
-  public List<String> loadReplayAuditOperators() {
-    String sql =
-        """
-        SELECT DISTINCT requested_by
-        FROM replay_jobs
-        WHERE requested_by IS NOT NULL
-          AND requested_by <> ''
-        ORDER BY requested_by
-        """;
-    return jdbcClient
-        .sql(sql)
-        .query((rs, rowNum) -> rs.getString("requested_by"))
-        .list();
-  }
-
-  public List<String> loadReplayAuditEventKeys() {
-    String sql =
-        """
-        SELECT DISTINCT event_key
-        FROM replay_jobs
-        WHERE event_key IS NOT NULL
-          AND event_key <> ''
-        ORDER BY event_key
-        """;
-    return jdbcClient.sql(sql).query((rs, rowNum) -> rs.getString("event_key")).list();
-  }
-
   private void appendAuditFilters(
       StringBuilder sql,
       Map<String, Object> params,
@@ -535,13 +922,34 @@ public class ReplayAuditRepository {
       String emittedId,
       LocalDateTime updatedAt) {}
 
-  public record ReplayJobUpdate(
+  public record ReplayJobUpdate(String id, String status, LocalDateTime completedAt) {}
+
+  public record ReplayJobCheckpoint(
       String id,
-      int totalRequested,
+      int processedCount,
+      LocalDateTime checkpointEventDatetime,
+      Long checkpointRecordId,
+      LocalDateTime updatedAt,
+      String owner,
+      LocalDateTime leaseUntil) {}
+
+  public record ReplayJobStateRow(
+      String id,
+      String eventKey,
+      LocalDate day,
+      String selectionType,
+      String filtersJson,
       String status,
+      int totalRequested,
+      int processedCount,
       int succeededCount,
       int failedCount,
       int queuedCount,
+      LocalDateTime checkpointEventDatetime,
+      Long checkpointRecordId,
+      String lastError,
+      LocalDateTime createdAt,
+      LocalDateTime updatedAt,
       LocalDateTime completedAt) {}
 
   public record ReplayJobSummaryRow(
@@ -558,47 +966,6 @@ public class ReplayAuditRepository {
       long failed,
       long queued) {}
 
-  public ReplayAuditStatsRow loadReplayJobStats(
-      String eventKey, String itemStatus, String requestedBy, String search) {
-    StringBuilder sql =
-        new StringBuilder(
-            """
-        SELECT COALESCE(SUM(j.total_requested), 0) AS total,
-               COALESCE(SUM(j.succeeded_count), 0) AS replayed,
-               COALESCE(SUM(j.failed_count), 0) AS failed,
-               COALESCE(SUM(j.queued_count), 0) AS queued,
-               AVG(
-                 TIMESTAMPDIFF(
-                   MICROSECOND,
-                   j.created_at,
-                   COALESCE(j.completed_at, j.created_at)
-                 ) / 1000
-               ) AS avg_duration_ms,
-               MAX(COALESCE(j.completed_at, j.created_at)) AS latest_at
-        FROM replay_jobs j
-        WHERE 1=1
-        """);
-    Map<String, Object> params = new java.util.HashMap<>();
-    appendReplayJobFilters(sql, params, eventKey, itemStatus, requestedBy, search);
-    return jdbcClient
-        .sql(sql.toString())
-        .params(params)
-        .query(
-            (rs, rowNum) -> {
-              Double avgDuration =
-                  rs.getObject("avg_duration_ms") == null ? null : rs.getDouble("avg_duration_ms");
-              java.sql.Timestamp latestAt = rs.getTimestamp("latest_at");
-              return new ReplayAuditStatsRow(
-                  rs.getLong("total"),
-                  rs.getLong("replayed"),
-                  rs.getLong("failed"),
-                  rs.getLong("queued"),
-                  avgDuration,
-                  latestAt == null ? null : latestAt.toLocalDateTime());
-            })
-        .single();
-  }
-
   public record ReplayJobItemRow(
       long recordId,
       String eventKey,
@@ -635,4 +1002,46 @@ public class ReplayAuditRepository {
       long queued,
       Double avgDurationMs,
       LocalDateTime latestAt) {}
+
+  private record ItemState(
+      String status,
+      LocalDateTime createdAt,
+      LocalDateTime lastAttemptAt,
+      LocalDateTime updatedAt) {}
+
+  private record JobOwner(String eventKey, String requestedBy) {}
+
+  private static final class StatusCounter {
+    private final Map<String, long[]> totals = new TreeMap<>();
+    private final Map<String, LocalDateTime> latest = new java.util.HashMap<>();
+
+    private void add(String status, long count, long durationMs, LocalDateTime latestAt) {
+      long[] total = totals.computeIfAbsent(status, key -> new long[2]);
+      total[0] += count;
+      total[1] += durationMs;
+      if (latestAt != null) {
+        latest.merge(status, latestAt, (left, right) -> left.isAfter(right) ? left : right);
+      }
+    }
+
+    private boolean isEmpty() {
+      return totals.isEmpty();
+    }
+
+    private long count(String status) {
+      long[] total = totals.get(status);
+      return total == null ? 0 : total[0];
+    }
+
+    private List<ReplayStatsRepository.ReplayStatsDelta> toDeltas(
+        String eventKey, String requestedBy) {
+      List<ReplayStatsRepository.ReplayStatsDelta> deltas = new ArrayList<>();
+      totals.forEach(
+          (status, total) ->
+              deltas.add(
+                  new ReplayStatsRepository.ReplayStatsDelta(
+                      eventKey, requestedBy, status, total[0], total[1], latest.get(status))));
+      return deltas;
+    }
+  }
 }
@@ -0,0 +1,182 @@
+package com.vibe.events.repo;
+
+import com.vibe.events.repo.ReplayAuditRepository.ReplayAuditStatsRow;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class ReplayStatsRepository {
+  // Upserts lock rows in this order, so writers touching the same rows cannot deadlock.
+  private static final Comparator<ReplayStatsDelta> ROW_ORDER =
+      Comparator.comparing(ReplayStatsDelta::eventKey)
+          .thenComparing(delta -> delta.requestedBy() == null ? "" : delta.requestedBy())
+          .thenComparing(ReplayStatsDelta::status);
+
+  private final JdbcClient jdbcClient;
+
+  public ReplayStatsRepository(JdbcClient jdbcClient) {
+    this.jdbcClient = jdbcClient;
+  }
+
+  public void applyDeltas(List<ReplayStatsDelta> deltas) {
+    String sql =
+        """
+        INSERT INTO replay_stats (
+          event_key,
+          requested_by,
+          status,
+          item_count,
+          duration_sum_ms,
+          latest_at,
+          updated_at
+        ) VALUES (
+          :eventKey,
+          :requestedBy,
+          :status,
+          :itemCount,
+          :durationSumMs,
+          :latestAt,
+          :updatedAt
+        )
+        ON DUPLICATE KEY UPDATE
+          item_count = item_count + VALUES(item_count),
+          duration_sum_ms = duration_sum_ms + VALUES(duration_sum_ms),
+          latest_at =
+            GREATEST(
+              COALESCE(latest_at, VALUES(latest_at)),
+              COALESCE(VALUES(latest_at), latest_at)),
+          updated_at = VALUES(updated_at)
+        """;
+    LocalDateTime now = LocalDateTime.now();
+    List<ReplayStatsDelta> ordered = new ArrayList<>(deltas);
+    ordered.sort(ROW_ORDER);
+    for (ReplayStatsDelta delta : ordered) {
+      if (delta.itemCount() == 0 && delta.durationSumMs() == 0 && delta.latestAt() == null) {
+        continue;
+      }
+      Map<String, Object> params = new HashMap<>();
+      params.put("eventKey", delta.eventKey());
+      params.put("requestedBy", delta.requestedBy() == null ? "" : delta.requestedBy());
+      params.put("status", delta.status());
+      params.put("itemCount", delta.itemCount());
+      params.put("durationSumMs", delta.durationSumMs());
+      params.put("latestAt", delta.latestAt());
+      params.put("updatedAt", now);
+      jdbcClient.sql(sql).params(params).update();
+    }
+  }
+
+  public List<ReplayStatsDelta> loadJobRemovals(List<String> jobIds) {
+    String sql =
+        """
+        SELECT j.event_key,
+               COALESCE(j.requested_by, '') AS requested_by,
+               i.status,
+               COUNT(*) AS item_count,
+               COALESCE(SUM(%s), 0) AS duration_sum_ms
+        FROM replay_items i
+        JOIN replay_jobs j ON j.id = i.job_id
+        WHERE i.job_id IN (:jobIds)
+        GROUP BY j.event_key, COALESCE(j.requested_by, ''), i.status
+        """
+            .formatted(ReplayAuditRepository.ITEM_DURATION_MS);
+    return jdbcClient
+        .sql(sql)
+        .param("jobIds", jobIds)
+        .query(
+            (rs, rowNum) ->
+                new ReplayStatsDelta(
+                    rs.getString("event_key"),
+                    rs.getString("requested_by"),
+                    rs.getString("status"),
+                    -rs.getLong("item_count"),
+                    -rs.getLong("duration_sum_ms"),
+                    null))
+        .list();
+  }
+
+  public ReplayAuditStatsRow loadStats(String eventKey, String status, String requestedBy) {
+    StringBuilder sql =
+        new StringBuilder(
+            """
+        SELECT COALESCE(SUM(item_count), 0) AS total,
+               COALESCE(SUM(CASE WHEN status = 'REPLAYED' THEN item_count ELSE 0 END), 0)
+                 AS replayed,
+               COALESCE(SUM(CASE WHEN status = 'FAILED' THEN item_count ELSE 0 END), 0)
+                 AS failed,
+               COALESCE(SUM(CASE WHEN status = 'QUEUED' THEN item_count ELSE 0 END), 0)
+                 AS queued,
+               COALESCE(SUM(duration_sum_ms), 0) AS duration_sum_ms,
+               MAX(latest_at) AS latest_at
+        FROM replay_stats
+        WHERE item_count > 0
+        """);
+    Map<String, Object> params = new HashMap<>();
+    if (eventKey != null) {
+      sql.append(" AND event_key = :eventKey");
+      params.put("eventKey", eventKey);
+    }
+    if (status != null) {
+      sql.append(" AND status = :status");
+      params.put("status", status);
+    }
+    if (requestedBy != null) {
+      sql.append(" AND requested_by = :requestedBy");
+      params.put("requestedBy", requestedBy);
+    }
+    return jdbcClient
+        .sql(sql.toString())
+        .params(params)
+        .query(
+            (rs, rowNum) -> {
+              long total = rs.getLong("total");
+              java.sql.Timestamp latestAt = rs.getTimestamp("latest_at");
+              return new ReplayAuditStatsRow(
+                  total,
+                  rs.getLong("replayed"),
+                  rs.getLong("failed"),
+                  rs.getLong("queued"),
+                  total == 0 ? null : (double) rs.getLong("duration_sum_ms") / total,
+                  latestAt == null ? null : latestAt.toLocalDateTime());
+            })
+        .single();
+  }
+
+  public List<String> loadOperators() {
+    String sql =
+        """
+        SELECT DISTINCT requested_by
+        FROM replay_stats
+        WHERE requested_by <> ''
+          AND item_count > 0
+        ORDER BY requested_by
+        """;
+    return jdbcClient.sql(sql).query((rs, rowNum) -> rs.getString("requested_by")).list();
+  }
+
+  public List<String> loadEventKeys() {
+    String sql =
+        """
+        SELECT DISTINCT event_key
+        FROM replay_stats
+        WHERE event_key <> ''
+          AND item_count > 0
+        ORDER BY event_key
+        """;
+    return jdbcClient.sql(sql).query((rs, rowNum) -> rs.getString("event_key")).list();
+  }
+
+  public record ReplayStatsDelta(
+      String eventKey,
+      String requestedBy,
+      String status,
+      long itemCount,
+      long durationSumMs,
+      LocalDateTime latestAt) {}
+}
@@ -0,0 +1,525 @@
+package com.vibe.events.repo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class RollupRepository {
+  private final JdbcClient jdbcClient;
+  private final NamedParameterJdbcTemplate batchTemplate;
+
+  public RollupRepository(JdbcClient jdbcClient, NamedParameterJdbcTemplate batchTemplate) {
+    this.jdbcClient = jdbcClient;
+    this.batchTemplate = batchTemplate;
+  }
+
+  public long loadMaxId(String table) {
+    Long maxId =
+        jdbcClient
+            .sql("SELECT MAX(id) AS max_id FROM " + table)
+            .query((rs, rowNum) -> rs.getObject("max_id", Long.class))
+            .optional()
+            .orElse(null);
+    return maxId == null ? 0L : maxId;
+  }
+
+  public void ensureWatermark(String consumer, String table) {
+    String sql =
+        """
+        INSERT INTO event_watermarks (consumer, table_name, last_id, updated_at)
+        VALUES (:consumer, :tableName, 0, :updatedAt)
+        ON DUPLICATE KEY UPDATE last_id = last_id
+        """;
+    jdbcClient
+        .sql(sql)
+        .param("consumer", consumer)
+        .param("tableName", table)
+        .param("updatedAt", LocalDateTime.now())
+        .update();
+  }
+
+  public Long findWatermark(String consumer, String table) {
+    String sql =
+        """
+        SELECT last_id
+        FROM event_watermarks
+        WHERE consumer = :consumer AND table_name = :tableName
+        """;
+    return jdbcClient
+        .sql(sql)
+        .param("consumer", consumer)
+        .param("tableName", table)
+        .query(Long.class)
+        .optional()
+        .orElse(null);
+  }
+
+  public long loadWatermark(String consumer, String table) {
+    String sql =
+        """
+        SELECT last_id
+        FROM event_watermarks
+        WHERE consumer = :consumer AND table_name = :tableName
+        """;
+    return jdbcClient
+        .sql(sql)
+        .param("consumer", consumer)
+        .param("tableName", table)
+        .query(Long.class)
+        .optional()
+        .orElse(0L);
+  }
+
+  public boolean advanceWatermark(String consumer, String table, long fromId, long toId) {
+    String sql =
+        """
+        UPDATE event_watermarks
+        SET last_id = :toId,
+            updated_at = :updatedAt
+        WHERE consumer = :consumer
+          AND table_name = :tableName
+          AND last_id = :fromId
+        """;
+    int updated =
+        jdbcClient
+            .sql(sql)
+            .param("toId", toId)
+            .param("updatedAt", LocalDateTime.now())
+            .param("consumer", consumer)
+            .param("tableName", table)
+            .param("fromId", fromId)
+            .update();
+    return updated == 1;
+  }
+
+  public List<Long> loadIds(String table, long fromId, long toId) {
+    String sql = "SELECT id FROM " + table + " WHERE id > :fromId AND id <= :toId ORDER BY id";
+    return jdbcClient
+        .sql(sql)
+        .param("fromId", fromId)
+        .param("toId", toId)
+        .query(Long.class)
+        .list();
+  }
+
+  public long countIds(String table, long fromId, long toId) {
+    String sql = "SELECT COUNT(*) FROM " + table + " WHERE id > :fromId AND id <= :toId";
+    return jdbcClient
+        .sql(sql)
+        .param("fromId", fromId)
+        .param("toId", toId)
+        .query(Long.class)
+        .single();
+  }
+
+  // A gap that continues the previous one (e.g. an empty prefix left by purged rows) is extended
+  // instead of adding one row per chunk.
+  public void recordGap(
+      String consumer, String table, long fromId, long toId, LocalDateTime firstSeenAt) {
+    String extend =
+        """
+        UPDATE event_watermark_gaps
+        SET to_id = :toId
+        WHERE consumer = :consumer AND table_name = :tableName AND to_id = :fromId
+        """;
+    Map<String, Object> params = new HashMap<>();
+    params.put("consumer", consumer);
+    params.put("tableName", table);
+    params.put("fromId", fromId);
+    params.put("toId", toId);
+    params.put("firstSeenAt", firstSeenAt);
+    if (jdbcClient.sql(extend).params(params).update() > 0) {
+      return;
+    }
+    String insert =
+        """
+        INSERT INTO event_watermark_gaps (consumer, table_name, from_id, to_id, first_seen_at)
+        VALUES (:consumer, :tableName, :fromId, :toId, :firstSeenAt)
+        """;
+    jdbcClient.sql(insert).params(params).update();
+  }
+
+  public List<WatermarkGap> loadGaps(String consumer, String table) {
+    String sql =
+        """
+        SELECT from_id, to_id, first_seen_at
+        FROM event_watermark_gaps
+        WHERE consumer = :consumer AND table_name = :tableName
+        ORDER BY from_id
+        """;
+    return jdbcClient
+        .sql(sql)
+        .param("consumer", consumer)
+        .param("tableName", table)
+        .query(
+            (rs, rowNum) ->
+                new WatermarkGap(
+                    rs.getLong("from_id"),
+                    rs.getLong("to_id"),
+                    rs.getObject("first_seen_at", LocalDateTime.class)))
+        .list();
+  }
+
+  // Deleting the exact gap is the claim: only one consumer instance gets an update count of 1.
+  public boolean claimGap(String consumer, String table, WatermarkGap gap) {
+    String sql =
+        """
+        DELETE FROM event_watermark_gaps
+        WHERE consumer = :consumer
+          AND table_name = :tableName
+          AND from_id = :fromId
+          AND to_id = :toId
+        """;
+    int deleted =
+        jdbcClient
+            .sql(sql)
+            .param("consumer", consumer)
+            .param("tableName", table)
+            .param("fromId", gap.fromId())
+            .param("toId", gap.toId())
+            .update();
+    return deleted == 1;
+  }
+
+  public int deleteGapsBefore(String consumer, String table, LocalDateTime cutoff) {
+    String sql =
+        """
+        DELETE FROM event_watermark_gaps
+        WHERE consumer = :consumer AND table_name = :tableName AND first_seen_at < :cutoff
+        """;
+    return jdbcClient
+        .sql(sql)
+        .param("consumer", consumer)
+        .param("tableName", table)
+        .param("cutoff", cutoff)
+        .update();
+  }
+
+  public List<MinuteRollup> loadMinuteRollups(
+      String table, boolean failureTable, long fromId, long toId) {
+    String retriable =
+        failureTable ? "SUM(CASE WHEN retriable = 1 THEN 1 ELSE 0 END)" : "0";
+    String sent =
+        failureTable
+            ? "0 AS sent_sum, 0 AS sent_min, 0 AS sent_max "
+            : "SUM(latency_event_sent_ms) AS sent_sum, "
+                + "MIN(latency_event_sent_ms) AS sent_min, "
+                + "MAX(latency_event_sent_ms) AS sent_max ";
+    String sql =
+        "SELECT CAST(event_datetime AS DATE) AS bucket_day, "
+            + "HOUR(event_datetime) AS bucket_hour, "
+            + "MINUTE(event_datetime) AS bucket_minute, "
+            + "COUNT(*) AS row_count, "
+            + retriable
+            + " AS retriable_count, "
+            + "SUM(latency_ms) AS latency_sum, "
+            + "MIN(latency_ms) AS latency_min, "
+            + "MAX(latency_ms) AS latency_max, "
+            + "SUM(latency_event_received_ms) AS received_sum, "
+            + "MIN(latency_event_received_ms) AS received_min, "
+            + "MAX(latency_event_received_ms) AS received_max, "
+            + sent
+            + "FROM "
+            + table
+            + " WHERE id > :fromId AND id <= :toId "
+            + "GROUP BY CAST(event_datetime AS DATE), HOUR(event_datetime), MINUTE(event_datetime)";
+    return jdbcClient
+        .sql(sql)
+        .param("fromId", fromId)
+        .param("toId", toId)
+        .query(
+            (rs, rowNum) ->
+                new MinuteRollup(
+                    rs.getObject("bucket_day", LocalDate.class)
+                        .atTime(rs.getInt("bucket_hour"), rs.getInt("bucket_minute")),
+                    rs.getLong("row_count"),
+                    rs.getLong("retriable_count"),
+                    rs.getLong("latency_sum"),
+                    rs.getLong("latency_min"),
+                    rs.getLong("latency_max"),
+                    rs.getLong("received_sum"),
+                    rs.getLong("received_min"),
+                    rs.getLong("received_max"),
+                    rs.getLong("sent_sum"),
+                    rs.getLong("sent_min"),
+                    rs.getLong("sent_max")))
+        .list();
+  }
+
+  public void mergeRollups(String table, List<MinuteRollup> rollups) {
+    String sql =
+        """
+        INSERT INTO event_minute_rollups (
+          table_name,
+          bucket_start,
+          row_count,
+          retriable_count,
+          latency_sum,
+          latency_min,
+          latency_max,
+          received_latency_sum,
+          received_latency_min,
+          received_latency_max,
+          sent_latency_sum,
+          sent_latency_min,
+          sent_latency_max,
+          updated_at
+        ) VALUES (
+          :tableName,
+          :bucketStart,
+          :rowCount,
+          :retriableCount,
+          :latencySum,
+          :latencyMin,
+          :latencyMax,
+          :receivedSum,
+          :receivedMin,
+          :receivedMax,
+          :sentSum,
+          :sentMin,
+          :sentMax,
+          :updatedAt
+        )
+        ON DUPLICATE KEY UPDATE
+          latency_min = LEAST(latency_min, VALUES(latency_min)),
+          received_latency_min = LEAST(received_latency_min, VALUES(received_latency_min)),
+          sent_latency_min = LEAST(sent_latency_min, VALUES(sent_latency_min)),
+          latency_max = GREATEST(latency_max, VALUES(latency_max)),
+          received_latency_max = GREATEST(received_latency_max, VALUES(received_latency_max)),
+          sent_latency_max = GREATEST(sent_latency_max, VALUES(sent_latency_max)),
+          latency_sum = latency_sum + VALUES(latency_sum),
+          received_latency_sum = received_latency_sum + VALUES(received_latency_sum),
+          sent_latency_sum = sent_latency_sum + VALUES(sent_latency_sum),
+          retriable_count = retriable_count + VALUES(retriable_count),
+          row_count = row_count + VALUES(row_count),
+          updated_at = VALUES(updated_at)
+        """;
+    if (rollups.isEmpty()) {
+      return;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    SqlParameterSource[] batch = new SqlParameterSource[rollups.size()];
+    for (int i = 0; i < rollups.size(); i += 1) {
+      MinuteRollup rollup = rollups.get(i);
+      batch[i] =
+          new MapSqlParameterSource()
+              .addValue("tableName", table)
+              .addValue("bucketStart", rollup.bucketStart())
+              .addValue("rowCount", rollup.rowCount())
+              .addValue("retriableCount", rollup.retriableCount())
+              .addValue("latencySum", rollup.latencySum())
+              .addValue("latencyMin", rollup.latencyMin())
+              .addValue("latencyMax", rollup.latencyMax())
+              .addValue("receivedSum", rollup.receivedSum())
+              .addValue("receivedMin", rollup.receivedMin())
+              .addValue("receivedMax", rollup.receivedMax())
+              .addValue("sentSum", rollup.sentSum())
+              .addValue("sentMin", rollup.sentMin())
+              .addValue("sentMax", rollup.sentMax())
+              .addValue("updatedAt", now);
+    }
+    batchTemplate.batchUpdate(sql, batch);
+  }
+
+  public SuccessTotals loadSuccessTotals(String successTable, LocalDate day) {
+    RollupTotals totals = loadTotals(successTable, day);
+    return new SuccessTotals(
+        totals.rowCount(),
+        average(totals.latencySum(), totals.rowCount()),
+        average(totals.receivedSum(), totals.rowCount()),
+        average(totals.sentSum(), totals.rowCount()));
+  }
+
+  public FailureTotals loadFailureTotals(String failureTable, LocalDate day) {
+    RollupTotals totals = loadTotals(failureTable, day);
+    return new FailureTotals(
+        totals.rowCount(),
+        totals.retriableCount(),
+        average(totals.latencySum(), totals.rowCount()),
+        average(totals.receivedSum(), totals.rowCount()));
+  }
+
+  public Map<Integer, SuccessBucket> loadHourlySuccessBuckets(String successTable, LocalDate day) {
+    Map<Integer, SuccessBucket> result = new HashMap<>();
+    for (RollupBucket bucket : loadBuckets(successTable, day, false)) {
+      result.put(
+          bucket.hourOfDay(),
+          new SuccessBucket(
+              bucket.hourOfDay(),
+              null,
+              bucket.rowCount(),
+              average(bucket.latencySum(), bucket.rowCount())));
+    }
+    return result;
+  }
+
+  public Map<Integer, FailureBucket> loadHourlyFailureBuckets(String failureTable, LocalDate day) {
+    Map<Integer, FailureBucket> result = new HashMap<>();
+    for (RollupBucket bucket : loadBuckets(failureTable, day, false)) {
+      result.put(
+          bucket.hourOfDay(),
+          new FailureBucket(
+              bucket.hourOfDay(),
+              null,
+              bucket.rowCount(),
+              bucket.retriableCount(),
+              average(bucket.latencySum(), bucket.rowCount())));
+    }
+    return result;
+  }
+
+  public Map<BucketKey, SuccessBucket> loadQuarterHourSuccessBuckets(
+      String successTable, LocalDate day) {
+    Map<BucketKey, SuccessBucket> result = new HashMap<>();
+    for (RollupBucket bucket : loadBuckets(successTable, day, true)) {
+      result.put(
+          new BucketKey(bucket.hourOfDay(), bucket.quarter()),
+          new SuccessBucket(
+              bucket.hourOfDay(),
+              bucket.quarter(),
+              bucket.rowCount(),
+              average(bucket.latencySum(), bucket.rowCount())));
+    }
+    return result;
+  }
+
+  public Map<BucketKey, FailureBucket> loadQuarterHourFailureBuckets(
+      String failureTable, LocalDate day) {
+    Map<BucketKey, FailureBucket> result = new HashMap<>();
+    for (RollupBucket bucket : loadBuckets(failureTable, day, true)) {
+      result.put(
+          new BucketKey(bucket.hourOfDay(), bucket.quarter()),
+          new FailureBucket(
+              bucket.hourOfDay(),
+              bucket.quarter(),
+              bucket.rowCount(),
+              bucket.retriableCount(),
+              average(bucket.latencySum(), bucket.rowCount())));
+    }
+    return result;
+  }
+
+  public long loadRowCount(String table, LocalDateTime start, LocalDateTime end) {
+    String sql =
+        """
+        SELECT COALESCE(SUM(row_count), 0) AS row_count
+        FROM event_minute_rollups
+        WHERE table_name = :tableName
+          AND bucket_start >= :startTs
+          AND bucket_start < :endTs
+        """;
+    return jdbcClient
+        .sql(sql)
+        .param("tableName", table)
+        .param("startTs", start)
+        .param("endTs", end)
+        .query((rs, rowNum) -> rs.getLong("row_count"))
+        .single();
+  }
+
+  public int deleteRollupsBefore(String table, LocalDateTime cutoff) {
+    String sql =
+        """
+        DELETE FROM event_minute_rollups
+        WHERE table_name = :tableName AND bucket_start < :cutoff
+        """;
+    return jdbcClient.sql(sql).param("tableName", table).param("cutoff", cutoff).update();
+  }
+
+  private RollupTotals loadTotals(String table, LocalDate day) {
+    String sql =
+        """
+        SELECT COALESCE(SUM(row_count), 0) AS row_count,
+               COALESCE(SUM(retriable_count), 0) AS retriable_count,
+               COALESCE(SUM(latency_sum), 0) AS latency_sum,
+               COALESCE(SUM(received_latency_sum), 0) AS received_sum,
+               COALESCE(SUM(sent_latency_sum), 0) AS sent_sum
+        FROM event_minute_rollups
+        WHERE table_name = :tableName
+          AND bucket_start >= :startTs
+          AND bucket_start < :endTs
+        """;
+    return jdbcClient
+        .sql(sql)
+        .param("tableName", table)
+        .param("startTs", day.atStartOfDay())
+        .param("endTs", day.plusDays(1).atStartOfDay())
+        .query(
+            (rs, rowNum) ->
+                new RollupTotals(
+                    rs.getLong("row_count"),
+                    rs.getLong("retriable_count"),
+                    rs.getLong("latency_sum"),
+                    rs.getLong("received_sum"),
+                    rs.getLong("sent_sum")))
+        .single();
+  }
+
+  private List<RollupBucket> loadBuckets(String table, LocalDate day, boolean quarterHour) {
+    String quarter = quarterHour ? "FLOOR(MINUTE(bucket_start) / 15)" : "0";
+    String groupBy =
+        quarterHour
+            ? "GROUP BY HOUR(bucket_start), FLOOR(MINUTE(bucket_start) / 15) "
+            : "GROUP BY HOUR(bucket_start) ";
+    String sql =
+        "SELECT HOUR(bucket_start) AS hour_of_day, "
+            + quarter
+            + " AS quarter, "
+            + "SUM(row_count) AS row_count, "
+            + "SUM(retriable_count) AS retriable_count, "
+            + "SUM(latency_sum) AS latency_sum "
+            + "FROM event_minute_rollups "
+            + "WHERE table_name = :tableName "
+            + "AND bucket_start >= :startTs AND bucket_start < :endTs "
+            + groupBy
+            + "ORDER BY hour_of_day, quarter";
+    return jdbcClient
+        .sql(sql)
+        .param("tableName", table)
+        .param("startTs", day.atStartOfDay())
+        .param("endTs", day.plusDays(1).atStartOfDay())
+        .query(
+            (rs, rowNum) ->
+                new RollupBucket(
+                    rs.getInt("hour_of_day"),
+                    rs.getInt("quarter"),
+                    rs.getLong("row_count"),
+                    rs.getLong("retriable_count"),
+                    rs.getLong("latency_sum")))
+        .list();
+  }
+
+  private Double average(long sum, long count) {
+    return count > 0 ? (double) sum / count : null;
+  }
+
+  public record MinuteRollup(
+      LocalDateTime bucketStart,
+      long rowCount,
+      long retriableCount,
+      long latencySum,
+      long latencyMin,
+      long latencyMax,
+      long receivedSum,
+      long receivedMin,
+      long receivedMax,
+      long sentSum,
+      long sentMin,
+      long sentMax) {}
+
+  public record WatermarkGap(long fromId, long toId, LocalDateTime firstSeenAt) {}
+
+  private record RollupTotals(
+      long rowCount, long retriableCount, long latencySum, long receivedSum, long sentSum) {}
+
+  private record RollupBucket(
+      int hourOfDay, int quarter, long rowCount, long retriableCount, long latencySum) {}
+}
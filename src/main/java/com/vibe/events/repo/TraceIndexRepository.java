@@ -0,0 +1,84 @@
+package com.vibe.events.repo;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class TraceIndexRepository {
+  private final JdbcClient jdbcClient;
+
+  public TraceIndexRepository(JdbcClient jdbcClient) {
+    this.jdbcClient = jdbcClient;
+  }
+
+  // Upserts so a range can be indexed again, e.g. when a late-row gap is re-scanned.
+  public int indexRange(String eventKey, String outcome, String table, long fromId, long toId) {
+    String sql =
+        "INSERT INTO event_trace_index ("
+            + "event_key, outcome, record_id, event_datetime, trace_id, message_key, account_number"
+            + ") SELECT :eventKey, :outcome, id, event_datetime, event_trace_id, message_key, "
+            + "account_number FROM "
+            + table
+            + " WHERE id > :fromId AND id <= :toId"
+            + " ON DUPLICATE KEY UPDATE event_datetime = VALUES(event_datetime),"
+            + " trace_id = VALUES(trace_id), message_key = VALUES(message_key),"
+            + " account_number = VALUES(account_number)";
+    Map<String, Object> params = new HashMap<>();
+    params.put("eventKey", eventKey);
+    params.put("outcome", outcome);
+    params.put("fromId", fromId);
+    params.put("toId", toId);
+    return jdbcClient.sql(sql).params(params).update();
+  }
+
+  // column is one of the whitelisted lookup columns chosen by the service.
+  public List<TraceIndexEntry> find(String column, String value, int limit) {
+    String sql =
+        "SELECT event_key, outcome, record_id, event_datetime, trace_id, message_key, "
+            + "account_number FROM event_trace_index WHERE "
+            + column
+            + " = :value ORDER BY event_datetime DESC, record_id DESC LIMIT :limit";
+    return jdbcClient
+        .sql(sql)
+        .param("value", value)
+        .param("limit", limit)
+        .query(
+            (rs, rowNum) ->
+                new TraceIndexEntry(
+                    rs.getString("event_key"),
+                    rs.getString("outcome"),
+                    rs.getLong("record_id"),
+                    rs.getObject("event_datetime", LocalDateTime.class),
+                    rs.getString("trace_id"),
+                    rs.getString("message_key"),
+                    rs.getString("account_number")))
+        .list();
+  }
+
+  public int deleteBefore(String eventKey, LocalDateTime cutoff, int limit) {
+    String sql =
+        """
+        DELETE FROM event_trace_index
+        WHERE event_key = :eventKey
+          AND event_datetime < :cutoff
+        LIMIT :limit
+        """;
+    return jdbcClient
+        .sql(sql)
+        .params(Map.of("eventKey", eventKey, "cutoff", cutoff, "limit", limit))
+        .update();
+  }
+
+  public record TraceIndexEntry(
+      String eventKey,
+      String outcome,
+      long recordId,
+      LocalDateTime eventDatetime,
+      String traceId,
+      String messageKey,
+      String accountNumber) {}
+}
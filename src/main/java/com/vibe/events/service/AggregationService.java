@@ -3,6 +3,7 @@ package com.vibe.events.service;
 import com.vibe.events.config.AggregationProperties;
 import com.vibe.events.config.CacheConfig;
 import com.vibe.events.dto.BucketPoint;
+import com.vibe.events.dto.CachedAggregate;
 import com.vibe.events.dto.EventBreakdownRow;
 import com.vibe.events.dto.EventBucketsResponse;
 import com.vibe.events.dto.HomeBucketsResponse;
@@ -17,20 +18,25 @@ import com.vibe.events.repo.AggregationRepository;
 import com.vibe.events.repo.BucketKey;
 import com.vibe.events.repo.FailureBucket;
 import com.vibe.events.repo.FailureTotals;
+import com.vibe.events.repo.LatencySketchRepository;
+import com.vibe.events.repo.RollupRepository;
 import com.vibe.events.repo.SuccessBucket;
 import com.vibe.events.repo.SuccessTotals;
 import com.vibe.events.util.CacheKeys;
+import com.vibe.events.util.LatencySketch;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -41,131 +47,189 @@ public class AggregationService {
   private final EventRegistry registry;
   private final CacheManager cacheManager;
   private final AggregationProperties properties;
+  private final RollupService rollupService;
+  private final RollupRepository rollupRepository;
+  private final LatencySketchRepository sketchRepository;
+  private final QueryFanout queryFanout;
+  private final CombinedScanService combinedScanService;
+  private final SingleFlight singleFlight;
+  private final WarmupScheduler warmupScheduler;
+  private final ViewTracker viewTracker;
+  private final MeterRegistry meterRegistry;
 
   public AggregationService(
       AggregationRepository repository,
       EventRegistry registry,
       CacheManager cacheManager,
-      AggregationProperties properties) {
+      AggregationProperties properties,
+      RollupService rollupService,
+      RollupRepository rollupRepository,
+      LatencySketchRepository sketchRepository,
+      QueryFanout queryFanout,
+      CombinedScanService combinedScanService,
+      SingleFlight singleFlight,
+      WarmupScheduler warmupScheduler,
+      ViewTracker viewTracker,
+      MeterRegistry meterRegistry) {
     this.repository = repository;
     this.registry = registry;
     this.cacheManager = cacheManager;
     this.properties = properties;
+    this.rollupService = rollupService;
+    this.rollupRepository = rollupRepository;
+    this.sketchRepository = sketchRepository;
+    this.queryFanout = queryFanout;
+    this.combinedScanService = combinedScanService;
+    this.singleFlight = singleFlight;
+    this.warmupScheduler = warmupScheduler;
+    this.viewTracker = viewTracker;
+    this.meterRegistry = meterRegistry;
   }
 
   public HomeAggregationResponse getHomeAggregation(LocalDate day) {
-    String key = CacheKeys.homeKey(day);
-    Cache cache = cacheManager.getCache(CacheConfig.HOME_AGG);
-    if (cache != null) {
-      HomeAggregationResponse cached = cache.get(key, HomeAggregationResponse.class);
-      if (cached != null) {
-        return cached;
-      }
-    }
-    HomeAggregationResponse response = computeHomeAggregation(day);
-    if (cache != null) {
-      cache.put(key, response);
-    }
-    return response;
+    viewTracker.recordView(day, null);
+    return getCached(
+        CacheConfig.HOME_AGG,
+        CacheKeys.homeKey(day),
+        HomeAggregationResponse.class,
+        () -> computeHomeAggregation(day));
   }
 
   public HomeBucketsResponse getHomeBuckets(LocalDate day, int intervalMinutes) {
     validateInterval(intervalMinutes);
-    String key = CacheKeys.homeBucketsKey(day, intervalMinutes);
-    Cache cache = cacheManager.getCache(CacheConfig.HOME_BUCKETS);
-    if (cache != null) {
-      HomeBucketsResponse cached = cache.get(key, HomeBucketsResponse.class);
-      if (cached != null) {
-        return cached;
-      }
-    }
-    HomeBucketsResponse response = computeHomeBuckets(day, intervalMinutes);
-    if (cache != null) {
-      cache.put(key, response);
-    }
-    return response;
+    viewTracker.recordView(day, null);
+    return getCached(
+        CacheConfig.HOME_BUCKETS,
+        CacheKeys.homeBucketsKey(day, intervalMinutes),
+        HomeBucketsResponse.class,
+        () -> computeHomeBuckets(day, intervalMinutes));
   }
 
   public EventSummaryResponse getEventSummary(LocalDate day, String eventKey) {
-    String key = CacheKeys.eventSummaryKey(day, eventKey);
-    Cache cache = cacheManager.getCache(CacheConfig.EVENT_SUMMARY);
-    if (cache != null) {
-      EventSummaryResponse cached = cache.get(key, EventSummaryResponse.class);
-      if (cached != null) {
-        return cached;
-      }
-    }
-    EventSummaryResponse response = computeEventSummary(day, eventKey);
-    if (cache != null) {
-      cache.put(key, response);
-    }
-    return response;
+    registry.getRequired(eventKey);
+    viewTracker.recordView(day, eventKey);
+    return getCached(
+        CacheConfig.EVENT_SUMMARY,
+        CacheKeys.eventSummaryKey(day, eventKey),
+        EventSummaryResponse.class,
+        () -> computeEventSummary(day, eventKey));
   }
 
   public EventBucketsResponse getEventBuckets(LocalDate day, String eventKey, int intervalMinutes) {
     validateInterval(intervalMinutes);
-    String key = CacheKeys.eventBucketsKey(day, eventKey, intervalMinutes);
-    Cache cache = cacheManager.getCache(CacheConfig.EVENT_BUCKETS);
-    if (cache != null) {
-      EventBucketsResponse cached = cache.get(key, EventBucketsResponse.class);
-      if (cached != null) {
-        return cached;
-      }
-    }
-    EventBucketsResponse response = computeEventBuckets(day, eventKey, intervalMinutes);
-    if (cache != null) {
-      cache.put(key, response);
-    }
-    return response;
+    registry.getRequired(eventKey);
+    viewTracker.recordView(day, eventKey);
+    return getCached(
+        CacheConfig.EVENT_BUCKETS,
+        CacheKeys.eventBucketsKey(day, eventKey, intervalMinutes),
+        EventBucketsResponse.class,
+        () -> computeEventBuckets(day, eventKey, intervalMinutes));
   }
 
   public void refreshHome(LocalDate day) {
-    Cache cache = cacheManager.getCache(CacheConfig.HOME_AGG);
-    if (cache != null) {
-      cache.put(CacheKeys.homeKey(day), computeHomeAggregation(day));
-    }
+    recompute(CacheConfig.HOME_AGG, CacheKeys.homeKey(day), () -> computeHomeAggregation(day));
   }
 
   public void refreshHomeBuckets(LocalDate day, int intervalMinutes) {
     validateInterval(intervalMinutes);
-    Cache cache = cacheManager.getCache(CacheConfig.HOME_BUCKETS);
-    if (cache != null) {
-      cache.put(CacheKeys.homeBucketsKey(day, intervalMinutes), computeHomeBuckets(day, intervalMinutes));
-    }
+    recompute(
+        CacheConfig.HOME_BUCKETS,
+        CacheKeys.homeBucketsKey(day, intervalMinutes),
+        () -> computeHomeBuckets(day, intervalMinutes));
   }
 
   public void refreshEventSummary(LocalDate day, String eventKey) {
-    Cache cache = cacheManager.getCache(CacheConfig.EVENT_SUMMARY);
-    if (cache != null) {
-      cache.put(CacheKeys.eventSummaryKey(day, eventKey), computeEventSummary(day, eventKey));
-    }
+    recompute(
+        CacheConfig.EVENT_SUMMARY,
+        CacheKeys.eventSummaryKey(day, eventKey),
+        () -> computeEventSummary(day, eventKey));
   }
 
   public void refreshEventBuckets(LocalDate day, String eventKey, int intervalMinutes) {
     validateInterval(intervalMinutes);
-    Cache cache = cacheManager.getCache(CacheConfig.EVENT_BUCKETS);
+    recompute(
+        CacheConfig.EVENT_BUCKETS,
+        CacheKeys.eventBucketsKey(day, eventKey, intervalMinutes),
+        () -> computeEventBuckets(day, eventKey, intervalMinutes));
+  }
+
+  private <T extends CachedAggregate<T>> T getCached(
+      String cacheName, String key, Class<T> type, Supplier<T> compute) {
+    Cache cache = cacheManager.getCache(cacheName);
     if (cache != null) {
-      cache.put(
-          CacheKeys.eventBucketsKey(day, eventKey, intervalMinutes),
-          computeEventBuckets(day, eventKey, intervalMinutes));
+      T cached = cache.get(key, type);
+      if (cached != null) {
+        if (isSoftExpired(cached)) {
+          refreshInBackground(cacheName, key, compute);
+        }
+        return withStaleness(cached);
+      }
     }
+    T value =
+        singleFlight.execute(
+            CacheKeys.taskKey(cacheName, key),
+            () -> {
+              if (cache != null) {
+                T cached = cache.get(key, type);
+                if (cached != null) {
+                  return cached;
+                }
+              }
+              T computed = timedCompute(cacheName, compute);
+              if (cache != null) {
+                cache.put(key, computed);
+              }
+              return computed;
+            });
+    return withStaleness(value);
   }
 
-  @Async("refreshExecutor")
-  public CompletableFuture<Void> refreshEventAcrossDays(String eventKey, int days) {
-    EventDefinition definition = registry.getRequired(eventKey);
-    if (days <= 0) {
-      return CompletableFuture.completedFuture(null);
+  private <T extends CachedAggregate<T>> boolean isSoftExpired(T cached) {
+    if (!LocalDate.now().equals(cached.day())) {
+      return false;
     }
-    LocalDate today = LocalDate.now();
-    for (int i = 0; i < days; i += 1) {
-      LocalDate day = today.minusDays(i);
-      refreshEventSummary(day, definition.getKey());
-      for (Integer interval : properties.getBuckets().getIntervalsMinutes()) {
-        refreshEventBuckets(day, definition.getKey(), interval);
-      }
+    long softTtlMs = properties.getCache().getTodaySoftTtlMs();
+    return cached.generatedAt().plusNanos(softTtlMs * 1_000_000L).isBefore(LocalDateTime.now());
+  }
+
+  private <T extends CachedAggregate<T>> T withStaleness(T value) {
+    long staleSeconds = Duration.between(value.generatedAt(), LocalDateTime.now()).getSeconds();
+    return value.withStaleSeconds(Math.max(0, staleSeconds));
+  }
+
+  private <T> void refreshInBackground(String cacheName, String key, Supplier<T> compute) {
+    warmupScheduler.submit(
+        CacheKeys.taskKey(cacheName, key),
+        WarmupPriority.INTERACTIVE,
+        0,
+        () -> recompute(cacheName, key, compute));
+  }
+
+  private <T> void recompute(String cacheName, String key, Supplier<T> compute) {
+    Cache cache = cacheManager.getCache(cacheName);
+    if (cache == null) {
+      return;
+    }
+    singleFlight.execute(
+        CacheKeys.taskKey(cacheName, key),
+        () -> {
+          T value = timedCompute(cacheName, compute);
+          cache.put(key, value);
+          return value;
+        });
+  }
+
+  private <T> T timedCompute(String cacheName, Supplier<T> compute) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    try {
+      return compute.get();
+    } finally {
+      sample.stop(
+          Timer.builder("aggregation.compute")
+              .description("Time to compute an aggregate on a cache miss or refresh")
+              .tag("cache", cacheName)
+              .register(meterRegistry));
     }
-    return CompletableFuture.completedFuture(null);
   }
 
   private HomeAggregationResponse computeHomeAggregation(LocalDate day) {
@@ -177,13 +241,18 @@ public class AggregationService {
     double weightedLatencySum = 0.0;
     double weightedReceivedSum = 0.0;
     double weightedSentSum = 0.0;
-    int percentileBucketMs = properties.getPercentileBucketMs();
-    int percentileSampleSize = properties.getPercentileSampleSizePerTable();
     List<String> latencyTables = new ArrayList<>();
     List<String> successTables = new ArrayList<>();
 
-    for (EventDefinition definition : registry.all()) {
-      EventStats stats = computeEventStats(day, definition, false);
+    List<EventDefinition> definitions = registry.all();
+    List<EventStats> eventStats =
+        queryFanout.map(
+            "home aggregation " + day,
+            definitions,
+            definition -> computeEventStats(day, definition, false));
+    for (int index = 0; index < definitions.size(); index += 1) {
+      EventDefinition definition = definitions.get(index);
+      EventStats stats = eventStats.get(index);
       String name = definition.getName();
       if (name == null || name.isBlank()) {
         name = definition.getKey();
@@ -219,24 +288,11 @@ public class AggregationService {
     double avgReceived = total > 0 ? weightedReceivedSum / total : 0.0;
     double avgSent = totalSuccess > 0 ? weightedSentSum / totalSuccess : 0.0;
     AggregationRepository.LatencyStats latencyStats =
-        repository.loadLatencyStatsAcrossTables(
-            latencyTables, "latency_ms", day, total, percentileBucketMs, percentileSampleSize);
+        loadLatencyStats(latencyTables, "latency_ms", day, total);
     AggregationRepository.LatencyStats receivedStats =
-        repository.loadLatencyStatsAcrossTables(
-            latencyTables,
-            "latency_event_received_ms",
-            day,
-            total,
-            percentileBucketMs,
-            percentileSampleSize);
+        loadLatencyStats(latencyTables, "latency_event_received_ms", day, total);
     AggregationRepository.LatencyStats sentStats =
-        repository.loadLatencyStatsAcrossTables(
-            successTables,
-            "latency_event_sent_ms",
-            day,
-            totalSuccess,
-            percentileBucketMs,
-            percentileSampleSize);
+        loadLatencyStats(successTables, "latency_event_sent_ms", day, totalSuccess);
     Kpis kpis =
         new Kpis(
             total,
@@ -245,28 +301,56 @@ public class AggregationService {
             round2(successRate(totalSuccess, total)),
             totalRetriable,
             round2(avgLatency),
+            round2(toLatencyValue(latencyStats.p50())),
             round2(latencyStats.p95() == null ? 0.0 : latencyStats.p95()),
             round2(latencyStats.p99() == null ? 0.0 : latencyStats.p99()),
             round2(latencyStats.max() == null ? 0.0 : latencyStats.max()));
     LatencyStages stageLatencies =
         new LatencyStages(
             round2(avgReceived),
+            round2(toLatencyValue(receivedStats.p50())),
             round2(receivedStats.p95() == null ? 0.0 : receivedStats.p95()),
             round2(receivedStats.p99() == null ? 0.0 : receivedStats.p99()),
             round2(receivedStats.max() == null ? 0.0 : receivedStats.max()),
             round2(avgSent),
+            round2(toLatencyValue(sentStats.p50())),
             round2(sentStats.p95() == null ? 0.0 : sentStats.p95()),
             round2(sentStats.p99() == null ? 0.0 : sentStats.p99()),
             round2(sentStats.max() == null ? 0.0 : sentStats.max()));
 
     HomeAggregationResponse response =
-        new HomeAggregationResponse(day, LocalDateTime.now(), kpis, stageLatencies, eventRows);
+        new HomeAggregationResponse(
+            day, LocalDateTime.now(), kpis, stageLatencies, eventRows, 0);
     log.info("Computed home aggregation for day {} in {}ms", day, System.currentTimeMillis() - start);
     return response;
   }
 
   private HomeBucketsResponse computeHomeBuckets(LocalDate day, int intervalMinutes) {
     long start = System.currentTimeMillis();
+    List<EventDefinition> definitions = registry.all();
+    List<List<BucketPoint>> eventBuckets =
+        queryFanout.map(
+            "home buckets " + day + " interval " + intervalMinutes,
+            definitions,
+            definition -> loadEventBuckets(day, definition, intervalMinutes));
+    List<BucketPoint> aggregated =
+        mergeHomeBuckets(day, intervalMinutes, definitions, eventBuckets);
+
+    HomeBucketsResponse response =
+        new HomeBucketsResponse(day, intervalMinutes, LocalDateTime.now(), aggregated, 0);
+    log.info(
+        "Computed home buckets for day {} interval {} in {}ms",
+        day,
+        intervalMinutes,
+        System.currentTimeMillis() - start);
+    return response;
+  }
+
+  static List<BucketPoint> mergeHomeBuckets(
+      LocalDate day,
+      int intervalMinutes,
+      List<EventDefinition> definitions,
+      List<List<BucketPoint>> eventBuckets) {
     int bucketCount = Math.max(1, (24 * 60) / intervalMinutes);
     List<BucketPoint> aggregated = new ArrayList<>(bucketCount);
     long[] successCounts = new long[bucketCount];
@@ -279,25 +363,13 @@ public class AggregationService {
       failureSources.add(new ArrayList<>());
     }
 
-    for (EventDefinition definition : registry.all()) {
+    for (int index = 0; index < definitions.size(); index += 1) {
+      EventDefinition definition = definitions.get(index);
+      List<BucketPoint> buckets = eventBuckets.get(index);
       String label = definition.getName();
       if (label == null || label.isBlank()) {
         label = definition.getKey();
       }
-      List<BucketPoint> buckets;
-      if (intervalMinutes == 60) {
-        Map<Integer, SuccessBucket> successBuckets =
-            repository.loadHourlySuccessBuckets(definition.getSuccessTable(), day);
-        Map<Integer, FailureBucket> failureBuckets =
-            repository.loadHourlyFailureBuckets(definition.getFailureTable(), day);
-        buckets = buildHourlyBuckets(day, successBuckets, failureBuckets);
-      } else {
-        Map<BucketKey, SuccessBucket> successBuckets =
-            repository.loadQuarterHourSuccessBuckets(definition.getSuccessTable(), day);
-        Map<BucketKey, FailureBucket> failureBuckets =
-            repository.loadQuarterHourFailureBuckets(definition.getFailureTable(), day);
-        buckets = buildQuarterHourBuckets(day, successBuckets, failureBuckets);
-      }
       int limit = Math.min(bucketCount, buckets.size());
       for (int i = 0; i < limit; i += 1) {
         BucketPoint bucket = buckets.get(i);
@@ -333,15 +405,7 @@ public class AggregationService {
               round2(avgLatency),
               sources.isEmpty() ? null : List.copyOf(sources)));
     }
-
-    HomeBucketsResponse response =
-        new HomeBucketsResponse(day, intervalMinutes, LocalDateTime.now(), aggregated);
-    log.info(
-        "Computed home buckets for day {} interval {} in {}ms",
-        day,
-        intervalMinutes,
-        System.currentTimeMillis() - start);
-    return response;
+    return aggregated;
   }
 
   private EventSummaryResponse computeEventSummary(LocalDate day, String eventKey) {
@@ -356,12 +420,13 @@ public class AggregationService {
             round2(stats.successRate()),
             stats.retriableFailures(),
             round2(stats.avgLatencyMs()),
+            round2(stats.p50LatencyMs()),
             round2(stats.p95LatencyMs()),
             round2(stats.p99LatencyMs()),
             round2(stats.maxLatencyMs()));
     LatencyStages stageLatencies = buildStageLatencies(definition, stats, day);
     EventSummaryResponse response =
-        new EventSummaryResponse(day, eventKey, LocalDateTime.now(), kpis, stageLatencies);
+        new EventSummaryResponse(day, eventKey, LocalDateTime.now(), kpis, stageLatencies, 0);
     log.info(
         "Computed event summary for {} day {} in {}ms",
         eventKey,
@@ -373,23 +438,11 @@ public class AggregationService {
   private EventBucketsResponse computeEventBuckets(LocalDate day, String eventKey, int intervalMinutes) {
     long start = System.currentTimeMillis();
     EventDefinition definition = registry.getRequired(eventKey);
-    List<BucketPoint> buckets;
-    if (intervalMinutes == 60) {
-      Map<Integer, SuccessBucket> successBuckets =
-          repository.loadHourlySuccessBuckets(definition.getSuccessTable(), day);
-      Map<Integer, FailureBucket> failureBuckets =
-          repository.loadHourlyFailureBuckets(definition.getFailureTable(), day);
-      buckets = buildHourlyBuckets(day, successBuckets, failureBuckets);
-    } else {
-      Map<BucketKey, SuccessBucket> successBuckets =
-          repository.loadQuarterHourSuccessBuckets(definition.getSuccessTable(), day);
-      Map<BucketKey, FailureBucket> failureBuckets =
-          repository.loadQuarterHourFailureBuckets(definition.getFailureTable(), day);
-      buckets = buildQuarterHourBuckets(day, successBuckets, failureBuckets);
-    }
+    List<BucketPoint> buckets = loadEventBuckets(day, definition, intervalMinutes);
 
     EventBucketsResponse response =
-        new EventBucketsResponse(day, eventKey, intervalMinutes, LocalDateTime.now(), buckets);
+        new EventBucketsResponse(
+            day, eventKey, intervalMinutes, LocalDateTime.now(), buckets, 0);
     log.info(
         "Computed buckets for {} day {} interval {} in {}ms",
         eventKey,
@@ -399,10 +452,26 @@ public class AggregationService {
     return response;
   }
 
+  private List<BucketPoint> loadEventBuckets(
+      LocalDate day, EventDefinition definition, int intervalMinutes) {
+    if (intervalMinutes == 60) {
+      Map<Integer, SuccessBucket> successBuckets =
+          loadHourlySuccessBuckets(definition.getSuccessTable(), day);
+      Map<Integer, FailureBucket> failureBuckets =
+          loadHourlyFailureBuckets(definition.getFailureTable(), day);
+      return buildHourlyBuckets(day, successBuckets, failureBuckets);
+    }
+    Map<BucketKey, SuccessBucket> successBuckets =
+        loadQuarterHourSuccessBuckets(definition.getSuccessTable(), day);
+    Map<BucketKey, FailureBucket> failureBuckets =
+        loadQuarterHourFailureBuckets(definition.getFailureTable(), day);
+    return buildQuarterHourBuckets(day, successBuckets, failureBuckets);
+  }
+
   private EventStats computeEventStats(
       LocalDate day, EventDefinition definition, boolean includePercentiles) {
-    SuccessTotals successTotals = repository.loadSuccessTotals(definition.getSuccessTable(), day);
-    FailureTotals failureTotals = repository.loadFailureTotals(definition.getFailureTable(), day);
+    SuccessTotals successTotals = loadSuccessTotals(definition.getSuccessTable(), day);
+    FailureTotals failureTotals = loadFailureTotals(definition.getFailureTable(), day);
     long success = successTotals.successCount();
     long failure = failureTotals.failureCount();
     long total = success + failure;
@@ -427,16 +496,15 @@ public class AggregationService {
           avgSent,
           0.0,
           0.0,
+          0.0,
           0.0);
     }
     AggregationRepository.LatencyStats latencyStats =
-        repository.loadLatencyStatsAcrossTables(
+        loadLatencyStats(
             List.of(definition.getSuccessTable(), definition.getFailureTable()),
             "latency_ms",
             day,
-            total,
-            properties.getPercentileBucketMs(),
-            properties.getPercentileSampleSizePerTable());
+            total);
     return new EventStats(
         total,
         success,
@@ -446,6 +514,7 @@ public class AggregationService {
         avgLatency,
         avgReceived,
         avgSent,
+        toLatencyValue(latencyStats.p50()),
         latencyStats.p95() == null ? 0.0 : latencyStats.p95(),
         latencyStats.p99() == null ? 0.0 : latencyStats.p99(),
         latencyStats.max() == null ? 0.0 : latencyStats.max());
@@ -456,33 +525,111 @@ public class AggregationService {
     double avgReceived = stats.avgReceivedLatencyMs();
     double avgSent = stats.avgSentLatencyMs();
     AggregationRepository.LatencyStats receivedStats =
-        repository.loadLatencyStatsAcrossTables(
+        loadLatencyStats(
             List.of(definition.getSuccessTable(), definition.getFailureTable()),
             "latency_event_received_ms",
             day,
-            stats.total(),
-            properties.getPercentileBucketMs(),
-            properties.getPercentileSampleSizePerTable());
+            stats.total());
     AggregationRepository.LatencyStats sentStats =
-        repository.loadLatencyStatsAcrossTables(
-            List.of(definition.getSuccessTable()),
-            "latency_event_sent_ms",
-            day,
-            stats.success(),
-            properties.getPercentileBucketMs(),
-            properties.getPercentileSampleSizePerTable());
+        loadLatencyStats(
+            List.of(definition.getSuccessTable()), "latency_event_sent_ms", day, stats.success());
     return new LatencyStages(
         round2(avgReceived),
+        round2(toLatencyValue(receivedStats.p50())),
         round2(toLatencyValue(receivedStats.p95())),
         round2(toLatencyValue(receivedStats.p99())),
         round2(toLatencyValue(receivedStats.max())),
         round2(avgSent),
+        round2(toLatencyValue(sentStats.p50())),
         round2(toLatencyValue(sentStats.p95())),
         round2(toLatencyValue(sentStats.p99())),
         round2(toLatencyValue(sentStats.max())));
   }
 
-  private List<BucketPoint> buildHourlyBuckets(
+  private AggregationRepository.LatencyStats loadLatencyStats(
+      List<String> tables, String column, LocalDate day, long totalCount) {
+    if (totalCount > 0 && rollupService.syncAll(tables)) {
+      LatencySketch sketch =
+          sketchRepository.loadMergedSketch(
+              tables, column, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+      return new AggregationRepository.LatencyStats(
+          sketch.quantile(0.50), sketch.quantile(0.95), sketch.quantile(0.99), sketch.getMax());
+    }
+    if (combinedScanService.isEnabled()) {
+      return combinedScanService.latencyStats(tables, column, day);
+    }
+    return repository.loadLatencyStatsAcrossTables(
+        tables,
+        column,
+        day,
+        totalCount,
+        properties.getPercentileBucketMs(),
+        properties.getPercentileSampleSizePerTable());
+  }
+
+  private SuccessTotals loadSuccessTotals(String successTable, LocalDate day) {
+    if (rollupService.sync(successTable)) {
+      return rollupRepository.loadSuccessTotals(successTable, day);
+    }
+    if (combinedScanService.isEnabled()) {
+      return combinedScanService.successTotals(successTable, day);
+    }
+    return repository.loadSuccessTotals(successTable, day);
+  }
+
+  private FailureTotals loadFailureTotals(String failureTable, LocalDate day) {
+    if (rollupService.sync(failureTable)) {
+      return rollupRepository.loadFailureTotals(failureTable, day);
+    }
+    if (combinedScanService.isEnabled()) {
+      return combinedScanService.failureTotals(failureTable, day);
+    }
+    return repository.loadFailureTotals(failureTable, day);
+  }
+
+  private Map<Integer, SuccessBucket> loadHourlySuccessBuckets(String successTable, LocalDate day) {
+    if (rollupService.sync(successTable)) {
+      return rollupRepository.loadHourlySuccessBuckets(successTable, day);
+    }
+    if (combinedScanService.isEnabled()) {
+      return combinedScanService.hourlySuccessBuckets(successTable, day);
+    }
+    return repository.loadHourlySuccessBuckets(successTable, day);
+  }
+
+  private Map<Integer, FailureBucket> loadHourlyFailureBuckets(String failureTable, LocalDate day) {
+    if (rollupService.sync(failureTable)) {
+      return rollupRepository.loadHourlyFailureBuckets(failureTable, day);
+    }
+    if (combinedScanService.isEnabled()) {
+      return combinedScanService.hourlyFailureBuckets(failureTable, day);
+    }
+    return repository.loadHourlyFailureBuckets(failureTable, day);
+  }
+
+  private Map<BucketKey, SuccessBucket> loadQuarterHourSuccessBuckets(
+      String successTable, LocalDate day) {
+    if (rollupService.sync(successTable)) {
+      return rollupRepository.loadQuarterHourSuccessBuckets(successTable, day);
+    }
+    if (combinedScanService.isEnabled()) {
+      return combinedScanService.quarterHourSuccessBuckets(successTable, day);
+    }
+    return repository.loadQuarterHourSuccessBuckets(successTable, day);
+  }
+
+  private Map<BucketKey, FailureBucket> loadQuarterHourFailureBuckets(
+      String failureTable, LocalDate day) {
+    if (rollupService.sync(failureTable)) {
+      return rollupRepository.loadQuarterHourFailureBuckets(failureTable, day);
+    }
+    if (combinedScanService.isEnabled()) {
+      return combinedScanService.quarterHourFailureBuckets(failureTable, day);
+    }
+    return repository.loadQuarterHourFailureBuckets(failureTable, day);
+  }
+
+  static List<BucketPoint> buildHourlyBuckets(
       LocalDate day,
       Map<Integer, SuccessBucket> successBuckets,
       Map<Integer, FailureBucket> failureBuckets) {
@@ -500,7 +647,7 @@ public class AggregationService {
     return buckets;
   }
 
-  private List<BucketPoint> buildQuarterHourBuckets(
+  static List<BucketPoint> buildQuarterHourBuckets(
       LocalDate day,
       Map<BucketKey, SuccessBucket> successBuckets,
       Map<BucketKey, FailureBucket> failureBuckets) {
@@ -519,7 +666,7 @@ public class AggregationService {
     return buckets;
   }
 
-  private BucketPoint buildBucketPoint(
+  static BucketPoint buildBucketPoint(
       LocalDateTime bucketStart,
       SuccessBucket successBucket,
       FailureBucket failureBucket) {
@@ -550,7 +697,7 @@ public class AggregationService {
     }
   }
 
-  private double successRate(long success, long total) {
+  private static double successRate(long success, long total) {
     return total == 0 ? 0.0 : (success * 100.0) / total;
   }
 
@@ -558,7 +705,7 @@ public class AggregationService {
     return value == null ? 0.0 : value;
   }
 
-  private double round2(double value) {
+  private static double round2(double value) {
     return Math.round(value * 100.0) / 100.0;
   }
 
@@ -571,6 +718,7 @@ public class AggregationService {
       double avgLatencyMs,
       double avgReceivedLatencyMs,
       double avgSentLatencyMs,
+      double p50LatencyMs,
       double p95LatencyMs,
       double p99LatencyMs,
       double maxLatencyMs) {}
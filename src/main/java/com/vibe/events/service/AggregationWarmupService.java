@@ -1,19 +1,21 @@
 package com.vibe.events.service;
 
 import com.vibe.events.config.AggregationProperties;
+import com.vibe.events.config.CacheConfig;
 import com.vibe.events.registry.EventDefinition;
 import com.vibe.events.registry.EventRegistry;
+import com.vibe.events.util.CacheKeys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -23,17 +25,23 @@ public class AggregationWarmupService {
   private final AggregationService aggregationService;
   private final EventRegistry registry;
   private final AggregationProperties properties;
-  private final ThreadPoolTaskExecutor refreshExecutor;
+  private final WarmupScheduler scheduler;
+  private final ViewTracker viewTracker;
+  private final MeterRegistry meterRegistry;
 
   public AggregationWarmupService(
       AggregationService aggregationService,
       EventRegistry registry,
       AggregationProperties properties,
-      ThreadPoolTaskExecutor refreshExecutor) {
+      WarmupScheduler scheduler,
+      ViewTracker viewTracker,
+      MeterRegistry meterRegistry) {
     this.aggregationService = aggregationService;
     this.registry = registry;
     this.properties = properties;
-    this.refreshExecutor = refreshExecutor;
+    this.scheduler = scheduler;
+    this.viewTracker = viewTracker;
+    this.meterRegistry = meterRegistry;
   }
 
   @EventListener(ApplicationReadyEvent.class)
@@ -41,12 +49,11 @@ public class AggregationWarmupService {
     if (!properties.getWarmup().isEnabled()) {
       return;
     }
-    refreshExecutor.execute(
-        () -> {
-          for (LocalDate day : daysToWarm()) {
-            refreshDay(day);
-          }
-        });
+    int queued = 0;
+    for (LocalDate day : daysToWarm(properties.getCache().getDaysToKeep())) {
+      queued += enqueueDay(day);
+    }
+    log.info("Startup warmup queued {} tasks", queued);
   }
 
   @Scheduled(fixedDelayString = "${aggregation.warmup.refreshTodayDelayMs:60000}")
@@ -54,8 +61,7 @@ public class AggregationWarmupService {
     if (!properties.getWarmup().isEnabled()) {
       return;
     }
-    LocalDate today = LocalDate.now();
-    refreshDay(today);
+    enqueueDay(LocalDate.now());
   }
 
   @Scheduled(cron = "0 0 * * * *")
@@ -63,36 +69,105 @@ public class AggregationWarmupService {
     if (!properties.getWarmup().isEnabled()) {
       return;
     }
-    LocalDate yesterday = LocalDate.now().minusDays(1);
-    refreshDay(yesterday);
+    enqueueDay(LocalDate.now().minusDays(1));
   }
 
-  @Async("refreshExecutor")
-  public CompletableFuture<Void> refreshRecentDays(int days) {
+  public int refreshRecentDays(int days) {
     int count = days <= 0 ? properties.getCache().getDaysToKeep() : days;
-    LocalDate today = LocalDate.now();
-    for (int i = 0; i < count; i += 1) {
-      refreshDay(today.minusDays(i));
+    int queued = 0;
+    for (LocalDate day : daysToWarm(count)) {
+      queued += enqueueDay(day);
     }
-    return CompletableFuture.completedFuture(null);
+    return queued;
   }
 
-  private void refreshDay(LocalDate day) {
-    long start = System.currentTimeMillis();
-    aggregationService.refreshHome(day);
+  public int refreshEventAcrossDays(String eventKey, int days) {
+    EventDefinition definition = registry.getRequired(eventKey);
+    int queued = 0;
+    for (LocalDate day : daysToWarm(days)) {
+      queued += enqueueEvent(day, definition.getKey());
+    }
+    return queued;
+  }
+
+  private int enqueueDay(LocalDate day) {
+    int queued = 0;
+    if (submit(
+        CacheConfig.HOME_AGG,
+        CacheKeys.homeKey(day),
+        day,
+        null,
+        () -> aggregationService.refreshHome(day))) {
+      queued += 1;
+    }
+    for (Integer interval : properties.getBuckets().getIntervalsMinutes()) {
+      if (submit(
+          CacheConfig.HOME_BUCKETS,
+          CacheKeys.homeBucketsKey(day, interval),
+          day,
+          null,
+          () -> aggregationService.refreshHomeBuckets(day, interval))) {
+        queued += 1;
+      }
+    }
     for (EventDefinition definition : registry.all()) {
-      aggregationService.refreshEventSummary(day, definition.getKey());
-      for (Integer interval : properties.getBuckets().getIntervalsMinutes()) {
-        aggregationService.refreshEventBuckets(day, definition.getKey(), interval);
+      queued += enqueueEvent(day, definition.getKey());
+    }
+    return queued;
+  }
+
+  private int enqueueEvent(LocalDate day, String eventKey) {
+    int queued = 0;
+    if (submit(
+        CacheConfig.EVENT_SUMMARY,
+        CacheKeys.eventSummaryKey(day, eventKey),
+        day,
+        eventKey,
+        () -> aggregationService.refreshEventSummary(day, eventKey))) {
+      queued += 1;
+    }
+    for (Integer interval : properties.getBuckets().getIntervalsMinutes()) {
+      if (submit(
+          CacheConfig.EVENT_BUCKETS,
+          CacheKeys.eventBucketsKey(day, eventKey, interval),
+          day,
+          eventKey,
+          () -> aggregationService.refreshEventBuckets(day, eventKey, interval))) {
+        queued += 1;
       }
     }
-    log.info("Warmup refresh done for day {} in {}ms", day, System.currentTimeMillis() - start);
+    return queued;
+  }
+
+  // Same task key as the stale-while-revalidate refresh, so the scheduler dedupes the two.
+  private boolean submit(
+      String cacheName, String key, LocalDate day, String eventKey, Runnable action) {
+    WarmupPriority priority =
+        LocalDate.now().equals(day) ? WarmupPriority.TODAY : WarmupPriority.BACKFILL;
+    return scheduler.submit(
+        CacheKeys.taskKey(cacheName, key),
+        priority,
+        viewTracker.score(day, eventKey),
+        timed(cacheName, day, action));
+  }
+
+  // Tagged by age rather than date so the number of series stays bounded by the cache window.
+  private Runnable timed(String cacheName, LocalDate day, Runnable action) {
+    long daysAgo =
+        Math.min(
+            ChronoUnit.DAYS.between(day, LocalDate.now()), properties.getCache().getDaysToKeep());
+    Timer timer =
+        Timer.builder("aggregation.warmup")
+            .description("Warmup task duration")
+            .tag("kind", cacheName)
+            .tag("daysAgo", String.valueOf(Math.max(0, daysAgo)))
+            .register(meterRegistry);
+    return () -> timer.record(action);
   }
 
-  private List<LocalDate> daysToWarm() {
-    int days = properties.getCache().getDaysToKeep();
+  private List<LocalDate> daysToWarm(int days) {
     LocalDate today = LocalDate.now();
-    List<LocalDate> result = new ArrayList<>(days);
+    List<LocalDate> result = new ArrayList<>(Math.max(days, 0));
     for (int i = 0; i < days; i++) {
       result.add(today.minusDays(i));
     }
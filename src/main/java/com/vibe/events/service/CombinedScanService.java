@@ -0,0 +1,229 @@
+package com.vibe.events.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vibe.events.config.AggregationProperties;
+import com.vibe.events.registry.EventDefinition;
+import com.vibe.events.registry.EventRegistry;
+import com.vibe.events.repo.AggregationRepository;
+import com.vibe.events.repo.AggregationRepository.MinuteScan;
+import com.vibe.events.repo.AggregationRepository.MinuteScanRow;
+import com.vibe.events.repo.BucketKey;
+import com.vibe.events.repo.FailureBucket;
+import com.vibe.events.repo.FailureTotals;
+import com.vibe.events.repo.SuccessBucket;
+import com.vibe.events.repo.SuccessTotals;
+import com.vibe.events.util.LatencySketch;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CombinedScanService {
+  private static final Logger log = LoggerFactory.getLogger(CombinedScanService.class);
+
+  private final AggregationRepository repository;
+  private final AggregationProperties properties;
+  private final Set<String> failureTables = new HashSet<>();
+  private final Cache<String, MinuteScan> scans;
+
+  public CombinedScanService(
+      AggregationRepository repository, EventRegistry registry, AggregationProperties properties) {
+    this.repository = repository;
+    this.properties = properties;
+    for (EventDefinition definition : registry.all()) {
+      failureTables.add(definition.getFailureTable());
+    }
+    this.scans =
+        Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(properties.getCombinedScan().getMemoMs()))
+            .maximumSize(Math.max(1, registry.all().size() * 4L))
+            .build();
+  }
+
+  public boolean isEnabled() {
+    return properties.getCombinedScan().isEnabled();
+  }
+
+  public SuccessTotals successTotals(String successTable, LocalDate day) {
+    ScanTotals totals = totals(successTable, day);
+    return new SuccessTotals(
+        totals.rowCount(),
+        average(totals.latencySums(), 0, totals.rowCount()),
+        average(totals.latencySums(), 1, totals.rowCount()),
+        average(totals.latencySums(), 2, totals.rowCount()));
+  }
+
+  public FailureTotals failureTotals(String failureTable, LocalDate day) {
+    ScanTotals totals = totals(failureTable, day);
+    return new FailureTotals(
+        totals.rowCount(),
+        totals.retriableCount(),
+        average(totals.latencySums(), 0, totals.rowCount()),
+        average(totals.latencySums(), 1, totals.rowCount()));
+  }
+
+  public Map<Integer, SuccessBucket> hourlySuccessBuckets(String successTable, LocalDate day) {
+    Map<Integer, SuccessBucket> result = new HashMap<>();
+    for (Map.Entry<Integer, ScanTotals> entry : intervalTotals(successTable, day, 60).entrySet()) {
+      ScanTotals totals = entry.getValue();
+      result.put(
+          entry.getKey(),
+          new SuccessBucket(
+              entry.getKey(),
+              null,
+              totals.rowCount(),
+              average(totals.latencySums(), 0, totals.rowCount())));
+    }
+    return result;
+  }
+
+  public Map<Integer, FailureBucket> hourlyFailureBuckets(String failureTable, LocalDate day) {
+    Map<Integer, FailureBucket> result = new HashMap<>();
+    for (Map.Entry<Integer, ScanTotals> entry : intervalTotals(failureTable, day, 60).entrySet()) {
+      ScanTotals totals = entry.getValue();
+      result.put(
+          entry.getKey(),
+          new FailureBucket(
+              entry.getKey(),
+              null,
+              totals.rowCount(),
+              totals.retriableCount(),
+              average(totals.latencySums(), 0, totals.rowCount())));
+    }
+    return result;
+  }
+
+  public Map<BucketKey, SuccessBucket> quarterHourSuccessBuckets(
+      String successTable, LocalDate day) {
+    Map<BucketKey, SuccessBucket> result = new HashMap<>();
+    for (Map.Entry<Integer, ScanTotals> entry : intervalTotals(successTable, day, 15).entrySet()) {
+      int hour = entry.getKey() / 4;
+      int quarter = entry.getKey() % 4;
+      ScanTotals totals = entry.getValue();
+      result.put(
+          new BucketKey(hour, quarter),
+          new SuccessBucket(
+              hour, quarter, totals.rowCount(), average(totals.latencySums(), 0, totals.rowCount())));
+    }
+    return result;
+  }
+
+  public Map<BucketKey, FailureBucket> quarterHourFailureBuckets(
+      String failureTable, LocalDate day) {
+    Map<BucketKey, FailureBucket> result = new HashMap<>();
+    for (Map.Entry<Integer, ScanTotals> entry : intervalTotals(failureTable, day, 15).entrySet()) {
+      int hour = entry.getKey() / 4;
+      int quarter = entry.getKey() % 4;
+      ScanTotals totals = entry.getValue();
+      result.put(
+          new BucketKey(hour, quarter),
+          new FailureBucket(
+              hour,
+              quarter,
+              totals.rowCount(),
+              totals.retriableCount(),
+              average(totals.latencySums(), 0, totals.rowCount())));
+    }
+    return result;
+  }
+
+  /**
+   * Day percentiles from the {@link LatencySketch} bins the minute scan collects per table, so no
+   * extra pass is needed; every quantile is within the sketch's
+   * {@link LatencySketch#RELATIVE_ACCURACY} of the exact nearest-rank value and the max is exact.
+   */
+  public AggregationRepository.LatencyStats latencyStats(
+      List<String> tables, String column, LocalDate day) {
+    LatencySketch merged = new LatencySketch();
+    for (String table : tables) {
+      LatencySketch sketch = scan(table, day).sketches().get(column);
+      if (sketch != null) {
+        merged.merge(sketch);
+      }
+    }
+    if (merged.getCount() == 0) {
+      return new AggregationRepository.LatencyStats(null, null, null, null);
+    }
+    return new AggregationRepository.LatencyStats(
+        merged.quantile(0.50), merged.quantile(0.95), merged.quantile(0.99), merged.getMax());
+  }
+
+  private MinuteScan scan(String table, LocalDate day) {
+    return scans.get(
+        table + "|" + day,
+        key -> {
+          long start = System.currentTimeMillis();
+          MinuteScan scan = repository.loadMinuteScan(table, failureTables.contains(table), day);
+          log.info(
+              "Combined scan of {} for day {} returned {} minutes in {}ms",
+              table,
+              day,
+              scan.minutes().size(),
+              System.currentTimeMillis() - start);
+          return scan;
+        });
+  }
+
+  private ScanTotals totals(String table, LocalDate day) {
+    ScanTotals totals = new ScanTotals();
+    for (MinuteScanRow row : scan(table, day).minutes()) {
+      totals.add(row);
+    }
+    return totals;
+  }
+
+  private Map<Integer, ScanTotals> intervalTotals(
+      String table, LocalDate day, int intervalMinutes) {
+    Map<Integer, ScanTotals> result = new HashMap<>();
+    for (MinuteScanRow row : scan(table, day).minutes()) {
+      result
+          .computeIfAbsent(row.minuteOfDay() / intervalMinutes, key -> new ScanTotals())
+          .add(row);
+    }
+    return result;
+  }
+
+  private Double average(long[] sums, int index, long count) {
+    if (count <= 0 || index >= sums.length) {
+      return null;
+    }
+    return (double) sums[index] / count;
+  }
+
+  private static final class ScanTotals {
+    private long rowCount;
+    private long retriableCount;
+    private long[] latencySums = new long[0];
+
+    private void add(MinuteScanRow row) {
+      rowCount += row.rowCount();
+      retriableCount += row.retriableCount();
+      if (latencySums.length < row.latencySums().length) {
+        latencySums = new long[row.latencySums().length];
+      }
+      for (int i = 0; i < row.latencySums().length; i += 1) {
+        latencySums[i] += row.latencySums()[i];
+      }
+    }
+
+    private long rowCount() {
+      return rowCount;
+    }
+
+    private long retriableCount() {
+      return retriableCount;
+    }
+
+    private long[] latencySums() {
+      return latencySums;
+    }
+  }
+}
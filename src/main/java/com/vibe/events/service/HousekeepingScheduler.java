@@ -17,6 +17,7 @@ public class HousekeepingScheduler {
   private static final Logger log = LoggerFactory.getLogger(HousekeepingScheduler.class);
   private static final String JOB_TYPE_REPLAY_AUDIT = "REPLAY_AUDIT";
   private static final String JOB_TYPE_HOUSEKEEPING_AUDIT = "HOUSEKEEPING_AUDIT";
+  private static final String JOB_TYPE_PARTITION_MAINTENANCE = "PARTITION_MAINTENANCE";
 
   private final TaskScheduler scheduler;
   private final HousekeepingService housekeepingService;
@@ -42,6 +43,9 @@ public class HousekeepingScheduler {
     scheduleEventJobs();
     scheduleAuditJob(JOB_TYPE_REPLAY_AUDIT, properties.getReplayAuditCron());
     scheduleAuditJob(JOB_TYPE_HOUSEKEEPING_AUDIT, properties.getHousekeepingAuditCron());
+    if (properties.getPartitioning().isEnabled()) {
+      scheduleAuditJob(JOB_TYPE_PARTITION_MAINTENANCE, properties.getPartitioning().getCron());
+    }
     schedulePreviewCache(properties.getPreviewCron());
     warmPreviewCacheOnStartup();
   }
@@ -1,6 +1,7 @@
 package com.vibe.events.service;
 
 import com.vibe.events.config.HousekeepingProperties;
+import com.vibe.events.dto.CountMode;
 import com.vibe.events.dto.HousekeepingDailyResponse;
 import com.vibe.events.dto.HousekeepingPreviewEvent;
 import com.vibe.events.dto.HousekeepingPreviewResponse;
@@ -23,6 +24,8 @@ import com.vibe.events.repo.HousekeepingRepository.HousekeepingRunProgress;
 import com.vibe.events.repo.HousekeepingRepository.HousekeepingRunRow;
 import com.vibe.events.repo.HousekeepingRepository.HousekeepingRunSummaryRow;
 import com.vibe.events.repo.HousekeepingRepository.HousekeepingRunUpdate;
+import com.vibe.events.repo.ReplayStatsRepository;
+import com.vibe.events.service.RecordCountService.CountResult;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -31,6 +34,8 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.support.CronExpression;
@@ -44,6 +49,7 @@ public class HousekeepingService {
   private static final String JOB_TYPE_RETENTION = "RETENTION";
   private static final String JOB_TYPE_REPLAY_AUDIT = "REPLAY_AUDIT";
   private static final String JOB_TYPE_HOUSEKEEPING_AUDIT = "HOUSEKEEPING_AUDIT";
+  private static final String JOB_TYPE_PARTITION_MAINTENANCE = "PARTITION_MAINTENANCE";
   private static final String EVENT_KEY_AUDIT = "__audit__";
   private static final String EVENT_KEY_ALL = "ALL";
   private static final String STATUS_RUNNING = "RUNNING";
@@ -51,21 +57,43 @@ public class HousekeepingService {
   private static final String STATUS_FAILED = "FAILED";
   private static final String STATUS_SKIPPED = "SKIPPED";
   private static final String STATUS_READY = "READY";
+  private static final LocalDateTime LEDGER_START = LocalDateTime.of(1970, 1, 1, 0, 0);
 
   private final HousekeepingRepository repository;
   private final EventRegistry registry;
   private final HousekeepingProperties properties;
   private final TransactionTemplate transactionTemplate;
+  private final RollupService rollupService;
+  private final ReplayStatsRepository replayStatsRepository;
+  private final PurgeEngine purgeEngine;
+  private final PartitionService partitionService;
+  private final RecordCountService recordCountService;
+  private final TraceIndexService traceIndexService;
+  // RETENTION and PARTITION_MAINTENANCE both drop partitions and purge rollups and the trace
+  // index, so runs of either type on this instance take turns.
+  private final ReentrantLock runLock = new ReentrantLock(true);
 
   public HousekeepingService(
       HousekeepingRepository repository,
       EventRegistry registry,
       HousekeepingProperties properties,
-      PlatformTransactionManager transactionManager) {
+      PlatformTransactionManager transactionManager,
+      RollupService rollupService,
+      ReplayStatsRepository replayStatsRepository,
+      PurgeEngine purgeEngine,
+      PartitionService partitionService,
+      RecordCountService recordCountService,
+      TraceIndexService traceIndexService) {
     this.repository = repository;
     this.registry = registry;
     this.properties = properties;
     this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.rollupService = rollupService;
+    this.replayStatsRepository = replayStatsRepository;
+    this.purgeEngine = purgeEngine;
+    this.partitionService = partitionService;
+    this.recordCountService = recordCountService;
+    this.traceIndexService = traceIndexService;
   }
 
   public HousekeepingRunResponse runRetention(
@@ -80,11 +108,26 @@ public class HousekeepingService {
 
   public HousekeepingRunResponse runHousekeeping(
       String jobType, String eventKey, String triggerType, LocalDate dateOverride) {
+    if (!JOB_TYPE_RETENTION.equals(jobType) && !JOB_TYPE_PARTITION_MAINTENANCE.equals(jobType)) {
+      return execute(jobType, eventKey, triggerType, dateOverride);
+    }
+    runLock.lock();
+    try {
+      return execute(jobType, eventKey, triggerType, dateOverride);
+    } finally {
+      runLock.unlock();
+    }
+  }
+
+  private HousekeepingRunResponse execute(
+      String jobType, String eventKey, String triggerType, LocalDate dateOverride) {
     LocalDate runDate = dateOverride == null ? LocalDate.now() : dateOverride;
-    HousekeepingSnapshot snapshot = refreshSnapshot(jobType, eventKey, runDate);
+    HousekeepingSnapshot snapshot =
+        refreshSnapshot(jobType, eventKey, runDate, properties.getPreviewCountMode());
+    boolean hasEligible = hasEligibleRows(snapshot);
     RunDecision decision =
         transactionTemplate.execute(
-            status -> beginRun(jobType, triggerType, snapshot));
+            status -> beginRun(jobType, triggerType, snapshot, hasEligible));
     if (decision == null || !decision.shouldRun()) {
       return loadLatestRunResponse(
           jobType, decision == null ? null : decision.daily(), snapshot);
@@ -101,10 +144,17 @@ public class HousekeepingService {
     try {
       if (JOB_TYPE_RETENTION.equals(jobType)) {
         EventDefinition definition = registry.getRequired(eventKey);
-        long successDeleted =
-            purgeTable(definition.getSuccessTable(), cutoffDateTime, properties.getBatchSize());
-        long failureDeleted =
-            purgeTable(definition.getFailureTable(), cutoffDateTime, properties.getBatchSize());
+        RunProgressReporter reporter = new RunProgressReporter(id, definition.getSuccessTable());
+        List<Long> deleted =
+            purgeRetention(
+                List.of(definition.getSuccessTable(), definition.getFailureTable()),
+                cutoffDateTime,
+                reporter);
+        purgeRollups(definition.getSuccessTable(), cutoffDateTime);
+        purgeRollups(definition.getFailureTable(), cutoffDateTime);
+        purgeTraceIndex(definition.getKey(), cutoffDateTime);
+        long successDeleted = deleted.get(0);
+        long failureDeleted = deleted.get(1);
         long eventTotal = successDeleted + failureDeleted;
         deletedSuccess += successDeleted;
         deletedFailure += failureDeleted;
@@ -121,7 +171,12 @@ public class HousekeepingService {
                 LocalDateTime.now()));
         repository.updateRunProgress(
             new HousekeepingRunProgress(
-                id, STATUS_RUNNING, deletedSuccess, deletedFailure, deletedSuccess + deletedFailure));
+                id,
+                STATUS_RUNNING,
+                deletedSuccess,
+                deletedFailure,
+                deletedSuccess + deletedFailure,
+                reporter.rowsPerSec()));
       } else if (JOB_TYPE_REPLAY_AUDIT.equals(jobType)) {
         ReplayAuditDeletion deletion = purgeReplayAudit(cutoffDateTime, properties.getBatchSize());
         deletedSuccess = deletion.jobsDeleted();
@@ -150,7 +205,12 @@ public class HousekeepingService {
                 LocalDateTime.now()));
         repository.updateRunProgress(
             new HousekeepingRunProgress(
-                id, STATUS_RUNNING, deletedSuccess, deletedFailure, deletedSuccess + deletedFailure));
+                id,
+                STATUS_RUNNING,
+                deletedSuccess,
+                deletedFailure,
+                deletedSuccess + deletedFailure,
+                null));
       } else if (JOB_TYPE_HOUSEKEEPING_AUDIT.equals(jobType)) {
         JobAuditDeletion deletion = purgeHousekeepingAudit(cutoffDateTime, properties.getBatchSize());
         deletedSuccess = deletion.runsDeleted();
@@ -197,7 +257,41 @@ public class HousekeepingService {
                 STATUS_RUNNING,
                 deletedSuccess,
                 deletedFailure,
-                deletedSuccess + deletedFailure));
+                deletedSuccess + deletedFailure,
+                null));
+      } else if (JOB_TYPE_PARTITION_MAINTENANCE.equals(jobType)) {
+        for (EventDefinition definition : registry.all()) {
+          LocalDate eventCutoff = runDate.minusDays(retentionDays(definition));
+          long successDropped =
+              maintainPartitions(definition.getSuccessTable(), runDate, eventCutoff);
+          long failureDropped =
+              maintainPartitions(definition.getFailureTable(), runDate, eventCutoff);
+          long eventTotal = successDropped + failureDropped;
+          if (eventTotal > 0) {
+            purgeTraceIndex(definition.getKey(), eventCutoff.atStartOfDay());
+          }
+          deletedSuccess += successDropped;
+          deletedFailure += failureDropped;
+          items.add(
+              new HousekeepingRunItemResponse(
+                  definition.getKey(), successDropped, failureDropped, eventTotal));
+          repository.insertRunItem(
+              new HousekeepingRunItemRecord(
+                  id,
+                  definition.getKey(),
+                  successDropped,
+                  failureDropped,
+                  eventTotal,
+                  LocalDateTime.now()));
+        }
+        repository.updateRunProgress(
+            new HousekeepingRunProgress(
+                id,
+                STATUS_RUNNING,
+                deletedSuccess,
+                deletedFailure,
+                deletedSuccess + deletedFailure,
+                null));
       }
       long deletedTotal = deletedSuccess + deletedFailure;
       LocalDateTime completedAt = LocalDateTime.now();
@@ -271,9 +365,11 @@ public class HousekeepingService {
     }
   }
 
-  public HousekeepingPreviewResponse preview(String jobType, String eventKey, boolean refresh) {
+  public HousekeepingPreviewResponse preview(
+      String jobType, String eventKey, boolean refresh, CountMode countMode) {
     LocalDate runDate = LocalDate.now();
-    if (!refresh) {
+    CountMode mode = countMode == null ? properties.getPreviewCountMode() : countMode;
+    if (!refresh && countMode == null) {
       if (JOB_TYPE_RETENTION.equals(jobType) && isAllEvents(eventKey)) {
         HousekeepingPreviewResponse cached = previewAllRetentionCached(runDate);
         if (cached != null) {
@@ -291,9 +387,9 @@ public class HousekeepingService {
       }
     }
     if (JOB_TYPE_RETENTION.equals(jobType) && isAllEvents(eventKey)) {
-      return previewAllRetention();
+      return previewAllRetention(mode);
     }
-    HousekeepingSnapshot snapshot = refreshSnapshot(jobType, eventKey, runDate);
+    HousekeepingSnapshot snapshot = refreshSnapshot(jobType, eventKey, runDate, mode);
     return new HousekeepingPreviewResponse(
         snapshot.cutoffDate(),
         snapshot.retentionDays(),
@@ -318,6 +414,9 @@ public class HousekeepingService {
     }
     refreshSnapshotSafely(JOB_TYPE_REPLAY_AUDIT, EVENT_KEY_AUDIT, runDate);
     refreshSnapshotSafely(JOB_TYPE_HOUSEKEEPING_AUDIT, EVENT_KEY_AUDIT, runDate);
+    if (partitionService.isEnabled()) {
+      refreshSnapshotSafely(JOB_TYPE_PARTITION_MAINTENANCE, EVENT_KEY_AUDIT, runDate);
+    }
   }
 
   public HousekeepingStatusResponse status(String jobType, String eventKey, LocalDate date) {
@@ -467,17 +566,75 @@ public class HousekeepingService {
     return responses;
   }
 
-  private long purgeTable(String table, LocalDateTime cutoff, int batchSize) {
-    long total = 0;
-    int deleted;
-    do {
-      deleted = repository.deleteOldRows(table, cutoff, batchSize);
-      total += deleted;
-      if (deleted > 0) {
-        log.info("Housekeeping deleted {} rows from {}", deleted, table);
+  private List<Long> purgeRetention(
+      List<String> tables, LocalDateTime cutoff, RunProgressReporter reporter) {
+    Long[] deleted = new Long[tables.size()];
+    List<String> unpartitioned = new ArrayList<>();
+    for (int i = 0; i < tables.size(); i += 1) {
+      String table = tables.get(i);
+      if (partitionService.isPartitioned(table)) {
+        deleted[i] = partitionService.dropExpired(table, cutoff.toLocalDate());
+        reporter.onChunk(table, deleted[i]);
+      } else {
+        unpartitioned.add(table);
       }
-    } while (deleted == batchSize);
-    return total;
+    }
+    if (!unpartitioned.isEmpty()) {
+      List<Long> purged = purgeEngine.purgeTables(unpartitioned, cutoff, reporter);
+      for (int i = 0; i < purged.size(); i += 1) {
+        deleted[tables.indexOf(unpartitioned.get(i))] = purged.get(i);
+      }
+    }
+    return List.of(deleted);
+  }
+
+  private long maintainPartitions(String table, LocalDate runDate, LocalDate cutoffDate) {
+    if (!partitionService.isPartitioned(table)) {
+      log.debug("Skipping partition maintenance for {}: table is not partitioned", table);
+      return 0;
+    }
+    partitionService.ensureFuturePartitions(table, runDate);
+    long dropped = partitionService.dropExpired(table, cutoffDate);
+    purgeRollups(table, cutoffDate.atStartOfDay());
+    return dropped;
+  }
+
+  private long countEligibleRows(String table, LocalDateTime cutoff, CountMode mode) {
+    if (mode != CountMode.EXACT && partitionService.isPartitioned(table)) {
+      return partitionService.estimateExpiredRows(table, cutoff.toLocalDate());
+    }
+    CountResult result =
+        recordCountService.count(
+            mode,
+            table,
+            LEDGER_START,
+            cutoff,
+            false,
+            false,
+            "housekeeping|" + table + "|" + cutoff,
+            () -> repository.countOldRows(table, cutoff),
+            () -> repository.estimateOldRows(table, cutoff));
+    return result.total() == null ? 0 : result.total();
+  }
+
+  private int retentionDays(EventDefinition definition) {
+    return definition.getRetentionDays() == null
+        ? properties.getRetentionDays()
+        : definition.getRetentionDays();
+  }
+
+  private void purgeRollups(String table, LocalDateTime cutoff) {
+    int rollups = rollupService.purgeBefore(table, cutoff);
+    if (rollups > 0) {
+      log.info("Housekeeping deleted {} rollup rows for {}", rollups, table);
+    }
+  }
+
+  private void purgeTraceIndex(String eventKey, LocalDateTime cutoff) {
+    long entries = traceIndexService.purgeBefore(eventKey, cutoff, properties.getBatchSize());
+    if (entries > 0) {
+      log.info("Housekeeping deleted {} trace index rows for {}", entries, eventKey);
+    }
   }
 
   private ReplayAuditDeletion purgeReplayAudit(LocalDateTime cutoff, int batchSize) {
@@ -489,10 +646,17 @@ public class HousekeepingService {
       if (jobIds.isEmpty()) {
         break;
       }
-      int items = repository.deleteReplayItemsByJobIds(jobIds);
-      int jobs = repository.deleteReplayJobsByIds(jobIds);
-      itemsDeleted += items;
-      jobsDeleted += jobs;
+      int[] deleted =
+          transactionTemplate.execute(
+              status -> {
+                replayStatsRepository.applyDeltas(replayStatsRepository.loadJobRemovals(jobIds));
+                return new int[] {
+                  repository.deleteReplayItemsByJobIds(jobIds),
+                  repository.deleteReplayJobsByIds(jobIds)
+                };
+              });
+      itemsDeleted += deleted[0];
+      jobsDeleted += deleted[1];
       if (jobIds.size() < batchSize) {
         break;
       }
@@ -526,7 +690,7 @@ public class HousekeepingService {
     return new JobAuditDeletion(runsDeleted, itemsDeleted, dailyDeleted);
   }
 
-  private HousekeepingPreviewResponse previewAllRetention() {
+  private HousekeepingPreviewResponse previewAllRetention(CountMode mode) {
     LocalDateTime snapshotAt = LocalDateTime.now();
     int retentionDays = properties.getRetentionDays();
     LocalDate cutoffDate = LocalDate.now().minusDays(retentionDays);
@@ -536,8 +700,8 @@ public class HousekeepingService {
     long totalSuccess = 0;
     long totalFailure = 0;
     for (EventDefinition definition : registry.all()) {
-      long success = repository.countOldRows(definition.getSuccessTable(), cutoffDateTime);
-      long failure = repository.countOldRows(definition.getFailureTable(), cutoffDateTime);
+      long success = countEligibleRows(definition.getSuccessTable(), cutoffDateTime, mode);
+      long failure = countEligibleRows(definition.getFailureTable(), cutoffDateTime, mode);
       long total = success + failure;
       LocalDateTime nextRunAt =
           nextRunAt(definition.getRetentionCron(), properties.getCron(), now);
@@ -627,7 +791,7 @@ public class HousekeepingService {
 
   private void refreshSnapshotSafely(String jobType, String eventKey, LocalDate runDate) {
     try {
-      refreshSnapshot(jobType, eventKey, runDate);
+      refreshSnapshot(jobType, eventKey, runDate, properties.getPreviewCountMode());
     } catch (Exception ex) {
       log.warn("Failed to refresh snapshot for {} {} {}", jobType, eventKey, runDate, ex);
     }
@@ -695,7 +859,7 @@ public class HousekeepingService {
   }
 
   private HousekeepingSnapshot refreshSnapshot(
-      String jobType, String eventKey, LocalDate runDate) {
+      String jobType, String eventKey, LocalDate runDate, CountMode mode) {
     LocalDateTime snapshotAt = LocalDateTime.now();
     int retentionDays = properties.getRetentionDays();
     if (JOB_TYPE_RETENTION.equals(jobType)) {
@@ -712,8 +876,8 @@ public class HousekeepingService {
     LocalDateTime nextRunAt = resolveNextRunAt(jobType, eventKey);
     if (JOB_TYPE_RETENTION.equals(jobType)) {
       EventDefinition definition = registry.getRequired(eventKey);
-      long success = repository.countOldRows(definition.getSuccessTable(), cutoffDateTime);
-      long failure = repository.countOldRows(definition.getFailureTable(), cutoffDateTime);
+      long success = countEligibleRows(definition.getSuccessTable(), cutoffDateTime, mode);
+      long failure = countEligibleRows(definition.getFailureTable(), cutoffDateTime, mode);
       long total = success + failure;
       events.add(new HousekeepingPreviewEvent(definition.getKey(), success, failure, total, nextRunAt));
       totalSuccess = success;
@@ -734,6 +898,23 @@ public class HousekeepingService {
       events.add(new HousekeepingPreviewEvent("housekeeping_daily", daily, 0, daily, nextRunAt));
       totalSuccess = runs + daily;
       totalFailure = items;
+    } else if (JOB_TYPE_PARTITION_MAINTENANCE.equals(jobType)) {
+      for (EventDefinition definition : registry.all()) {
+        LocalDate eventCutoff = runDate.minusDays(retentionDays(definition));
+        long success =
+            partitionService.isPartitioned(definition.getSuccessTable())
+                ? partitionService.estimateExpiredRows(definition.getSuccessTable(), eventCutoff)
+                : 0;
+        long failure =
+            partitionService.isPartitioned(definition.getFailureTable())
+                ? partitionService.estimateExpiredRows(definition.getFailureTable(), eventCutoff)
+                : 0;
+        events.add(
+            new HousekeepingPreviewEvent(
+                definition.getKey(), success, failure, success + failure, nextRunAt));
+        totalSuccess += success;
+        totalFailure += failure;
+      }
     }
     repository.upsertDailySnapshot(
         new HousekeepingDailySnapshot(
@@ -793,6 +974,9 @@ public class HousekeepingService {
     if (JOB_TYPE_HOUSEKEEPING_AUDIT.equals(jobType)) {
       return nextRunAt(null, properties.getHousekeepingAuditCron(), now);
     }
+    if (JOB_TYPE_PARTITION_MAINTENANCE.equals(jobType) && partitionService.isEnabled()) {
+      return nextRunAt(null, properties.getPartitioning().getCron(), now);
+    }
     return null;
   }
 
@@ -872,7 +1056,23 @@ public class HousekeepingService {
     return items;
   }
 
-  private RunDecision beginRun(String jobType, String triggerType, HousekeepingSnapshot snapshot) {
+  /**
+   * Decides whether a run has anything to delete. Retention snapshots may come from the ledger or
+   * an estimate, which can read zero while expired rows exist, so the event tables are probed
+   * exactly; the audit counts are already exact.
+   */
+  private boolean hasEligibleRows(HousekeepingSnapshot snapshot) {
+    if (!JOB_TYPE_RETENTION.equals(snapshot.jobType())) {
+      return snapshot.eligibleTotal() > 0;
+    }
+    EventDefinition definition = registry.getRequired(snapshot.eventKey());
+    LocalDateTime cutoff = snapshot.cutoffDate().atStartOfDay();
+    return repository.hasOldRows(definition.getSuccessTable(), cutoff)
+        || repository.hasOldRows(definition.getFailureTable(), cutoff);
+  }
+
+  private RunDecision beginRun(
+      String jobType, String triggerType, HousekeepingSnapshot snapshot, boolean hasEligible) {
     LocalDate runDate = snapshot.runDate();
     HousekeepingDailyRow daily = repository.lockDaily(jobType, snapshot.eventKey(), runDate);
     if (daily == null) {
@@ -898,12 +1098,15 @@ public class HousekeepingService {
               null);
     }
 
-    boolean hasEligible = daily.eligibleTotal() > 0;
     if (STATUS_RUNNING.equals(daily.lastStatus())) {
       return RunDecision.skip(daily);
     }
     boolean allowRun =
-        STATUS_FAILED.equals(daily.lastStatus()) || (hasEligible && !STATUS_RUNNING.equals(daily.lastStatus()));
+        STATUS_FAILED.equals(daily.lastStatus())
+            || (hasEligible && !STATUS_RUNNING.equals(daily.lastStatus()));
+    if (JOB_TYPE_PARTITION_MAINTENANCE.equals(jobType)) {
+      allowRun = !STATUS_COMPLETED.equals(daily.lastStatus());
+    }
     if (!allowRun) {
       return RunDecision.skip(daily);
     }
@@ -943,6 +1146,52 @@ public class HousekeepingService {
       long eligibleTotal,
       List<HousekeepingPreviewEvent> events) {}
 
+  private final class RunProgressReporter implements PurgeEngine.ProgressListener {
+    private final String runId;
+    private final String successTable;
+    private final long startNanos = System.nanoTime();
+    private long deletedSuccess;
+    private long deletedFailure;
+    private long lastReportNanos = startNanos;
+
+    private RunProgressReporter(String runId, String successTable) {
+      this.runId = runId;
+      this.successTable = successTable;
+    }
+
+    @Override
+    public synchronized void onChunk(String table, long deleted) {
+      if (successTable.equals(table)) {
+        deletedSuccess += deleted;
+      } else {
+        deletedFailure += deleted;
+      }
+      long now = System.nanoTime();
+      if (now - lastReportNanos
+          < TimeUnit.MILLISECONDS.toNanos(properties.getPurge().getProgressIntervalMs())) {
+        return;
+      }
+      lastReportNanos = now;
+      try {
+        repository.updateRunProgress(
+            new HousekeepingRunProgress(
+                runId,
+                STATUS_RUNNING,
+                deletedSuccess,
+                deletedFailure,
+                deletedSuccess + deletedFailure,
+                rowsPerSec()));
+      } catch (RuntimeException ex) {
+        log.warn("Unable to record housekeeping progress for run {}", runId, ex);
+      }
+    }
+
+    private synchronized double rowsPerSec() {
+      long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+      return (deletedSuccess + deletedFailure) * 1000.0 / elapsedMs;
+    }
+  }
+
   private record ReplayAuditDeletion(long jobsDeleted, long itemsDeleted) {}
 
   private record JobAuditDeletion(long runsDeleted, long itemsDeleted, long dailyDeleted) {}
@@ -0,0 +1,260 @@
+package com.vibe.events.service;
+
+import com.vibe.events.dto.IndexAdviceResponse;
+import com.vibe.events.dto.QueryShapeResponse;
+import com.vibe.events.repo.IndexRepository;
+import com.vibe.events.repo.IndexRepository.TableIndex;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.stereotype.Service;
+
+/**
+ * Proposes indexes for the query shapes recorded by {@link QueryProfiler}. Each single-table shape
+ * is turned into an equality-sort-range column list and dropped when an existing index already
+ * serves it; the rest are grouped per proposed index and ranked by the time their shapes spent.
+ */
+@Service
+public class IndexAdvisor {
+  private static final Pattern STATEMENT =
+      pattern("^(?:SELECT .+? FROM|DELETE FROM) (\\w+)(?: \\w+)?(?: WHERE (.+))?$");
+  private static final Pattern CLAUSE_END = pattern(" (?:GROUP BY|ORDER BY|HAVING|LIMIT) ");
+  private static final Pattern ORDER_BY = pattern(" ORDER BY (.+?)(?: LIMIT .*)?$");
+  private static final Pattern EQUALITY = pattern("^(\\w+) (?:= \\?|IN \\(\\?\\+\\))$");
+  private static final Pattern RANGE = pattern("^(\\w+) (?:>=|<=|>|<|BETWEEN) \\?$");
+  private static final Pattern SORT_KEY = pattern("^(\\w+)(?: (?:ASC|DESC))?$");
+  private static final String PRIMARY_KEY = "id";
+  private static final int MAX_COLUMNS = 5;
+  private static final int MAX_SHAPES_PER_ADVICE = 3;
+  private static final int MAX_INDEX_NAME = 64;
+
+  private final QueryProfiler queryProfiler;
+  private final IndexRepository indexRepository;
+
+  public IndexAdvisor(QueryProfiler queryProfiler, IndexRepository indexRepository) {
+    this.queryProfiler = queryProfiler;
+    this.indexRepository = indexRepository;
+  }
+
+  public List<IndexAdviceResponse> advise(int limit) {
+    Map<String, List<TableIndex>> indexesByTable = new HashMap<>();
+    Map<String, Advice> advice = new LinkedHashMap<>();
+    for (QueryShapeResponse shape : queryProfiler.top(Integer.MAX_VALUE, "total")) {
+      Proposal proposal = propose(shape.shape());
+      if (proposal == null) {
+        continue;
+      }
+      List<TableIndex> existing =
+          indexesByTable.computeIfAbsent(proposal.table(), indexRepository::loadIndexes);
+      if (existing.isEmpty() || isServed(proposal, existing)) {
+        continue;
+      }
+      advice
+          .computeIfAbsent(
+              proposal.table() + "|" + proposal.columns(),
+              key -> new Advice(proposal, closestIndex(proposal, existing)))
+          .add(shape);
+    }
+    return advice.values().stream()
+        .map(Advice::toResponse)
+        .sorted(Comparator.comparingDouble(IndexAdviceResponse::totalMs).reversed())
+        .limit(Math.max(1, limit))
+        .toList();
+  }
+
+  static Proposal propose(String shape) {
+    String normalized = shape == null ? "" : shape.trim();
+    String upper = normalized.toUpperCase(Locale.ROOT);
+    if (upper.contains(" JOIN ")
+        || upper.contains(" UNION ")
+        || upper.indexOf(" FROM ") != upper.lastIndexOf(" FROM ")) {
+      return null;
+    }
+    Matcher statement = STATEMENT.matcher(normalized);
+    if (!statement.matches() || statement.group(2) == null) {
+      return null;
+    }
+    String where = statement.group(2);
+    Matcher end = CLAUSE_END.matcher(where);
+    if (end.find()) {
+      where = where.substring(0, end.start());
+    }
+
+    Set<String> equality = new LinkedHashSet<>();
+    Set<String> range = new LinkedHashSet<>();
+    for (String condition : splitConditions(where)) {
+      Matcher eq = EQUALITY.matcher(condition);
+      Matcher rg = RANGE.matcher(condition);
+      if (eq.matches()) {
+        equality.add(eq.group(1).toLowerCase(Locale.ROOT));
+      } else if (rg.matches()) {
+        range.add(rg.group(1).toLowerCase(Locale.ROOT));
+      }
+    }
+    if (equality.contains(PRIMARY_KEY) || (equality.isEmpty() && range.isEmpty())) {
+      return null;
+    }
+    range.removeAll(equality);
+
+    List<String> sort = new ArrayList<>();
+    Matcher orderBy = ORDER_BY.matcher(normalized);
+    if (orderBy.find()) {
+      for (String key : orderBy.group(1).split(",")) {
+        Matcher sortKey = SORT_KEY.matcher(key.trim());
+        if (!sortKey.matches()) {
+          sort.clear();
+          break;
+        }
+        sort.add(sortKey.group(1).toLowerCase(Locale.ROOT));
+      }
+    }
+
+    // Equality, then sort, then range: the sort keys only help while the range column leads them.
+    Set<String> columns = new LinkedHashSet<>(equality);
+    if (!sort.isEmpty() && (range.isEmpty() || range.contains(sort.get(0)))) {
+      columns.addAll(sort);
+    }
+    columns.addAll(range);
+    List<String> ordered = columns.stream().limit(MAX_COLUMNS).toList();
+    return new Proposal(statement.group(1).toLowerCase(Locale.ROOT), equality.size(), ordered);
+  }
+
+  // InnoDB appends the primary key to every secondary index, so a trailing id is implied.
+  static boolean isServed(Proposal proposal, List<TableIndex> existing) {
+    List<String> wanted = proposal.columns();
+    List<String> withoutPk =
+        wanted.size() > 1 && wanted.get(wanted.size() - 1).equals(PRIMARY_KEY)
+            ? wanted.subList(0, wanted.size() - 1)
+            : wanted;
+    for (TableIndex index : existing) {
+      if (leads(index.columns(), wanted, proposal.equalityCount())
+          || leads(index.columns(), withoutPk, proposal.equalityCount())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean leads(List<String> index, List<String> wanted, int equalityCount) {
+    if (index.size() < wanted.size()) {
+      return false;
+    }
+    int equality = Math.min(equalityCount, wanted.size());
+    Set<String> leading = new HashSet<>(index.subList(0, equality));
+    if (!leading.equals(new HashSet<>(wanted.subList(0, equality)))) {
+      return false;
+    }
+    return index.subList(equality, wanted.size()).equals(wanted.subList(equality, wanted.size()));
+  }
+
+  private static String closestIndex(Proposal proposal, List<TableIndex> existing) {
+    String best = null;
+    int bestLength = 0;
+    for (TableIndex index : existing) {
+      int length = 0;
+      while (length < index.columns().size()
+          && length < proposal.columns().size()
+          && index.columns().get(length).equals(proposal.columns().get(length))) {
+        length += 1;
+      }
+      if (length > bestLength) {
+        best = index.name();
+        bestLength = length;
+      }
+    }
+    return best;
+  }
+
+  private static List<String> splitConditions(String where) {
+    List<String> conditions = new ArrayList<>();
+    int depth = 0;
+    int start = 0;
+    String upper = where.toUpperCase(Locale.ROOT);
+    for (int i = 0; i < where.length(); i += 1) {
+      char c = where.charAt(i);
+      if (c == '(') {
+        depth += 1;
+      } else if (c == ')') {
+        depth -= 1;
+      } else if (depth == 0 && upper.startsWith(" AND ", i)) {
+        String condition = where.substring(start, i).trim();
+        // "x BETWEEN ? AND ?" is split in two; the bare "?" half carries no column.
+        if (!condition.equals("?")) {
+          conditions.add(condition);
+        }
+        start = i + 5;
+        i += 4;
+      }
+    }
+    String last = where.substring(start).trim();
+    if (!last.equals("?")) {
+      conditions.add(last);
+    }
+    return conditions;
+  }
+
+  private static Pattern pattern(String regex) {
+    return Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+  }
+
+  private static String indexName(String table, List<String> columns) {
+    String name = "idx_" + table + "_" + String.join("_", columns);
+    return name.length() > MAX_INDEX_NAME ? name.substring(0, MAX_INDEX_NAME) : name;
+  }
+
+  record Proposal(String table, int equalityCount, List<String> columns) {}
+
+  private static final class Advice {
+    private final Proposal proposal;
+    private final String extendsIndex;
+    private final List<String> shapes = new ArrayList<>();
+    private long executions;
+    private double totalMs;
+    private Double p95Ms;
+
+    private Advice(Proposal proposal, String extendsIndex) {
+      this.proposal = proposal;
+      this.extendsIndex = extendsIndex;
+    }
+
+    private void add(QueryShapeResponse shape) {
+      executions += shape.executions();
+      totalMs += shape.totalMs();
+      if (shape.p95Ms() != null && (p95Ms == null || shape.p95Ms() > p95Ms)) {
+        p95Ms = shape.p95Ms();
+      }
+      if (shapes.size() < MAX_SHAPES_PER_ADVICE) {
+        shapes.add(shape.shape());
+      }
+    }
+
+    private IndexAdviceResponse toResponse() {
+      String ddl =
+          "CREATE INDEX IF NOT EXISTS "
+              + indexName(proposal.table(), proposal.columns())
+              + " ON "
+              + proposal.table()
+              + " ("
+              + String.join(", ", proposal.columns())
+              + ")";
+      return new IndexAdviceResponse(
+          proposal.table(),
+          proposal.columns(),
+          ddl,
+          extendsIndex,
+          executions,
+          Math.round(totalMs * 100.0) / 100.0,
+          p95Ms,
+          List.copyOf(shapes));
+    }
+  }
+}
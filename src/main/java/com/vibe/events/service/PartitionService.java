@@ -0,0 +1,111 @@
+package com.vibe.events.service;
+
+import com.vibe.events.config.HousekeepingProperties;
+import com.vibe.events.repo.PartitionRepository;
+import com.vibe.events.repo.PartitionRepository.PartitionRow;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PartitionService {
+  private static final Logger log = LoggerFactory.getLogger(PartitionService.class);
+
+  private final PartitionRepository repository;
+  private final HousekeepingProperties.Partitioning properties;
+
+  public PartitionService(PartitionRepository repository, HousekeepingProperties properties) {
+    this.repository = repository;
+    this.properties = properties.getPartitioning();
+  }
+
+  public boolean isEnabled() {
+    return properties.isEnabled();
+  }
+
+  public boolean isPartitioned(String table) {
+    return properties.isEnabled() && !repository.loadPartitions(table).isEmpty();
+  }
+
+  public long estimateExpiredRows(String table, LocalDate cutoffDate) {
+    long rows = 0;
+    for (PartitionRow partition : expired(repository.loadPartitions(table), cutoffDate)) {
+      rows += partition.estimatedRows();
+    }
+    return rows;
+  }
+
+  public long dropExpired(String table, LocalDate cutoffDate) {
+    long start = System.currentTimeMillis();
+    List<PartitionRow> expired = expired(repository.loadPartitions(table), cutoffDate);
+    if (expired.isEmpty()) {
+      return 0;
+    }
+    long rows = 0;
+    List<String> names = new ArrayList<>(expired.size());
+    for (PartitionRow partition : expired) {
+      names.add(partition.name());
+      rows += partition.estimatedRows();
+    }
+    repository.dropPartitions(table, names);
+    log.info(
+        "Dropped {} partitions (~{} rows) from {} in {}ms",
+        names.size(),
+        rows,
+        table,
+        System.currentTimeMillis() - start);
+    return rows;
+  }
+
+  public int ensureFuturePartitions(String table, LocalDate runDate) {
+    List<PartitionRow> partitions = repository.loadPartitions(table);
+    if (partitions.isEmpty()) {
+      return 0;
+    }
+    String maxPartition = null;
+    LocalDate nextDay = null;
+    for (PartitionRow partition : partitions) {
+      if (partition.upperBound() == null) {
+        maxPartition = partition.name();
+      } else if (nextDay == null || partition.upperBound().isAfter(nextDay)) {
+        nextDay = partition.upperBound();
+      }
+    }
+    if (nextDay == null) {
+      nextDay = runDate;
+    }
+    LocalDate lastDay = runDate.plusDays(Math.max(0, properties.getFutureDays()));
+    List<LocalDate> days = new ArrayList<>();
+    for (LocalDate day = nextDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+      days.add(day);
+    }
+    if (days.isEmpty()) {
+      return 0;
+    }
+    long start = System.currentTimeMillis();
+    repository.addPartitions(table, maxPartition, days);
+    log.info(
+        "Created {} partitions on {} through {} in {}ms",
+        days.size(),
+        table,
+        lastDay,
+        System.currentTimeMillis() - start);
+    return days.size();
+  }
+
+  private List<PartitionRow> expired(List<PartitionRow> partitions, LocalDate cutoffDate) {
+    List<PartitionRow> expired = new ArrayList<>();
+    for (PartitionRow partition : partitions) {
+      if (partition.upperBound() != null && !partition.upperBound().isAfter(cutoffDate)) {
+        expired.add(partition);
+      }
+    }
+    if (expired.size() == partitions.size()) {
+      expired.remove(expired.size() - 1);
+    }
+    return expired;
+  }
+}
@@ -0,0 +1,153 @@
+package com.vibe.events.service;
+
+import com.vibe.events.config.HousekeepingProperties;
+import com.vibe.events.repo.HousekeepingRepository;
+import com.vibe.events.repo.HousekeepingRepository.PurgeIdRange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PurgeEngine {
+  private static final Logger log = LoggerFactory.getLogger(PurgeEngine.class);
+
+  private final HousekeepingRepository repository;
+  private final HousekeepingProperties.Purge properties;
+  private final ThreadPoolTaskExecutor executor;
+  private final MeterRegistry meterRegistry;
+
+  public PurgeEngine(
+      HousekeepingRepository repository,
+      HousekeepingProperties properties,
+      @Qualifier("purgeExecutor") ThreadPoolTaskExecutor executor,
+      MeterRegistry meterRegistry) {
+    this.repository = repository;
+    this.properties = properties.getPurge();
+    this.executor = executor;
+    this.meterRegistry = meterRegistry;
+  }
+
+  public List<Long> purgeTables(
+      List<String> tables, LocalDateTime cutoff, ProgressListener listener) {
+    List<CompletableFuture<Long>> futures = new ArrayList<>(tables.size());
+    for (String table : tables) {
+      futures.add(
+          CompletableFuture.supplyAsync(() -> purgeTable(table, cutoff, listener), executor));
+    }
+    List<Long> results = new ArrayList<>(tables.size());
+    for (int i = 0; i < futures.size(); i += 1) {
+      try {
+        results.add(futures.get(i).get());
+      } catch (InterruptedException ex) {
+        cancelAll(futures);
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Purge was interrupted", ex);
+      } catch (ExecutionException | CancellationException ex) {
+        cancelAll(futures);
+        Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+        if (cause instanceof RuntimeException runtime) {
+          throw runtime;
+        }
+        throw new IllegalStateException("Purge failed for " + tables.get(i), cause);
+      }
+    }
+    return results;
+  }
+
+  public long purgeTable(String table, LocalDateTime cutoff, ProgressListener listener) {
+    long start = System.currentTimeMillis();
+    PurgeIdRange range = repository.loadPurgeIdRange(table, cutoff);
+    if (range == null) {
+      return 0;
+    }
+    // rate(housekeeping.purge.rows) gives the live rows/sec per table.
+    Counter rows =
+        Counter.builder("housekeeping.purge.rows")
+            .description("Rows deleted by retention purges")
+            .tag("table", table)
+            .register(meterRegistry);
+    Timer chunkTimer =
+        Timer.builder("housekeeping.purge.chunk")
+            .description("Duration of a single purge chunk delete")
+            .tag("table", table)
+            .register(meterRegistry);
+    long chunkSize = Math.max(1, properties.getInitialChunkSize());
+    long fromId = range.minId();
+    long total = 0;
+    int chunks = 0;
+    while (fromId <= range.maxId()) {
+      if (Thread.currentThread().isInterrupted()) {
+        throw new IllegalStateException("Purge of " + table + " was interrupted");
+      }
+      long toId = Math.min(range.maxId(), fromId + chunkSize - 1);
+      long chunkStart = System.nanoTime();
+      int deleted = repository.deleteIdRange(table, fromId, toId, cutoff);
+      long elapsedNanos = System.nanoTime() - chunkStart;
+      long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+      chunkTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+      rows.increment(deleted);
+      total += deleted;
+      chunks += 1;
+      if (deleted > 0 && listener != null) {
+        listener.onChunk(table, deleted);
+      }
+      fromId = toId + 1;
+      chunkSize = nextChunkSize(chunkSize, elapsedMs);
+      pause(elapsedMs);
+    }
+    long elapsed = Math.max(1, System.currentTimeMillis() - start);
+    log.info(
+        "Purged {} rows from {} in {} chunks, {} rows/sec, in {}ms",
+        total,
+        table,
+        chunks,
+        total * 1000 / elapsed,
+        elapsed);
+    return total;
+  }
+
+  private long nextChunkSize(long chunkSize, long elapsedMs) {
+    double ratio = (double) Math.max(1, properties.getTargetChunkMs()) / elapsedMs;
+    ratio = Math.max(0.5, Math.min(2.0, ratio));
+    long next = Math.round(chunkSize * ratio);
+    return Math.max(properties.getMinChunkSize(), Math.min(properties.getMaxChunkSize(), next));
+  }
+
+  private void pause(long elapsedMs) {
+    double budget = properties.getLoadBudget();
+    if (budget <= 0 || budget >= 1) {
+      return;
+    }
+    long sleepMs = Math.round(elapsedMs * (1 - budget) / budget);
+    if (sleepMs <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(sleepMs);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void cancelAll(List<? extends CompletableFuture<?>> futures) {
+    for (CompletableFuture<?> future : futures) {
+      future.cancel(true);
+    }
+  }
+
+  public interface ProgressListener {
+    void onChunk(String table, long deleted);
+  }
+}
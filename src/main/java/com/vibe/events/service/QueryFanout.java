@@ -0,0 +1,156 @@
+package com.vibe.events.service;
+
+import com.vibe.events.config.AggregationProperties;
+import com.vibe.events.error.DeadlineExceededException;
+import com.vibe.events.registry.EventDefinition;
+import com.vibe.events.util.QueryDeadline;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs one task per event in parallel under a shared deadline. Cancelling a future does not stop
+ * a running JDBC statement, so each task runs under a {@link QueryDeadline}: every statement it
+ * opens gets the time left as its query timeout, and the driver cancels the query server-side once
+ * the fan-out has given up on it. Tasks run outside any transaction, so writes they make (rollup
+ * syncs) commit and fail in their own short transactions.
+ */
+@Component
+public class QueryFanout {
+  private static final Logger log = LoggerFactory.getLogger(QueryFanout.class);
+
+  private final ThreadPoolTaskExecutor executor;
+  private final AggregationProperties properties;
+
+  public QueryFanout(
+      @Qualifier("queryFanoutExecutor") ThreadPoolTaskExecutor executor,
+      AggregationProperties properties) {
+    this.executor = executor;
+    this.properties = properties;
+  }
+
+  public <T> List<T> map(
+      String operation, List<EventDefinition> definitions, Function<EventDefinition, T> task) {
+    long start = System.currentTimeMillis();
+    long deadline = start + properties.getFanout().getDeadlineMs();
+    List<CompletableFuture<Timed<T>>> futures = new ArrayList<>(definitions.size());
+    for (EventDefinition definition : definitions) {
+      futures.add(
+          CompletableFuture.supplyAsync(
+              () -> {
+                long taskStart = System.currentTimeMillis();
+                T result = withDeadline(operation, deadline, () -> task.apply(definition));
+                return new Timed<>(result, System.currentTimeMillis() - taskStart);
+              },
+              executor));
+    }
+
+    // Completes with the first task failure, so a failing event does not wait out the others.
+    CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+    for (CompletableFuture<Timed<T>> future : futures) {
+      future.whenComplete(
+          (timed, error) -> {
+            if (error != null) {
+              firstFailure.completeExceptionally(error);
+            }
+          });
+    }
+    CompletableFuture<Void> all =
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+    try {
+      long remaining = Math.max(0, deadline - System.currentTimeMillis());
+      CompletableFuture.anyOf(all, firstFailure).get(remaining, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      cancelAll(futures);
+      throw new DeadlineExceededException(
+          operation
+              + " did not finish within "
+              + properties.getFanout().getDeadlineMs()
+              + "ms (waiting on "
+              + pendingKeys(definitions, futures)
+              + ")");
+    } catch (InterruptedException ex) {
+      cancelAll(futures);
+      Thread.currentThread().interrupt();
+      throw new DeadlineExceededException(operation + " was interrupted");
+    } catch (ExecutionException | CancellationException ex) {
+      cancelAll(futures);
+      Throwable cause = ex;
+      while ((cause instanceof ExecutionException || cause instanceof CompletionException)
+          && cause.getCause() != null) {
+        cause = cause.getCause();
+      }
+      if (cause instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException(
+          operation + " failed for " + failedKey(definitions, futures), cause);
+    }
+
+    List<T> results = new ArrayList<>(definitions.size());
+    Map<String, Long> timings = new LinkedHashMap<>();
+    for (int i = 0; i < futures.size(); i += 1) {
+      Timed<T> timed = futures.get(i).join();
+      results.add(timed.result());
+      timings.put(definitions.get(i).getKey(), timed.elapsedMs());
+    }
+    log.info(
+        "Fan-out {} over {} events in {}ms, per event {}",
+        operation,
+        definitions.size(),
+        System.currentTimeMillis() - start,
+        timings);
+    return results;
+  }
+
+  private <T> T withDeadline(String operation, long deadline, Supplier<T> task) {
+    long remainingMs = deadline - System.currentTimeMillis();
+    if (remainingMs <= 0) {
+      throw new DeadlineExceededException(operation + " deadline passed before the task started");
+    }
+    return QueryDeadline.run(deadline, task);
+  }
+
+  private static List<String> pendingKeys(
+      List<EventDefinition> definitions, List<? extends CompletableFuture<?>> futures) {
+    List<String> keys = new ArrayList<>();
+    for (int i = 0; i < futures.size(); i += 1) {
+      if (!futures.get(i).isDone()) {
+        keys.add(definitions.get(i).getKey());
+      }
+    }
+    return keys;
+  }
+
+  private static String failedKey(
+      List<EventDefinition> definitions, List<? extends CompletableFuture<?>> futures) {
+    for (int i = 0; i < futures.size(); i += 1) {
+      if (futures.get(i).isCompletedExceptionally()) {
+        return definitions.get(i).getKey();
+      }
+    }
+    return "unknown event";
+  }
+
+  private void cancelAll(List<? extends CompletableFuture<?>> futures) {
+    for (CompletableFuture<?> future : futures) {
+      future.cancel(true);
+    }
+  }
+
+  private record Timed<T>(T result, long elapsedMs) {}
+}
@@ -0,0 +1,236 @@
+package com.vibe.events.service;
+
+import com.vibe.events.config.QueryProfilerProperties;
+import com.vibe.events.dto.QueryShapeResponse;
+import com.vibe.events.dto.SlowQuerySample;
+import com.vibe.events.error.BadRequestException;
+import com.vibe.events.util.LatencySketch;
+import com.vibe.events.util.QueryShapes;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory latency profile per query shape. Lifetime totals are kept alongside a rolling window
+ * of per-minute sketches. Statements slower than the threshold are kept as samples with the types
+ * of their bound parameters. Their values are only kept when {@code captureParameterValues} is
+ * on, cut to {@code maxParameterLength} with binary and LOB values reduced to a size, and they
+ * never go to the log.
+ */
+@Component
+public class QueryProfiler {
+  private static final Logger log = LoggerFactory.getLogger(QueryProfiler.class);
+  private static final String OVERFLOW_SHAPE = "(other shapes)";
+  private static final int MAX_CACHED_STATEMENTS = 10_000;
+
+  private final QueryProfilerProperties properties;
+  private final Map<String, String> shapesBySql = new ConcurrentHashMap<>();
+  private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+
+  public QueryProfiler(QueryProfilerProperties properties) {
+    this.properties = properties;
+  }
+
+  public boolean isEnabled() {
+    return properties.isEnabled();
+  }
+
+  public boolean isCapturingParameterValues() {
+    return properties.isCaptureParameterValues();
+  }
+
+  public void record(
+      String sql,
+      long elapsedNanos,
+      long rows,
+      List<String> parameterTypes,
+      List<Object> parameterValues,
+      boolean error) {
+    String shape = shapeOf(sql);
+    ShapeStats stats = shapes.get(shape);
+    if (stats == null) {
+      if (shapes.size() >= properties.getMaxShapes()) {
+        shape = OVERFLOW_SHAPE;
+      }
+      stats = shapes.computeIfAbsent(shape, key -> new ShapeStats(key, windowMinutes()));
+    }
+    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    SlowQuerySample sample = null;
+    if (elapsedMs >= properties.getSlowQueryMs()) {
+      sample =
+          new SlowQuerySample(
+              LocalDateTime.now(),
+              elapsedNanos / 1_000_000.0,
+              rows,
+              error,
+              parameterTypes == null ? List.of() : parameterTypes,
+              render(parameterValues));
+      log.warn(
+          "Slow query ({}ms, {} rows, {} parameters): {}",
+          elapsedMs,
+          rows,
+          sample.parameterTypes().size(),
+          shape);
+    }
+    stats.record(elapsedNanos, rows, error, sample, Math.max(0, properties.getSamplesPerShape()));
+  }
+
+  public List<QueryShapeResponse> top(int limit, String sort) {
+    Comparator<QueryShapeResponse> order = comparator(sort);
+    long minute = currentMinute();
+    return shapes.values().stream()
+        .map(stats -> stats.snapshot(minute))
+        .sorted(order.reversed())
+        .limit(Math.max(1, limit))
+        .toList();
+  }
+
+  public void reset() {
+    shapes.clear();
+  }
+
+  private String shapeOf(String sql) {
+    String shape = shapesBySql.get(sql);
+    if (shape != null) {
+      return shape;
+    }
+    shape = QueryShapes.normalize(sql);
+    if (shapesBySql.size() < MAX_CACHED_STATEMENTS) {
+      shapesBySql.put(sql, shape);
+    }
+    return shape;
+  }
+
+  private List<String> render(List<Object> parameterValues) {
+    if (parameterValues == null || !properties.isCaptureParameterValues()) {
+      return List.of();
+    }
+    int maxLength = Math.max(1, properties.getMaxParameterLength());
+    List<String> rendered = new ArrayList<>(parameterValues.size());
+    for (Object value : parameterValues) {
+      String text;
+      if (value == null) {
+        text = "null";
+      } else if (value instanceof byte[] bytes) {
+        text = "<" + bytes.length + " bytes>";
+      } else if (value instanceof InputStream
+          || value instanceof Reader
+          || value instanceof Blob
+          || value instanceof Clob) {
+        text = "<" + value.getClass().getSimpleName() + ">";
+      } else {
+        text = value.toString();
+      }
+      rendered.add(text.length() > maxLength ? text.substring(0, maxLength) + "..." : text);
+    }
+    return rendered;
+  }
+
+  private int windowMinutes() {
+    return Math.max(1, properties.getWindowMinutes());
+  }
+
+  private static long currentMinute() {
+    return TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+  }
+
+  private static Comparator<QueryShapeResponse> comparator(String sort) {
+    String key = sort == null || sort.isBlank() ? "p95" : sort.trim().toLowerCase();
+    return switch (key) {
+      case "p95" -> Comparator.comparing(QueryShapeResponse::p95Ms, nullsFirst());
+      case "p99" -> Comparator.comparing(QueryShapeResponse::p99Ms, nullsFirst());
+      case "max" -> Comparator.comparing(QueryShapeResponse::maxMs, nullsFirst());
+      case "total" -> Comparator.comparingDouble(QueryShapeResponse::totalMs);
+      case "avg" -> Comparator.comparingDouble(QueryShapeResponse::avgMs);
+      case "count" -> Comparator.comparingLong(QueryShapeResponse::executions);
+      case "rows" -> Comparator.comparingDouble(QueryShapeResponse::avgRows);
+      default -> throw new BadRequestException("Unsupported sort: " + sort);
+    };
+  }
+
+  private static Comparator<Double> nullsFirst() {
+    return Comparator.nullsFirst(Comparator.naturalOrder());
+  }
+
+  private static double toMillis(Double micros) {
+    return micros == null ? 0.0 : Math.round(micros / 10.0) / 100.0;
+  }
+
+  private static final class ShapeStats {
+    private final String shape;
+    private final LatencySketch[] slots;
+    private final long[] slotMinutes;
+    private final ArrayDeque<SlowQuerySample> samples = new ArrayDeque<>();
+    private long executions;
+    private long errors;
+    private long rows;
+    private long totalNanos;
+    private LocalDateTime lastSeenAt;
+
+    private ShapeStats(String shape, int windowMinutes) {
+      this.shape = shape;
+      this.slots = new LatencySketch[windowMinutes];
+      this.slotMinutes = new long[windowMinutes];
+    }
+
+    private synchronized void record(
+        long elapsedNanos, long rowCount, boolean error, SlowQuerySample sample, int maxSamples) {
+      long minute = currentMinute();
+      int index = (int) (minute % slots.length);
+      if (slots[index] == null || slotMinutes[index] != minute) {
+        slots[index] = new LatencySketch();
+        slotMinutes[index] = minute;
+      }
+      slots[index].add(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+      executions += 1;
+      rows += Math.max(0, rowCount);
+      totalNanos += elapsedNanos;
+      if (error) {
+        errors += 1;
+      }
+      lastSeenAt = LocalDateTime.now();
+      if (sample != null && maxSamples > 0) {
+        while (samples.size() >= maxSamples) {
+          samples.removeFirst();
+        }
+        samples.addLast(sample);
+      }
+    }
+
+    private synchronized QueryShapeResponse snapshot(long minute) {
+      LatencySketch window = new LatencySketch();
+      for (int i = 0; i < slots.length; i += 1) {
+        if (slots[i] != null && minute - slotMinutes[i] < slots.length) {
+          window.merge(slots[i]);
+        }
+      }
+      double totalMs = totalNanos / 1_000_000.0;
+      return new QueryShapeResponse(
+          shape,
+          executions,
+          errors,
+          Math.round(totalMs * 100.0) / 100.0,
+          executions == 0 ? 0.0 : Math.round(totalMs / executions * 100.0) / 100.0,
+          executions == 0 ? 0.0 : Math.round((double) rows / executions * 100.0) / 100.0,
+          window.getCount(),
+          window.getCount() == 0 ? null : toMillis(window.quantile(0.50)),
+          window.getCount() == 0 ? null : toMillis(window.quantile(0.95)),
+          window.getCount() == 0 ? null : toMillis(window.quantile(0.99)),
+          window.getCount() == 0 ? null : toMillis(window.getMax()),
+          lastSeenAt,
+          List.copyOf(samples).reversed());
+    }
+  }
+}
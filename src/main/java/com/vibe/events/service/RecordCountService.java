@@ -0,0 +1,83 @@
+package com.vibe.events.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vibe.events.config.RecordsProperties;
+import com.vibe.events.dto.CountMode;
+import com.vibe.events.repo.RollupRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Service;
+
+@Service
+public class RecordCountService {
+  private final RollupRepository rollupRepository;
+  private final RollupService rollupService;
+  private final Cache<String, Long> counts;
+
+  public RecordCountService(
+      RollupRepository rollupRepository,
+      RollupService rollupService,
+      RecordsProperties properties) {
+    this.rollupRepository = rollupRepository;
+    this.rollupService = rollupService;
+    this.counts =
+        Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(properties.getCountCacheTtlMs()))
+            .maximumSize(properties.getCountCacheMaxSize())
+            .build();
+  }
+
+  public CountResult count(
+      CountMode mode,
+      String table,
+      LocalDateTime start,
+      LocalDateTime end,
+      boolean endInclusive,
+      boolean filtered,
+      String fingerprint,
+      Supplier<Long> exactCount,
+      Supplier<Long> estimatedCount) {
+    switch (mode) {
+      case NONE:
+        return new CountResult(null, false, CountMode.NONE);
+      case CACHED:
+        return new CountResult(
+            counts.get(fingerprint, key -> exactCount.get()), false, CountMode.CACHED);
+      case LEDGER:
+      case ESTIMATE:
+        if (canUseLedger(table, start, end, endInclusive, filtered)) {
+          return new CountResult(
+              rollupRepository.loadRowCount(table, start, end), false, CountMode.LEDGER);
+        }
+        if (mode == CountMode.ESTIMATE) {
+          Long estimate = estimatedCount.get();
+          if (estimate != null) {
+            return new CountResult(estimate, true, CountMode.ESTIMATE);
+          }
+        }
+        return new CountResult(exactCount.get(), false, CountMode.EXACT);
+      default:
+        return new CountResult(exactCount.get(), false, CountMode.EXACT);
+    }
+  }
+
+  private boolean canUseLedger(
+      String table,
+      LocalDateTime start,
+      LocalDateTime end,
+      boolean endInclusive,
+      boolean filtered) {
+    if (filtered || endInclusive || !isMinuteAligned(start) || !isMinuteAligned(end)) {
+      return false;
+    }
+    return rollupService.sync(table);
+  }
+
+  private boolean isMinuteAligned(LocalDateTime timestamp) {
+    return timestamp.getSecond() == 0 && timestamp.getNano() == 0;
+  }
+
+  public record CountResult(Long total, boolean approximate, CountMode mode) {}
+}
@@ -0,0 +1,173 @@
+package com.vibe.events.service;
+
+import com.vibe.events.dto.ExportFormat;
+import com.vibe.events.util.RowMapperUtil;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
+
+public class RecordExport {
+  private static final Logger log = LoggerFactory.getLogger(RecordExport.class);
+
+  private final String table;
+  private final ExportFormat format;
+  private final List<String> columns;
+  private final boolean gzip;
+  private final ObjectMapper objectMapper;
+  private final Consumer<RowCallbackHandler> query;
+
+  public RecordExport(
+      String table,
+      ExportFormat format,
+      List<String> columns,
+      boolean gzip,
+      ObjectMapper objectMapper,
+      Consumer<RowCallbackHandler> query) {
+    this.table = table;
+    this.format = format;
+    this.columns = columns;
+    this.gzip = gzip;
+    this.objectMapper = objectMapper;
+    this.query = query;
+  }
+
+  public String contentType() {
+    return gzip ? "application/gzip" : format.getContentType();
+  }
+
+  public String fileName(String prefix) {
+    return prefix + "." + format.getExtension() + (gzip ? ".gz" : "");
+  }
+
+  public void writeTo(OutputStream outputStream) throws IOException {
+    long start = System.currentTimeMillis();
+    OutputStream target = gzip ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+    long[] rows = {0};
+    try {
+      if (format == ExportFormat.CSV) {
+        writeCsv(target, rows);
+      } else {
+        writeNdjson(target, rows);
+      }
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+    if (target instanceof GZIPOutputStream gzipStream) {
+      gzipStream.finish();
+    }
+    target.flush();
+    log.info(
+        "Exported {} rows from {} as {} in {}ms",
+        rows[0],
+        table,
+        format,
+        System.currentTimeMillis() - start);
+  }
+
+  private void writeNdjson(OutputStream target, long[] rows) throws IOException {
+    try (SequenceWriter writer =
+        objectMapper
+            .writer()
+            .withRootValueSeparator("\n")
+            .writeValues(new NonClosingOutputStream(target))) {
+      RowMapper<Map<String, Object>> mapper = RowMapperUtil.dynamicRowMapper();
+      query.accept(
+          rs -> {
+            writer.write(mapper.mapRow(rs, 0));
+            rows[0] += 1;
+          });
+    }
+    if (rows[0] > 0) {
+      target.write('\n');
+    }
+  }
+
+  private void writeCsv(OutputStream target, long[] rows) throws IOException {
+    Writer writer =
+        new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+    writeCsvLine(writer, columns);
+    query.accept(
+        rs -> {
+          try {
+            writeCsvRow(writer, rs);
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+          rows[0] += 1;
+        });
+    writer.flush();
+  }
+
+  private void writeCsvRow(Writer writer, ResultSet rs) throws IOException, SQLException {
+    for (int i = 1; i <= columns.size(); i++) {
+      if (i > 1) {
+        writer.write(',');
+      }
+      Object value = rs.getObject(i);
+      if (value instanceof Timestamp timestamp) {
+        value = timestamp.toLocalDateTime();
+      }
+      writeCsvValue(writer, value == null ? "" : value.toString());
+    }
+    writer.write("\r\n");
+  }
+
+  private void writeCsvLine(Writer writer, List<String> values) throws IOException {
+    for (int i = 0; i < values.size(); i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      writeCsvValue(writer, values.get(i));
+    }
+    writer.write("\r\n");
+  }
+
+  private void writeCsvValue(Writer writer, String value) throws IOException {
+    boolean quote =
+        value.indexOf(',') >= 0
+            || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0
+            || value.indexOf('\r') >= 0;
+    if (!quote) {
+      writer.write(value);
+      return;
+    }
+    writer.write('"');
+    writer.write(value.replace("\"", "\"\""));
+    writer.write('"');
+  }
+
+  private static final class NonClosingOutputStream extends FilterOutputStream {
+    private NonClosingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      out.write(bytes, offset, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
+  }
+}
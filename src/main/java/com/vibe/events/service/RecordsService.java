@@ -1,15 +1,27 @@
 package com.vibe.events.service;
 
+import com.vibe.events.config.RecordsProperties;
+import com.vibe.events.dto.CountMode;
+import com.vibe.events.dto.EventRow;
+import com.vibe.events.dto.ExportFormat;
+import com.vibe.events.dto.FailureRow;
 import com.vibe.events.dto.PagedRowsResponse;
+import com.vibe.events.dto.SuccessRow;
 import com.vibe.events.error.BadRequestException;
 import com.vibe.events.registry.EventRegistry;
 import com.vibe.events.repo.RecordsRepository;
+import com.vibe.events.service.RecordCountService.CountResult;
+import com.vibe.events.util.PageCursor;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
 
 @Service
 public class RecordsService {
@@ -18,13 +30,24 @@ public class RecordsService {
 
   private final RecordsRepository repository;
   private final EventRegistry registry;
+  private final RecordCountService countService;
+  private final RecordsProperties properties;
+  private final ObjectMapper objectMapper;
 
-  public RecordsService(RecordsRepository repository, EventRegistry registry) {
+  public RecordsService(
+      RecordsRepository repository,
+      EventRegistry registry,
+      RecordCountService countService,
+      RecordsProperties properties,
+      ObjectMapper objectMapper) {
     this.repository = repository;
     this.registry = registry;
+    this.countService = countService;
+    this.properties = properties;
+    this.objectMapper = objectMapper;
   }
 
-  public PagedRowsResponse loadSuccessRows(
+  public PagedRowsResponse<SuccessRow> loadSuccessRows(
       LocalDate day,
       LocalDate fromDate,
       LocalDate toDate,
@@ -33,6 +56,8 @@ public class RecordsService {
       String eventKey,
       Integer page,
       Integer size,
+      String cursor,
+      String countMode,
       String traceId,
       String messageKey,
       String accountNumber,
@@ -42,19 +67,14 @@ public class RecordsService {
       Long receivedLatencyMax) {
     int resolvedSize = resolveSize(size);
     int resolvedPage = resolvePage(page);
-    int offset = resolvedPage * resolvedSize;
+    PageCursor pageCursor = PageCursor.decode(cursor);
+    int offset = pageCursor == null ? resolvedPage * resolvedSize : 0;
     String table = registry.successTable(eventKey);
     DateTimeRange range = resolveRange(day, fromDate, toDate, fromTime, toTime);
-    if (latencyMin != null && latencyMax != null && latencyMin > latencyMax) {
-      throw new BadRequestException("latencyMin cannot be greater than latencyMax.");
-    }
-    if (receivedLatencyMin != null
-        && receivedLatencyMax != null
-        && receivedLatencyMin > receivedLatencyMax) {
-      throw new BadRequestException("receivedLatencyMin cannot be greater than receivedLatencyMax.");
-    }
+    validateLatencyRanges(latencyMin, latencyMax, receivedLatencyMin, receivedLatencyMax);
 
-    List<Map<String, Object>> rows =
+    CountMode mode = CountMode.parse(countMode, properties.getDefaultCountMode());
+    List<SuccessRow> rows =
         repository.loadSuccessRows(
             table,
             range.startTimestamp(),
@@ -67,14 +87,11 @@ public class RecordsService {
             latencyMax,
             receivedLatencyMin,
             receivedLatencyMax,
+            pageCursor,
             offset,
-            resolvedSize);
-    long total =
-        repository.loadSuccessRowCount(
-            table,
-            range.startTimestamp(),
-            range.endTimestamp(),
-            range.endInclusive(),
+            resolvedSize + 1);
+    boolean filtered =
+        isFiltered(
             traceId,
             messageKey,
             accountNumber,
@@ -82,10 +99,54 @@ public class RecordsService {
             latencyMax,
             receivedLatencyMin,
             receivedLatencyMax);
-    return new PagedRowsResponse(resolvedPage, resolvedSize, total, rows);
+    CountResult count =
+        countService.count(
+            mode,
+            table,
+            range.startTimestamp(),
+            range.endTimestamp(),
+            range.endInclusive(),
+            filtered,
+            fingerprint(
+                table,
+                range,
+                traceId,
+                messageKey,
+                accountNumber,
+                latencyMin,
+                latencyMax,
+                receivedLatencyMin,
+                receivedLatencyMax),
+            () ->
+                repository.loadSuccessRowCount(
+                    table,
+                    range.startTimestamp(),
+                    range.endTimestamp(),
+                    range.endInclusive(),
+                    traceId,
+                    messageKey,
+                    accountNumber,
+                    latencyMin,
+                    latencyMax,
+                    receivedLatencyMin,
+                    receivedLatencyMax),
+            () ->
+                repository.estimateSuccessRowCount(
+                    table,
+                    range.startTimestamp(),
+                    range.endTimestamp(),
+                    range.endInclusive(),
+                    traceId,
+                    messageKey,
+                    accountNumber,
+                    latencyMin,
+                    latencyMax,
+                    receivedLatencyMin,
+                    receivedLatencyMax));
+    return toPage(resolvedPage, resolvedSize, count, rows);
   }
 
-  public PagedRowsResponse loadFailureRows(
+  public PagedRowsResponse<FailureRow> loadFailureRows(
       LocalDate day,
       LocalDate fromDate,
       LocalDate toDate,
@@ -94,6 +155,8 @@ public class RecordsService {
       String eventKey,
       Integer page,
       Integer size,
+      String cursor,
+      String countMode,
       String traceId,
       String messageKey,
       String accountNumber,
@@ -107,7 +170,8 @@ public class RecordsService {
       Integer retryAttemptMax) {
     int resolvedSize = resolveSize(size);
     int resolvedPage = resolvePage(page);
-    int offset = resolvedPage * resolvedSize;
+    PageCursor pageCursor = PageCursor.decode(cursor);
+    int offset = pageCursor == null ? resolvedPage * resolvedSize : 0;
 
     DateTimeRange range = resolveRange(day, fromDate, toDate, fromTime, toTime);
     if (retryAttemptMin != null
@@ -115,17 +179,11 @@ public class RecordsService {
         && retryAttemptMin > retryAttemptMax) {
       throw new BadRequestException("retryAttemptMin cannot be greater than retryAttemptMax.");
     }
-    if (latencyMin != null && latencyMax != null && latencyMin > latencyMax) {
-      throw new BadRequestException("latencyMin cannot be greater than latencyMax.");
-    }
-    if (receivedLatencyMin != null
-        && receivedLatencyMax != null
-        && receivedLatencyMin > receivedLatencyMax) {
-      throw new BadRequestException("receivedLatencyMin cannot be greater than receivedLatencyMax.");
-    }
+    validateLatencyRanges(latencyMin, latencyMax, receivedLatencyMin, receivedLatencyMax);
 
     String table = registry.failureTable(eventKey);
-    List<Map<String, Object>> rows =
+    CountMode mode = CountMode.parse(countMode, properties.getDefaultCountMode());
+    List<FailureRow> rows =
         repository.loadFailureRows(
             table,
             range.startTimestamp(),
@@ -142,26 +200,185 @@ public class RecordsService {
             retriable,
             retryAttemptMin,
             retryAttemptMax,
+            pageCursor,
             offset,
-            resolvedSize);
-    long total =
-        repository.loadFailureRowCount(
+            resolvedSize + 1);
+    boolean filtered =
+        isFiltered(
+                traceId,
+                messageKey,
+                accountNumber,
+                latencyMin,
+                latencyMax,
+                receivedLatencyMin,
+                receivedLatencyMax)
+            || isFiltered(exceptionType, retriable, retryAttemptMin, retryAttemptMax);
+    CountResult count =
+        countService.count(
+            mode,
             table,
             range.startTimestamp(),
             range.endTimestamp(),
             range.endInclusive(),
-            traceId,
-            messageKey,
-            accountNumber,
-            latencyMin,
-            latencyMax,
-            receivedLatencyMin,
-            receivedLatencyMax,
-            exceptionType,
-            retriable,
-            retryAttemptMin,
-            retryAttemptMax);
-    return new PagedRowsResponse(resolvedPage, resolvedSize, total, rows);
+            filtered,
+            fingerprint(
+                table,
+                range,
+                traceId,
+                messageKey,
+                accountNumber,
+                latencyMin,
+                latencyMax,
+                receivedLatencyMin,
+                receivedLatencyMax,
+                exceptionType,
+                retriable,
+                retryAttemptMin,
+                retryAttemptMax),
+            () ->
+                repository.loadFailureRowCount(
+                    table,
+                    range.startTimestamp(),
+                    range.endTimestamp(),
+                    range.endInclusive(),
+                    traceId,
+                    messageKey,
+                    accountNumber,
+                    latencyMin,
+                    latencyMax,
+                    receivedLatencyMin,
+                    receivedLatencyMax,
+                    exceptionType,
+                    retriable,
+                    retryAttemptMin,
+                    retryAttemptMax),
+            () ->
+                repository.estimateFailureRowCount(
+                    table,
+                    range.startTimestamp(),
+                    range.endTimestamp(),
+                    range.endInclusive(),
+                    traceId,
+                    messageKey,
+                    accountNumber,
+                    latencyMin,
+                    latencyMax,
+                    receivedLatencyMin,
+                    receivedLatencyMax,
+                    exceptionType,
+                    retriable,
+                    retryAttemptMin,
+                    retryAttemptMax));
+    return toPage(resolvedPage, resolvedSize, count, rows);
+  }
+
+  public RecordExport prepareSuccessExport(
+      LocalDate day,
+      LocalDate fromDate,
+      LocalDate toDate,
+      LocalTime fromTime,
+      LocalTime toTime,
+      String eventKey,
+      String format,
+      String columns,
+      boolean gzip,
+      String traceId,
+      String messageKey,
+      String accountNumber,
+      Long latencyMin,
+      Long latencyMax,
+      Long receivedLatencyMin,
+      Long receivedLatencyMax) {
+    String table = registry.successTable(eventKey);
+    DateTimeRange range = resolveRange(day, fromDate, toDate, fromTime, toTime);
+    validateLatencyRanges(latencyMin, latencyMax, receivedLatencyMin, receivedLatencyMax);
+    List<String> projection =
+        resolveColumns(
+            columns,
+            RecordsRepository.SUCCESS_EXPORT_COLUMNS,
+            RecordsRepository.SUCCESS_DEFAULT_EXPORT_COLUMNS);
+    return new RecordExport(
+        table,
+        ExportFormat.parse(format),
+        projection,
+        gzip,
+        objectMapper,
+        handler ->
+            repository.streamSuccessRows(
+                table,
+                range.startTimestamp(),
+                range.endTimestamp(),
+                range.endInclusive(),
+                traceId,
+                messageKey,
+                accountNumber,
+                latencyMin,
+                latencyMax,
+                receivedLatencyMin,
+                receivedLatencyMax,
+                projection,
+                handler));
+  }
+
+  public RecordExport prepareFailureExport(
+      LocalDate day,
+      LocalDate fromDate,
+      LocalDate toDate,
+      LocalTime fromTime,
+      LocalTime toTime,
+      String eventKey,
+      String format,
+      String columns,
+      boolean gzip,
+      String traceId,
+      String messageKey,
+      String accountNumber,
+      Long latencyMin,
+      Long latencyMax,
+      Long receivedLatencyMin,
+      Long receivedLatencyMax,
+      String exceptionType,
+      Boolean retriable,
+      Integer retryAttemptMin,
+      Integer retryAttemptMax) {
+    String table = registry.failureTable(eventKey);
+    DateTimeRange range = resolveRange(day, fromDate, toDate, fromTime, toTime);
+    if (retryAttemptMin != null
+        && retryAttemptMax != null
+        && retryAttemptMin > retryAttemptMax) {
+      throw new BadRequestException("retryAttemptMin cannot be greater than retryAttemptMax.");
+    }
+    validateLatencyRanges(latencyMin, latencyMax, receivedLatencyMin, receivedLatencyMax);
+    List<String> projection =
+        resolveColumns(
+            columns,
+            RecordsRepository.FAILURE_EXPORT_COLUMNS,
+            RecordsRepository.FAILURE_DEFAULT_EXPORT_COLUMNS);
+    return new RecordExport(
+        table,
+        ExportFormat.parse(format),
+        projection,
+        gzip,
+        objectMapper,
+        handler ->
+            repository.streamFailureRows(
+                table,
+                range.startTimestamp(),
+                range.endTimestamp(),
+                range.endInclusive(),
+                traceId,
+                messageKey,
+                accountNumber,
+                latencyMin,
+                latencyMax,
+                receivedLatencyMin,
+                receivedLatencyMax,
+                exceptionType,
+                retriable,
+                retryAttemptMin,
+                retryAttemptMax,
+                projection,
+                handler));
   }
 
   public List<String> loadFailureExceptionTypes(
@@ -220,6 +437,82 @@ public class RecordsService {
   private record DateTimeRange(
       LocalDateTime startTimestamp, LocalDateTime endTimestamp, boolean endInclusive) {}
 
+  private void validateLatencyRanges(
+      Long latencyMin, Long latencyMax, Long receivedLatencyMin, Long receivedLatencyMax) {
+    if (latencyMin != null && latencyMax != null && latencyMin > latencyMax) {
+      throw new BadRequestException("latencyMin cannot be greater than latencyMax.");
+    }
+    if (receivedLatencyMin != null
+        && receivedLatencyMax != null
+        && receivedLatencyMin > receivedLatencyMax) {
+      throw new BadRequestException(
+          "receivedLatencyMin cannot be greater than receivedLatencyMax.");
+    }
+  }
+
+  private List<String> resolveColumns(
+      String columns, List<String> allowed, List<String> defaults) {
+    if (columns == null || columns.isBlank()) {
+      return defaults;
+    }
+    Set<String> resolved = new LinkedHashSet<>();
+    for (String column : columns.split(",")) {
+      String normalized = column.trim().toLowerCase(Locale.ROOT);
+      if (normalized.isEmpty()) {
+        continue;
+      }
+      if (!allowed.contains(normalized)) {
+        throw new BadRequestException("Unknown export column: " + column.trim() + ".");
+      }
+      resolved.add(normalized);
+    }
+    if (resolved.isEmpty()) {
+      return defaults;
+    }
+    return List.copyOf(resolved);
+  }
+
+  private <T extends EventRow> PagedRowsResponse<T> toPage(
+      int page, int size, CountResult count, List<T> rows) {
+    boolean hasMore = rows.size() > size;
+    List<T> pageRows = hasMore ? rows.subList(0, size) : rows;
+    String nextCursor =
+        hasMore ? PageCursor.nextCursor(pageRows.get(pageRows.size() - 1)) : null;
+    return new PagedRowsResponse<>(
+        page,
+        size,
+        count.total(),
+        count.approximate(),
+        count.mode(),
+        hasMore,
+        pageRows,
+        nextCursor);
+  }
+
+  private boolean isFiltered(Object... filters) {
+    for (Object filter : filters) {
+      if (filter instanceof String value ? !value.isBlank() : filter != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private String fingerprint(String table, DateTimeRange range, Object... filters) {
+    StringBuilder fingerprint =
+        new StringBuilder(table)
+            .append('|')
+            .append(range.startTimestamp())
+            .append('|')
+            .append(range.endTimestamp())
+            .append('|')
+            .append(range.endInclusive());
+    for (Object filter : filters) {
+      fingerprint.append('|').append(filter);
+    }
+    return fingerprint.toString();
+  }
+
   private int resolvePage(Integer page) {
     int resolved = page == null ? 0 : page;
     if (resolved < 0) {
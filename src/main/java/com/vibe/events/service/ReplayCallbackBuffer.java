@@ -0,0 +1,414 @@
+package com.vibe.events.service;
+
+import com.vibe.events.config.ReplayProperties;
+import com.vibe.events.error.OverloadedException;
+import com.vibe.events.repo.ReplayAuditRepository;
+import com.vibe.events.repo.ReplayAuditRepository.ReplayItemUpdate;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+@Component
+public class ReplayCallbackBuffer implements SmartLifecycle {
+  private static final Logger log = LoggerFactory.getLogger(ReplayCallbackBuffer.class);
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+
+  private final ReplayAuditRepository auditRepository;
+  private final ObjectMapper objectMapper;
+  private final ReplayProperties.Callbacks properties;
+  private final ReentrantLock lock = new ReentrantLock();
+  // Held for a whole flush, so an older snapshot never commits after a newer one.
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private final Condition notFull = lock.newCondition();
+  private final Condition flushNeeded = lock.newCondition();
+  private final List<Path> sealedSegments = new ArrayList<>();
+  private final AtomicLong coalesced = new AtomicLong();
+  private Map<ItemKey, ReplayItemUpdate> pending = new LinkedHashMap<>();
+  private Path activeSegment;
+  private FileChannel activeChannel;
+  private long activeBytes;
+  private long unsyncedBytes;
+  private long nextSegment;
+  private Thread flusher;
+  private volatile boolean running;
+
+  public ReplayCallbackBuffer(
+      ReplayAuditRepository auditRepository,
+      ObjectMapper objectMapper,
+      ReplayProperties properties) {
+    this.auditRepository = auditRepository;
+    this.objectMapper = objectMapper;
+    this.properties = properties.getCallbacks();
+  }
+
+  public void append(List<ReplayItemUpdate> updates) {
+    if (updates == null || updates.isEmpty()) {
+      return;
+    }
+    if (!running) {
+      auditRepository.updateItemStatuses(updates);
+      return;
+    }
+    lock.lock();
+    try {
+      long remaining = TimeUnit.MILLISECONDS.toNanos(properties.getOfferTimeoutMs());
+      while (running
+          && !pending.isEmpty()
+          && pending.size() + updates.size() > properties.getMaxPending()) {
+        if (remaining <= 0) {
+          throw new OverloadedException(
+              "Replay callback buffer is full, retry later.",
+              Math.max(1, TimeUnit.MILLISECONDS.toSeconds(properties.getFlushIntervalMs())));
+        }
+        flushNeeded.signal();
+        remaining = notFull.awaitNanos(remaining);
+      }
+      // stop() may have closed the log since the unlocked check above.
+      if (!running || activeChannel == null) {
+        auditRepository.updateItemStatuses(updates);
+        return;
+      }
+      writeToLog(updates);
+      for (ReplayItemUpdate update : updates) {
+        if (pending.put(new ItemKey(update.jobId(), update.recordId()), update) != null) {
+          coalesced.incrementAndGet();
+        }
+      }
+      if (pending.size() >= properties.getFlushSize()) {
+        flushNeeded.signal();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new OverloadedException("Interrupted while waiting for replay callback buffer.", 1);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int pendingCount() {
+    lock.lock();
+    try {
+      return pending.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void start() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    lock.lock();
+    try {
+      Path directory = Path.of(properties.getLogDir());
+      Files.createDirectories(directory);
+      recover(directory);
+      openSegment(directory);
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Unable to open replay callback log", ex);
+    } finally {
+      lock.unlock();
+    }
+    running = true;
+    flusher = new Thread(this::runFlusher, "replay-callback-flusher");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  @Override
+  public void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    lock.lock();
+    try {
+      flushNeeded.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    try {
+      flusher.join(properties.getStopWaitMs());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    // Waits for a flush the flusher may still be running before writing what is left.
+    flush();
+    lock.lock();
+    try {
+      closeActive();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  // Stops after the web server's graceful shutdown (DEFAULT_PHASE - 2048) has drained the
+  // callback requests still in flight.
+  @Override
+  public int getPhase() {
+    return Integer.MAX_VALUE - 4096;
+  }
+
+  private void runFlusher() {
+    while (running) {
+      syncLog();
+      awaitWork();
+      if (!flush()) {
+        sleepQuietly(properties.getFlushIntervalMs());
+      }
+    }
+  }
+
+  private void awaitWork() {
+    lock.lock();
+    try {
+      if (running && pending.size() < properties.getFlushSize()) {
+        flushNeeded.await(properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean flush() {
+    flushLock.lock();
+    try {
+      return flushPending();
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private boolean flushPending() {
+    Map<ItemKey, ReplayItemUpdate> snapshot;
+    List<Path> segments;
+    lock.lock();
+    try {
+      if (pending.isEmpty()) {
+        return true;
+      }
+      snapshot = pending;
+      pending = new LinkedHashMap<>();
+      sealActive();
+      segments = new ArrayList<>(sealedSegments);
+    } finally {
+      lock.unlock();
+    }
+
+    long start = System.currentTimeMillis();
+    try {
+      auditRepository.updateItemStatuses(new ArrayList<>(snapshot.values()));
+    } catch (RuntimeException ex) {
+      log.warn("Replay callback flush of {} updates failed, will retry", snapshot.size(), ex);
+      lock.lock();
+      try {
+        snapshot.forEach(pending::putIfAbsent);
+      } finally {
+        lock.unlock();
+      }
+      return false;
+    }
+
+    lock.lock();
+    try {
+      sealedSegments.removeAll(segments);
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    for (Path segment : segments) {
+      try {
+        Files.deleteIfExists(segment);
+      } catch (IOException ex) {
+        log.warn("Unable to delete replay callback segment {}", segment, ex);
+      }
+    }
+    log.info(
+        "Flushed {} replay callback updates ({} coalesced) in {}ms",
+        snapshot.size(),
+        coalesced.getAndSet(0),
+        System.currentTimeMillis() - start);
+    return true;
+  }
+
+  private void writeToLog(List<ReplayItemUpdate> updates) {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    for (ReplayItemUpdate update : updates) {
+      buffer.writeBytes(objectMapper.writeValueAsBytes(update));
+      buffer.write('\n');
+    }
+    try {
+      ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+      while (bytes.hasRemaining()) {
+        activeChannel.write(bytes);
+      }
+      activeBytes += buffer.size();
+      unsyncedBytes += buffer.size();
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Unable to append to replay callback log", ex);
+    }
+  }
+
+  /**
+   * Group commit: appends only write to the log and the flusher forces it once per flush
+   * interval, so a process crash loses nothing and an OS crash at most one interval of callbacks.
+   */
+  private void syncLog() {
+    lock.lock();
+    try {
+      forceActive();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void forceActive() {
+    if (!properties.isFsync() || activeChannel == null || unsyncedBytes == 0) {
+      return;
+    }
+    try {
+      activeChannel.force(false);
+      unsyncedBytes = 0;
+    } catch (IOException ex) {
+      log.warn("Unable to sync replay callback segment {}", activeSegment, ex);
+    }
+  }
+
+  private void recover(Path directory) throws IOException {
+    List<Path> segments;
+    try (Stream<Path> files = Files.list(directory)) {
+      segments =
+          files
+              .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+              .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+              .sorted()
+              .toList();
+    }
+    int recovered = 0;
+    for (Path segment : segments) {
+      int entries = 0;
+      try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (line.isBlank()) {
+            continue;
+          }
+          try {
+            ReplayItemUpdate update = objectMapper.readValue(line, ReplayItemUpdate.class);
+            pending.put(new ItemKey(update.jobId(), update.recordId()), update);
+            entries += 1;
+          } catch (JacksonException ex) {
+            log.warn("Skipping unreadable replay callback entry in {}", segment);
+          }
+        }
+      }
+      nextSegment = Math.max(nextSegment, segmentNumber(segment) + 1);
+      if (entries == 0) {
+        Files.deleteIfExists(segment);
+        continue;
+      }
+      sealedSegments.add(segment);
+      recovered += entries;
+    }
+    if (recovered > 0) {
+      log.info(
+          "Recovered {} replay callback updates from {} segments", recovered, segments.size());
+    }
+  }
+
+  private void sealActive() {
+    if (activeBytes == 0) {
+      return;
+    }
+    Path directory = activeSegment.getParent();
+    closeActive();
+    sealedSegments.add(activeSegment);
+    try {
+      openSegment(directory);
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Unable to roll replay callback log", ex);
+    }
+  }
+
+  private void openSegment(Path directory) throws IOException {
+    activeSegment =
+        directory.resolve(
+            String.format("%s%020d%s", SEGMENT_PREFIX, nextSegment, SEGMENT_SUFFIX));
+    nextSegment += 1;
+    activeChannel =
+        FileChannel.open(
+            activeSegment,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+    activeBytes = 0;
+    unsyncedBytes = 0;
+  }
+
+  private void closeActive() {
+    if (activeChannel == null) {
+      return;
+    }
+    forceActive();
+    try {
+      activeChannel.close();
+      if (activeBytes == 0) {
+        Files.deleteIfExists(activeSegment);
+      }
+    } catch (IOException ex) {
+      log.warn("Unable to close replay callback segment {}", activeSegment, ex);
+    }
+    activeChannel = null;
+  }
+
+  private long segmentNumber(Path segment) {
+    String name = segment.getFileName().toString();
+    try {
+      return Long.parseLong(
+          name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    } catch (NumberFormatException ex) {
+      return 0;
+    }
+  }
+
+  private void sleepQuietly(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private record ItemKey(String jobId, long recordId) {}
+}
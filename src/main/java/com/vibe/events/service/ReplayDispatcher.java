@@ -0,0 +1,260 @@
+package com.vibe.events.service;
+
+import com.vibe.events.config.ReplayProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReplayDispatcher {
+  private static final Logger log = LoggerFactory.getLogger(ReplayDispatcher.class);
+  private static final double LATENCY_SMOOTHING = 0.2;
+
+  private final ThreadPoolTaskExecutor executor;
+  private final ReplayProperties.Dispatch properties;
+  private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+  private final MeterRegistry meterRegistry;
+
+  public ReplayDispatcher(
+      @Qualifier("replayDispatchExecutor") ThreadPoolTaskExecutor executor,
+      ReplayProperties properties,
+      MeterRegistry meterRegistry) {
+    this.executor = executor;
+    this.properties = properties.getDispatch();
+    this.meterRegistry = meterRegistry;
+  }
+
+  public <R> List<R> dispatch(String eventKey, List<Long> ids, BatchSender<R> sender) {
+    if (ids == null || ids.isEmpty()) {
+      return List.of();
+    }
+    long start = System.currentTimeMillis();
+    Lane lane =
+        lanes.computeIfAbsent(
+            eventKey,
+            key -> new Lane(properties, meters(key, "success"), meters(key, "error")));
+    List<CompletableFuture<R>> futures = new ArrayList<>();
+    int index = 0;
+    while (index < ids.size()) {
+      long epoch;
+      try {
+        epoch = lane.acquire();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        futures.add(
+            CompletableFuture.completedFuture(
+                sender.onError(List.copyOf(ids.subList(index, ids.size())), ex)));
+        break;
+      }
+      int size = Math.min(lane.batchSize(), ids.size() - index);
+      List<Long> batch = List.copyOf(ids.subList(index, index + size));
+      index += size;
+      try {
+        futures.add(CompletableFuture.supplyAsync(() -> send(lane, epoch, batch, sender), executor));
+      } catch (RejectedExecutionException ex) {
+        lane.cancel();
+        futures.add(CompletableFuture.completedFuture(sender.onError(batch, ex)));
+      }
+    }
+
+    List<R> results = new ArrayList<>(futures.size());
+    for (CompletableFuture<R> future : futures) {
+      results.add(future.join());
+    }
+    log.info(
+        "Dispatched {} ids for {} in {} batches in {}ms (window {}, batch size {})",
+        ids.size(),
+        eventKey,
+        futures.size(),
+        System.currentTimeMillis() - start,
+        lane.limit(),
+        lane.batchSize());
+    return results;
+  }
+
+  public LaneStatus status(String eventKey) {
+    Lane lane = lanes.get(eventKey);
+    return lane == null ? null : lane.status();
+  }
+
+  private <R> R send(Lane lane, long epoch, List<Long> batch, BatchSender<R> sender) {
+    long start = System.nanoTime();
+    try {
+      R result = sender.send(batch);
+      long elapsedNanos = System.nanoTime() - start;
+      lane.release(epoch, elapsedNanos / 1_000_000, false);
+      lane.success.record(batch.size(), elapsedNanos);
+      return result;
+    } catch (Exception ex) {
+      long elapsedNanos = System.nanoTime() - start;
+      lane.release(epoch, elapsedNanos / 1_000_000, true);
+      lane.error.record(batch.size(), elapsedNanos);
+      log.warn("Replay batch of {} ids failed: {}", batch.size(), ex.toString());
+      return sender.onError(batch, ex);
+    }
+  }
+
+  private BatchMeters meters(String eventKey, String outcome) {
+    return new BatchMeters(
+        Timer.builder("replay.batch")
+            .description("Round-trip time of a replay batch to the downstream service")
+            .tags("event", eventKey, "outcome", outcome)
+            .register(meterRegistry),
+        Counter.builder("replay.ids")
+            .description("Ids sent to the downstream replay service")
+            .tags("event", eventKey, "outcome", outcome)
+            .register(meterRegistry));
+  }
+
+  public interface BatchSender<R> {
+    R send(List<Long> batch) throws Exception;
+
+    R onError(List<Long> batch, Exception error);
+  }
+
+  public record LaneStatus(int limit, int inFlight, int batchSize, double latencyMs) {}
+
+  private record BatchMeters(Timer timer, Counter ids) {
+    private void record(int size, long elapsedNanos) {
+      timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+      ids.increment(size);
+    }
+  }
+
+  /**
+   * AIMD window per event key. Every batch carries the epoch it was sent in; a congestion signal
+   * only halves the window when it comes from the current epoch and then starts a new one, so a
+   * burst of failures from batches already in flight counts as a single decrease.
+   */
+  private static final class Lane {
+    private final ReplayProperties.Dispatch properties;
+    private final BatchMeters success;
+    private final BatchMeters error;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFree = lock.newCondition();
+    private int limit;
+    private int inFlight;
+    private int batchSize;
+    private int healthyStreak;
+    private double latencyMs;
+    private long epoch;
+
+    private Lane(ReplayProperties.Dispatch properties, BatchMeters success, BatchMeters error) {
+      this.properties = properties;
+      this.success = success;
+      this.error = error;
+      this.limit = clamp(properties.getInitialConcurrency(), 1, maxConcurrency());
+      this.batchSize =
+          clamp(properties.getInitialBatchSize(), minBatchSize(), maxBatchSize());
+    }
+
+    private long acquire() throws InterruptedException {
+      lock.lock();
+      try {
+        while (inFlight >= limit) {
+          slotFree.await();
+        }
+        inFlight += 1;
+        return epoch;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void release(long sentEpoch, long elapsedMs, boolean failed) {
+      lock.lock();
+      try {
+        inFlight -= 1;
+        latencyMs =
+            latencyMs == 0
+                ? elapsedMs
+                : latencyMs + LATENCY_SMOOTHING * (elapsedMs - latencyMs);
+        if (failed || latencyMs > properties.getTargetLatencyMs()) {
+          if (sentEpoch == epoch) {
+            limit = Math.max(1, limit / 2);
+            batchSize = Math.max(minBatchSize(), batchSize / 2);
+            epoch += 1;
+          }
+          healthyStreak = 0;
+        } else {
+          batchSize = Math.min(maxBatchSize(), batchSize + minBatchSize());
+          healthyStreak += 1;
+          if (healthyStreak >= limit) {
+            limit = Math.min(maxConcurrency(), limit + 1);
+            healthyStreak = 0;
+          }
+        }
+        slotFree.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void cancel() {
+      lock.lock();
+      try {
+        inFlight -= 1;
+        slotFree.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private int limit() {
+      lock.lock();
+      try {
+        return limit;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private int batchSize() {
+      lock.lock();
+      try {
+        return batchSize;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private LaneStatus status() {
+      lock.lock();
+      try {
+        return new LaneStatus(limit, inFlight, batchSize, latencyMs);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private int maxConcurrency() {
+      return Math.max(1, properties.getMaxConcurrency());
+    }
+
+    private int minBatchSize() {
+      return Math.max(1, properties.getMinBatchSize());
+    }
+
+    private int maxBatchSize() {
+      return Math.max(minBatchSize(), properties.getMaxBatchSize());
+    }
+
+    private static int clamp(int value, int min, int max) {
+      return Math.max(min, Math.min(max, value));
+    }
+  }
+}
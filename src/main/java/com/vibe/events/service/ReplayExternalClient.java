@@ -1,9 +1,13 @@
 package com.vibe.events.service;
 
+import com.vibe.events.config.ReplayProperties;
 import com.vibe.events.dto.ReplayExternalRequest;
 import com.vibe.events.dto.ReplayExternalResponse;
+import java.net.http.HttpClient;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
@@ -11,8 +15,12 @@ import org.springframework.web.client.RestClient;
 public class ReplayExternalClient {
   private final RestClient restClient;
 
-  public ReplayExternalClient() {
-    this.restClient = RestClient.builder().build();
+  public ReplayExternalClient(ReplayProperties properties) {
+    Duration timeout = Duration.ofMillis(properties.getDispatch().getRequestTimeoutMs());
+    JdkClientHttpRequestFactory requestFactory =
+        new JdkClientHttpRequestFactory(HttpClient.newBuilder().connectTimeout(timeout).build());
+    requestFactory.setReadTimeout(timeout);
+    this.restClient = RestClient.builder().requestFactory(requestFactory).build();
   }
 
   public ReplayExternalResponse replay(String replayUrl, ReplayExternalRequest request) {
@@ -1,5 +1,8 @@
 package com.vibe.events.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vibe.events.config.ReplayProperties;
 import com.vibe.events.dto.ReplayAuditResponse;
 import com.vibe.events.dto.ReplayExternalRequest;
 import com.vibe.events.dto.ReplayExternalResponse;
@@ -8,20 +11,29 @@ import com.vibe.events.dto.ReplayFilterRequest;
 import com.vibe.events.dto.ReplayFilters;
 import com.vibe.events.dto.ReplayJobItemsResponse;
 import com.vibe.events.dto.ReplayJobListResponse;
+import com.vibe.events.dto.ReplayJobProgressResponse;
 import com.vibe.events.dto.ReplayItemUpdateRequest;
 import com.vibe.events.dto.ReplayItemUpdateRow;
 import com.vibe.events.dto.ReplayJobResponse;
 import com.vibe.events.dto.ReplayRequest;
 import com.vibe.events.dto.ReplayResponse;
 import com.vibe.events.error.BadRequestException;
+import com.vibe.events.error.NotFoundException;
+import com.vibe.events.error.OverloadedException;
 import com.vibe.events.registry.EventRegistry;
 import com.vibe.events.repo.ReplayAuditRepository;
 import com.vibe.events.repo.ReplayAuditRepository.ReplayItemRecord;
+import com.vibe.events.repo.ReplayAuditRepository.ReplayJobCheckpoint;
 import com.vibe.events.repo.ReplayAuditRepository.ReplayItemUpdate;
 import com.vibe.events.repo.ReplayAuditRepository.ReplayJobRecord;
+import com.vibe.events.repo.ReplayAuditRepository.ReplayJobStateRow;
 import com.vibe.events.repo.ReplayAuditRepository.ReplayJobUpdate;
 import com.vibe.events.repo.RecordsRepository;
+import com.vibe.events.repo.RecordsRepository.ReplayRow;
+import com.vibe.events.repo.ReplayStatsRepository;
 import com.vibe.events.util.DayValidator;
+import com.vibe.events.util.PageCursor;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -33,12 +45,21 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
 
 @Service
-public class ReplayService {
+public class ReplayService implements SmartLifecycle {
   private static final Logger log = LoggerFactory.getLogger(ReplayService.class);
   private static final int MAX_IDS = 50;
   private static final String REQUESTED_BY = "event-monitor-service";
@@ -53,21 +74,50 @@ public class ReplayService {
   private static final String ITEM_STATUS_NOT_FOUND = "NOT_FOUND";
   private static final int DEFAULT_SIZE = 50;
   private static final int MAX_SIZE = 200;
+  private static final String SELECTION_FILTERS = "filters";
+  private static final String FACET_OPERATORS = "operators";
+  private static final String FACET_EVENT_KEYS = "eventKeys";
 
   private final EventRegistry registry;
   private final RecordsRepository repository;
   private final ReplayExternalClient externalClient;
+  private final ReplayDispatcher dispatcher;
+  private final ReplayCallbackBuffer callbackBuffer;
   private final ReplayAuditRepository auditRepository;
+  private final ReplayStatsRepository statsRepository;
+  private final ReplayProperties properties;
+  private final ObjectMapper objectMapper;
+  private final ThreadPoolTaskExecutor replayExecutor;
+  private final Cache<String, List<String>> facets;
+  private final String leaseOwner = UUID.randomUUID().toString();
+  private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+  private volatile boolean running;
 
   public ReplayService(
       EventRegistry registry,
       RecordsRepository repository,
       ReplayExternalClient externalClient,
-      ReplayAuditRepository auditRepository) {
+      ReplayDispatcher dispatcher,
+      ReplayCallbackBuffer callbackBuffer,
+      ReplayAuditRepository auditRepository,
+      ReplayStatsRepository statsRepository,
+      ReplayProperties properties,
+      ObjectMapper objectMapper,
+      @Qualifier("replayExecutor") ThreadPoolTaskExecutor replayExecutor) {
     this.registry = registry;
     this.repository = repository;
     this.externalClient = externalClient;
+    this.dispatcher = dispatcher;
+    this.callbackBuffer = callbackBuffer;
     this.auditRepository = auditRepository;
+    this.statsRepository = statsRepository;
+    this.properties = properties;
+    this.facets =
+        Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(properties.getFacetCacheTtlMs()))
+            .build();
+    this.objectMapper = objectMapper;
+    this.replayExecutor = replayExecutor;
   }
 
   public ReplayResponse replay(ReplayRequest request) {
@@ -115,27 +165,9 @@ public class ReplayService {
     }
     LocalDate day = DayValidator.parseDay(request.day());
     String eventKey = request.eventKey();
-    String replayUrl = registry.replayUrl(eventKey);
+    registry.replayUrl(eventKey);
 
-    ReplayFilters filters =
-        request.filters() == null
-            ? new ReplayFilters(
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null)
-            : request.filters();
+    ReplayFilters filters = request.filters() == null ? emptyFilters() : request.filters();
 
     DateTimeRange range =
         resolveRange(
@@ -149,67 +181,292 @@ public class ReplayService {
     validateLatencyBounds(
         filters.receivedLatencyMin(), filters.receivedLatencyMax(), "receivedLatency");
 
-    String failureTable = registry.failureTable(eventKey);
-    long total =
-        repository.loadFailureRowCount(
-            failureTable,
-            range.startTimestamp(),
-            range.endTimestamp(),
-            range.endInclusive(),
-            filters.traceId(),
-            filters.messageKey(),
-            filters.accountNumber(),
-            filters.latencyMin(),
-            filters.latencyMax(),
-            filters.receivedLatencyMin(),
-            filters.receivedLatencyMax(),
-            filters.exceptionType(),
-            filters.retriable(),
-            filters.retryAttemptMin(),
-            filters.retryAttemptMax());
-
-    List<Map<String, Object>> rows =
-        repository.loadFailureRowsForReplay(
-            failureTable,
-            range.startTimestamp(),
-            range.endTimestamp(),
-            range.endInclusive(),
-            filters.traceId(),
-            filters.messageKey(),
-            filters.accountNumber(),
-            filters.latencyMin(),
-            filters.latencyMax(),
-            filters.receivedLatencyMin(),
-            filters.receivedLatencyMax(),
-            filters.exceptionType(),
-            filters.retriable(),
-            filters.retryAttemptMin(),
-            filters.retryAttemptMax());
-
-    ExtractedIds extracted = extractIds(rows);
-    Map<Long, Map<String, Object>> detailById = mapRowsById(rows);
-    String filtersJson = toFiltersJson(filters);
     String jobId =
         createReplayJob(
-            eventKey, day, "filters", filtersJson, (int) total, LocalDateTime.now());
-    insertReplayItems(jobId, eventKey, extracted.ids(), List.of(), false, detailById);
+            eventKey, day, SELECTION_FILTERS, toFiltersJson(filters), 0, LocalDateTime.now());
+    try {
+      submitFilterJob(jobId);
+    } catch (TaskRejectedException ex) {
+      auditRepository.failJob(jobId, "Replay job queue is full", LocalDateTime.now());
+      throw new OverloadedException("Too many replay jobs are queued; retry later.", 30);
+    }
+    return new ReplayJobResponse(jobId, JOB_STATUS_RUNNING, 0, 0, 0, List.of(), Instant.now());
+  }
 
-    ReplayResult result = sendReplayBatches(jobId, replayUrl, extracted.ids());
-    List<Long> failedIds = new ArrayList<>(extracted.invalidIds());
-    failedIds.addAll(result.failedIds());
-    int failed = failedIds.size();
-    int succeeded = extracted.ids().size() - result.failedIds().size();
-    int queued = Math.max(0, extracted.ids().size() - succeeded - failed);
-    String status = resolveJobStatus(extracted.ids().size(), succeeded, failed);
-    updateReplayJob(jobId, (int) total, succeeded, failed, queued, status, LocalDateTime.now());
-    return new ReplayJobResponse(
-        jobId,
-        status,
-        (int) total,
-        succeeded,
-        failed,
-        failedIds,
-        Instant.now());
+  public ReplayJobProgressResponse getReplayJobProgress(String replayId) {
+    if (replayId == null || replayId.isBlank()) {
+      throw new BadRequestException("replayId is required.");
+    }
+    ReplayJobStateRow job =
+        auditRepository
+            .loadJobState(replayId)
+            .orElseThrow(() -> new NotFoundException("Replay job not found: " + replayId));
+    Double percentComplete =
+        job.totalRequested() > 0
+            ? Math.min(100.0, job.processedCount() * 100.0 / job.totalRequested())
+            : JOB_STATUS_RUNNING.equals(job.status()) ? null : 100.0;
+    String checkpoint =
+        job.checkpointEventDatetime() == null || job.checkpointRecordId() == null
+            ? null
+            : new PageCursor(job.checkpointEventDatetime(), job.checkpointRecordId()).encode();
+    return new ReplayJobProgressResponse(
+        job.id(),
+        job.eventKey(),
+        job.status(),
+        job.totalRequested(),
+        job.processedCount(),
+        job.succeededCount(),
+        job.failedCount(),
+        job.queuedCount(),
+        percentComplete,
+        checkpoint,
+        job.lastError(),
+        job.createdAt(),
+        job.updatedAt(),
+        job.completedAt());
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void resumeFilterJobs() {
+    resumeOrphanedJobs();
+  }
+
+  /**
+   * Resubmits RUNNING filter jobs that no instance holds a live lease on: jobs paused by a
+   * shutdown, or left behind by an instance that died. The lease claim in {@link #runFilterJob}
+   * keeps two instances from running the same job.
+   */
+  @Scheduled(
+      initialDelayString = "${replay.leaseMs:300000}",
+      fixedDelayString = "${replay.leaseMs:300000}")
+  public void resumeOrphanedJobs() {
+    if (!properties.isResumeOnStartup() || !running) {
+      return;
+    }
+    try {
+      List<String> jobIds =
+          auditRepository.loadResumableJobIds(SELECTION_FILTERS, LocalDateTime.now());
+      int resumed = 0;
+      for (String jobId : jobIds) {
+        if (activeJobs.contains(jobId)) {
+          continue;
+        }
+        submitFilterJob(jobId);
+        resumed += 1;
+      }
+      if (resumed > 0) {
+        log.info("Resumed {} replay jobs", resumed);
+      }
+    } catch (TaskRejectedException ex) {
+      log.warn("Replay job queue is full; remaining jobs resume on the next sweep");
+    } catch (RuntimeException ex) {
+      log.warn("Unable to resume running replay jobs", ex);
+    }
+  }
+
+  @Override
+  public void start() {
+    running = true;
+  }
+
+  // Filter jobs notice this at their next batch or page boundary and pause for resume.
+  @Override
+  public void stop() {
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void submitFilterJob(String jobId) {
+    replayExecutor.execute(() -> runFilterJob(jobId));
+  }
+
+  private void runFilterJob(String jobId) {
+    if (!running || !activeJobs.add(jobId)) {
+      return;
+    }
+    try {
+      LocalDateTime now = LocalDateTime.now();
+      if (auditRepository.claimJob(jobId, leaseOwner, now, leaseUntil(now))) {
+        runClaimedJob(jobId);
+      }
+    } finally {
+      activeJobs.remove(jobId);
+    }
+  }
+
+  private void runClaimedJob(String jobId) {
+    long start = System.currentTimeMillis();
+    try {
+      ReplayJobStateRow job = auditRepository.loadJobState(jobId).orElse(null);
+      if (job == null || !JOB_STATUS_RUNNING.equals(job.status())) {
+        return;
+      }
+      ReplayFilters filters = parseFilters(job.filtersJson());
+      DateTimeRange range =
+          resolveRange(
+              job.day(),
+              filters.fromDate(),
+              filters.toDate(),
+              filters.fromTime(),
+              filters.toTime());
+      String eventKey = job.eventKey();
+      String replayUrl = registry.replayUrl(eventKey);
+      String failureTable = registry.failureTable(eventKey);
+
+      if (job.checkpointRecordId() == null) {
+        int total = (int) countFilterRows(failureTable, range, filters);
+        auditRepository.updateJobTotal(jobId, total, LocalDateTime.now());
+      }
+      Map<String, Integer> itemCounts = auditRepository.loadItemStatusCounts(jobId);
+      int succeeded = itemCounts.getOrDefault(ITEM_STATUS_REPLAYED, 0);
+      int failed = itemCounts.getOrDefault(ITEM_STATUS_FAILED, 0);
+      PageCursor cursor =
+          job.checkpointRecordId() == null
+              ? null
+              : new PageCursor(job.checkpointEventDatetime(), job.checkpointRecordId());
+      int pageSize = Math.max(1, properties.getJobPageSize());
+
+      while (true) {
+        if (!running) {
+          pauseJob(jobId, cursor);
+          return;
+        }
+        List<ReplayRow> rows = loadFilterPage(failureTable, range, filters, cursor, pageSize);
+        if (rows.isEmpty()) {
+          break;
+        }
+        List<Long> rowIds = extractIds(rows);
+        Map<Long, String> existing = auditRepository.loadItemStatuses(jobId, rowIds);
+        List<Long> missing = new ArrayList<>();
+        List<Long> pending = new ArrayList<>();
+        for (Long id : rowIds) {
+          String status = existing.get(id);
+          if (status == null) {
+            missing.add(id);
+          }
+          if (status == null || ITEM_STATUS_QUEUED.equals(status)) {
+            pending.add(id);
+          }
+        }
+        insertReplayItems(jobId, eventKey, missing, List.of(), false, mapRowsById(rows));
+        ReplayResult result = sendReplayBatches(jobId, eventKey, replayUrl, pending, true);
+        succeeded += result.succeeded();
+        failed += result.failed();
+        if (result.deferred() > 0) {
+          // Part of the page is still QUEUED; keep the cursor before it so resume resends it.
+          pauseJob(jobId, cursor);
+          return;
+        }
+
+        ReplayRow lastRow = rows.get(rows.size() - 1);
+        cursor = new PageCursor(lastRow.eventDatetime(), lastRow.id());
+        LocalDateTime now = LocalDateTime.now();
+        boolean leased =
+            auditRepository.checkpointJob(
+                new ReplayJobCheckpoint(
+                    jobId,
+                    succeeded + failed,
+                    cursor.eventDatetime(),
+                    cursor.id(),
+                    now,
+                    leaseOwner,
+                    leaseUntil(now)));
+        if (!leased) {
+          log.warn("Replay job {} lost its lease at {}; stopping", jobId, cursor);
+          return;
+        }
+        if (rows.size() < pageSize) {
+          break;
+        }
+      }
+
+      Map<String, Integer> finalCounts = auditRepository.loadItemStatusCounts(jobId);
+      int finalSucceeded = finalCounts.getOrDefault(ITEM_STATUS_REPLAYED, 0);
+      int finalFailed = finalCounts.getOrDefault(ITEM_STATUS_FAILED, 0);
+      int finalQueued = finalCounts.getOrDefault(ITEM_STATUS_QUEUED, 0);
+      int replayed = finalSucceeded + finalFailed + finalQueued;
+      String status = resolveJobStatus(replayed, finalSucceeded, finalFailed);
+      updateReplayJob(jobId, status, LocalDateTime.now());
+      log.info(
+          "Replay job {} finished with status {} for {} records in {}ms",
+          jobId,
+          status,
+          replayed,
+          System.currentTimeMillis() - start);
+    } catch (RuntimeException ex) {
+      if (!running) {
+        log.warn("Replay job {} interrupted by shutdown; left RUNNING for resume", jobId, ex);
+        auditRepository.releaseJob(jobId, leaseOwner);
+        return;
+      }
+      log.warn("Replay job {} failed", jobId, ex);
+      auditRepository.failJob(jobId, ex.getMessage(), LocalDateTime.now());
+    }
+  }
+
+  private void pauseJob(String jobId, PageCursor cursor) {
+    auditRepository.releaseJob(jobId, leaseOwner);
+    log.info("Replay job {} paused at {} for shutdown", jobId, cursor);
+  }
+
+  private LocalDateTime leaseUntil(LocalDateTime now) {
+    return now.plus(Duration.ofMillis(Math.max(1, properties.getLeaseMs())));
+  }
+
+  private long countFilterRows(String failureTable, DateTimeRange range, ReplayFilters filters) {
+    return repository.loadFailureRowCount(
+        failureTable,
+        range.startTimestamp(),
+        range.endTimestamp(),
+        range.endInclusive(),
+        filters.traceId(),
+        filters.messageKey(),
+        filters.accountNumber(),
+        filters.latencyMin(),
+        filters.latencyMax(),
+        filters.receivedLatencyMin(),
+        filters.receivedLatencyMax(),
+        filters.exceptionType(),
+        filters.retriable(),
+        filters.retryAttemptMin(),
+        filters.retryAttemptMax());
+  }
+
+  private List<ReplayRow> loadFilterPage(
+      String failureTable,
+      DateTimeRange range,
+      ReplayFilters filters,
+      PageCursor cursor,
+      int pageSize) {
+    return repository.loadFailureReplayPage(
+        failureTable,
+        range.startTimestamp(),
+        range.endTimestamp(),
+        range.endInclusive(),
+        filters.traceId(),
+        filters.messageKey(),
+        filters.accountNumber(),
+        filters.latencyMin(),
+        filters.latencyMax(),
+        filters.receivedLatencyMin(),
+        filters.receivedLatencyMax(),
+        filters.exceptionType(),
+        filters.retriable(),
+        filters.retryAttemptMin(),
+        filters.retryAttemptMax(),
+        cursor,
+        pageSize);
+  }
+
+  private ReplayFilters parseFilters(String filtersJson) {
+    if (filtersJson == null || filtersJson.isBlank()) {
+      return emptyFilters();
+    }
+    return objectMapper.readValue(filtersJson, ReplayFilters.class);
   }
 
   public void updateReplayItems(String replayId, ReplayItemUpdateRequest request) {
@@ -220,13 +477,14 @@ public class ReplayService {
       return;
     }
     LocalDateTime now = LocalDateTime.now();
+    List<ReplayItemUpdate> updates = new ArrayList<>(request.items().size());
     for (ReplayItemUpdateRow row : request.items()) {
       if (row == null || row.recordId() == null) {
         continue;
       }
       String status = row.status() == null ? ITEM_STATUS_FAILED : row.status();
       int attempts = row.attemptCount() == null ? 1 : row.attemptCount();
-      auditRepository.updateItemStatus(
+      updates.add(
           new ReplayItemUpdate(
               replayId,
               row.recordId(),
@@ -237,6 +495,7 @@ public class ReplayService {
               row.emittedId(),
               now));
     }
+    callbackBuffer.append(updates);
   }
 
   public ReplayAuditResponse getReplayAudit(
@@ -260,10 +519,9 @@ public class ReplayService {
         auditRepository.loadReplayAuditItems(
             normalizedEvent, normalizedStatus, normalizedRequestedBy, normalizedSearch, resolvedSize, offset);
     ReplayAuditRepository.ReplayAuditStatsRow statsRow =
-        auditRepository.loadReplayJobStats(
-            normalizedEvent, normalizedStatus, normalizedRequestedBy, normalizedSearch);
-    List<String> operators = auditRepository.loadReplayAuditOperators();
-    List<String> eventKeys = auditRepository.loadReplayAuditEventKeys();
+        loadAuditStats(normalizedEvent, normalizedStatus, normalizedRequestedBy, normalizedSearch);
+    List<String> operators = facets.get(FACET_OPERATORS, key -> statsRepository.loadOperators());
+    List<String> eventKeys = facets.get(FACET_EVENT_KEYS, key -> statsRepository.loadEventKeys());
 
     List<ReplayAuditResponse.ReplayAuditItemResponse> items =
         rows.stream()
@@ -316,10 +574,9 @@ public class ReplayService {
         auditRepository.loadReplayJobCount(
             normalizedEvent, normalizedStatus, normalizedRequestedBy, normalizedSearch);
     ReplayAuditRepository.ReplayAuditStatsRow statsRow =
-        auditRepository.loadReplayAuditStats(
-            normalizedEvent, normalizedStatus, normalizedRequestedBy, normalizedSearch);
-    List<String> operators = auditRepository.loadReplayAuditOperators();
-    List<String> eventKeys = auditRepository.loadReplayAuditEventKeys();
+        loadAuditStats(normalizedEvent, normalizedStatus, normalizedRequestedBy, normalizedSearch);
+    List<String> operators = facets.get(FACET_OPERATORS, key -> statsRepository.loadOperators());
+    List<String> eventKeys = facets.get(FACET_EVENT_KEYS, key -> statsRepository.loadEventKeys());
 
     List<ReplayJobListResponse.ReplayJobSummaryResponse> jobResponses =
         jobs.stream()
@@ -351,6 +608,14 @@ public class ReplayService {
         jobResponses, resolvedPage, resolvedSize, total, stats, operators, eventKeys);
   }
 
+  private ReplayAuditRepository.ReplayAuditStatsRow loadAuditStats(
+      String eventKey, String status, String requestedBy, String search) {
+    if (search != null) {
+      return auditRepository.loadReplayAuditStats(eventKey, status, requestedBy, search);
+    }
+    return statsRepository.loadStats(eventKey, status, requestedBy);
+  }
+
   public ReplayJobItemsResponse getReplayJobItems(String replayId) {
     if (replayId == null || replayId.isBlank()) {
       throw new BadRequestException("replayId is required.");
@@ -384,10 +649,10 @@ public class ReplayService {
       String selectionType,
       String filtersJson) {
     String table = registry.failureTable(eventKey);
-    List<Map<String, Object>> rows = repository.loadFailureRowsByIds(table, ids);
-    ExtractedIds extracted = extractIds(rows);
-    Map<Long, Map<String, Object>> detailById = mapRowsById(rows);
-    Set<Long> resolved = new HashSet<>(extracted.ids());
+    List<ReplayRow> rows = repository.loadFailureRowsByIds(table, ids);
+    List<Long> rowIds = extractIds(rows);
+    Map<Long, ReplayRow> detailById = mapRowsById(rows);
+    Set<Long> resolved = new HashSet<>(rowIds);
     List<Long> missing = new ArrayList<>();
     for (Long id : ids) {
       if (id != null && !resolved.contains(id)) {
@@ -398,63 +663,80 @@ public class ReplayService {
     String jobId =
         createReplayJob(
             eventKey, day, selectionType, filtersJson, ids.size(), LocalDateTime.now());
-    insertReplayItems(jobId, eventKey, extracted.ids(), missing, true, detailById);
+    insertReplayItems(jobId, eventKey, rowIds, missing, true, detailById);
 
-    ReplayResult result = sendReplayBatches(jobId, replayUrl, extracted.ids());
-    List<Long> failedIds = new ArrayList<>(extracted.invalidIds());
-    failedIds.addAll(missing);
+    ReplayResult result = sendReplayBatches(jobId, eventKey, replayUrl, rowIds, false);
+    List<Long> failedIds = new ArrayList<>(missing);
     failedIds.addAll(result.failedIds());
     int failed = failedIds.size();
     int succeeded = ids.size() - failed;
     String status = resolveJobStatus(ids.size(), succeeded, failed);
-    int queued = Math.max(0, ids.size() - succeeded - failed);
-    updateReplayJob(jobId, ids.size(), succeeded, failed, queued, status, LocalDateTime.now());
+    updateReplayJob(jobId, status, LocalDateTime.now());
     return new ReplayResponse(jobId, ids.size(), succeeded, failed, failedIds);
   }
 
-  private ReplayResult sendReplayBatches(String jobId, String replayUrl, List<Long> ids) {
+  /**
+   * Sends {@code ids} through the dispatcher. For a resumable job, batches that are not sent or
+   * whose call is cut off because the service is stopping stay QUEUED and are reported as
+   * deferred instead of failed.
+   */
+  private ReplayResult sendReplayBatches(
+      String jobId, String eventKey, String replayUrl, List<Long> ids, boolean resumable) {
     if (ids == null || ids.isEmpty()) {
       return new ReplayResult(0, 0, List.of());
     }
+    List<ReplayResult> results =
+        dispatcher.dispatch(
+            eventKey,
+            ids,
+            new ReplayDispatcher.BatchSender<>() {
+              @Override
+              public ReplayResult send(List<Long> batch) {
+                if (resumable && !running) {
+                  return ReplayResult.deferred(batch.size());
+                }
+                return sendReplayIds(jobId, replayUrl, batch);
+              }
+
+              @Override
+              public ReplayResult onError(List<Long> batch, Exception error) {
+                if (resumable && !running) {
+                  return ReplayResult.deferred(batch.size());
+                }
+                markItemsFailed(jobId, batch, "Replay call failed");
+                return new ReplayResult(0, batch.size(), new ArrayList<>(batch));
+              }
+            });
     int succeeded = 0;
+    int deferred = 0;
     List<Long> failedIds = new ArrayList<>();
-    for (int i = 0; i < ids.size(); i += MAX_IDS) {
-      List<Long> batch = ids.subList(i, Math.min(i + MAX_IDS, ids.size()));
-      ReplayResult result = sendReplayIds(jobId, replayUrl, batch);
+    for (ReplayResult result : results) {
       succeeded += result.succeeded();
+      deferred += result.deferred();
       failedIds.addAll(result.failedIds());
     }
-    return new ReplayResult(succeeded, failedIds.size(), failedIds);
+    return new ReplayResult(succeeded, failedIds.size(), failedIds, deferred);
   }
 
   private ReplayResult sendReplayIds(String jobId, String replayUrl, List<Long> ids) {
-    if (ids == null || ids.isEmpty()) {
-      return new ReplayResult(0, 0, List.of());
-    }
     ReplayExternalRequest request = buildExternalRequest(jobId, ids);
-    try {
-      log.info(
-          "Replay request sent replayId={} requestId={} url={} idsCount={}",
-          request.replayId(),
-          request.requestId(),
-          replayUrl,
-          ids.size());
-      if (log.isDebugEnabled()) {
-        log.debug("Replay request ids replayId={} ids={}", request.replayId(), ids);
-      }
-      ReplayExternalResponse response = externalClient.replay(replayUrl, request);
-      ReplayResult result = applyReplayResponse(jobId, ids, response);
-      log.info(
-          "Replay response received replayId={} succeeded={} failed={}",
-          request.replayId(),
-          result.succeeded(),
-          result.failed());
-      return result;
-    } catch (Exception ex) {
-      log.warn("Replay external call failed for replayId={}", request.replayId(), ex);
-      markItemsFailed(jobId, ids, "Replay call failed");
-      return new ReplayResult(0, ids.size(), new ArrayList<>(ids));
+    log.info(
+        "Replay request sent replayId={} requestId={} url={} idsCount={}",
+        request.replayId(),
+        request.requestId(),
+        replayUrl,
+        ids.size());
+    if (log.isDebugEnabled()) {
+      log.debug("Replay request ids replayId={} ids={}", request.replayId(), ids);
     }
+    ReplayExternalResponse response = externalClient.replay(replayUrl, request);
+    ReplayResult result = applyReplayResponse(jobId, ids, response);
+    log.info(
+        "Replay response received replayId={} succeeded={} failed={}",
+        request.replayId(),
+        result.succeeded(),
+        result.failed());
+    return result;
   }
 
   private ReplayExternalRequest buildExternalRequest(String replayId, List<Long> ids) {
@@ -475,6 +757,12 @@ public class ReplayService {
       int totalRequested,
       LocalDateTime now) {
     String jobId = UUID.randomUUID().toString();
+    List<String> knownEventKeys = facets.getIfPresent(FACET_EVENT_KEYS);
+    List<String> knownOperators = facets.getIfPresent(FACET_OPERATORS);
+    if (knownEventKeys != null && !knownEventKeys.contains(eventKey)
+        || knownOperators != null && !knownOperators.contains(REQUESTED_BY)) {
+      facets.invalidateAll();
+    }
     auditRepository.insertJob(
         new ReplayJobRecord(
             jobId,
@@ -491,16 +779,8 @@ public class ReplayService {
     return jobId;
   }
 
-  private void updateReplayJob(
-      String jobId,
-      int totalRequested,
-      int succeeded,
-      int failed,
-      int queued,
-      String status,
-      LocalDateTime completedAt) {
-    auditRepository.updateJobSummary(
-        new ReplayJobUpdate(jobId, totalRequested, status, succeeded, failed, queued, completedAt));
+  private void updateReplayJob(String jobId, String status, LocalDateTime completedAt) {
+    auditRepository.updateJobSummary(new ReplayJobUpdate(jobId, status, completedAt));
   }
 
   private void insertReplayItems(
@@ -509,7 +789,7 @@ public class ReplayService {
       List<Long> foundIds,
       List<Long> missingIds,
       boolean includeMissing,
-      Map<Long, Map<String, Object>> detailById) {
+      Map<Long, ReplayRow> detailById) {
     LocalDateTime now = LocalDateTime.now();
     List<ReplayItemRecord> items = new ArrayList<>();
     if (foundIds != null) {
@@ -517,7 +797,7 @@ public class ReplayService {
         if (id == null) {
           continue;
         }
-        Map<String, Object> row = detailById == null ? null : detailById.get(id);
+        ReplayRow row = detailById == null ? null : detailById.get(id);
         items.add(
             new ReplayItemRecord(
                 jobId,
@@ -529,12 +809,12 @@ public class ReplayService {
                 null,
                 null,
                 now,
-                toStringValue(row, "event_trace_id"),
-                toStringValue(row, "message_key"),
-                toStringValue(row, "account_number"),
-                toStringValue(row, "exception_type"),
-                toLocalDateTime(row == null ? null : row.get("event_datetime")),
-                toStringValue(row, "source_payload")));
+                row == null ? null : blankToNull(row.traceId()),
+                row == null ? null : blankToNull(row.messageKey()),
+                row == null ? null : blankToNull(row.accountNumber()),
+                row == null ? null : blankToNull(row.exceptionType()),
+                row == null ? null : row.eventDatetime(),
+                row == null ? null : blankToNull(row.sourcePayload())));
       }
     }
     if (includeMissing && missingIds != null) {
@@ -578,6 +858,7 @@ public class ReplayService {
     }
     int succeeded = 0;
     List<Long> failedIds = new ArrayList<>();
+    List<ReplayItemUpdate> updates = new ArrayList<>(ids.size());
     LocalDateTime now = LocalDateTime.now();
     for (Long id : ids) {
       if (id == null) {
@@ -586,7 +867,7 @@ public class ReplayService {
       ReplayExternalResult result = resultMap.get(id);
       if (result == null) {
         failedIds.add(id);
-        auditRepository.updateItemStatus(
+        updates.add(
             new ReplayItemUpdate(
                 jobId,
                 id,
@@ -601,7 +882,7 @@ public class ReplayService {
       boolean success = isSuccessStatus(result.status());
       String status = success ? ITEM_STATUS_REPLAYED : ITEM_STATUS_FAILED;
       int attemptCount = result.attemptCount() == null ? 1 : result.attemptCount();
-      auditRepository.updateItemStatus(
+      updates.add(
           new ReplayItemUpdate(
               jobId,
               id,
@@ -617,6 +898,7 @@ public class ReplayService {
         failedIds.add(id);
       }
     }
+    auditRepository.updateItemStatuses(updates);
     return new ReplayResult(succeeded, failedIds.size(), failedIds);
   }
 
@@ -633,62 +915,19 @@ public class ReplayService {
     return null;
   }
 
-  private Map<Long, Map<String, Object>> mapRowsById(List<Map<String, Object>> rows) {
+  private Map<Long, ReplayRow> mapRowsById(List<ReplayRow> rows) {
     if (rows == null || rows.isEmpty()) {
       return Map.of();
     }
-    Map<Long, Map<String, Object>> mapped = new java.util.HashMap<>();
-    for (Map<String, Object> row : rows) {
-      if (row == null) {
-        continue;
-      }
-      Object value = row.get("id");
-      Long id = toLongValue(value);
-      if (id == null) {
-        continue;
-      }
-      mapped.put(id, row);
+    Map<Long, ReplayRow> mapped = new java.util.HashMap<>();
+    for (ReplayRow row : rows) {
+      mapped.put(row.id(), row);
     }
     return mapped;
   }
 
-  private Long toLongValue(Object value) {
-    if (value instanceof Number number) {
-      return number.longValue();
-    }
-    if (value instanceof String text) {
-      try {
-        return Long.parseLong(text);
-      } catch (NumberFormatException ex) {
-        return null;
-      }
-    }
-    return null;
-  }
-
-  private String toStringValue(Map<String, Object> row, String key) {
-    if (row == null || key == null) {
-      return null;
-    }
-    Object value = row.get(key);
-    if (value == null) {
-      return null;
-    }
-    String text = String.valueOf(value);
-    return text.isBlank() ? null : text;
-  }
-
-  private LocalDateTime toLocalDateTime(Object value) {
-    if (value instanceof LocalDateTime dateTime) {
-      return dateTime;
-    }
-    if (value instanceof java.sql.Timestamp ts) {
-      return ts.toLocalDateTime();
-    }
-    if (value instanceof java.util.Date date) {
-      return LocalDateTime.ofInstant(date.toInstant(), java.time.ZoneId.systemDefault());
-    }
-    return null;
+  private String blankToNull(String value) {
+    return value == null || value.isBlank() ? null : value;
   }
 
   private int resolvePage(Integer page) {
@@ -707,13 +946,15 @@ public class ReplayService {
 
   private void markItemsFailed(String jobId, List<Long> ids, String error) {
     LocalDateTime now = LocalDateTime.now();
+    List<ReplayItemUpdate> updates = new ArrayList<>(ids.size());
     for (Long id : ids) {
       if (id == null) {
         continue;
       }
-      auditRepository.updateItemStatus(
+      updates.add(
           new ReplayItemUpdate(jobId, id, ITEM_STATUS_FAILED, 1, now, error, null, now));
     }
+    auditRepository.updateItemStatuses(updates);
   }
 
   private String resolveJobStatus(int requested, int succeeded, int failed) {
@@ -733,7 +974,12 @@ public class ReplayService {
     if (filters == null) {
       return null;
     }
-    return filters.toString();
+    return objectMapper.writeValueAsString(filters);
+  }
+
+  private ReplayFilters emptyFilters() {
+    return new ReplayFilters(
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
   }
 
   private boolean isSuccessStatus(String status) {
@@ -747,35 +993,12 @@ public class ReplayService {
         || "OK".equals(normalized);
   }
 
-  private ExtractedIds extractIds(List<Map<String, Object>> rows) {
-    List<Long> ids = new ArrayList<>();
-    List<Long> invalid = new ArrayList<>();
-    if (rows == null || rows.isEmpty()) {
-      return new ExtractedIds(ids, invalid);
+  private List<Long> extractIds(List<ReplayRow> rows) {
+    List<Long> ids = new ArrayList<>(rows.size());
+    for (ReplayRow row : rows) {
+      ids.add(row.id());
     }
-    for (Map<String, Object> row : rows) {
-      Long id = parseId(row.get("id"));
-      if (id == null) {
-        invalid.add(-1L);
-        continue;
-      }
-      ids.add(id);
-    }
-    return new ExtractedIds(ids, invalid);
-  }
-
-  private Long parseId(Object value) {
-    if (value instanceof Number number) {
-      return number.longValue();
-    }
-    if (value instanceof String text) {
-      try {
-        return Long.parseLong(text);
-      } catch (NumberFormatException ex) {
-        return null;
-      }
-    }
-    return null;
+    return ids;
   }
 
   private DateTimeRange resolveRange(
@@ -822,7 +1045,13 @@ public class ReplayService {
   private record DateTimeRange(
       LocalDateTime startTimestamp, LocalDateTime endTimestamp, boolean endInclusive) {}
 
-  private record ReplayResult(int succeeded, int failed, List<Long> failedIds) {}
+  private record ReplayResult(int succeeded, int failed, List<Long> failedIds, int deferred) {
+    private ReplayResult(int succeeded, int failed, List<Long> failedIds) {
+      this(succeeded, failed, failedIds, 0);
+    }
 
-  private record ExtractedIds(List<Long> ids, List<Long> invalidIds) {}
+    private static ReplayResult deferred(int size) {
+      return new ReplayResult(0, 0, List.of(), size);
+    }
+  }
 }
@@ -0,0 +1,263 @@
+package com.vibe.events.service;
+
+import com.vibe.events.config.AggregationProperties;
+import com.vibe.events.registry.EventDefinition;
+import com.vibe.events.registry.EventRegistry;
+import com.vibe.events.repo.LatencySketchRepository;
+import com.vibe.events.repo.RollupRepository;
+import com.vibe.events.util.IdGaps;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class RollupService {
+  private static final Logger log = LoggerFactory.getLogger(RollupService.class);
+  private static final String CONSUMER = "rollup";
+  private static final List<String> LATENCY_COLUMNS =
+      List.of("latency_ms", "latency_event_received_ms");
+  private static final String SENT_LATENCY_COLUMN = "latency_event_sent_ms";
+
+  private final RollupRepository repository;
+  private final LatencySketchRepository sketchRepository;
+  private final EventRegistry registry;
+  private final AggregationProperties properties;
+  private final TransactionTemplate transactionTemplate;
+  private final Set<String> failureTables = new HashSet<>();
+  private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+  public RollupService(
+      RollupRepository repository,
+      LatencySketchRepository sketchRepository,
+      EventRegistry registry,
+      AggregationProperties properties,
+      PlatformTransactionManager transactionManager) {
+    this.repository = repository;
+    this.sketchRepository = sketchRepository;
+    this.registry = registry;
+    this.properties = properties;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    for (EventDefinition definition : registry.all()) {
+      failureTables.add(definition.getFailureTable());
+    }
+  }
+
+  @Scheduled(
+      initialDelayString = "${aggregation.rollup.refreshDelayMs:5000}",
+      fixedDelayString = "${aggregation.rollup.refreshDelayMs:5000}")
+  public void catchUpAll() {
+    if (!properties.getRollup().isEnabled()) {
+      return;
+    }
+    for (EventDefinition definition : registry.all()) {
+      catchUpSafely(definition.getSuccessTable());
+      catchUpSafely(definition.getFailureTable());
+    }
+  }
+
+  /**
+   * Brings {@code table} up to date for a read. Waits at most {@code inlineLockWaitMs} for a
+   * running catch-up and rolls up at most {@code maxInlineChunks}; returns false when the rollups
+   * could not be made current in that budget so the caller can fall back to a raw scan.
+   */
+  public boolean sync(String table) {
+    if (!properties.getRollup().isEnabled()) {
+      return false;
+    }
+    ReentrantLock lock = lockFor(table);
+    try {
+      if (!lock.tryLock(properties.getRollup().getInlineLockWaitMs(), TimeUnit.MILLISECONDS)) {
+        return false;
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+    try {
+      return catchUp(table, properties.getRollup().getMaxInlineChunks());
+    } catch (RuntimeException ex) {
+      log.warn("Rollup sync failed for {}, falling back to raw scan", table, ex);
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public boolean syncAll(List<String> tables) {
+    for (String table : tables) {
+      if (!sync(table)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public int purgeBefore(String table, LocalDateTime cutoff) {
+    ReentrantLock lock = lockFor(table);
+    lock.lock();
+    try {
+      sketchRepository.deleteSketchesBefore(table, cutoff);
+      return repository.deleteRollupsBefore(table, cutoff);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Holds the table lock for at most maxInlineChunks at a time so inline syncs can interleave.
+  private void catchUpSafely(String table) {
+    ReentrantLock lock = lockFor(table);
+    try {
+      boolean done = false;
+      while (!done) {
+        lock.lock();
+        try {
+          done = catchUp(table, Math.max(1, properties.getRollup().getMaxInlineChunks()));
+        } finally {
+          lock.unlock();
+        }
+      }
+      lock.lock();
+      try {
+        recheckGaps(table);
+      } finally {
+        lock.unlock();
+      }
+    } catch (RuntimeException ex) {
+      log.warn("Rollup catch-up failed for {}", table, ex);
+    }
+  }
+
+  private boolean catchUp(String table, int maxChunks) {
+    boolean failureTable = failureTables.contains(table);
+    long start = System.currentTimeMillis();
+    Long watermark = repository.findWatermark(CONSUMER, table);
+    if (watermark == null) {
+      repository.ensureWatermark(CONSUMER, table);
+      watermark = repository.loadWatermark(CONSUMER, table);
+    }
+    long maxId = repository.loadMaxId(table);
+    long lastId = watermark;
+    long firstId = lastId;
+    int chunkSize = Math.max(1, properties.getRollup().getChunkSize());
+    int chunks = 0;
+    try {
+      while (lastId < maxId) {
+        if (chunks >= maxChunks) {
+          return false;
+        }
+        long fromId = lastId;
+        long toId = Math.min(maxId, fromId + chunkSize);
+        Boolean advanced =
+            transactionTemplate.execute(
+                status -> {
+                  if (!repository.advanceWatermark(CONSUMER, table, fromId, toId)) {
+                    return false;
+                  }
+                  long rows = applyRange(table, failureTable, fromId, toId);
+                  if (rows < toId - fromId) {
+                    recordGaps(table, fromId, toId, LocalDateTime.now());
+                  }
+                  return true;
+                });
+        lastId =
+            Boolean.TRUE.equals(advanced) ? toId : repository.loadWatermark(CONSUMER, table);
+        chunks += 1;
+      }
+      return true;
+    } finally {
+      if (lastId > firstId) {
+        log.info(
+            "Rolled up {} ids from {} in {}ms",
+            lastId - firstId,
+            table,
+            System.currentTimeMillis() - start);
+      }
+    }
+  }
+
+  /**
+   * Rolls up rows that committed after the watermark moved past their id. Ids missing from a
+   * chunk are kept as gaps until {@code gapHorizonMs}; any row that appears in one is merged and
+   * the gap is narrowed to what is still missing.
+   */
+  private void recheckGaps(String table) {
+    boolean failureTable = failureTables.contains(table);
+    LocalDateTime now = LocalDateTime.now();
+    Duration horizon = Duration.ofMillis(properties.getRollup().getGapHorizonMs());
+    int expired = repository.deleteGapsBefore(CONSUMER, table, now.minus(horizon));
+    if (expired > 0) {
+      log.debug("Expired {} rollup gaps for {}", expired, table);
+    }
+    for (RollupRepository.WatermarkGap gap : repository.loadGaps(CONSUMER, table)) {
+      if (repository.countIds(table, gap.fromId(), gap.toId()) == 0) {
+        continue;
+      }
+      Long merged =
+          transactionTemplate.execute(
+              status -> {
+                if (!repository.claimGap(CONSUMER, table, gap)) {
+                  return 0L;
+                }
+                long rows = applyRange(table, failureTable, gap.fromId(), gap.toId());
+                recordGaps(table, gap.fromId(), gap.toId(), gap.firstSeenAt());
+                return rows;
+              });
+      if (merged != null && merged > 0) {
+        log.info(
+            "Rolled up {} late rows from {} ids ({}, {}]",
+            merged,
+            table,
+            gap.fromId(),
+            gap.toId());
+      }
+    }
+  }
+
+  private long applyRange(String table, boolean failureTable, long fromId, long toId) {
+    List<RollupRepository.MinuteRollup> rollups =
+        repository.loadMinuteRollups(table, failureTable, fromId, toId);
+    repository.mergeRollups(table, rollups);
+    for (String column : latencyColumns(failureTable)) {
+      sketchRepository.mergeSketches(
+          table, column, sketchRepository.buildHourlySketches(table, column, fromId, toId));
+    }
+    long rows = 0;
+    for (RollupRepository.MinuteRollup rollup : rollups) {
+      rows += rollup.rowCount();
+    }
+    return rows;
+  }
+
+  private void recordGaps(String table, long fromId, long toId, LocalDateTime firstSeenAt) {
+    List<Long> present = repository.loadIds(table, fromId, toId);
+    for (IdGaps.Range gap : IdGaps.missing(fromId, toId, present)) {
+      repository.recordGap(CONSUMER, table, gap.fromId(), gap.toId(), firstSeenAt);
+    }
+  }
+
+  private List<String> latencyColumns(boolean failureTable) {
+    if (failureTable) {
+      return LATENCY_COLUMNS;
+    }
+    List<String> columns = new ArrayList<>(LATENCY_COLUMNS);
+    columns.add(SENT_LATENCY_COLUMN);
+    return columns;
+  }
+
+  private ReentrantLock lockFor(String table) {
+    return locks.computeIfAbsent(table, key -> new ReentrantLock(true));
+  }
+}
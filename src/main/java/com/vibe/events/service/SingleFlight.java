@@ -0,0 +1,67 @@
+package com.vibe.events.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SingleFlight {
+  private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+  private final Counter executions;
+  private final Counter coalesced;
+
+  public SingleFlight(MeterRegistry meterRegistry) {
+    Gauge.builder("aggregation.singleflight.inflight", inFlight, Map::size)
+        .description("Aggregation computations currently running")
+        .register(meterRegistry);
+    this.executions =
+        Counter.builder("aggregation.singleflight.executions")
+            .description("Aggregation computations started")
+            .register(meterRegistry);
+    this.coalesced =
+        Counter.builder("aggregation.singleflight.coalesced")
+            .description("Requests that joined an aggregation already in flight")
+            .register(meterRegistry);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T execute(String key, Supplier<T> supplier) {
+    CompletableFuture<Object> flight = new CompletableFuture<>();
+    CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+    if (existing != null) {
+      coalesced.increment();
+      return (T) await(existing);
+    }
+    executions.increment();
+    try {
+      T value = supplier.get();
+      flight.complete(value);
+      return value;
+    } catch (RuntimeException | Error ex) {
+      flight.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      inFlight.remove(key, flight);
+    }
+  }
+
+  private Object await(CompletableFuture<Object> flight) {
+    try {
+      return flight.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      if (ex.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw ex;
+    }
+  }
+}
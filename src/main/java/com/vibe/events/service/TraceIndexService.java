@@ -0,0 +1,225 @@
+package com.vibe.events.service;
+
+import com.vibe.events.config.SearchProperties;
+import com.vibe.events.dto.SearchHit;
+import com.vibe.events.dto.SearchResponse;
+import com.vibe.events.error.BadRequestException;
+import com.vibe.events.registry.EventDefinition;
+import com.vibe.events.registry.EventRegistry;
+import com.vibe.events.repo.RollupRepository;
+import com.vibe.events.repo.TraceIndexRepository;
+import com.vibe.events.repo.TraceIndexRepository.TraceIndexEntry;
+import com.vibe.events.util.IdGaps;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps {@code event_trace_index} in step with every event table so a trace id, message key or
+ * account number resolves with one index probe instead of a scan per table. The index is filled
+ * from the same id watermarks as the rollups and trimmed alongside retention.
+ */
+@Service
+public class TraceIndexService {
+  private static final Logger log = LoggerFactory.getLogger(TraceIndexService.class);
+  private static final String CONSUMER = "trace_index";
+  private static final String OUTCOME_SUCCESS = "success";
+  private static final String OUTCOME_FAILURE = "failure";
+  private static final Map<String, String> LOOKUP_COLUMNS =
+      Map.of(
+          "traceId", "trace_id",
+          "messageKey", "message_key",
+          "accountNumber", "account_number");
+
+  private final TraceIndexRepository repository;
+  private final RollupRepository watermarks;
+  private final EventRegistry registry;
+  private final SearchProperties properties;
+  private final TransactionTemplate transactionTemplate;
+  private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+  public TraceIndexService(
+      TraceIndexRepository repository,
+      RollupRepository watermarks,
+      EventRegistry registry,
+      SearchProperties properties,
+      PlatformTransactionManager transactionManager) {
+    this.repository = repository;
+    this.watermarks = watermarks;
+    this.registry = registry;
+    this.properties = properties;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @Scheduled(
+      initialDelayString = "${search.refreshDelayMs:5000}",
+      fixedDelayString = "${search.refreshDelayMs:5000}")
+  public void catchUpAll() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    for (EventDefinition definition : registry.all()) {
+      catchUpSafely(definition.getKey(), OUTCOME_SUCCESS, definition.getSuccessTable());
+      catchUpSafely(definition.getKey(), OUTCOME_FAILURE, definition.getFailureTable());
+    }
+  }
+
+  public SearchResponse search(
+      String traceId, String messageKey, String accountNumber, Integer limit) {
+    Map<String, String> criteria = new LinkedHashMap<>();
+    putIfPresent(criteria, "traceId", traceId);
+    putIfPresent(criteria, "messageKey", messageKey);
+    putIfPresent(criteria, "accountNumber", accountNumber);
+    if (criteria.size() != 1) {
+      throw new BadRequestException(
+          "Exactly one of traceId, messageKey or accountNumber is required.");
+    }
+    Map.Entry<String, String> criterion = criteria.entrySet().iterator().next();
+    int maxResults = Math.max(1, properties.getMaxResults());
+    int effectiveLimit = limit == null ? maxResults : Math.min(Math.max(1, limit), maxResults);
+
+    List<TraceIndexEntry> entries =
+        repository.find(
+            LOOKUP_COLUMNS.get(criterion.getKey()), criterion.getValue(), effectiveLimit + 1);
+    boolean truncated = entries.size() > effectiveLimit;
+    Map<String, EventDefinition> definitions = new HashMap<>();
+    for (EventDefinition definition : registry.all()) {
+      definitions.put(definition.getKey(), definition);
+    }
+    List<SearchHit> hits =
+        entries.stream()
+            .limit(effectiveLimit)
+            .map(entry -> toHit(entry, definitions.get(entry.eventKey())))
+            .toList();
+    return new SearchResponse(
+        criterion.getKey(), criterion.getValue(), effectiveLimit, truncated, hits);
+  }
+
+  public long purgeBefore(String eventKey, LocalDateTime cutoff, int batchSize) {
+    int limit = Math.max(1, batchSize);
+    long deleted = 0;
+    while (true) {
+      int removed = repository.deleteBefore(eventKey, cutoff, limit);
+      deleted += removed;
+      if (removed < limit) {
+        return deleted;
+      }
+    }
+  }
+
+  private void catchUpSafely(String eventKey, String outcome, String table) {
+    try {
+      catchUp(eventKey, outcome, table);
+    } catch (RuntimeException ex) {
+      log.warn("Trace index catch-up failed for {}", table, ex);
+    }
+  }
+
+  private void catchUp(String eventKey, String outcome, String table) {
+    ReentrantLock lock = locks.computeIfAbsent(table, key -> new ReentrantLock());
+    lock.lock();
+    try {
+      long start = System.currentTimeMillis();
+      Long watermark = watermarks.findWatermark(CONSUMER, table);
+      if (watermark == null) {
+        watermarks.ensureWatermark(CONSUMER, table);
+        watermark = watermarks.loadWatermark(CONSUMER, table);
+      }
+      long maxId = watermarks.loadMaxId(table);
+      long lastId = watermark;
+      long firstId = lastId;
+      int chunkSize = Math.max(1, properties.getChunkSize());
+      while (lastId < maxId) {
+        long fromId = lastId;
+        long toId = Math.min(maxId, fromId + chunkSize);
+        Boolean advanced =
+            transactionTemplate.execute(
+                status -> {
+                  if (!watermarks.advanceWatermark(CONSUMER, table, fromId, toId)) {
+                    return false;
+                  }
+                  repository.indexRange(eventKey, outcome, table, fromId, toId);
+                  recordGaps(table, fromId, toId, LocalDateTime.now());
+                  return true;
+                });
+        lastId =
+            Boolean.TRUE.equals(advanced) ? toId : watermarks.loadWatermark(CONSUMER, table);
+      }
+      if (lastId > firstId) {
+        log.info(
+            "Indexed {} ids from {} for search in {}ms",
+            lastId - firstId,
+            table,
+            System.currentTimeMillis() - start);
+      }
+      recheckGaps(eventKey, outcome, table);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Same late-commit handling as the rollups: ids the watermark passed before they committed are
+  // kept as gaps and indexed once they appear, until search.gapHorizonMs.
+  private void recheckGaps(String eventKey, String outcome, String table) {
+    LocalDateTime now = LocalDateTime.now();
+    Duration horizon = Duration.ofMillis(properties.getGapHorizonMs());
+    watermarks.deleteGapsBefore(CONSUMER, table, now.minus(horizon));
+    for (RollupRepository.WatermarkGap gap : watermarks.loadGaps(CONSUMER, table)) {
+      if (watermarks.countIds(table, gap.fromId(), gap.toId()) == 0) {
+        continue;
+      }
+      Integer indexed =
+          transactionTemplate.execute(
+              status -> {
+                if (!watermarks.claimGap(CONSUMER, table, gap)) {
+                  return 0;
+                }
+                int rows =
+                    repository.indexRange(eventKey, outcome, table, gap.fromId(), gap.toId());
+                recordGaps(table, gap.fromId(), gap.toId(), gap.firstSeenAt());
+                return rows;
+              });
+      if (indexed != null && indexed > 0) {
+        log.info(
+            "Indexed late rows from {} ids ({}, {}] for search", table, gap.fromId(), gap.toId());
+      }
+    }
+  }
+
+  private void recordGaps(String table, long fromId, long toId, LocalDateTime firstSeenAt) {
+    List<Long> present = watermarks.loadIds(table, fromId, toId);
+    for (IdGaps.Range gap : IdGaps.missing(fromId, toId, present)) {
+      watermarks.recordGap(CONSUMER, table, gap.fromId(), gap.toId(), firstSeenAt);
+    }
+  }
+
+  private static SearchHit toHit(TraceIndexEntry entry, EventDefinition definition) {
+    return new SearchHit(
+        entry.eventKey(),
+        definition == null ? null : definition.getName(),
+        definition == null ? null : definition.getCategory(),
+        entry.outcome(),
+        entry.recordId(),
+        entry.eventDatetime(),
+        entry.traceId(),
+        entry.messageKey(),
+        entry.accountNumber());
+  }
+
+  private static void putIfPresent(Map<String, String> criteria, String key, String value) {
+    if (value != null && !value.isBlank()) {
+      criteria.put(key, value.trim());
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.vibe.events.service;
+
+import com.vibe.events.config.AggregationProperties;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts dashboard views per day and per event within the cache retention window, so warmup can
+ * refresh what people actually look at first. Days that leave the window are dropped.
+ */
+@Component
+public class ViewTracker {
+  private final AggregationProperties properties;
+  private final Map<LocalDate, DayViews> views = new ConcurrentHashMap<>();
+
+  public ViewTracker(AggregationProperties properties) {
+    this.properties = properties;
+  }
+
+  public void recordView(LocalDate day, String eventKey) {
+    LocalDate oldest = oldestRetainedDay();
+    if (day.isBefore(oldest)) {
+      return;
+    }
+    DayViews dayViews = views.get(day);
+    if (dayViews == null) {
+      views.keySet().removeIf(retained -> retained.isBefore(oldest));
+      dayViews = views.computeIfAbsent(day, key -> new DayViews());
+    }
+    dayViews.total.increment();
+    if (eventKey != null) {
+      dayViews.events.computeIfAbsent(eventKey, key -> new LongAdder()).increment();
+    }
+  }
+
+  public long score(LocalDate day, String eventKey) {
+    DayViews dayViews = views.get(day);
+    long score = dayViews == null ? 0 : dayViews.total.sum();
+    if (eventKey != null) {
+      for (DayViews retained : views.values()) {
+        LongAdder adder = retained.events.get(eventKey);
+        score += adder == null ? 0 : adder.sum();
+      }
+    }
+    return score;
+  }
+
+  int trackedDays() {
+    return views.size();
+  }
+
+  private LocalDate oldestRetainedDay() {
+    return LocalDate.now().minusDays(Math.max(1, properties.getCache().getDaysToKeep()) - 1L);
+  }
+
+  private static final class DayViews {
+    private final LongAdder total = new LongAdder();
+    private final Map<String, LongAdder> events = new ConcurrentHashMap<>();
+  }
+}
@@ -0,0 +1,7 @@
+package com.vibe.events.service;
+
+public enum WarmupPriority {
+  INTERACTIVE,
+  TODAY,
+  BACKFILL
+}
@@ -0,0 +1,227 @@
+package com.vibe.events.service;
+
+import com.vibe.events.config.AggregationProperties;
+import com.vibe.events.dto.WarmupStatusResponse;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WarmupScheduler implements SmartLifecycle {
+  private static final Logger log = LoggerFactory.getLogger(WarmupScheduler.class);
+
+  private final ThreadPoolTaskExecutor executor;
+  private final AggregationProperties properties;
+  private final DataSource dataSource;
+  private final PriorityBlockingQueue<WarmupTask> queue =
+      new PriorityBlockingQueue<>(
+          64,
+          Comparator.comparing(WarmupTask::priority)
+              .thenComparing(WarmupTask::score, Comparator.reverseOrder())
+              .thenComparingLong(WarmupTask::sequence));
+  private final Map<String, WarmupTask> pending = new ConcurrentHashMap<>();
+  private final Map<String, WarmupTask> inProgress = new ConcurrentHashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+  private final AtomicLong completed = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong deduplicated = new AtomicLong();
+  private final AtomicLong throttled = new AtomicLong();
+  private final AtomicLong drainStartedAt = new AtomicLong();
+  private final AtomicLong drainedTasks = new AtomicLong();
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicReference<LocalDateTime> lastCompletedAt = new AtomicReference<>();
+  private volatile boolean running;
+
+  public WarmupScheduler(
+      @Qualifier("warmupExecutor") ThreadPoolTaskExecutor executor,
+      AggregationProperties properties,
+      DataSource dataSource) {
+    this.executor = executor;
+    this.properties = properties;
+    this.dataSource = dataSource;
+  }
+
+  public boolean submit(String key, WarmupPriority priority, long score, Runnable action) {
+    if (inProgress.containsKey(key)) {
+      deduplicated.incrementAndGet();
+      return false;
+    }
+    WarmupTask task =
+        new WarmupTask(key, priority, score, sequence.incrementAndGet(), action);
+    boolean[] queued = {false};
+    pending.compute(
+        key,
+        (k, existing) -> {
+          if (existing == null) {
+            queued[0] = true;
+            return task;
+          }
+          if (priority.compareTo(existing.priority()) < 0 && queue.remove(existing)) {
+            queued[0] = true;
+            return task;
+          }
+          return existing;
+        });
+    if (!queued[0]) {
+      deduplicated.incrementAndGet();
+      return false;
+    }
+    drainStartedAt.compareAndSet(0, System.currentTimeMillis());
+    queue.add(task);
+    return true;
+  }
+
+  public WarmupStatusResponse status() {
+    List<String> runningTasks = new ArrayList<>(inProgress.keySet());
+    runningTasks.sort(null);
+    HikariPoolMXBean pool = poolBean();
+    Double utilization = pool == null ? null : utilization(pool);
+    return new WarmupStatusResponse(
+        executor.getMaxPoolSize(),
+        pending.size(),
+        inProgress.size(),
+        completed.get(),
+        failed.get(),
+        deduplicated.get(),
+        throttled.get(),
+        utilization,
+        lastCompletedAt.get(),
+        runningTasks);
+  }
+
+  @Override
+  public void start() {
+    long current = generation.incrementAndGet();
+    running = true;
+    for (int i = 0; i < executor.getMaxPoolSize(); i += 1) {
+      executor.execute(() -> work(current));
+    }
+  }
+
+  /**
+   * Retires the current workers without shutting the executor down, so a stopped context can be
+   * started again; the executor bean is shut down when the context closes.
+   */
+  @Override
+  public void stop() {
+    running = false;
+    generation.incrementAndGet();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public int getPhase() {
+    return Integer.MAX_VALUE;
+  }
+
+  private void work(long workerGeneration) {
+    while (running && generation.get() == workerGeneration) {
+      try {
+        WarmupTask head = queue.peek();
+        if (head != null && head.priority() != WarmupPriority.INTERACTIVE && isSaturated()) {
+          throttled.incrementAndGet();
+          Thread.sleep(properties.getWarmup().getThrottleBackoffMs());
+          continue;
+        }
+        WarmupTask task = queue.poll(1, TimeUnit.SECONDS);
+        if (task == null || !pending.remove(task.key(), task)) {
+          continue;
+        }
+        run(task);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void run(WarmupTask task) {
+    inProgress.put(task.key(), task);
+    try {
+      task.action().run();
+      completed.incrementAndGet();
+      lastCompletedAt.set(LocalDateTime.now());
+    } catch (RuntimeException ex) {
+      failed.incrementAndGet();
+      log.warn("Warmup task {} failed", task.key(), ex);
+    } finally {
+      inProgress.remove(task.key(), task);
+      drainedTasks.incrementAndGet();
+      logIfDrained();
+    }
+  }
+
+  private void logIfDrained() {
+    if (!pending.isEmpty() || !inProgress.isEmpty()) {
+      return;
+    }
+    long startedAt = drainStartedAt.getAndSet(0);
+    if (startedAt == 0) {
+      return;
+    }
+    log.info(
+        "Warmup queue drained {} tasks in {}ms",
+        drainedTasks.getAndSet(0),
+        System.currentTimeMillis() - startedAt);
+  }
+
+  private boolean isSaturated() {
+    HikariPoolMXBean pool = poolBean();
+    if (pool == null) {
+      return false;
+    }
+    return pool.getThreadsAwaitingConnection() > 0
+        || utilization(pool) >= properties.getWarmup().getSaturationThreshold();
+  }
+
+  private double utilization(HikariPoolMXBean pool) {
+    int total = Math.max(1, pool.getTotalConnections());
+    int maximum = maximumPoolSize();
+    return (double) pool.getActiveConnections() / Math.max(total, maximum);
+  }
+
+  private HikariPoolMXBean poolBean() {
+    HikariDataSource hikari = hikari();
+    return hikari == null ? null : hikari.getHikariPoolMXBean();
+  }
+
+  private int maximumPoolSize() {
+    HikariDataSource hikari = hikari();
+    return hikari == null ? 1 : hikari.getMaximumPoolSize();
+  }
+
+  private HikariDataSource hikari() {
+    try {
+      if (dataSource.isWrapperFor(HikariDataSource.class)) {
+        return dataSource.unwrap(HikariDataSource.class);
+      }
+    } catch (SQLException ex) {
+      return null;
+    }
+    return null;
+  }
+
+  private record WarmupTask(
+      String key, WarmupPriority priority, long score, long sequence, Runnable action) {}
+}
@@ -20,4 +20,12 @@ public final class CacheKeys {
   public static String homeBucketsKey(LocalDate day, int intervalMinutes) {
     return day + "|" + intervalMinutes;
   }
+
+  /**
+   * Key under which a compute or refresh of {@code key} in {@code cacheName} is coalesced, shared
+   * by the stale-while-revalidate path and the warmup jobs so they dedupe against each other.
+   */
+  public static String taskKey(String cacheName, String key) {
+    return cacheName + "|" + key;
+  }
 }
@@ -0,0 +1,32 @@
+package com.vibe.events.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class IdGaps {
+  private IdGaps() {}
+
+  /**
+   * Returns the id ranges in {@code (fromId, toId]} that are absent from {@code presentIds}, as
+   * {@code (fromId, toId]} pairs. {@code presentIds} must be ascending.
+   */
+  public static List<Range> missing(long fromId, long toId, List<Long> presentIds) {
+    List<Range> gaps = new ArrayList<>();
+    long previous = fromId;
+    for (Long id : presentIds) {
+      if (id == null || id <= previous || id > toId) {
+        continue;
+      }
+      if (id > previous + 1) {
+        gaps.add(new Range(previous, id - 1));
+      }
+      previous = id;
+    }
+    if (previous < toId) {
+      gaps.add(new Range(previous, toId));
+    }
+    return gaps;
+  }
+
+  public record Range(long fromId, long toId) {}
+}
@@ -0,0 +1,189 @@
+package com.vibe.events.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Mergeable log-bucketed latency histogram (DDSketch layout). Every non-zero value v is counted in
+ * bin ceil(log_gamma(v)) with gamma = (1 + a) / (1 - a), so any quantile read back is within a
+ * relative error of a = 1% of the true nearest-rank value. Zero values, counts and the max are
+ * exact. Merging is lossless: merged sketches answer exactly as a sketch built over all values.
+ */
+public final class LatencySketch {
+  public static final double RELATIVE_ACCURACY = 0.01;
+  public static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+  public static final double LN_GAMMA = Math.log(GAMMA);
+
+  private static final byte FORMAT_VERSION = 1;
+
+  private long[] bins = new long[0];
+  private int minIndex;
+  private long zeroCount;
+  private long count;
+  private long max;
+
+  public static int binIndex(long value) {
+    return (int) Math.ceil(Math.log(value) / LN_GAMMA);
+  }
+
+  public void add(long value) {
+    if (value <= 0) {
+      addZeros(1);
+      return;
+    }
+    addToBin(binIndex(value), 1, value);
+  }
+
+  public void addZeros(long occurrences) {
+    zeroCount += occurrences;
+    count += occurrences;
+  }
+
+  public void addToBin(int index, long occurrences, long maxValue) {
+    if (occurrences <= 0) {
+      return;
+    }
+    ensureCapacity(index, index);
+    bins[index - minIndex] += occurrences;
+    count += occurrences;
+    max = Math.max(max, maxValue);
+  }
+
+  public void merge(LatencySketch other) {
+    if (other == null || other.count == 0) {
+      return;
+    }
+    if (other.bins.length > 0) {
+      ensureCapacity(other.minIndex, other.minIndex + other.bins.length - 1);
+      int shift = other.minIndex - minIndex;
+      for (int i = 0; i < other.bins.length; i += 1) {
+        bins[shift + i] += other.bins[i];
+      }
+    }
+    zeroCount += other.zeroCount;
+    count += other.count;
+    max = Math.max(max, other.max);
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public Double getMax() {
+    return count == 0 ? null : (double) max;
+  }
+
+  public Double quantile(double quantile) {
+    if (count == 0) {
+      return null;
+    }
+    long rank = Math.max(1, (long) Math.ceil(count * quantile));
+    if (rank <= zeroCount) {
+      return 0.0;
+    }
+    long running = zeroCount;
+    for (int i = 0; i < bins.length; i += 1) {
+      running += bins[i];
+      if (running >= rank) {
+        double estimate = 2 * Math.pow(GAMMA, minIndex + i) / (GAMMA + 1);
+        return Math.min(estimate, max);
+      }
+    }
+    return (double) max;
+  }
+
+  public byte[] toBytes() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(16 + bins.length * 2);
+    out.write(FORMAT_VERSION);
+    writeVarLong(out, zeroCount);
+    writeVarLong(out, max);
+    int previous = 0;
+    int nonEmpty = 0;
+    for (long bin : bins) {
+      if (bin > 0) {
+        nonEmpty += 1;
+      }
+    }
+    writeVarLong(out, nonEmpty);
+    for (int i = 0; i < bins.length; i += 1) {
+      if (bins[i] == 0) {
+        continue;
+      }
+      int index = minIndex + i;
+      writeVarLong(out, zigZag(index - previous));
+      writeVarLong(out, bins[i]);
+      previous = index;
+    }
+    return out.toByteArray();
+  }
+
+  public static LatencySketch fromBytes(byte[] bytes) {
+    LatencySketch sketch = new LatencySketch();
+    if (bytes == null || bytes.length == 0) {
+      return sketch;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    byte version = buffer.get();
+    if (version != FORMAT_VERSION) {
+      throw new IllegalArgumentException("Unsupported latency sketch version: " + version);
+    }
+    sketch.addZeros(readVarLong(buffer));
+    long maxValue = readVarLong(buffer);
+    long nonEmpty = readVarLong(buffer);
+    int index = 0;
+    for (long i = 0; i < nonEmpty; i += 1) {
+      index += unZigZag(readVarLong(buffer));
+      sketch.addToBin(index, readVarLong(buffer), maxValue);
+    }
+    sketch.max = maxValue;
+    return sketch;
+  }
+
+  private void ensureCapacity(int lowIndex, int highIndex) {
+    if (bins.length == 0) {
+      minIndex = lowIndex;
+      bins = new long[highIndex - lowIndex + 1];
+      return;
+    }
+    int currentMax = minIndex + bins.length - 1;
+    if (lowIndex >= minIndex && highIndex <= currentMax) {
+      return;
+    }
+    int newMin = Math.min(minIndex, lowIndex);
+    int newMax = Math.max(currentMax, highIndex);
+    long[] resized = new long[newMax - newMin + 1];
+    System.arraycopy(bins, 0, resized, minIndex - newMin, bins.length);
+    bins = resized;
+    minIndex = newMin;
+  }
+
+  private static void writeVarLong(ByteArrayOutputStream out, long value) {
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0) {
+      out.write((int) ((remaining & 0x7F) | 0x80));
+      remaining >>>= 7;
+    }
+    out.write((int) remaining);
+  }
+
+  private static long readVarLong(ByteBuffer buffer) {
+    long result = 0;
+    int shift = 0;
+    byte current;
+    do {
+      current = buffer.get();
+      result |= (long) (current & 0x7F) << shift;
+      shift += 7;
+    } while ((current & 0x80) != 0);
+    return result;
+  }
+
+  private static long zigZag(int value) {
+    return Integer.toUnsignedLong((value << 1) ^ (value >> 31));
+  }
+
+  private static int unZigZag(long value) {
+    int encoded = (int) value;
+    return (encoded >>> 1) ^ -(encoded & 1);
+  }
+}
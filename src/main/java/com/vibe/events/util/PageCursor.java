@@ -0,0 +1,44 @@
+package com.vibe.events.util;
+
+import com.vibe.events.dto.EventRow;
+import com.vibe.events.error.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record PageCursor(LocalDateTime eventDatetime, long id) {
+
+  public static PageCursor decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    try {
+      String decoded =
+          new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = decoded.lastIndexOf('|');
+      if (separator <= 0) {
+        throw new BadRequestException("Invalid cursor.");
+      }
+      return new PageCursor(
+          LocalDateTime.parse(decoded.substring(0, separator)),
+          Long.parseLong(decoded.substring(separator + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException ex) {
+      throw new BadRequestException("Invalid cursor.");
+    }
+  }
+
+  public static String nextCursor(EventRow lastRow) {
+    if (lastRow == null || lastRow.eventDatetime() == null) {
+      return null;
+    }
+    return new PageCursor(lastRow.eventDatetime(), lastRow.id()).encode();
+  }
+
+  public String encode() {
+    String raw = eventDatetime + "|" + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
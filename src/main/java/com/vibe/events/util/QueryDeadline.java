@@ -0,0 +1,44 @@
+package com.vibe.events.util;
+
+import com.vibe.events.error.DeadlineExceededException;
+import java.util.function.Supplier;
+
+/**
+ * Deadline bound to the current thread. {@code QueryDeadlineDataSource} turns it into the query
+ * timeout of every statement the thread opens, so no transaction is needed to carry it.
+ */
+public final class QueryDeadline {
+  private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+  private QueryDeadline() {}
+
+  public static <T> T run(long deadlineMillis, Supplier<T> task) {
+    Long previous = DEADLINE.get();
+    DEADLINE.set(previous == null ? deadlineMillis : Math.min(previous, deadlineMillis));
+    try {
+      return task.get();
+    } finally {
+      if (previous == null) {
+        DEADLINE.remove();
+      } else {
+        DEADLINE.set(previous);
+      }
+    }
+  }
+
+  /**
+   * Whole seconds left until the deadline, rounded up, or 0 when the thread has none. Throws once
+   * the deadline has passed so no further statement is started.
+   */
+  public static int remainingSeconds() {
+    Long deadline = DEADLINE.get();
+    if (deadline == null) {
+      return 0;
+    }
+    long remainingMs = deadline - System.currentTimeMillis();
+    if (remainingMs <= 0) {
+      throw new DeadlineExceededException("Query deadline passed before the statement started");
+    }
+    return (int) Math.min(Integer.MAX_VALUE, (remainingMs + 999) / 1000);
+  }
+}
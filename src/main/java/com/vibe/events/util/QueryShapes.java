@@ -0,0 +1,43 @@
+package com.vibe.events.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reduces a SQL statement to its shape: literals become {@code ?}, IN-lists and placeholder lists of
+ * any length collapse to {@code (?+)}, runs of identical CASE arms collapse to one {@code (WHEN ..
+ * THEN ?)+} arm and whitespace is normalized, so statements that differ only in values, list sizes
+ * or arm counts group together while different filter combinations stay apart.
+ */
+public final class QueryShapes {
+  private static final Pattern BLOCK_COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+  private static final Pattern LINE_COMMENT = Pattern.compile("--[^\\n]*");
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER =
+      Pattern.compile("(?<![\\w.$?])\\d+(?:\\.\\d+)?(?![\\w.])");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Pattern IN_LIST =
+      Pattern.compile("(?i)\\bIN ?\\( ?\\?(?: ?, ?\\?)* ?\\)");
+  private static final Pattern CASE_ARMS =
+      Pattern.compile("(?i)\\b(WHEN [^()]*? THEN \\?)(?: \\1)*(?= (?:WHEN|ELSE|END)\\b)");
+  private static final Pattern PLACEHOLDER_LIST =
+      Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+  private static final Pattern REPEATED_LIST =
+      Pattern.compile("\\(\\?\\+\\)(?:\\s*,\\s*\\(\\?\\+\\))+");
+
+  private QueryShapes() {}
+
+  public static String normalize(String sql) {
+    if (sql == null) {
+      return "";
+    }
+    String shape = BLOCK_COMMENT.matcher(sql).replaceAll(" ");
+    shape = LINE_COMMENT.matcher(shape).replaceAll(" ");
+    shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+    shape = NUMBER.matcher(shape).replaceAll("?");
+    shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    shape = IN_LIST.matcher(shape).replaceAll("IN (?+)");
+    shape = CASE_ARMS.matcher(shape).replaceAll("($1)+");
+    shape = PLACEHOLDER_LIST.matcher(shape).replaceAll("(?+)");
+    return REPEATED_LIST.matcher(shape).replaceAll("(?+)");
+  }
+}
@@ -1,9 +1,14 @@
 package com.vibe.events.util;
 
+import com.vibe.events.dto.FailureRow;
+import com.vibe.events.dto.SuccessRow;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
@@ -13,31 +18,153 @@ import org.springframework.jdbc.core.RowMapper;
 public final class RowMapperUtil {
   private static final Set<String> STRING_COLUMNS =
       Set.of("id", "source_payload", "transformed_payload");
+  private static final List<String> SUCCESS_COLUMNS =
+      List.of(
+          "id",
+          "event_datetime",
+          "event_trace_id",
+          "account_number",
+          "customer_type",
+          "source_partition_id",
+          "target_partition_id",
+          "source_offset",
+          "target_offset",
+          "latency_event_received_ms",
+          "latency_ms");
+  private static final List<String> FAILURE_COLUMNS =
+      List.of(
+          "id",
+          "event_datetime",
+          "event_trace_id",
+          "account_number",
+          "exception_type",
+          "exception_message",
+          "retriable",
+          "retry_attempt",
+          "source_partition_id",
+          "source_offset",
+          "latency_event_received_ms",
+          "latency_ms");
 
   private RowMapperUtil() {}
 
+  /**
+   * Maps every column into a map keyed by its label. Column labels are read on the first row and
+   * kept for the rest, so each query needs its own instance.
+   */
   public static RowMapper<Map<String, Object>> dynamicRowMapper() {
-    return RowMapperUtil::mapRow;
-  }
-
-  private static Map<String, Object> mapRow(ResultSet rs, int rowNum) throws SQLException {
-    ResultSetMetaData meta = rs.getMetaData();
-    int count = meta.getColumnCount();
-    Map<String, Object> row = new LinkedHashMap<>(count);
-    for (int i = 1; i <= count; i++) {
-      String column = meta.getColumnLabel(i);
-      Object value = rs.getObject(i);
-      if (column == null) {
-        row.put(null, value);
-        continue;
+    return new DynamicRowMapper();
+  }
+
+  public static RowMapper<SuccessRow> successRowMapper() {
+    return indexed(
+        SUCCESS_COLUMNS,
+        (rs, c) ->
+            new SuccessRow(
+                rs.getLong(c[0]),
+                localDateTime(rs, c[1]),
+                rs.getString(c[2]),
+                rs.getString(c[3]),
+                rs.getString(c[4]),
+                nullableInt(rs, c[5]),
+                nullableInt(rs, c[6]),
+                nullableLong(rs, c[7]),
+                nullableLong(rs, c[8]),
+                rs.getLong(c[9]),
+                rs.getLong(c[10])));
+  }
+
+  public static RowMapper<FailureRow> failureRowMapper() {
+    return indexed(
+        FAILURE_COLUMNS,
+        (rs, c) ->
+            new FailureRow(
+                rs.getLong(c[0]),
+                localDateTime(rs, c[1]),
+                rs.getString(c[2]),
+                rs.getString(c[3]),
+                rs.getString(c[4]),
+                rs.getString(c[5]),
+                nullableInt(rs, c[6]),
+                nullableInt(rs, c[7]),
+                nullableInt(rs, c[8]),
+                nullableLong(rs, c[9]),
+                rs.getLong(c[10]),
+                rs.getLong(c[11])));
+  }
+
+  /**
+   * Builds a mapper that resolves {@code columns} to result-set indexes on the first row and reads
+   * every later row by index. The indexes stay with the mapper, so each query needs its own
+   * instance; the factories above return a new one per call.
+   */
+  public static <T> RowMapper<T> indexed(List<String> columns, IndexedRowMapper<T> mapper) {
+    return new RowMapper<>() {
+      private int[] indexes;
+
+      @Override
+      public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+        if (indexes == null) {
+          int[] resolved = new int[columns.size()];
+          for (int i = 0; i < resolved.length; i++) {
+            resolved[i] = rs.findColumn(columns.get(i));
+          }
+          indexes = resolved;
+        }
+        return mapper.map(rs, indexes);
+      }
+    };
+  }
+
+  public static LocalDateTime localDateTime(ResultSet rs, int column) throws SQLException {
+    Timestamp value = rs.getTimestamp(column);
+    return value == null ? null : value.toLocalDateTime();
+  }
+
+  public static Integer nullableInt(ResultSet rs, int column) throws SQLException {
+    int value = rs.getInt(column);
+    return rs.wasNull() ? null : value;
+  }
+
+  public static Long nullableLong(ResultSet rs, int column) throws SQLException {
+    long value = rs.getLong(column);
+    return rs.wasNull() ? null : value;
+  }
+
+  @FunctionalInterface
+  public interface IndexedRowMapper<T> {
+    T map(ResultSet rs, int[] columns) throws SQLException;
+  }
+
+  private static final class DynamicRowMapper implements RowMapper<Map<String, Object>> {
+    private String[] labels;
+    private boolean[] stringColumns;
+
+    @Override
+    public Map<String, Object> mapRow(ResultSet rs, int rowNum) throws SQLException {
+      if (labels == null) {
+        resolve(rs.getMetaData());
+      }
+      Map<String, Object> row = new LinkedHashMap<>(labels.length * 4 / 3 + 1);
+      for (int i = 0; i < labels.length; i++) {
+        Object value = rs.getObject(i + 1);
+        row.put(labels[i], stringColumns[i] ? Objects.toString(value, null) : value);
       }
-      String normalized = column.toLowerCase(Locale.ROOT);
-      if (STRING_COLUMNS.contains(normalized)) {
-        row.put(column, Objects.toString(value, null));
-      } else {
-        row.put(column, value);
+      return row;
+    }
+
+    private void resolve(ResultSetMetaData meta) throws SQLException {
+      int count = meta.getColumnCount();
+      String[] resolvedLabels = new String[count];
+      boolean[] resolvedStrings = new boolean[count];
+      for (int i = 0; i < count; i++) {
+        String column = meta.getColumnLabel(i + 1);
+        resolvedLabels[i] = column;
+        resolvedStrings[i] =
+            column != null && STRING_COLUMNS.contains(column.toLowerCase(Locale.ROOT));
       }
+      stringColumns = resolvedStrings;
+      labels = resolvedLabels;
     }
-    return row;
   }
 }
@@ -0,0 +1,72 @@
+package com.vibe.events.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import com.vibe.events.dto.HousekeepingRunResponse;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Sql(scripts = {"/schema-h2.sql", "/data-h2.sql"}, executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
+class HousekeepingServiceTest {
+  private static final String PARTITIONED_TABLE = "loans_in_success";
+
+  @MockitoBean
+  private PartitionService partitionService;
+
+  @Autowired
+  private HousekeepingService housekeepingService;
+
+  @Autowired
+  private JdbcClient jdbcClient;
+
+  @Test
+  void retentionWaitsForARunningPartitionMaintenance() throws Exception {
+    CountDownLatch maintaining = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(partitionService.isPartitioned(anyString()))
+        .thenAnswer(call -> PARTITIONED_TABLE.equals(call.getArgument(0)));
+    when(partitionService.ensureFuturePartitions(anyString(), any()))
+        .thenAnswer(
+            call -> {
+              maintaining.countDown();
+              release.await(10, TimeUnit.SECONDS);
+              return 0;
+            });
+    jdbcClient
+        .sql(
+            "INSERT INTO payments_in_success (id, event_datetime, latency_ms) "
+                + "VALUES (900001, :eventDatetime, 100)")
+        .param("eventDatetime", LocalDate.now().minusDays(30).atTime(12, 0))
+        .update();
+
+    CompletableFuture<HousekeepingRunResponse> maintenance =
+        CompletableFuture.supplyAsync(
+            () -> housekeepingService.runAudit("PARTITION_MAINTENANCE", "MANUAL", null));
+    assertThat(maintaining.await(10, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<HousekeepingRunResponse> retention =
+        CompletableFuture.supplyAsync(
+            () -> housekeepingService.runRetention("payments.in", "MANUAL", null));
+
+    Thread.sleep(300);
+    assertThat(retention).isNotDone();
+
+    release.countDown();
+    assertThat(maintenance.get(10, TimeUnit.SECONDS).status()).isEqualTo("COMPLETED");
+    HousekeepingRunResponse run = retention.get(10, TimeUnit.SECONDS);
+    assertThat(run.status()).isEqualTo("COMPLETED");
+    assertThat(run.deletedSuccess()).isPositive();
+  }
+}
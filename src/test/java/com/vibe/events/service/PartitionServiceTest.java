@@ -0,0 +1,70 @@
+package com.vibe.events.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.vibe.events.config.HousekeepingProperties;
+import com.vibe.events.repo.PartitionRepository;
+import com.vibe.events.repo.PartitionRepository.PartitionRow;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PartitionServiceTest {
+  private static final String TABLE = "payments_in_success";
+  private static final LocalDate DAY = LocalDate.of(2026, 1, 2);
+
+  private final PartitionRepository repository = mock(PartitionRepository.class);
+  private final HousekeepingProperties properties = new HousekeepingProperties();
+  private final PartitionService service = new PartitionService(repository, properties);
+
+  @BeforeEach
+  void setUp() {
+    properties.getPartitioning().setEnabled(true);
+    when(repository.loadPartitions(TABLE))
+        .thenReturn(
+            List.of(
+                new PartitionRow("p_history", DAY.minusDays(1), 100),
+                new PartitionRow("p20260101", DAY, 10),
+                new PartitionRow("p20260102", DAY.plusDays(1), 20),
+                new PartitionRow("p_future", null, 0)));
+  }
+
+  @Test
+  void tablesAreNeverTreatedAsPartitionedWhilePartitioningIsDisabled() {
+    properties.getPartitioning().setEnabled(false);
+
+    assertThat(service.isPartitioned(TABLE)).isFalse();
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void tablesWithoutPartitionsAreSkipped() {
+    assertThat(service.isPartitioned(TABLE)).isTrue();
+    assertThat(service.isPartitioned("loans_in_success")).isFalse();
+    assertThat(service.ensureFuturePartitions("loans_in_success", DAY)).isZero();
+  }
+
+  @Test
+  void dropsOnlyPartitionsEndingOnOrBeforeTheCutoff() {
+    assertThat(service.estimateExpiredRows(TABLE, DAY)).isEqualTo(110);
+    assertThat(service.dropExpired(TABLE, DAY)).isEqualTo(110);
+
+    verify(repository).dropPartitions(TABLE, List.of("p_history", "p20260101"));
+  }
+
+  @Test
+  void splitsTheMaxvaluePartitionThroughTheFutureWindow() {
+    properties.getPartitioning().setFutureDays(3);
+
+    assertThat(service.ensureFuturePartitions(TABLE, DAY)).isEqualTo(3);
+
+    verify(repository)
+        .addPartitions(
+            TABLE, "p_future", List.of(DAY.plusDays(1), DAY.plusDays(2), DAY.plusDays(3)));
+  }
+}
@@ -0,0 +1,154 @@
+package com.vibe.events.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.vibe.events.config.AggregationProperties;
+import com.vibe.events.error.DeadlineExceededException;
+import com.vibe.events.registry.EventDefinition;
+import com.vibe.events.registry.EventRegistry;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class QueryFanoutTest {
+  // Counts to a large number row by row, so it runs until the statement is cancelled.
+  private static final String SLOW_QUERY =
+      """
+      WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < 1000000000)
+      SELECT COUNT(*) FROM n
+      """;
+
+  @Autowired
+  private JdbcClient jdbcClient;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private EventRegistry registry;
+
+  private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+  private final AggregationProperties properties = new AggregationProperties();
+  private final AtomicReference<Throwable> slowQueryError = new AtomicReference<>();
+  private final CountDownLatch slowQueryDone = new CountDownLatch(1);
+  private QueryFanout fanout;
+
+  @BeforeEach
+  void setUp() {
+    executor.setCorePoolSize(2);
+    executor.initialize();
+    properties.getFanout().setDeadlineMs(1000);
+    fanout = new QueryFanout(executor, properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  void aTaskPastTheDeadlineHasItsQueryCancelled() throws Exception {
+    long start = System.currentTimeMillis();
+
+    assertThatThrownBy(() -> fanout.map("slow", List.of(definition("payments.in")), this::slow))
+        .isInstanceOf(DeadlineExceededException.class);
+
+    assertThat(slowQueryDone.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(slowQueryError.get()).isInstanceOf(DataAccessException.class);
+    assertThat(System.currentTimeMillis() - start).isLessThan(5_000);
+  }
+
+  @Test
+  void aFailingTaskFailsTheFanOutAndItsSiblingsStillStopAtTheDeadline() throws Exception {
+    IllegalStateException failure = new IllegalStateException("payments.in is broken");
+
+    assertThatThrownBy(
+            () ->
+                fanout.map(
+                    "partial",
+                    List.of(definition("loans.in"), definition("payments.in")),
+                    definition -> {
+                      if ("payments.in".equals(definition.getKey())) {
+                        throw failure;
+                      }
+                      return slow(definition);
+                    }))
+        .isSameAs(failure);
+
+    assertThat(slowQueryDone.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(slowQueryError.get()).isInstanceOf(DataAccessException.class);
+  }
+
+  @Test
+  void resultsComeBackInDefinitionOrder() {
+    List<String> keys =
+        fanout.map(
+            "keys",
+            List.of(definition("payments.in"), definition("loans.in")),
+            definition ->
+                jdbcClient
+                    .sql("SELECT :key")
+                    .param("key", definition.getKey())
+                    .query(String.class)
+                    .single());
+
+    assertThat(keys).containsExactly("payments.in", "loans.in");
+  }
+
+  @Test
+  void aFailedRollupSyncInsideATaskStillReturnsTheScanResult() {
+    TransactionTemplate sync = new TransactionTemplate(transactionManager);
+
+    List<String> keys =
+        fanout.map(
+            "sync then scan",
+            List.of(definition("payments.in")),
+            definition -> {
+              // Mirrors RollupService.sync: a failed write is logged and the task scans instead.
+              try {
+                sync.executeWithoutResult(
+                    status -> {
+                      jdbcClient.sql("SELECT 1").query(Integer.class).single();
+                      throw new IllegalStateException("rollup sync failed");
+                    });
+              } catch (IllegalStateException ex) {
+                // fall back to the raw scan
+              }
+              return jdbcClient
+                  .sql("SELECT :key")
+                  .param("key", definition.getKey())
+                  .query(String.class)
+                  .single();
+            });
+
+    assertThat(keys).containsExactly("payments.in");
+  }
+
+  private Long slow(EventDefinition definition) {
+    try {
+      return jdbcClient.sql(SLOW_QUERY).query(Long.class).single();
+    } catch (RuntimeException ex) {
+      slowQueryError.set(ex);
+      throw ex;
+    } finally {
+      slowQueryDone.countDown();
+    }
+  }
+
+  private EventDefinition definition(String eventKey) {
+    return registry.getRequired(eventKey);
+  }
+}
@@ -0,0 +1,150 @@
+package com.vibe.events.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.vibe.events.config.ReplayProperties;
+import com.vibe.events.repo.ReplayAuditRepository;
+import com.vibe.events.repo.ReplayAuditRepository.ReplayItemUpdate;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import tools.jackson.databind.json.JsonMapper;
+
+class ReplayCallbackBufferTest {
+  @TempDir
+  Path logDir;
+
+  @Test
+  void coalescesUpdatesPerRecordAndFlushesOnStop() throws Exception {
+    ReplayAuditRepository repository = mock(ReplayAuditRepository.class);
+    ReplayCallbackBuffer buffer = buffer(repository);
+    buffer.start();
+
+    buffer.append(List.of(update(1, "QUEUED"), update(2, "FAILED")));
+    buffer.append(List.of(update(1, "REPLAYED")));
+    assertThat(buffer.pendingCount()).isEqualTo(2);
+    buffer.stop();
+
+    List<ReplayItemUpdate> flushed = captureFlushed(repository);
+    assertThat(flushed).extracting(ReplayItemUpdate::status).containsExactly("REPLAYED", "FAILED");
+    assertThat(segments()).isEmpty();
+  }
+
+  @Test
+  void acknowledgedUpdatesSurviveCrashAndAreReplayedOnStart() throws Exception {
+    ReplayAuditRepository crashed = mock(ReplayAuditRepository.class);
+    ReplayCallbackBuffer first = buffer(crashed);
+    first.start();
+    try {
+      first.append(List.of(update(7, "REPLAYED"), update(8, "FAILED")));
+      verify(crashed, never()).updateItemStatuses(anyList());
+
+      ReplayAuditRepository restarted = mock(ReplayAuditRepository.class);
+      ReplayCallbackBuffer second = buffer(restarted);
+      second.start();
+      assertThat(second.pendingCount()).isEqualTo(2);
+      second.stop();
+
+      assertThat(captureFlushed(restarted))
+          .extracting(ReplayItemUpdate::recordId)
+          .containsExactlyInAnyOrder(7L, 8L);
+    } finally {
+      // The "crashed" buffer still owns a flusher thread and an open segment.
+      first.stop();
+    }
+  }
+
+  @Test
+  void appendsAfterStopGoStraightToTheRepository() {
+    ReplayAuditRepository repository = mock(ReplayAuditRepository.class);
+    ReplayCallbackBuffer buffer = buffer(repository);
+    buffer.start();
+    buffer.stop();
+
+    buffer.append(List.of(update(3, "REPLAYED")));
+
+    assertThat(captureFlushed(repository))
+        .extracting(ReplayItemUpdate::recordId)
+        .containsExactly(3L);
+    assertThat(buffer.pendingCount()).isZero();
+  }
+
+  @Test
+  void stopWaitsForAFlushStillInFlightBeforeFlushingNewerUpdates() throws Exception {
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> written = new CopyOnWriteArrayList<>();
+    ReplayAuditRepository repository = mock(ReplayAuditRepository.class);
+    doAnswer(
+            call -> {
+              List<ReplayItemUpdate> updates = call.getArgument(0);
+              written.add(updates.get(0).status());
+              entered.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return null;
+            })
+        .when(repository)
+        .updateItemStatuses(anyList());
+    ReplayProperties properties = properties();
+    properties.getCallbacks().setFlushSize(1);
+    properties.getCallbacks().setStopWaitMs(50);
+    ReplayCallbackBuffer buffer =
+        new ReplayCallbackBuffer(repository, JsonMapper.builder().build(), properties);
+    buffer.start();
+
+    buffer.append(List.of(update(1, "QUEUED")));
+    assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+    buffer.append(List.of(update(1, "REPLAYED")));
+    Thread stopper = new Thread(buffer::stop);
+    stopper.start();
+    stopper.join(500);
+
+    assertThat(written).containsExactly("QUEUED");
+    release.countDown();
+    stopper.join(5_000);
+    assertThat(stopper.isAlive()).isFalse();
+    assertThat(written).containsExactly("QUEUED", "REPLAYED");
+  }
+
+  private ReplayProperties properties() {
+    ReplayProperties properties = new ReplayProperties();
+    properties.getCallbacks().setLogDir(logDir.toString());
+    properties.getCallbacks().setFlushIntervalMs(3_600_000);
+    return properties;
+  }
+
+  private ReplayCallbackBuffer buffer(ReplayAuditRepository repository) {
+    return new ReplayCallbackBuffer(repository, JsonMapper.builder().build(), properties());
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<ReplayItemUpdate> captureFlushed(ReplayAuditRepository repository) {
+    ArgumentCaptor<List<ReplayItemUpdate>> captor = ArgumentCaptor.forClass(List.class);
+    verify(repository).updateItemStatuses(captor.capture());
+    return captor.getValue();
+  }
+
+  private List<Path> segments() throws Exception {
+    try (Stream<Path> files = Files.list(logDir)) {
+      return files.toList();
+    }
+  }
+
+  private ReplayItemUpdate update(long recordId, String status) {
+    LocalDateTime now = LocalDateTime.now();
+    return new ReplayItemUpdate("job-1", recordId, status, 1, now, null, null, now);
+  }
+}
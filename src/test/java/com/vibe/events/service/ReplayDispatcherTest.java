@@ -0,0 +1,98 @@
+package com.vibe.events.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vibe.events.config.ReplayProperties;
+import com.vibe.events.dto.ReplayExternalRequest;
+import com.vibe.events.dto.ReplayExternalResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+class ReplayDispatcherTest {
+  private final ReplayProperties properties = new ReplayProperties();
+  private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+  private ReplayDispatcher dispatcher;
+  private ReplayExternalClient client;
+
+  @BeforeEach
+  void setUp() {
+    executor.setCorePoolSize(properties.getDispatch().getPoolSize());
+    executor.initialize();
+    dispatcher = new ReplayDispatcher(executor, properties, new SimpleMeterRegistry());
+    client = new ReplayExternalClient(properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  void pipelinesBatchesAndReplaysEveryIdOnce() throws Exception {
+    List<Long> ids = LongStream.rangeClosed(1, 5000).boxed().toList();
+    try (ReplayStubServer stub = new ReplayStubServer(20, 200)) {
+      List<Integer> replayed = dispatcher.dispatch("payments.in", ids, sender(stub.url()));
+
+      assertThat(replayed.stream().mapToInt(Integer::intValue).sum()).isEqualTo(ids.size());
+      assertThat(stub.receivedCount()).isEqualTo(ids.size());
+      assertThat(stub.receivedIds()).hasSize(ids.size());
+      assertThat(stub.maxInFlight()).isGreaterThan(1);
+      assertThat(dispatcher.status("payments.in").batchSize())
+          .isGreaterThan(properties.getDispatch().getInitialBatchSize());
+    }
+  }
+
+  @Test
+  void downstreamErrorsShrinkWindowAndBatchSize() throws Exception {
+    List<Long> ids = LongStream.rangeClosed(1, 500).boxed().toList();
+    try (ReplayStubServer stub = new ReplayStubServer(0, 503)) {
+      List<Integer> replayed = dispatcher.dispatch("loans.in", ids, sender(stub.url()));
+
+      assertThat(replayed).allMatch(count -> count == 0);
+      ReplayDispatcher.LaneStatus status = dispatcher.status("loans.in");
+      assertThat(status.limit()).isEqualTo(1);
+      assertThat(status.inFlight()).isZero();
+      assertThat(status.batchSize()).isEqualTo(properties.getDispatch().getMinBatchSize());
+    }
+  }
+
+  @Test
+  void failuresFromOneWindowHalveItOnlyOnce() throws Exception {
+    ReplayProperties.Dispatch dispatch = properties.getDispatch();
+    int window = dispatch.getInitialConcurrency();
+    int batchSize = dispatch.getInitialBatchSize();
+    List<Long> ids = LongStream.rangeClosed(1, (long) window * batchSize).boxed().toList();
+    try (ReplayStubServer stub = new ReplayStubServer(200, 503)) {
+      dispatcher.dispatch("payments.in", ids, sender(stub.url()));
+
+      ReplayDispatcher.LaneStatus status = dispatcher.status("payments.in");
+      assertThat(status.limit()).isEqualTo(window / 2);
+      assertThat(status.batchSize()).isEqualTo(batchSize / 2);
+    }
+  }
+
+  private ReplayDispatcher.BatchSender<Integer> sender(String url) {
+    return new ReplayDispatcher.BatchSender<>() {
+      @Override
+      public Integer send(List<Long> batch) {
+        ReplayExternalResponse response =
+            client.replay(
+                url,
+                new ReplayExternalRequest(
+                    "test", batch, UUID.randomUUID().toString(), "test", "test", false));
+        return response.results().size();
+      }
+
+      @Override
+      public Integer onError(List<Long> batch, Exception error) {
+        return 0;
+      }
+    };
+  }
+}
@@ -0,0 +1,163 @@
+package com.vibe.events.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vibe.events.config.ReplayProperties;
+import com.vibe.events.dto.ReplayExternalRequest;
+import com.vibe.events.dto.ReplayExternalResponse;
+import com.vibe.events.dto.ReplayExternalResult;
+import com.vibe.events.dto.ReplayFilterRequest;
+import com.vibe.events.repo.ReplayAuditRepository;
+import com.vibe.events.repo.ReplayAuditRepository.ReplayJobRecord;
+import com.vibe.events.repo.ReplayAuditRepository.ReplayJobStateRow;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+import org.springframework.web.client.ResourceAccessException;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Sql(scripts = {"/schema-h2.sql", "/data-h2.sql"}, executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
+class ReplayServiceTest {
+  private static final String EVENT_KEY = "loans.in";
+
+  @MockitoBean
+  private ReplayExternalClient externalClient;
+
+  @Autowired
+  private ReplayService replayService;
+
+  @Autowired
+  private ReplayAuditRepository auditRepository;
+
+  @Autowired
+  private ReplayProperties properties;
+
+  @Autowired
+  @Qualifier("replayExecutor")
+  private ThreadPoolTaskExecutor replayExecutor;
+
+  private int pageSize;
+
+  @BeforeEach
+  void onePerPage() {
+    pageSize = properties.getJobPageSize();
+    properties.setJobPageSize(1);
+  }
+
+  @AfterEach
+  void restore() {
+    properties.setJobPageSize(pageSize);
+    replayService.start();
+  }
+
+  @Test
+  void filterJobCheckpointsEveryPageAndCompletes() throws Exception {
+    when(externalClient.replay(anyString(), any()))
+        .thenAnswer(call -> replayed(call.getArgument(1)));
+
+    String jobId = startFilterJob();
+    awaitIdle();
+
+    ReplayJobStateRow job = auditRepository.loadJobState(jobId).orElseThrow();
+    assertThat(job.status()).isEqualTo("COMPLETED");
+    assertThat(job.totalRequested()).isEqualTo(2);
+    assertThat(job.processedCount()).isEqualTo(2);
+    assertThat(job.succeededCount()).isEqualTo(2);
+    assertThat(job.checkpointRecordId()).isNotNull();
+    verify(externalClient, times(2)).replay(anyString(), any());
+  }
+
+  @Test
+  void shutdownLeavesTheJobRunningAndResumeResendsQueuedItems() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    when(externalClient.replay(anyString(), any()))
+        .thenAnswer(
+            call -> {
+              if (calls.incrementAndGet() == 1) {
+                replayService.stop();
+                throw new ResourceAccessException("Connection reset during shutdown");
+              }
+              return replayed(call.getArgument(1));
+            });
+
+    String jobId = startFilterJob();
+    awaitIdle();
+
+    ReplayJobStateRow paused = auditRepository.loadJobState(jobId).orElseThrow();
+    assertThat(paused.status()).isEqualTo("RUNNING");
+    assertThat(paused.checkpointRecordId()).isNull();
+    assertThat(paused.failedCount()).isZero();
+    assertThat(auditRepository.loadItemStatusCounts(jobId)).isEqualTo(Map.of("QUEUED", 1));
+
+    replayService.start();
+    replayService.resumeOrphanedJobs();
+    awaitIdle();
+
+    ReplayJobStateRow resumed = auditRepository.loadJobState(jobId).orElseThrow();
+    assertThat(resumed.status()).isEqualTo("COMPLETED");
+    assertThat(resumed.totalRequested()).isEqualTo(2);
+    assertThat(resumed.processedCount()).isEqualTo(2);
+    assertThat(auditRepository.loadItemStatusCounts(jobId)).isEqualTo(Map.of("REPLAYED", 2));
+    assertThat(calls.get()).isEqualTo(3);
+  }
+
+  @Test
+  void aLiveLeaseKeepsOtherInstancesFromResumingTheJob() {
+    LocalDateTime now = LocalDateTime.now().withNano(0);
+    auditRepository.insertJob(
+        new ReplayJobRecord(
+            "job-lease", EVENT_KEY, now.toLocalDate(), "filters", null, now, "test", "test", 0,
+            "RUNNING", now));
+
+    assertThat(auditRepository.claimJob("job-lease", "a", now, now.plusMinutes(5))).isTrue();
+    assertThat(auditRepository.claimJob("job-lease", "b", now, now.plusMinutes(5))).isFalse();
+    assertThat(auditRepository.loadResumableJobIds("filters", now)).isEmpty();
+
+    LocalDateTime expired = now.plusMinutes(6);
+    assertThat(auditRepository.loadResumableJobIds("filters", expired))
+        .containsExactly("job-lease");
+    assertThat(auditRepository.claimJob("job-lease", "b", expired, expired.plusMinutes(5)))
+        .isTrue();
+  }
+
+  private String startFilterJob() {
+    return replayService
+        .replayFilters(new ReplayFilterRequest(EVENT_KEY, LocalDate.now().toString(), null))
+        .jobId();
+  }
+
+  private void awaitIdle() throws InterruptedException {
+    ThreadPoolExecutor pool = replayExecutor.getThreadPoolExecutor();
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (pool.getCompletedTaskCount() < pool.getTaskCount()) {
+      assertThat(System.currentTimeMillis()).isLessThan(deadline);
+      Thread.sleep(20);
+    }
+  }
+
+  private static ReplayExternalResponse replayed(ReplayExternalRequest request) {
+    List<ReplayExternalResult> results =
+        request.ids().stream()
+            .map(id -> new ReplayExternalResult(id, "REPLAYED", "emitted-" + id, null, 1))
+            .toList();
+    return new ReplayExternalResponse(request.requestId(), "OK", results, null);
+  }
+}
@@ -0,0 +1,102 @@
+package com.vibe.events.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.vibe.events.dto.ReplayExternalRequest;
+import com.vibe.events.dto.ReplayExternalResponse;
+import com.vibe.events.dto.ReplayExternalResult;
+import com.vibe.events.dto.ReplayExternalSummary;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+public class ReplayStubServer implements AutoCloseable {
+  private final ObjectMapper objectMapper = JsonMapper.builder().build();
+  private final HttpServer server;
+  private final long delayMs;
+  private final int statusCode;
+  private final Set<Long> receivedIds = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger receivedCount = new AtomicInteger();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  public ReplayStubServer(long delayMs, int statusCode) throws IOException {
+    this.delayMs = delayMs;
+    this.statusCode = statusCode;
+    this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    this.server.createContext("/replay", this::handle);
+    this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    this.server.start();
+  }
+
+  public String url() {
+    return "http://127.0.0.1:" + server.getAddress().getPort() + "/replay";
+  }
+
+  public String url(String eventKey) {
+    return url() + "/" + eventKey;
+  }
+
+  public Set<Long> receivedIds() {
+    return receivedIds;
+  }
+
+  public int receivedCount() {
+    return receivedCount.get();
+  }
+
+  public int maxInFlight() {
+    return maxInFlight.get();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    try {
+      ReplayExternalRequest request =
+          objectMapper.readValue(exchange.getRequestBody(), ReplayExternalRequest.class);
+      if (delayMs > 0) {
+        Thread.sleep(delayMs);
+      }
+      if (statusCode != 200) {
+        exchange.sendResponseHeaders(statusCode, -1);
+        return;
+      }
+      receivedIds.addAll(request.ids());
+      receivedCount.addAndGet(request.ids().size());
+      List<ReplayExternalResult> results =
+          request.ids().stream()
+              .map(id -> new ReplayExternalResult(id, "REPLAYED", "emitted-" + id, null, 1))
+              .toList();
+      byte[] body =
+          objectMapper.writeValueAsBytes(
+              new ReplayExternalResponse(
+                  request.requestId(),
+                  "completed",
+                  results,
+                  new ReplayExternalSummary(results.size(), results.size(), 0)));
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      exchange.sendResponseHeaders(503, -1);
+    } finally {
+      inFlight.decrementAndGet();
+      exchange.close();
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+  }
+}
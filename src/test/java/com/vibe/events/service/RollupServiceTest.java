@@ -0,0 +1,111 @@
+package com.vibe.events.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vibe.events.config.AggregationProperties;
+import com.vibe.events.repo.RollupRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Sql(scripts = {"/schema-h2.sql", "/data-h2.sql"}, executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
+class RollupServiceTest {
+  private static final String TABLE = "payments_in_success";
+
+  @Autowired
+  private RollupService rollupService;
+
+  @Autowired
+  private RollupRepository rollupRepository;
+
+  @Autowired
+  private AggregationProperties properties;
+
+  @Autowired
+  private JdbcClient jdbcClient;
+
+  @Test
+  void rollupTotalsMatchRawRows() {
+    assertThat(rollupService.sync(TABLE)).isTrue();
+
+    LocalDate day = LocalDate.now();
+    assertThat(rollupRepository.loadSuccessTotals(TABLE, day).successCount())
+        .isEqualTo(rawCount(day));
+    assertThat(rollupRepository.loadHourlySuccessBuckets(TABLE, day)).hasSize(2);
+  }
+
+  @Test
+  void rowsCommittedBehindTheWatermarkAreRolledUpLater() {
+    assertThat(rollupService.sync(TABLE)).isTrue();
+    long maxId = rollupRepository.loadMaxId(TABLE);
+
+    // maxId + 3 commits first; maxId + 1 and + 2 are still in flight when the chunk is read.
+    insertRow(maxId + 3);
+    assertThat(rollupService.sync(TABLE)).isTrue();
+    assertThat(rollupRepository.loadGaps("rollup", TABLE))
+        .singleElement()
+        .satisfies(
+            gap -> {
+              assertThat(gap.fromId()).isEqualTo(maxId);
+              assertThat(gap.toId()).isEqualTo(maxId + 2);
+            });
+
+    insertRow(maxId + 1);
+    rollupService.catchUpAll();
+
+    LocalDate day = LocalDate.now();
+    assertThat(rollupRepository.loadSuccessTotals(TABLE, day).successCount())
+        .isEqualTo(rawCount(day))
+        .isEqualTo(4);
+    assertThat(rollupRepository.loadGaps("rollup", TABLE))
+        .singleElement()
+        .satisfies(gap -> assertThat(gap.fromId()).isEqualTo(maxId + 1));
+  }
+
+  @Test
+  void inlineSyncStopsAtItsChunkBudget() {
+    AggregationProperties.Rollup rollup = properties.getRollup();
+    int chunkSize = rollup.getChunkSize();
+    int maxInlineChunks = rollup.getMaxInlineChunks();
+    rollup.setChunkSize(1);
+    rollup.setMaxInlineChunks(1);
+    try {
+      assertThat(rollupService.sync(TABLE)).isFalse();
+      rollupService.catchUpAll();
+      assertThat(rollupService.sync(TABLE)).isTrue();
+    } finally {
+      rollup.setChunkSize(chunkSize);
+      rollup.setMaxInlineChunks(maxInlineChunks);
+    }
+    assertThat(rollupRepository.loadSuccessTotals(TABLE, LocalDate.now()).successCount())
+        .isEqualTo(2);
+  }
+
+  private void insertRow(long id) {
+    jdbcClient
+        .sql(
+            "INSERT INTO payments_in_success (id, event_datetime, latency_ms) "
+                + "VALUES (:id, :eventDatetime, 100)")
+        .param("id", id)
+        .param("eventDatetime", LocalDate.now().atTime(12, 0))
+        .update();
+  }
+
+  private long rawCount(LocalDate day) {
+    LocalDateTime start = day.atStartOfDay();
+    return jdbcClient
+        .sql(
+            "SELECT COUNT(*) FROM payments_in_success "
+                + "WHERE event_datetime >= :start AND event_datetime < :end")
+        .param("start", start)
+        .param("end", start.plusDays(1))
+        .query(Long.class)
+        .single();
+  }
+}
@@ -2,20 +2,64 @@ package com.vibe.events.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.Assertions.withinPercentage;
 
+import com.vibe.events.config.AggregationProperties;
+import com.vibe.events.config.CacheConfig;
+import com.vibe.events.config.HousekeepingProperties;
+import com.vibe.events.config.QueryProfilerProperties;
+import com.vibe.events.config.RepositoryMetricsPostProcessor;
 import com.vibe.events.dto.BucketPoint;
+import com.vibe.events.dto.CountMode;
 import com.vibe.events.dto.EventBucketsResponse;
 import com.vibe.events.dto.EventSummaryResponse;
+import com.vibe.events.dto.FailureRow;
 import com.vibe.events.dto.HomeAggregationResponse;
+import com.vibe.events.dto.HousekeepingRunResponse;
+import com.vibe.events.dto.IndexAdviceResponse;
 import com.vibe.events.dto.PagedRowsResponse;
+import com.vibe.events.dto.QueryShapeResponse;
+import com.vibe.events.dto.SlowQuerySample;
+import com.vibe.events.dto.ReplayJobListResponse;
+import com.vibe.events.dto.SearchResponse;
+import com.vibe.events.dto.SuccessRow;
+import com.vibe.events.dto.WarmupStatusResponse;
+import com.vibe.events.repo.AggregationRepository;
+import com.vibe.events.repo.LatencySketchRepository;
+import com.vibe.events.repo.ReplayAuditRepository;
+import com.vibe.events.repo.ReplayAuditRepository.ReplayAuditStatsRow;
+import com.vibe.events.repo.ReplayAuditRepository.ReplayItemRecord;
+import com.vibe.events.repo.ReplayAuditRepository.ReplayItemUpdate;
+import com.vibe.events.repo.ReplayAuditRepository.ReplayJobItemRow;
+import com.vibe.events.repo.ReplayAuditRepository.ReplayJobRecord;
+import com.vibe.events.repo.ReplayAuditRepository.ReplayJobUpdate;
+import com.vibe.events.repo.ReplayStatsRepository;
+import com.vibe.events.util.LatencySketch;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @Sql(scripts = {"/schema-h2.sql", "/data-h2.sql"}, executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
@@ -27,6 +71,67 @@ class ServiceIntegrationTest {
   @Autowired
   private RecordsService recordsService;
 
+  @Autowired
+  private ReplayAuditRepository replayAuditRepository;
+
+  @Autowired
+  private ReplayService replayService;
+
+  @Autowired
+  private ReplayStatsRepository replayStatsRepository;
+
+  @Autowired
+  private PurgeEngine purgeEngine;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private QueryProfiler queryProfiler;
+
+  @Autowired
+  private QueryProfilerProperties queryProfilerProperties;
+
+  @Autowired
+  private IndexAdvisor indexAdvisor;
+
+  @Autowired
+  private TraceIndexService traceIndexService;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private JdbcClient jdbcClient;
+
+  @Autowired
+  private HousekeepingService housekeepingService;
+
+  @Autowired
+  private CombinedScanService combinedScanService;
+
+  @Autowired
+  private HousekeepingProperties housekeepingProperties;
+
+  @Autowired
+  private AggregationProperties aggregationProperties;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  @Autowired
+  private LatencySketchRepository sketchRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private WarmupScheduler warmupScheduler;
+
+  @Autowired
+  @Qualifier("warmupExecutor")
+  private ThreadPoolTaskExecutor warmupExecutor;
+
   @Test
   void homeAggregationReturnsTotals() {
     LocalDate day = LocalDate.now();
@@ -39,6 +144,50 @@ class ServiceIntegrationTest {
     assertThat(response.events()).hasSize(2);
   }
 
+  @Test
+  void softExpiredAggregatesAreServedStaleAndRefreshedOnce() throws Exception {
+    LocalDate day = LocalDate.now();
+    cacheManager.getCache(CacheConfig.HOME_AGG).clear();
+    HomeAggregationResponse first = aggregationService.getHomeAggregation(day);
+    Timer computes =
+        meterRegistry.get("aggregation.compute").tag("cache", CacheConfig.HOME_AGG).timer();
+    long computed = computes.count();
+
+    long softTtlMs = aggregationProperties.getCache().getTodaySoftTtlMs();
+    warmupScheduler.stop();
+    try {
+      awaitWarmupWorkersRetired();
+      aggregationProperties.getCache().setTodaySoftTtlMs(0);
+      Thread.sleep(5);
+      WarmupStatusResponse before = warmupScheduler.status();
+
+      for (int i = 0; i < 3; i += 1) {
+        HomeAggregationResponse stale = aggregationService.getHomeAggregation(day);
+        assertThat(stale.generatedAt()).isEqualTo(first.generatedAt());
+      }
+      WarmupStatusResponse queued = warmupScheduler.status();
+      assertThat(queued.pending()).isEqualTo(before.pending() + 1);
+      assertThat(queued.deduplicated()).isEqualTo(before.deduplicated() + 2);
+      assertThat(computes.count()).isEqualTo(computed);
+
+      warmupScheduler.start();
+      long deadline = System.currentTimeMillis() + 5_000;
+      while (warmupScheduler.status().completed() == before.completed()) {
+        assertThat(System.currentTimeMillis()).isLessThan(deadline);
+        Thread.sleep(10);
+      }
+    } finally {
+      aggregationProperties.getCache().setTodaySoftTtlMs(softTtlMs);
+      if (!warmupScheduler.isRunning()) {
+        warmupScheduler.start();
+      }
+    }
+
+    assertThat(computes.count()).isEqualTo(computed + 1);
+    HomeAggregationResponse refreshed = aggregationService.getHomeAggregation(day);
+    assertThat(refreshed.generatedAt()).isAfter(first.generatedAt());
+  }
+
   @Test
   void eventSummaryReturnsExpectedKpis() {
     LocalDate day = LocalDate.now();
@@ -65,7 +214,7 @@ class ServiceIntegrationTest {
   @Test
   void successRowsFilterByTraceId() {
     LocalDate day = LocalDate.now();
-    PagedRowsResponse response =
+    PagedRowsResponse<SuccessRow> response =
         recordsService.loadSuccessRows(
             day,
             null,
@@ -75,6 +224,8 @@ class ServiceIntegrationTest {
             "payments.in",
             0,
             50,
+            null,
+            null,
             "pay-trace-2",
             null,
             null,
@@ -85,14 +236,38 @@ class ServiceIntegrationTest {
 
     assertThat(response.total()).isEqualTo(1);
     assertThat(response.rows()).hasSize(1);
-    Map<String, Object> row = (Map<String, Object>) response.rows().get(0);
-    assertThat(row.get("event_trace_id")).isEqualTo("pay-trace-2");
+    SuccessRow row = response.rows().get(0);
+    assertThat(row.eventTraceId()).isEqualTo("pay-trace-2");
+    assertThat(objectMapper.writeValueAsString(row))
+        .contains("\"id\":\"" + row.id() + "\"")
+        .contains("\"event_trace_id\":\"pay-trace-2\"");
+  }
+
+  @Test
+  void successRowsSeekWithCursor() {
+    LocalDate day = LocalDate.now();
+    PagedRowsResponse<SuccessRow> first =
+        recordsService.loadSuccessRows(
+            day, null, null, null, null, "payments.in", 0, 1, null, "NONE", null, null, null,
+            null, null, null, null);
+    PagedRowsResponse<SuccessRow> second =
+        recordsService.loadSuccessRows(
+            day, null, null, null, null, "payments.in", 0, 1, first.nextCursor(), "LEDGER",
+            null, null, null, null, null, null, null);
+
+    assertThat(first.total()).isNull();
+    assertThat(first.hasMore()).isTrue();
+    assertThat(first.nextCursor()).isNotNull();
+    assertThat(second.total()).isEqualTo(2);
+    assertThat(second.hasMore()).isFalse();
+    assertThat(second.rows()).hasSize(1);
+    assertThat(second.rows().get(0).id()).isNotEqualTo(first.rows().get(0).id());
   }
 
   @Test
   void failureRowsFilterByExceptionType() {
     LocalDate day = LocalDate.now();
-    PagedRowsResponse response =
+    PagedRowsResponse<FailureRow> response =
         recordsService.loadFailureRows(
             day,
             null,
@@ -109,12 +284,33 @@ class ServiceIntegrationTest {
             null,
             null,
             null,
+            null,
+            null,
             "ValidationException",
             null,
             null,
             null);
 
     assertThat(response.total()).isEqualTo(1);
+    assertThat(response.rows())
+        .extracting(FailureRow::exceptionType)
+        .containsExactly("ValidationException");
+  }
+
+  @Test
+  void failureExportStreamsProjectedCsv() throws Exception {
+    LocalDate day = LocalDate.now();
+    RecordExport export =
+        recordsService.prepareFailureExport(
+            day, null, null, null, null, "loans.in", "csv", "exception_type,id", false, null,
+            null, null, null, null, null, null, null, null, null, null);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    export.writeTo(output);
+
+    String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+    assertThat(lines).hasSize(3);
+    assertThat(lines[0]).isEqualTo("exception_type,id");
+    assertThat(lines).anyMatch(line -> line.startsWith("ValidationException,"));
   }
 
   @Test
@@ -125,4 +321,442 @@ class ServiceIntegrationTest {
 
     assertThat(response).containsExactly("TimeoutException", "ValidationException");
   }
+
+  @Test
+  void replayItemStatusesApplyPerRecordInBulk() {
+    LocalDateTime now = LocalDateTime.now();
+    replayAuditRepository.insertJob(
+        new ReplayJobRecord(
+            "job-1", "loans.in", now.toLocalDate(), "ids", null, now, "test", "test", 3,
+            "RUNNING", now));
+    replayAuditRepository.insertItems(
+        LongStream.rangeClosed(1, 3)
+            .mapToObj(
+                id ->
+                    new ReplayItemRecord(
+                        "job-1", id, "loans.in", "QUEUED", 0, null, null, null, now, null, null,
+                        null, null, null, null))
+            .toList());
+
+    replayAuditRepository.updateItemStatuses(
+        List.of(
+            new ReplayItemUpdate("job-1", 1, "REPLAYED", 1, now, null, "emitted-1", now),
+            new ReplayItemUpdate("job-1", 2, "FAILED", 2, now, "boom", null, now)));
+
+    Map<Long, ReplayJobItemRow> items =
+        replayAuditRepository.loadReplayJobItems("job-1").stream()
+            .collect(Collectors.toMap(ReplayJobItemRow::recordId, item -> item));
+    assertThat(items.get(1L).status()).isEqualTo("REPLAYED");
+    assertThat(items.get(1L).emittedId()).isEqualTo("emitted-1");
+    assertThat(items.get(2L).status()).isEqualTo("FAILED");
+    assertThat(items.get(2L).attemptCount()).isEqualTo(2);
+    assertThat(items.get(2L).lastError()).isEqualTo("boom");
+    assertThat(items.get(3L).status()).isEqualTo("QUEUED");
+
+    ReplayJobListResponse jobs = replayService.getReplayJobs(null, null, null, null, 0, 10);
+    assertThat(jobs.stats().total()).isEqualTo(3);
+    assertThat(jobs.stats().replayed()).isEqualTo(1);
+    assertThat(jobs.stats().failed()).isEqualTo(1);
+    assertThat(jobs.stats().queued()).isEqualTo(1);
+    assertThat(jobs.operators()).containsExactly("test");
+    assertThat(jobs.jobs().get(0).succeeded()).isEqualTo(1);
+    assertThat(jobs.jobs().get(0).queued()).isEqualTo(1);
+    assertThat(
+            replayService.getReplayJobs("loans.in", "FAILED", null, null, 0, 10).stats().total())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void materializedReplayStatsMatchALiveRecompute() {
+    LocalDateTime created = LocalDateTime.now().withNano(987_000_000);
+    replayAuditRepository.insertJob(
+        new ReplayJobRecord(
+            "job-stats", "loans.in", created.toLocalDate(), "ids", null, created, "test", "test",
+            4, "RUNNING", created));
+    replayAuditRepository.insertItems(
+        LongStream.rangeClosed(1, 4)
+            .mapToObj(
+                id ->
+                    new ReplayItemRecord(
+                        "job-stats", id, "loans.in", "QUEUED", 0, null, null, null, created,
+                        null, null, null, null, null, null))
+            .toList());
+
+    LocalDateTime first = created.plusNanos(1_600_000_000);
+    LocalDateTime second = created.plusNanos(3_250_000_000L);
+    replayAuditRepository.updateItemStatuses(
+        List.of(
+            new ReplayItemUpdate("job-stats", 1, "REPLAYED", 1, first, null, "e-1", first),
+            new ReplayItemUpdate("job-stats", 2, "FAILED", 1, first, "boom", null, first),
+            new ReplayItemUpdate("job-stats", 3, "FAILED", 1, first, "boom", null, first)));
+    replayAuditRepository.updateItemStatuses(
+        List.of(new ReplayItemUpdate("job-stats", 3, "REPLAYED", 2, second, null, "e-3", second)));
+    replayAuditRepository.updateJobSummary(
+        new ReplayJobUpdate("job-stats", "PARTIAL", second));
+
+    ReplayAuditStatsRow materialized = replayStatsRepository.loadStats(null, null, null);
+    ReplayAuditStatsRow live = replayAuditRepository.loadReplayAuditStats(null, null, null, null);
+    assertThat(materialized.total()).isEqualTo(live.total()).isEqualTo(4);
+    assertThat(materialized.replayed()).isEqualTo(live.replayed()).isEqualTo(2);
+    assertThat(materialized.failed()).isEqualTo(live.failed()).isEqualTo(1);
+    assertThat(materialized.queued()).isEqualTo(live.queued()).isEqualTo(1);
+    assertThat(materialized.avgDurationMs()).isCloseTo(live.avgDurationMs(), within(0.001));
+    assertThat(materialized.latestAt()).isEqualTo(live.latestAt());
+
+    Map<String, Integer> itemCounts = replayAuditRepository.loadItemStatusCounts("job-stats");
+    ReplayJobListResponse.ReplayJobSummaryResponse job =
+        replayService.getReplayJobs(null, null, null, null, 0, 10).jobs().get(0);
+    assertThat(job.succeeded()).isEqualTo(itemCounts.get("REPLAYED").longValue());
+    assertThat(job.failed()).isEqualTo(itemCounts.get("FAILED").longValue());
+    assertThat(job.queued()).isEqualTo(itemCounts.get("QUEUED").longValue());
+
+    replayStatsRepository.applyDeltas(replayStatsRepository.loadJobRemovals(List.of("job-stats")));
+    ReplayAuditStatsRow removed = replayStatsRepository.loadStats(null, null, null);
+    assertThat(removed.total()).isZero();
+  }
+
+  @Test
+  void concurrentStatusFlipsAcrossJobsKeepReplayStatsConsistent() throws Exception {
+    LocalDateTime created = LocalDateTime.now().withNano(0);
+    List<String> jobIds = List.of("job-a", "job-b");
+    for (String jobId : jobIds) {
+      replayAuditRepository.insertJob(
+          new ReplayJobRecord(
+              jobId, "loans.in", created.toLocalDate(), "ids", null, created, "test", "test",
+              10, "RUNNING", created));
+      replayAuditRepository.insertItems(
+          LongStream.rangeClosed(1, 10)
+              .mapToObj(
+                  id ->
+                      new ReplayItemRecord(
+                          jobId, id, "loans.in", "QUEUED", 0, null, null, null, created, null,
+                          null, null, null, null, null))
+              .toList());
+    }
+
+    // The jobs flip in opposite directions, so their stats deltas touch the same rows in turn.
+    CountDownLatch start = new CountDownLatch(1);
+    List<CompletableFuture<Void>> flips =
+        List.of(
+            CompletableFuture.runAsync(() -> flip("job-a", "REPLAYED", "FAILED", start)),
+            CompletableFuture.runAsync(() -> flip("job-b", "FAILED", "REPLAYED", start)));
+    start.countDown();
+    CompletableFuture.allOf(flips.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+    ReplayAuditStatsRow materialized = replayStatsRepository.loadStats(null, null, null);
+    ReplayAuditStatsRow live = replayAuditRepository.loadReplayAuditStats(null, null, null, null);
+    assertThat(materialized.total()).isEqualTo(live.total()).isEqualTo(20);
+    assertThat(materialized.replayed()).isEqualTo(live.replayed()).isEqualTo(10);
+    assertThat(materialized.failed()).isEqualTo(live.failed()).isEqualTo(10);
+    assertThat(materialized.queued()).isEqualTo(live.queued()).isZero();
+  }
+
+  @Test
+  void purgeEngineDeletesOnlyRowsBeforeCutoff() {
+    LocalDateTime cutoff = LocalDate.now().atTime(10, 30);
+    Map<String, Long> reported = new java.util.concurrent.ConcurrentHashMap<>();
+
+    List<Long> deleted =
+        purgeEngine.purgeTables(
+            List.of("payments_in_success", "payments_in_failure"),
+            cutoff,
+            (table, rows) -> reported.merge(table, rows, Long::sum));
+
+    assertThat(deleted).containsExactly(1L, 0L);
+    assertThat(reported).containsExactly(Map.entry("payments_in_success", 1L));
+    assertThat(purgeEngine.purgeTable("payments_in_success", cutoff, null)).isZero();
+    assertThat(purgeEngine.purgeTable("payments_in_success", cutoff.plusHours(1), null))
+        .isEqualTo(1);
+  }
+
+  @Test
+  void repositoryQueriesAreTimedPerEventTable() {
+    aggregationService.refreshEventSummary(LocalDate.now(), "payments.in");
+
+    for (String table : List.of("payments_in_success", "payments_in_failure")) {
+      Timer timer =
+          meterRegistry
+              .find(RepositoryMetricsPostProcessor.METRIC)
+              .tags("table", table, "event", "payments.in", "outcome", "success")
+              .timer();
+      assertThat(timer).isNotNull();
+      assertThat(timer.count()).isPositive();
+    }
+  }
+
+  @Test
+  void queryProfilerGroupsStatementsByShape() {
+    queryProfiler.reset();
+    LocalDate day = LocalDate.now();
+    for (String traceId : List.of("pay-trace-1", "pay-trace-2")) {
+      recordsService.loadSuccessRows(
+          day, null, null, null, null, "payments.in", 0, 50, null, "NONE", traceId, null, null,
+          null, null, null, null);
+    }
+
+    List<QueryShapeResponse> shapes = queryProfiler.top(100, "count");
+    QueryShapeResponse traceShape =
+        shapes.stream()
+            .filter(shape -> shape.shape().contains("payments_in_success"))
+            .filter(shape -> shape.shape().contains("event_trace_id"))
+            .findFirst()
+            .orElseThrow();
+    assertThat(traceShape.executions()).isEqualTo(2);
+    assertThat(traceShape.avgRows()).isEqualTo(1.0);
+    assertThat(traceShape.windowExecutions()).isEqualTo(2);
+  }
+
+  @Test
+  void slowSamplesKeepTruncatedParameterValuesOnlyWhenCaptureIsOn() {
+    queryProfiler.reset();
+    long slowQueryMs = queryProfilerProperties.getSlowQueryMs();
+    queryProfilerProperties.setSlowQueryMs(0);
+    try {
+      LocalDate day = LocalDate.now();
+      recordsService.loadSuccessRows(
+          day, null, null, null, null, "payments.in", 0, 50, null, "NONE", "pay-trace-1", null,
+          null, null, null, null, null);
+      assertThat(traceSamples()).allSatisfy(s -> assertThat(s.parameterValues()).isEmpty());
+
+      queryProfiler.reset();
+      queryProfilerProperties.setCaptureParameterValues(true);
+      queryProfilerProperties.setMaxParameterLength(5);
+      recordsService.loadSuccessRows(
+          day, null, null, null, null, "payments.in", 0, 50, null, "NONE", "pay-trace-1", null,
+          null, null, null, null, null);
+      assertThat(traceSamples())
+          .isNotEmpty()
+          .allSatisfy(s -> assertThat(s.parameterValues()).contains("pay-t..."));
+    } finally {
+      queryProfilerProperties.setSlowQueryMs(slowQueryMs);
+      queryProfilerProperties.setCaptureParameterValues(false);
+      queryProfilerProperties.setMaxParameterLength(32);
+    }
+  }
+
+  private List<SlowQuerySample> traceSamples() {
+    return queryProfiler.top(100, "count").stream()
+        .filter(shape -> shape.shape().contains("event_trace_id"))
+        .flatMap(shape -> shape.slowSamples().stream())
+        .toList();
+  }
+
+  @Test
+  void indexAdvisorProposesIndexesOnlyForUnservedFilters() {
+    queryProfiler.reset();
+    LocalDate day = LocalDate.now();
+    recordsService.loadFailureRows(
+        day, null, null, null, null, "payments.in", 0, 50, null, "NONE", "pay-trace-3", null,
+        null, null, null, null, null, null, null, null, null);
+    recordsService.loadFailureRows(
+        day, null, null, null, null, "payments.in", 0, 50, null, "NONE", null, null, null, null,
+        null, null, null, "java.lang.IllegalStateException", true, null, null);
+
+    List<IndexAdviceResponse> advice = indexAdvisor.advise(20);
+
+    assertThat(advice)
+        .singleElement()
+        .satisfies(
+            item -> {
+              assertThat(item.table()).isEqualTo("payments_in_failure");
+              assertThat(item.columns())
+                  .containsExactly("exception_type", "retriable", "event_datetime", "id");
+              assertThat(item.extendsIndex())
+                  .isEqualToIgnoringCase("idx_payments_failure_exception");
+              assertThat(item.ddl()).startsWith("CREATE INDEX IF NOT EXISTS");
+            });
+  }
+
+  @Test
+  void traceIndexResolvesTraceIdsAcrossEventTables() {
+    traceIndexService.catchUpAll();
+    traceIndexService.catchUpAll();
+
+    SearchResponse success = traceIndexService.search("pay-trace-1", null, null, null);
+    assertThat(success.field()).isEqualTo("traceId");
+    assertThat(success.truncated()).isFalse();
+    assertThat(success.hits())
+        .singleElement()
+        .satisfies(
+            hit -> {
+              assertThat(hit.eventKey()).isEqualTo("payments.in");
+              assertThat(hit.outcome()).isEqualTo("success");
+              assertThat(hit.accountNumber()).isEqualTo("ACC-1001");
+            });
+
+    SearchResponse loans = traceIndexService.search("loan-trace-1", null, null, null);
+    assertThat(loans.hits()).extracting("eventKey").containsExactly("loans.in");
+  }
+  @Test
+  void traceIndexPicksUpRowsCommittedBehindTheWatermark() {
+    traceIndexService.catchUpAll();
+    long maxId =
+        jdbcClient.sql("SELECT MAX(id) FROM payments_in_success").query(Long.class).single();
+
+    insertPayment(maxId + 2, "late-trace-2");
+    traceIndexService.catchUpAll();
+    assertThat(traceIndexService.search("late-trace-2", null, null, null).hits()).hasSize(1);
+
+    insertPayment(maxId + 1, "late-trace-1");
+    traceIndexService.catchUpAll();
+    traceIndexService.catchUpAll();
+    assertThat(traceIndexService.search("late-trace-1", null, null, null).hits())
+        .singleElement()
+        .satisfies(hit -> assertThat(hit.id()).isEqualTo(maxId + 1));
+    assertThat(traceIndexService.search("late-trace-2", null, null, null).hits()).hasSize(1);
+  }
+
+  @Test
+  void retentionRunsWhenThePreviewCountMissesExpiredRows() {
+    CountMode previewMode = housekeepingProperties.getPreviewCountMode();
+    housekeepingProperties.setPreviewCountMode(CountMode.NONE);
+    try {
+      insertPayment(900_001L, "expired-trace", LocalDate.now().minusDays(30).atTime(12, 0));
+
+      HousekeepingRunResponse run =
+          housekeepingService.runRetention("payments.in", "MANUAL", null);
+
+      assertThat(run.status()).isEqualTo("COMPLETED");
+      assertThat(run.deletedSuccess()).isPositive();
+      assertThat(
+              jdbcClient
+                  .sql("SELECT COUNT(1) FROM payments_in_success WHERE id = 900001")
+                  .query(Long.class)
+                  .single())
+          .isZero();
+    } finally {
+      housekeepingProperties.setPreviewCountMode(previewMode);
+    }
+  }
+
+  @Test
+  void concurrentSketchMergesIntoOneBucketKeepEveryCount() throws Exception {
+    LocalDateTime bucket = LocalDate.now().atTime(10, 0);
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    CountDownLatch start = new CountDownLatch(1);
+    List<CompletableFuture<Void>> merges =
+        LongStream.rangeClosed(1, 4)
+            .mapToObj(
+                value ->
+                    CompletableFuture.runAsync(
+                        () -> {
+                          LatencySketch sketch = new LatencySketch();
+                          for (int i = 0; i < 25; i += 1) {
+                            sketch.add(value * 100);
+                          }
+                          try {
+                            start.await(5, TimeUnit.SECONDS);
+                          } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                          }
+                          transaction.executeWithoutResult(
+                              status ->
+                                  sketchRepository.mergeSketches(
+                                      "payments_in_success",
+                                      "latency_ms",
+                                      Map.of(bucket, sketch)));
+                        }))
+            .toList();
+    start.countDown();
+    CompletableFuture.allOf(merges.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+    LatencySketch merged =
+        sketchRepository.loadMergedSketch(
+            List.of("payments_in_success"), "latency_ms", bucket, bucket.plusHours(1));
+    assertThat(merged.getCount()).isEqualTo(100);
+    assertThat(merged.getMax()).isCloseTo(400.0, withinPercentage(1));
+  }
+
+  @Test
+  void combinedScanPercentilesStayWithinTheSketchErrorBound() {
+    LocalDate today = LocalDate.now();
+    for (long i = 1; i <= 200; i += 1) {
+      jdbcClient
+          .sql(
+              "INSERT INTO payments_in_success (id, event_datetime, latency_ms) "
+                  + "VALUES (:id, :eventDatetime, :latency)")
+          .param("id", 800_000L + i)
+          .param("eventDatetime", today.atTime(10, (int) (i % 60)))
+          .param("latency", i * i * 7 % 3_001 + 1)
+          .update();
+    }
+    List<Long> values =
+        jdbcClient
+            .sql(
+                "SELECT latency_ms FROM payments_in_success "
+                    + "WHERE event_datetime >= :start AND event_datetime < :end "
+                    + "ORDER BY latency_ms")
+            .param("start", today.atStartOfDay())
+            .param("end", today.plusDays(1).atStartOfDay())
+            .query(Long.class)
+            .list();
+
+    AggregationRepository.LatencyStats stats =
+        combinedScanService.latencyStats(List.of("payments_in_success"), "latency_ms", today);
+    combinedScanService.latencyStats(
+        List.of("payments_in_success"), "latency_event_received_ms", today);
+    assertThat(combinedScanService.successTotals("payments_in_success", today).successCount())
+        .isEqualTo(values.size());
+    // Totals and every column's percentiles come from one scan of the table.
+    assertThat(
+            meterRegistry
+                .get(RepositoryMetricsPostProcessor.METRIC)
+                .tags("method", "loadMinuteScan", "table", "payments_in_success")
+                .timer()
+                .count())
+        .isEqualTo(1);
+
+    double bound = LatencySketch.RELATIVE_ACCURACY;
+    assertThat(stats.p50()).isCloseTo(nearestRank(values, 0.50), withinPercentage(bound * 100));
+    assertThat(stats.p95()).isCloseTo(nearestRank(values, 0.95), withinPercentage(bound * 100));
+    assertThat(stats.p99()).isCloseTo(nearestRank(values, 0.99), withinPercentage(bound * 100));
+    assertThat(stats.max()).isEqualTo(values.get(values.size() - 1).doubleValue());
+  }
+
+  private static double nearestRank(List<Long> sorted, double quantile) {
+    int rank = (int) Math.max(1, Math.ceil(sorted.size() * quantile));
+    return sorted.get(rank - 1);
+  }
+
+  private void insertPayment(long id, String traceId) {
+    insertPayment(id, traceId, LocalDate.now().atTime(12, 0));
+  }
+
+  private void insertPayment(long id, String traceId, LocalDateTime eventDatetime) {
+    jdbcClient
+        .sql(
+            "INSERT INTO payments_in_success (id, event_datetime, event_trace_id, latency_ms) "
+                + "VALUES (:id, :eventDatetime, :traceId, 100)")
+        .param("id", id)
+        .param("eventDatetime", eventDatetime)
+        .param("traceId", traceId)
+        .update();
+  }
+
+
+  private void awaitWarmupWorkersRetired() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (warmupExecutor.getActiveCount() > 0) {
+      assertThat(System.currentTimeMillis()).isLessThan(deadline);
+      Thread.sleep(20);
+    }
+  }
+
+  private void flip(String jobId, String first, String second, CountDownLatch start) {
+    try {
+      start.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    for (int round = 0; round < 21; round += 1) {
+      String status = round % 2 == 0 ? first : second;
+      int attempt = round + 1;
+      LocalDateTime now = LocalDateTime.now();
+      replayAuditRepository.updateItemStatuses(
+          LongStream.rangeClosed(1, 10)
+              .mapToObj(
+                  id -> new ReplayItemUpdate(jobId, id, status, attempt, now, null, null, now))
+              .toList());
+    }
+  }
 }
@@ -0,0 +1,106 @@
+package com.vibe.events.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+  private static final int CALLERS = 8;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+  private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+  @AfterEach
+  void tearDown() {
+    callers.shutdownNow();
+  }
+
+  @Test
+  void concurrentMissesShareOneComputation() throws Exception {
+    AtomicInteger computations = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+
+    List<Future<String>> results =
+        callAll(
+            () -> {
+              computations.incrementAndGet();
+              await(release);
+              return "value";
+            });
+    awaitCoalesced(CALLERS - 1);
+    release.countDown();
+
+    for (Future<String> result : results) {
+      assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+    }
+    assertThat(computations.get()).isEqualTo(1);
+    assertThat(inFlight()).isZero();
+  }
+
+  @Test
+  void aFailureReachesEveryWaiterAndTheNextCallComputesAgain() throws Exception {
+    IllegalStateException failure = new IllegalStateException("query failed");
+    CountDownLatch release = new CountDownLatch(1);
+
+    List<Future<String>> results =
+        callAll(
+            () -> {
+              await(release);
+              throw failure;
+            });
+    awaitCoalesced(CALLERS - 1);
+    release.countDown();
+
+    for (Future<String> result : results) {
+      assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+          .isInstanceOf(ExecutionException.class)
+          .cause()
+          .isSameAs(failure);
+    }
+    assertThat(inFlight()).isZero();
+    assertThat(singleFlight.execute("key", () -> "recomputed")).isEqualTo("recomputed");
+  }
+
+  private List<Future<String>> callAll(Supplier<String> supplier) {
+    List<Future<String>> results = new ArrayList<>();
+    for (int i = 0; i < CALLERS; i += 1) {
+      results.add(callers.submit(() -> singleFlight.execute("key", supplier)));
+    }
+    return results;
+  }
+
+  private void awaitCoalesced(int waiters) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (meterRegistry.counter("aggregation.singleflight.coalesced").count() < waiters) {
+      assertThat(System.currentTimeMillis()).isLessThan(deadline);
+      Thread.sleep(5);
+    }
+  }
+
+  private double inFlight() {
+    return meterRegistry.get("aggregation.singleflight.inflight").gauge().value();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.vibe.events.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vibe.events.config.AggregationProperties;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+class ViewTrackerTest {
+  private final AggregationProperties properties = new AggregationProperties();
+  private final ViewTracker tracker = new ViewTracker(properties);
+
+  @Test
+  void scoresDayAndEventViews() {
+    LocalDate today = LocalDate.now();
+    tracker.recordView(today, null);
+    tracker.recordView(today, "payments.in");
+    tracker.recordView(today.minusDays(1), "payments.in");
+
+    assertThat(tracker.score(today, null)).isEqualTo(2);
+    assertThat(tracker.score(today, "payments.in")).isEqualTo(4);
+    assertThat(tracker.score(today.minusDays(1), "loans.in")).isEqualTo(1);
+  }
+
+  @Test
+  void dropsDaysOutsideTheRetentionWindow() {
+    LocalDate today = LocalDate.now();
+    properties.getCache().setDaysToKeep(7);
+    tracker.recordView(today.minusDays(7), "payments.in");
+    tracker.recordView(today.minusDays(6), "payments.in");
+    assertThat(tracker.trackedDays()).isEqualTo(1);
+
+    properties.getCache().setDaysToKeep(2);
+    tracker.recordView(today, "payments.in");
+
+    assertThat(tracker.trackedDays()).isEqualTo(1);
+    assertThat(tracker.score(today.minusDays(6), "payments.in")).isEqualTo(1);
+  }
+}
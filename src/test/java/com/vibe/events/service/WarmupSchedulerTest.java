@@ -0,0 +1,94 @@
+package com.vibe.events.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.vibe.events.config.AggregationProperties;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+class WarmupSchedulerTest {
+  private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+  private final List<String> ran = new CopyOnWriteArrayList<>();
+  private WarmupScheduler scheduler;
+
+  @BeforeEach
+  void setUp() {
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.initialize();
+    scheduler =
+        new WarmupScheduler(executor, new AggregationProperties(), mock(DataSource.class));
+  }
+
+  @AfterEach
+  void tearDown() {
+    scheduler.stop();
+    executor.shutdown();
+  }
+
+  @Test
+  void runsByPriorityThenViewScoreThenArrival() throws Exception {
+    submit("backfill-cold", WarmupPriority.BACKFILL, 0);
+    submit("backfill-hot", WarmupPriority.BACKFILL, 5);
+    submit("today-first", WarmupPriority.TODAY, 0);
+    submit("today-second", WarmupPriority.TODAY, 0);
+    submit("interactive", WarmupPriority.INTERACTIVE, 0);
+
+    scheduler.start();
+    awaitCompleted(5);
+
+    assertThat(ran)
+        .containsExactly(
+            "interactive", "today-first", "today-second", "backfill-hot", "backfill-cold");
+  }
+
+  @Test
+  void dedupesPendingKeysButLetsAHigherPriorityJumpTheQueue() throws Exception {
+    assertThat(submit("homeAgg|2026-01-14", WarmupPriority.BACKFILL, 0)).isTrue();
+    assertThat(submit("homeAgg|2026-01-15", WarmupPriority.BACKFILL, 0)).isTrue();
+    assertThat(submit("homeAgg|2026-01-15", WarmupPriority.BACKFILL, 0)).isFalse();
+    assertThat(submit("homeAgg|2026-01-15", WarmupPriority.INTERACTIVE, 0)).isTrue();
+    assertThat(submit("homeAgg|2026-01-15", WarmupPriority.TODAY, 0)).isFalse();
+
+    scheduler.start();
+    awaitCompleted(2);
+
+    assertThat(ran).containsExactly("homeAgg|2026-01-15", "homeAgg|2026-01-14");
+    assertThat(scheduler.status().deduplicated()).isEqualTo(2);
+  }
+
+  @Test
+  void runsQueuedTasksAgainAfterAStopAndRestart() throws Exception {
+    scheduler.start();
+    submit("before-stop", WarmupPriority.TODAY, 0);
+    awaitCompleted(1);
+
+    scheduler.stop();
+    assertThat(scheduler.isRunning()).isFalse();
+    assertThat(executor.getThreadPoolExecutor().isShutdown()).isFalse();
+
+    submit("after-restart", WarmupPriority.TODAY, 0);
+    scheduler.start();
+    awaitCompleted(2);
+
+    assertThat(ran).containsExactly("before-stop", "after-restart");
+  }
+
+  private boolean submit(String key, WarmupPriority priority, long score) {
+    return scheduler.submit(key, priority, score, () -> ran.add(key));
+  }
+
+  private void awaitCompleted(long tasks) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (scheduler.status().completed() < tasks) {
+      assertThat(System.currentTimeMillis()).isLessThan(deadline);
+      Thread.sleep(10);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package com.vibe.events.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LatencySketchTest {
+
+  @Test
+  void quantilesStayWithinRelativeAccuracy() {
+    Random random = new Random(42);
+    long[] values = new long[20000];
+    LatencySketch sketch = new LatencySketch();
+    for (int i = 0; i < values.length; i += 1) {
+      values[i] = 1 + (long) Math.abs(random.nextGaussian() * 5000);
+      sketch.add(values[i]);
+    }
+    Arrays.sort(values);
+
+    for (double quantile : new double[] {0.50, 0.95, 0.99}) {
+      long exact = values[(int) Math.ceil(values.length * quantile) - 1];
+      assertThat(sketch.quantile(quantile))
+          .isCloseTo(exact, within(exact * LatencySketch.RELATIVE_ACCURACY + 1e-9));
+    }
+    assertThat(sketch.getMax()).isEqualTo((double) values[values.length - 1]);
+  }
+
+  @Test
+  void mergedSketchMatchesSingleSketchAfterRoundTrip() {
+    LatencySketch all = new LatencySketch();
+    LatencySketch left = new LatencySketch();
+    LatencySketch right = new LatencySketch();
+    for (long value = 0; value < 5000; value += 1) {
+      all.add(value);
+      if (value % 2 == 0) {
+        left.add(value);
+      } else {
+        right.add(value);
+      }
+    }
+    LatencySketch merged = LatencySketch.fromBytes(left.toBytes());
+    merged.merge(LatencySketch.fromBytes(right.toBytes()));
+
+    assertThat(merged.getCount()).isEqualTo(all.getCount());
+    assertThat(merged.getMax()).isEqualTo(all.getMax());
+    assertThat(merged.quantile(0.50)).isEqualTo(all.quantile(0.50));
+    assertThat(merged.quantile(0.99)).isEqualTo(all.quantile(0.99));
+  }
+
+  @Test
+  void emptySketchReturnsNulls() {
+    LatencySketch sketch = LatencySketch.fromBytes(new LatencySketch().toBytes());
+
+    assertThat(sketch.getCount()).isZero();
+    assertThat(sketch.quantile(0.95)).isNull();
+    assertThat(sketch.getMax()).isNull();
+  }
+}
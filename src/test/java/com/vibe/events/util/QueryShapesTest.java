@@ -0,0 +1,52 @@
+package com.vibe.events.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class QueryShapesTest {
+
+  @Test
+  void normalizeReplacesLiteralsAndCollapsesWhitespace() {
+    String shape =
+        QueryShapes.normalize(
+            """
+            SELECT id FROM payments_in_success
+            WHERE event_datetime >= '2026-01-15 00:00:00'  AND latency_ms > 250
+            LIMIT 50
+            """);
+
+    assertThat(shape)
+        .isEqualTo(
+            "SELECT id FROM payments_in_success"
+                + " WHERE event_datetime >= ? AND latency_ms > ? LIMIT ?");
+  }
+
+  @Test
+  void normalizeGroupsInListsOfAnySize() {
+    assertThat(QueryShapes.normalize("SELECT * FROM t WHERE id IN (?, ?, ?) AND k = ?"))
+        .isEqualTo(QueryShapes.normalize("SELECT * FROM t WHERE id IN (?) AND k = ?"))
+        .isEqualTo("SELECT * FROM t WHERE id IN (?+) AND k = ?");
+    assertThat(QueryShapes.normalize("INSERT INTO t (a, b) VALUES (?, ?), (?, ?), (?, ?)"))
+        .isEqualTo("INSERT INTO t (a, b) VALUES (?+)");
+  }
+
+  @Test
+  void normalizeGroupsLiteralInListsRegardlessOfCase() {
+    assertThat(QueryShapes.normalize("select * from t where k in ('a','b', 'c') and id not in(1)"))
+        .isEqualTo("select * from t where k IN (?+) and id not IN (?+)");
+  }
+
+  @Test
+  void normalizeCollapsesRepeatedCaseArms() {
+    String two =
+        "UPDATE t SET s = CASE WHEN id = ? THEN ? WHEN id = ? THEN ? ELSE s END WHERE id IN (?, ?)";
+    String one = "UPDATE t SET s = CASE WHEN id = ? THEN ? ELSE s END WHERE id IN (?)";
+
+    assertThat(QueryShapes.normalize(two))
+        .isEqualTo(QueryShapes.normalize(one))
+        .isEqualTo("UPDATE t SET s = CASE (WHEN id = ? THEN ?)+ ELSE s END WHERE id IN (?+)");
+    assertThat(QueryShapes.normalize("SELECT CASE WHEN a = 1 THEN 2 WHEN b = 3 THEN 4 END FROM t"))
+        .isEqualTo("SELECT CASE (WHEN a = ? THEN ?)+ (WHEN b = ? THEN ?)+ END FROM t");
+  }
+}
@@ -95,3 +95,209 @@ CREATE TABLE loans_in_failure (
   retry_attempt INT
 );
 
+CREATE INDEX idx_payments_success_datetime_id ON payments_in_success (event_datetime, id);
+CREATE INDEX idx_payments_success_trace ON payments_in_success (event_trace_id, event_datetime);
+CREATE INDEX idx_payments_success_account ON payments_in_success (account_number, event_datetime);
+CREATE INDEX idx_payments_success_message_key ON payments_in_success (message_key, event_datetime);
+
+CREATE INDEX idx_payments_failure_datetime_id ON payments_in_failure (event_datetime, id);
+CREATE INDEX idx_payments_failure_trace ON payments_in_failure (event_trace_id, event_datetime);
+CREATE INDEX idx_payments_failure_account ON payments_in_failure (account_number, event_datetime);
+CREATE INDEX idx_payments_failure_message_key ON payments_in_failure (message_key, event_datetime);
+CREATE INDEX idx_payments_failure_exception ON payments_in_failure (exception_type, event_datetime);
+
+CREATE INDEX idx_loans_success_datetime_id ON loans_in_success (event_datetime, id);
+CREATE INDEX idx_loans_success_trace ON loans_in_success (event_trace_id, event_datetime);
+CREATE INDEX idx_loans_success_account ON loans_in_success (account_number, event_datetime);
+CREATE INDEX idx_loans_success_message_key ON loans_in_success (message_key, event_datetime);
+
+CREATE INDEX idx_loans_failure_datetime_id ON loans_in_failure (event_datetime, id);
+CREATE INDEX idx_loans_failure_trace ON loans_in_failure (event_trace_id, event_datetime);
+CREATE INDEX idx_loans_failure_account ON loans_in_failure (account_number, event_datetime);
+CREATE INDEX idx_loans_failure_message_key ON loans_in_failure (message_key, event_datetime);
+CREATE INDEX idx_loans_failure_exception ON loans_in_failure (exception_type, event_datetime);
+
+DROP TABLE IF EXISTS event_minute_rollups;
+DROP TABLE IF EXISTS event_watermarks;
+DROP TABLE IF EXISTS event_watermark_gaps;
+DROP TABLE IF EXISTS event_latency_sketches;
+
+CREATE TABLE event_minute_rollups (
+  table_name VARCHAR(128) NOT NULL,
+  bucket_start DATETIME NOT NULL,
+  row_count BIGINT NOT NULL DEFAULT 0,
+  retriable_count BIGINT NOT NULL DEFAULT 0,
+  latency_sum BIGINT NOT NULL DEFAULT 0,
+  latency_min BIGINT NOT NULL DEFAULT 0,
+  latency_max BIGINT NOT NULL DEFAULT 0,
+  received_latency_sum BIGINT NOT NULL DEFAULT 0,
+  received_latency_min BIGINT NOT NULL DEFAULT 0,
+  received_latency_max BIGINT NOT NULL DEFAULT 0,
+  sent_latency_sum BIGINT NOT NULL DEFAULT 0,
+  sent_latency_min BIGINT NOT NULL DEFAULT 0,
+  sent_latency_max BIGINT NOT NULL DEFAULT 0,
+  updated_at DATETIME NOT NULL,
+  PRIMARY KEY (table_name, bucket_start)
+);
+
+CREATE TABLE event_watermarks (
+  consumer VARCHAR(64) NOT NULL,
+  table_name VARCHAR(128) NOT NULL,
+  last_id BIGINT NOT NULL DEFAULT 0,
+  updated_at DATETIME NOT NULL,
+  PRIMARY KEY (consumer, table_name)
+);
+
+CREATE TABLE event_watermark_gaps (
+  consumer VARCHAR(64) NOT NULL,
+  table_name VARCHAR(128) NOT NULL,
+  from_id BIGINT NOT NULL,
+  to_id BIGINT NOT NULL,
+  first_seen_at DATETIME NOT NULL,
+  PRIMARY KEY (consumer, table_name, from_id)
+);
+
+CREATE TABLE event_latency_sketches (
+  table_name VARCHAR(128) NOT NULL,
+  column_name VARCHAR(64) NOT NULL,
+  bucket_start DATETIME NOT NULL,
+  value_count BIGINT NOT NULL,
+  max_value BIGINT NOT NULL,
+  sketch BLOB NOT NULL,
+  updated_at DATETIME NOT NULL,
+  PRIMARY KEY (table_name, column_name, bucket_start)
+);
+
+DROP TABLE IF EXISTS event_trace_index;
+
+CREATE TABLE event_trace_index (
+  event_key VARCHAR(64) NOT NULL,
+  outcome VARCHAR(8) NOT NULL,
+  record_id BIGINT NOT NULL,
+  event_datetime DATETIME NOT NULL,
+  trace_id VARCHAR(64) NULL,
+  message_key VARCHAR(255) NULL,
+  account_number VARCHAR(64) NULL,
+  PRIMARY KEY (event_key, outcome, record_id)
+);
+
+CREATE INDEX idx_event_trace_index_trace ON event_trace_index (trace_id, event_datetime);
+CREATE INDEX idx_event_trace_index_message_key ON event_trace_index (message_key, event_datetime);
+CREATE INDEX idx_event_trace_index_account ON event_trace_index (account_number, event_datetime);
+CREATE INDEX idx_event_trace_index_event_datetime ON event_trace_index (event_key, event_datetime);
+
+DROP TABLE IF EXISTS replay_items;
+DROP TABLE IF EXISTS replay_jobs;
+
+CREATE TABLE replay_jobs (
+  id VARCHAR(64) PRIMARY KEY,
+  event_key VARCHAR(64) NOT NULL,
+  day DATE NOT NULL,
+  selection_type VARCHAR(32) NOT NULL,
+  filters_json CLOB,
+  snapshot_at DATETIME NOT NULL,
+  requested_by VARCHAR(128),
+  reason VARCHAR(255),
+  total_requested INT NOT NULL DEFAULT 0,
+  status VARCHAR(32) NOT NULL,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  completed_at DATETIME NULL,
+  succeeded_count INT NOT NULL DEFAULT 0,
+  failed_count INT NOT NULL DEFAULT 0,
+  queued_count INT NOT NULL DEFAULT 0,
+  processed_count INT NOT NULL DEFAULT 0,
+  checkpoint_event_datetime DATETIME NULL,
+  checkpoint_record_id BIGINT NULL,
+  last_error TEXT NULL,
+  updated_at DATETIME NULL,
+  lease_owner VARCHAR(64) NULL,
+  lease_expires_at DATETIME NULL
+);
+
+CREATE TABLE replay_items (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  job_id VARCHAR(64) NOT NULL,
+  record_id BIGINT NOT NULL,
+  event_key VARCHAR(64) NOT NULL,
+  status VARCHAR(32) NOT NULL,
+  attempt_count INT NOT NULL DEFAULT 0,
+  last_attempt_at DATETIME NULL,
+  last_error TEXT NULL,
+  emitted_id VARCHAR(128) NULL,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME NULL,
+  trace_id VARCHAR(64) NULL,
+  message_key VARCHAR(255) NULL,
+  account_number VARCHAR(64) NULL,
+  exception_type VARCHAR(255) NULL,
+  event_datetime DATETIME NULL,
+  source_payload CLOB NULL
+);
+
+CREATE INDEX idx_replay_items_job_record ON replay_items (job_id, record_id);
+
+DROP TABLE IF EXISTS replay_stats;
+
+CREATE TABLE replay_stats (
+  event_key VARCHAR(64) NOT NULL,
+  requested_by VARCHAR(128) NOT NULL DEFAULT '',
+  status VARCHAR(32) NOT NULL,
+  item_count BIGINT NOT NULL DEFAULT 0,
+  duration_sum_ms BIGINT NOT NULL DEFAULT 0,
+  latest_at DATETIME NULL,
+  updated_at DATETIME NOT NULL,
+  PRIMARY KEY (event_key, requested_by, status)
+);
+
+DROP TABLE IF EXISTS housekeeping_run_items;
+DROP TABLE IF EXISTS housekeeping_runs;
+DROP TABLE IF EXISTS housekeeping_daily;
+
+CREATE TABLE housekeeping_runs (
+  id VARCHAR(64) PRIMARY KEY,
+  job_type VARCHAR(32) NOT NULL,
+  event_key VARCHAR(64) NOT NULL DEFAULT 'ALL',
+  trigger_type VARCHAR(32) NOT NULL,
+  run_date DATE NOT NULL,
+  attempt INT NOT NULL DEFAULT 1,
+  status VARCHAR(32) NOT NULL,
+  cutoff_date DATE NOT NULL,
+  started_at DATETIME NOT NULL,
+  completed_at DATETIME NULL,
+  duration_ms BIGINT NULL,
+  deleted_success BIGINT NOT NULL DEFAULT 0,
+  deleted_failure BIGINT NOT NULL DEFAULT 0,
+  deleted_total BIGINT NOT NULL DEFAULT 0,
+  error_message TEXT NULL,
+  rows_per_sec DOUBLE NULL,
+  progress_at DATETIME NULL
+);
+
+CREATE TABLE housekeeping_run_items (
+  run_id VARCHAR(36) NOT NULL,
+  event_key VARCHAR(64) NOT NULL,
+  deleted_success BIGINT NOT NULL,
+  deleted_failure BIGINT NOT NULL,
+  deleted_total BIGINT NOT NULL,
+  created_at DATETIME NOT NULL,
+  PRIMARY KEY (run_id, event_key)
+);
+
+CREATE TABLE housekeeping_daily (
+  job_type VARCHAR(32) NOT NULL DEFAULT 'RETENTION',
+  event_key VARCHAR(64) NOT NULL DEFAULT 'ALL',
+  run_date DATE NOT NULL,
+  retention_days INT NOT NULL,
+  cutoff_date DATE NOT NULL,
+  snapshot_at DATETIME NOT NULL,
+  eligible_success BIGINT NOT NULL,
+  eligible_failure BIGINT NOT NULL,
+  eligible_total BIGINT NOT NULL,
+  last_status VARCHAR(32) NOT NULL,
+  last_run_id VARCHAR(64) NULL,
+  last_attempt INT NOT NULL,
+  last_started_at DATETIME NULL,
+  last_completed_at DATETIME NULL,
+  last_error TEXT NULL,
+  PRIMARY KEY (job_type, event_key, run_date)
+);